@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.identity;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.DefaultSigners;
+import org.hyperledger.fabric.gateway.spi.Signer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares signing throughput of the default signers. Run using the {@code benchmark} Maven profile:
+ * <pre>mvn -P benchmark test-compile exec:exec -Dbenchmark.includes=SignerBenchmark</pre>
+ * Each signer is measured with one signing thread per available processor, which is the case where reuse of
+ * per-thread signature instances matters most.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class SignerBenchmark {
+    private static final int MESSAGE_SIZE = 1024;
+
+    @Param({"ECDSA", "SDK"})
+    public DefaultSigners signerName;
+
+    private Signer signer;
+    private PrivateKey privateKey;
+    private final byte[] message = new byte[MESSAGE_SIZE];
+
+    @Setup
+    public void setup() throws GeneralSecurityException {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = generator.generateKeyPair();
+        privateKey = keyPair.getPrivate();
+        signer = signerName;
+    }
+
+    @Benchmark
+    public byte[] sign() throws GeneralSecurityException {
+        return signer.sign(privateKey, message);
+    }
+}
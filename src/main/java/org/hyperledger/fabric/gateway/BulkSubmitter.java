@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+import org.hyperledger.fabric.gateway.spi.BulkProgressStore;
+
+/**
+ * Submits a large number of independent invocations of a single transaction function. Applications should obtain
+ * instances from a Contract using the {@link Contract#newBulkSubmitter(String) newBulkSubmitter} method.
+ * <p>Invocations are pipelined: up to a fixed window of items may be in progress at once, and new items are endorsed
+ * and sent to the orderer while earlier items are being sent or wait to be committed. Each item uses a thread from the
+ * gateway's executor only while it is endorsed and sent to the orderer; commits are then tracked by the commit handler
+ * without a blocked thread, as for {@link Commit#whenCommitted()}. The outcome of each item is reported to a listener,
+ * and failed items do not stop the remaining items from being submitted.</p>
+ * <p>Items are submitted as for {@link Transaction#endorse(String...)} followed by {@link EndorsedTransaction#submit()},
+ * so the submit concurrency limit, key-aware scheduling and the retry policy do not apply to them. The window is the
+ * admission control for a bulk submit, and an item that fails, for example with a read conflict, is reported to the
+ * listener rather than retried.</p>
+ * <p>If a progress store is set, progress is recorded so that a bulk submit that stops part-way through can be resumed
+ * by supplying the same sequence of items to a new bulk submit. Items that were in progress when a bulk submit stopped
+ * are submitted again when it is resumed, so transaction functions used for bulk submit should be idempotent.</p>
+ * <p>Instances are not thread-safe.</p>
+ */
+public interface BulkSubmitter {
+    /**
+     * Outcome of submitting a single item.
+     */
+    interface ItemResult {
+        /**
+         * Get the position of the item in the sequence of items, starting from zero.
+         * @return Item index.
+         */
+        long getIndex();
+
+        /**
+         * Get the transaction function arguments for the item.
+         * @return Transaction function arguments.
+         */
+        String[] getArgs();
+
+        /**
+         * Get the ID of the transaction used to submit the item.
+         * @return A transaction ID.
+         */
+        String getTransactionId();
+
+        /**
+         * Check whether the transaction was successfully committed.
+         * @return {@code true} if the transaction was committed as valid; otherwise {@code false}.
+         */
+        boolean isSuccessful();
+
+        /**
+         * Get the payload response from the transaction function.
+         * @return Payload response, or {@code null} if the submit failed.
+         */
+        byte[] getResult();
+
+        /**
+         * Get the reason the submit failed. This is typically a {@link ContractException} if the transaction was
+         * rejected, a {@link java.util.concurrent.TimeoutException} if it was not committed within the commit timeout,
+         * or a {@link GatewayRuntimeException} if an underlying infrastructure failure occurred.
+         * @return The failure, or {@code null} if the submit succeeded.
+         */
+        Exception getFailure();
+    }
+
+    /**
+     * Set the maximum number of items in progress at any time, from the start of endorsement until the outcome is
+     * known. The default is 100.
+     * @param window Maximum number of items in progress.
+     * @return this bulk submitter object to allow method chaining.
+     */
+    BulkSubmitter setWindow(int window);
+
+    /**
+     * Set a progress store used to record progress, and to resume from the last recorded position.
+     * @param progressStore A progress store.
+     * @return this bulk submitter object to allow method chaining.
+     * @see DefaultBulkProgressStores
+     */
+    BulkSubmitter setProgressStore(BulkProgressStore progressStore);
+
+    /**
+     * Set a listener to receive the outcome of each item. Outcomes are delivered on the thread calling
+     * {@link #submitAll(Iterator)}, in the order they become known. If the listener throws an exception, the bulk
+     * submit stops and the exception is propagated.
+     * @param listener An item listener.
+     * @return this bulk submitter object to allow method chaining.
+     */
+    BulkSubmitter setItemListener(Consumer<ItemResult> listener);
+
+    /**
+     * Submit an invocation of the transaction function for each set of arguments, and wait until the outcome of
+     * every item is known. If a progress store is set, items before the recorded position are skipped.
+     * @param items Transaction function arguments for each item.
+     * @return The number of items submitted, excluding any skipped.
+     * @throws IOException if the progress store fails to access persistent state.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     */
+    long submitAll(Iterator<String[]> items) throws IOException, InterruptedException;
+}
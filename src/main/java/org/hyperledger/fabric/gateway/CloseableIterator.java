@@ -0,0 +1,40 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An iterator over events that holds underlying resources, such as event listeners and network connections, which
+ * must be released by calling {@link #close()} when the iterator is no longer required. Use of a
+ * try-with-resources block is recommended.
+ *
+ * <p>Calls to {@link #hasNext()} block until the next element is available or the iterator is closed. Once closed,
+ * {@link #hasNext()} returns {@code false}.</p>
+ *
+ * @param <T> Element type.
+ */
+public interface CloseableIterator<T> extends Iterator<T>, AutoCloseable {
+    /**
+     * Release all resources associated with this iterator. Calling this method more than once has no effect.
+     */
+    @Override
+    void close();
+
+    /**
+     * Get a sequential stream backed by this iterator. Closing the stream also closes this iterator.
+     * @return A stream of elements.
+     */
+    default Stream<T> stream() {
+        Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false).onClose(this::close);
+    }
+}
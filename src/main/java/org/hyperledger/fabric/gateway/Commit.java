@@ -0,0 +1,69 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * The commit of a transaction that has been sent to the orderer, obtained from {@link EndorsedTransaction#submit()}.
+ * The commit is tracked by the transaction's commit handler, which started listening for commit events before the
+ * transaction was sent to the orderer.
+ * <p>The first wait for commit starts the commit handler's wait for commit events, which is limited by the commit
+ * timeout configured for the transaction. The commit handler stops listening once its wait completes, so its outcome
+ * is retained and reported by any later calls. A call that is interrupted, or whose own timeout expires first, does
+ * not end the commit handler's wait.</p>
+ */
+public interface Commit {
+    /**
+     * Get the transaction ID.
+     * @return A transaction ID.
+     */
+    String getTransactionId();
+
+    /**
+     * Check, without blocking, whether the commit handler has finished waiting for commit events. Once this returns
+     * {@code true}, {@link #waitForCommit()} returns or throws without waiting. Custom commit handlers that cannot
+     * report this always return {@code false}.
+     * @return {@code true} if the commit outcome is known; otherwise {@code false}.
+     */
+    boolean isDone();
+
+    /**
+     * Wait for the transaction to be committed, using the commit timeout configured for the transaction.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if the transaction commit fails.
+     * @throws TimeoutException if the commit was not completed within the commit timeout.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    byte[] waitForCommit() throws ContractException, TimeoutException, InterruptedException;
+
+    /**
+     * Wait for the transaction to be committed. The commit handler's wait continues if this timeout expires first, so
+     * the commit may be waited for again; a timeout longer than the commit timeout does not extend the commit handler's
+     * wait.
+     * @param timeout the maximum time to wait.
+     * @param timeUnit the time unit of the timeout argument.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if the transaction commit fails.
+     * @throws TimeoutException if the commit was not completed within the timeout.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    byte[] waitForCommit(long timeout, TimeUnit timeUnit) throws ContractException, TimeoutException, InterruptedException;
+
+    /**
+     * Get a future that completes when the outcome of the commit is known, without blocking a thread while waiting.
+     * As for {@link #waitForCommit()}, this starts the commit handler's wait if it has not already started. The
+     * default commit handlers complete without blocking; a custom commit handler occupies a thread from a shared pool
+     * for the duration of its wait.
+     * @return A future that completes with the payload response from the transaction function, or completes
+     * exceptionally with a {@link ContractException} if the commit fails or a {@link TimeoutException} if the commit
+     * was not completed within the commit timeout.
+     */
+    CompletableFuture<byte[]> whenCommitted();
+}
@@ -0,0 +1,25 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+/**
+ * Thrown when a transaction invocation is rejected without being sent to any peers because too many invocations are
+ * already in progress on the network, and either the wait queue is full or no capacity became available within the
+ * maximum wait time. The invocation can safely be retried later.
+ * @see Gateway.Builder#concurrencyLimit(int, long, java.util.concurrent.TimeUnit)
+ */
+public class ConcurrencyLimitExceededException extends GatewayRuntimeException {
+    private static final long serialVersionUID = 4718053207381862151L;
+
+    /**
+     * Constructs a new exception with the specified detail message.
+     * @param message the detail message.
+     */
+    public ConcurrencyLimitExceededException(final String message) {
+        super(message);
+    }
+}
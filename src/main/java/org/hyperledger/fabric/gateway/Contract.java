@@ -24,6 +24,7 @@ import org.hyperledger.fabric.gateway.spi.Checkpointer;
  *     <li>Evaluate transactions that query state from the ledger using {@link #evaluateTransaction(String, String...)}.</li>
  *     <li>Listen for new events emitted by the smart contract using {@link #addContractListener(Consumer)}.</li>
  *     <li>Replay previous events emitted by the smart contract using {@link #addContractListener(long, Consumer)}.</li>
+ *     <li>Iterate over events emitted by the smart contract from a given block number using {@link #contractEvents(long)}.</li>
  * </ul>
  *
  * <p>If more control over transaction invocation is required, such as including transient data, {@link #createTransaction(String)}
@@ -37,12 +38,24 @@ public interface Contract {
      * function implemented by this contract, and provides more control over
      * the transaction invocation. A new transaction object <strong>must</strong>
      * be created for each transaction invocation.
+     * <p>Transaction objects are inexpensive to create, so there is no need to cache or reuse them when the same
+     * transaction function is invoked repeatedly. The nonce, serialized client identity and transaction ID for each
+     * transaction are prepared in advance by a per-network pool. The rest of the proposal is built by the Fabric SDK
+     * for each invocation, and the SDK does not allow any part of it to be reused.</p>
      *
      * @param name Transaction function name.
      * @return A transaction object.
      */
     Transaction createTransaction(String name);
 
+    /**
+     * Create a bulk submitter for submitting a large number of independent invocations of a transaction function,
+     * with endorsement, ordering and commit of different invocations overlapping.
+     * @param name Transaction function name.
+     * @return A bulk submitter.
+     */
+    BulkSubmitter newBulkSubmitter(String name);
+
     /**
      * Submit a transaction to the ledger. The transaction function {@code name}
      * will be evaluated on the endorsing peers and then submitted to the ordering service
@@ -178,4 +191,28 @@ public interface Contract {
      * @param listener A contract listener.
      */
     void removeContractListener(Consumer<ContractEvent> listener);
+
+    /**
+     * Get an iterator over contract events emitted by committed transactions, starting at the given block number and
+     * continuing with new blocks until the iterator is closed. Received events are held in a bounded buffer, and
+     * delivery of events from the network is paused while the buffer is full.
+     * <p>The iterator holds network resources and <strong>must</strong> be closed when no longer required.</p>
+     * @param startBlock The number of the block from which events should be read.
+     * @return A contract event iterator.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     */
+    CloseableIterator<ContractEvent> contractEvents(long startBlock);
+
+    /**
+     * Get an iterator over contract events emitted by committed transactions, starting at the given block number and
+     * continuing with new blocks until the iterator is closed. Only events with names that entirely match the given
+     * pattern are returned. Received events are held in a bounded buffer, and delivery of events from the network is
+     * paused while the buffer is full.
+     * <p>The iterator holds network resources and <strong>must</strong> be closed when no longer required.</p>
+     * @param startBlock The number of the block from which events should be read.
+     * @param eventNamePattern Event name pattern.
+     * @return A contract event iterator.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     */
+    CloseableIterator<ContractEvent> contractEvents(long startBlock, Pattern eventNamePattern);
 }
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.hyperledger.fabric.gateway.impl.FileBulkProgressStore;
+import org.hyperledger.fabric.gateway.spi.BulkProgressStore;
+
+/**
+ * Provides static factory methods used to create instances of default {@link BulkProgressStore} implementations.
+ */
+public final class DefaultBulkProgressStores {
+    /**
+     * Progress store implementation that persists state to a given file. If the file exists, it must contain valid
+     * persistent progress state. If the file does not exist, the progress store will be created with no items
+     * completed.
+     * <p>The progress store will attempt to obtain an exclusive lock on the file so there can only be a single
+     * progress store instance for a given file at any point in time.</p>
+     * @param path A file path.
+     * @return A progress store.
+     * @throws IOException if an error occurs creating the progress store.
+     */
+    public static BulkProgressStore file(final Path path) throws IOException {
+        return new FileBulkProgressStore(path);
+    }
+
+    private DefaultBulkProgressStores() { }
+}
@@ -9,11 +9,16 @@ package org.hyperledger.fabric.gateway;
 import java.util.Collection;
 import java.util.EnumSet;
 
+import org.hyperledger.fabric.gateway.impl.NetworkImpl;
 import org.hyperledger.fabric.gateway.impl.commit.AllCommitStrategy;
 import org.hyperledger.fabric.gateway.impl.commit.AnyCommitStrategy;
 import org.hyperledger.fabric.gateway.impl.commit.CommitHandlerImpl;
 import org.hyperledger.fabric.gateway.impl.commit.CommitStrategy;
+import org.hyperledger.fabric.gateway.impl.commit.ConfirmingCommitHandler;
 import org.hyperledger.fabric.gateway.impl.commit.NoOpCommitHandler;
+import org.hyperledger.fabric.gateway.impl.commit.QuorumCommitStrategy;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.gateway.spi.CommitConfirmationListener;
 import org.hyperledger.fabric.gateway.spi.CommitHandler;
 import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
 import org.hyperledger.fabric.sdk.Peer;
@@ -36,7 +41,7 @@ public enum DefaultCommitHandlers implements CommitHandlerFactory {
     MSPID_SCOPE_ALLFORTX((transactionId, network) -> {
         Collection<Peer> peers = getEventSourcePeersForOrganization(network);
         CommitStrategy strategy = new AllCommitStrategy(peers);
-        return new CommitHandlerImpl(transactionId, network, strategy);
+        return newCommitHandler(transactionId, network, strategy);
     }),
 
     /**
@@ -45,7 +50,7 @@ public enum DefaultCommitHandlers implements CommitHandlerFactory {
     NETWORK_SCOPE_ALLFORTX((transactionId, network) -> {
         Collection<Peer> peers = getEventSourcePeers(network);
         CommitStrategy strategy = new AllCommitStrategy(peers);
-        return new CommitHandlerImpl(transactionId, network, strategy);
+        return newCommitHandler(transactionId, network, strategy);
     }),
 
     /**
@@ -59,7 +64,7 @@ public enum DefaultCommitHandlers implements CommitHandlerFactory {
             peers = getEventSourcePeers(network);
         }
         CommitStrategy strategy = new AllCommitStrategy(peers);
-        return new CommitHandlerImpl(transactionId, network, strategy);
+        return newCommitHandler(transactionId, network, strategy);
     }),
 
     /**
@@ -69,7 +74,7 @@ public enum DefaultCommitHandlers implements CommitHandlerFactory {
     MSPID_SCOPE_ANYFORTX((transactionId, network) -> {
         Collection<Peer> peers = getEventSourcePeersForOrganization(network);
         CommitStrategy strategy = new AnyCommitStrategy(peers);
-        return new CommitHandlerImpl(transactionId, network, strategy);
+        return newCommitHandler(transactionId, network, strategy);
     }),
 
     /**
@@ -78,7 +83,7 @@ public enum DefaultCommitHandlers implements CommitHandlerFactory {
     NETWORK_SCOPE_ANYFORTX((transactionId, network) -> {
         Collection<Peer> peers = getEventSourcePeers(network);
         CommitStrategy strategy = new AnyCommitStrategy(peers);
-        return new CommitHandlerImpl(transactionId, network, strategy);
+        return newCommitHandler(transactionId, network, strategy);
     }),
 
     /**
@@ -92,8 +97,58 @@ public enum DefaultCommitHandlers implements CommitHandlerFactory {
             peers = getEventSourcePeers(network);
         }
         CommitStrategy strategy = new AnyCommitStrategy(peers);
-        return new CommitHandlerImpl(transactionId, network, strategy);
-    });
+        return newCommitHandler(transactionId, network, strategy);
+    }),
+
+    /**
+     * Wait to receive commit events from a majority of currently responding peers in the user's organization after
+     * submitting a transaction.
+     */
+    MSPID_SCOPE_MAJORITYFORTX((transactionId, network) -> {
+        Collection<Peer> peers = getEventSourcePeersForOrganization(network);
+        CommitStrategy strategy = QuorumCommitStrategy.majority(peers);
+        return newCommitHandler(transactionId, network, strategy);
+    }),
+
+    /**
+     * Wait to receive commit events from a majority of currently responding peers in the network after submitting a
+     * transaction.
+     */
+    NETWORK_SCOPE_MAJORITYFORTX((transactionId, network) -> {
+        Collection<Peer> peers = getEventSourcePeers(network);
+        CommitStrategy strategy = QuorumCommitStrategy.majority(peers);
+        return newCommitHandler(transactionId, network, strategy);
+    }),
+
+    /**
+     * Wait to receive commit events from as many peers as make up a majority of currently responding peers in the
+     * network, choosing the peers that have historically been quickest to report commits. One additional peer is
+     * listened to as a spare in case a chosen peer disconnects.
+     * @see Network#getCommitStatistics()
+     */
+    NETWORK_SCOPE_FASTEST_MAJORITYFORTX((transactionId, network) -> {
+        Collection<Peer> peers = getEventSourcePeers(network);
+        CommitStrategy strategy = QuorumCommitStrategy.fastest(peers, peers.size() / 2 + 1, getCommitLagStatistics(network));
+        return newCommitHandler(transactionId, network, strategy);
+    }),
+
+    /**
+     * Wait to receive a commit event from any currently responding peer in the user's organization after submitting
+     * a transaction, then continue to listen in the background for commit events from the remaining peers in the
+     * user's organization. Peers that report the transaction as invalid or do not report the commit within the commit
+     * timeout are counted in {@link Network#getMetrics()}.
+     * @see #mspidScopeAnyConfirmAll(CommitConfirmationListener)
+     */
+    MSPID_SCOPE_ANYFORTX_CONFIRMALL(mspidScopeAnyConfirmAll(null)),
+
+    /**
+     * Wait to receive a commit event from any currently responding peer in the network after submitting a
+     * transaction, then continue to listen in the background for commit events from the remaining peers in the
+     * network. Peers that report the transaction as invalid or do not report the commit within the commit timeout are
+     * counted in {@link Network#getMetrics()}.
+     * @see #networkScopeAnyConfirmAll(CommitConfirmationListener)
+     */
+    NETWORK_SCOPE_ANYFORTX_CONFIRMALL(networkScopeAnyConfirmAll(null));
 
     private static final EnumSet<Peer.PeerRole> EVENT_SOURCE_ROLES = EnumSet.of(Peer.PeerRole.EVENT_SOURCE);
 
@@ -103,6 +158,96 @@ public enum DefaultCommitHandlers implements CommitHandlerFactory {
         this.factory = factory;
     }
 
+    /**
+     * Wait to receive commit events from a specific number of currently responding peers in the network after
+     * submitting a transaction. If fewer peers are available, wait for commit events from all of them.
+     * @param required Number of peers that must report a successful commit.
+     * @return A commit handler factory.
+     */
+    public static CommitHandlerFactory networkScopeQuorum(final int required) {
+        checkRequiredCount(required);
+        return (transactionId, network) -> {
+            CommitStrategy strategy = new QuorumCommitStrategy(getEventSourcePeers(network), required);
+            return newCommitHandler(transactionId, network, strategy);
+        };
+    }
+
+    /**
+     * Wait to receive commit events from a specific number of peers in the network after submitting a transaction,
+     * choosing the peers that have historically been quickest to report commits. One additional peer is listened to
+     * as a spare in case a chosen peer disconnects.
+     * @param required Number of peers that must report a successful commit.
+     * @return A commit handler factory.
+     * @see Network#getCommitStatistics()
+     */
+    public static CommitHandlerFactory networkScopeFastest(final int required) {
+        checkRequiredCount(required);
+        return (transactionId, network) -> {
+            CommitStrategy strategy = QuorumCommitStrategy.fastest(getEventSourcePeers(network), required,
+                    getCommitLagStatistics(network));
+            return newCommitHandler(transactionId, network, strategy);
+        };
+    }
+
+    /**
+     * Wait to receive a commit event from any currently responding peer in the user's organization after submitting
+     * a transaction, then continue to listen in the background for commit events from the remaining peers in the
+     * user's organization. Peers that report the transaction as invalid or do not report the commit within the commit
+     * timeout are counted in {@link Network#getMetrics()} and reported to the supplied listener.
+     * @param listener Notified of transactions not confirmed by all peers; may be {@code null}.
+     * @return A commit handler factory.
+     */
+    public static CommitHandlerFactory mspidScopeAnyConfirmAll(final CommitConfirmationListener listener) {
+        return (transactionId, network) -> newConfirmingCommitHandler(transactionId, network,
+                getEventSourcePeersForOrganization(network), listener);
+    }
+
+    /**
+     * Wait to receive a commit event from any currently responding peer in the network after submitting a
+     * transaction, then continue to listen in the background for commit events from the remaining peers in the
+     * network. Peers that report the transaction as invalid or do not report the commit within the commit timeout are
+     * counted in {@link Network#getMetrics()} and reported to the supplied listener.
+     * @param listener Notified of transactions not confirmed by all peers; may be {@code null}.
+     * @return A commit handler factory.
+     */
+    public static CommitHandlerFactory networkScopeAnyConfirmAll(final CommitConfirmationListener listener) {
+        return (transactionId, network) -> newConfirmingCommitHandler(transactionId, network,
+                getEventSourcePeers(network), listener);
+    }
+
+    private static CommitHandler newConfirmingCommitHandler(final String transactionId, final Network network,
+                                                            final Collection<Peer> peers,
+                                                            final CommitConfirmationListener listener) {
+        if (network instanceof NetworkImpl) {
+            NetworkImpl networkImpl = (NetworkImpl) network;
+            return new ConfirmingCommitHandler(transactionId, network, peers, listener, networkImpl.getCounters(),
+                    networkImpl.getCommitLagStatistics());
+        }
+        return new ConfirmingCommitHandler(transactionId, network, peers, listener, null, null);
+    }
+
+    private static void checkRequiredCount(final int required) {
+        if (required < 1) {
+            throw new IllegalArgumentException("Required commit count must be at least 1: " + required);
+        }
+    }
+
+    private static CommitHandler newCommitHandler(final String transactionId, final Network network,
+                                                  final CommitStrategy strategy) {
+        if (network instanceof NetworkImpl) {
+            NetworkImpl networkImpl = (NetworkImpl) network;
+            return new CommitHandlerImpl(transactionId, network, strategy, networkImpl.getCommitLagStatistics(),
+                    networkImpl.getCommitStatusResolver());
+        }
+        return new CommitHandlerImpl(transactionId, network, strategy);
+    }
+
+    private static StatisticsRegistry getCommitLagStatistics(final Network network) {
+        return network instanceof NetworkImpl
+                ? ((NetworkImpl) network).getCommitLagStatistics()
+                : new StatisticsRegistry();
+    }
+
     private static Collection<Peer> getEventSourcePeersForOrganization(final Network network) {
         Collection<Peer> eventSourcePeers = getEventSourcePeers(network);
         Collection<Peer> orgPeers = getPeersForOrganization(network);
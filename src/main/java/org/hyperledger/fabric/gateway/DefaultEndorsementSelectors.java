@@ -0,0 +1,53 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import org.hyperledger.fabric.gateway.impl.NetworkImpl;
+import org.hyperledger.fabric.gateway.impl.endorse.LatencyAwareEndorsementSelector;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.gateway.spi.EndorsementSelectorFactory;
+import org.hyperledger.fabric.sdk.ServiceDiscovery;
+
+/**
+ * Default endorsement selector implementations, used to choose endorsing peers when service discovery is enabled.
+ * Instances can be referenced directly or looked up by name, for example
+ * {@code DefaultEndorsementSelectors.valueOf("LATENCY_AWARE")}.
+ */
+public enum DefaultEndorsementSelectors implements EndorsementSelectorFactory {
+    /**
+     * Choose a random endorsement layout and random endorsing peers within that layout.
+     */
+    RANDOM(network -> ServiceDiscovery.EndorsementSelector.ENDORSEMENT_SELECTION_RANDOM),
+
+    /**
+     * Choose the endorsement layout requiring the fewest endorsements, preferring peers with the greatest ledger
+     * height.
+     */
+    LEAST_REQUIRED_BLOCKHEIGHT(network -> ServiceDiscovery.EndorsementSelector.ENDORSEMENT_SELECTION_LEAST_REQUIRED_BLOCKHEIGHT),
+
+    /**
+     * Choose the endorsement layout and endorsing peers expected to complete endorsement most quickly, based on
+     * observed peer latency, the number of requests currently in progress, and recent peer failures.
+     */
+    LATENCY_AWARE(network -> {
+        StatisticsRegistry statistics = network instanceof NetworkImpl
+                ? ((NetworkImpl) network).getPeerStatistics()
+                : new StatisticsRegistry();
+        return new LatencyAwareEndorsementSelector(statistics);
+    });
+
+    private final EndorsementSelectorFactory factory;
+
+    DefaultEndorsementSelectors(final EndorsementSelectorFactory factory) {
+        this.factory = factory;
+    }
+
+    @Override
+    public ServiceDiscovery.EndorsementSelector create(final Network network) {
+        return factory.create(network);
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+
+import org.hyperledger.fabric.gateway.impl.identity.EcdsaSigner;
+import org.hyperledger.fabric.gateway.impl.identity.SdkSigner;
+import org.hyperledger.fabric.gateway.spi.Signer;
+
+/**
+ * Default signing implementations. Instances can be referenced directly or looked up by name, for example
+ * {@code DefaultSigners.valueOf("ECDSA")}.
+ */
+public enum DefaultSigners implements Signer {
+    /**
+     * ECDSA signing using a SHA-256 digest. Each thread reuses a signature instance that is initialized once with the
+     * private key, avoiding repeated signature engine lookup and key initialization. This signer ignores the hash
+     * algorithm configured for the SDK crypto suite, so must only be used where SHA-256 is the configured algorithm.
+     */
+    ECDSA(new EcdsaSigner()),
+
+    /**
+     * Signing using the default crypto suite of the underlying Fabric SDK. This is the default signer.
+     */
+    SDK(new SdkSigner());
+
+    private final Signer signer;
+
+    DefaultSigners(final Signer signer) {
+        this.signer = signer;
+    }
+
+    @Override
+    public byte[] sign(final PrivateKey privateKey, final byte[] message) throws GeneralSecurityException {
+        return signer.sign(privateKey, message);
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.concurrent.TimeoutException;
+
+import org.hyperledger.fabric.sdk.ProposalResponse;
+
+/**
+ * A transaction that has been endorsed by peers but not yet sent to the orderer, obtained from
+ * {@link Transaction#endorse(String...)}. Separating endorsement from submit allows applications to pipeline
+ * transaction phases, for example endorsing one batch of transactions while another is being ordered, or to submit
+ * endorsed transactions from a different thread pool.
+ * <p>An endorsed transaction is tied to the gateway connection used to endorse it, and should be submitted only once.
+ * The transaction's timeout, set by {@link Transaction#setTimeout(long, java.util.concurrent.TimeUnit)}, applies from the
+ * start of endorsement until the commit completes.</p>
+ * <p>Submitting an endorsed transaction sends exactly the endorsed proposal responses to the orderer. Unlike
+ * {@link Transaction#submit(String...)}, it does not acquire a submit concurrency limit permit, does not wait for
+ * conflicting transactions when key-aware scheduling is enabled, and does not apply the retry policy, since each of
+ * these may require the transaction to be endorsed again. Applications that split the transaction phases are
+ * responsible for their own admission control and for endorsing again a transaction whose commit fails with a read
+ * conflict.</p>
+ */
+public interface EndorsedTransaction {
+    /**
+     * Get the transaction ID.
+     * @return A transaction ID.
+     */
+    String getTransactionId();
+
+    /**
+     * Get the result returned by the transaction function when it was endorsed. This is the value that will be
+     * returned on successful commit.
+     * @return Payload response from the transaction function.
+     */
+    byte[] getResult();
+
+    /**
+     * Get a read-only view of the result returned by the transaction function when it was endorsed. The view shares
+     * the response bytes received from the peer rather than copying them.
+     * @return Read-only view of the payload response from the transaction function.
+     */
+    ByteBuffer getResultBuffer();
+
+    /**
+     * Get the successful proposal responses that make up the endorsed transaction.
+     * @return Proposal responses.
+     */
+    Collection<ProposalResponse> getProposalResponses();
+
+    /**
+     * Send the endorsed transaction to the orderer. This method returns once the orderer has accepted the transaction,
+     * without waiting for it to be committed.
+     * @return A handle that can be used to wait for, or check on, the commit of the transaction.
+     * @throws ContractException if no orderer accepted the transaction.
+     * @throws TimeoutException if the transaction timeout expired before an orderer accepted the transaction.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     */
+    Commit submit() throws ContractException, TimeoutException, InterruptedException;
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.Arrays;
+
+import org.hyperledger.fabric.gateway.impl.endorse.MemberPolicy;
+import org.hyperledger.fabric.gateway.impl.endorse.OutOfPolicy;
+import org.hyperledger.fabric.gateway.spi.EndorsementPolicy;
+
+/**
+ * Factory methods for building client-side endorsement policies that mirror the signature policies defined for
+ * chaincode, for example {@code OutOf(2, 'Org1MSP.peer', 'Org2MSP.peer', 'Org3MSP.peer')} is equivalent to:
+ * <pre>
+ *     EndorsementPolicies.outOf(2,
+ *             EndorsementPolicies.member("Org1MSP"),
+ *             EndorsementPolicies.member("Org2MSP"),
+ *             EndorsementPolicies.member("Org3MSP"));
+ * </pre>
+ */
+public final class EndorsementPolicies {
+    /**
+     * Policy satisfied by an endorsement from the specified organization.
+     * @param mspId Member services provider ID of the organization.
+     * @return An endorsement policy.
+     */
+    public static EndorsementPolicy member(final String mspId) {
+        return new MemberPolicy(mspId);
+    }
+
+    /**
+     * Policy satisfied when at least {@code n} of the supplied policies are satisfied.
+     * @param n Number of policies that must be satisfied.
+     * @param policies Candidate policies.
+     * @return An endorsement policy.
+     */
+    public static EndorsementPolicy outOf(final int n, final EndorsementPolicy... policies) {
+        return new OutOfPolicy(n, Arrays.asList(policies));
+    }
+
+    /**
+     * Policy satisfied only when all of the supplied policies are satisfied.
+     * @param policies Candidate policies.
+     * @return An endorsement policy.
+     */
+    public static EndorsementPolicy allOf(final EndorsementPolicy... policies) {
+        return outOf(policies.length, policies);
+    }
+
+    /**
+     * Policy satisfied when any one of the supplied policies is satisfied.
+     * @param policies Candidate policies.
+     * @return An endorsement policy.
+     */
+    public static EndorsementPolicy anyOf(final EndorsementPolicy... policies) {
+        return outOf(1, policies);
+    }
+
+    /**
+     * Policy satisfied by endorsements from a majority of the specified organizations. This corresponds to the
+     * default {@code MAJORITY Endorsement} chaincode lifecycle policy.
+     * @param mspIds Member services provider IDs of the organizations.
+     * @return An endorsement policy.
+     */
+    public static EndorsementPolicy majorityOf(final String... mspIds) {
+        EndorsementPolicy[] members = Arrays.stream(mspIds)
+                .map(EndorsementPolicies::member)
+                .toArray(EndorsementPolicy[]::new);
+        return outOf(mspIds.length / 2 + 1, members);
+    }
+
+    // Private constructor to prevent instantiation
+    private EndorsementPolicies() { }
+}
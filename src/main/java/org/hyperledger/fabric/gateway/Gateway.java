@@ -9,11 +9,16 @@ package org.hyperledger.fabric.gateway;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 import org.hyperledger.fabric.gateway.impl.GatewayImpl;
 import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
+import org.hyperledger.fabric.gateway.spi.EndorsementPolicy;
+import org.hyperledger.fabric.gateway.spi.EndorsementSelectorFactory;
 import org.hyperledger.fabric.gateway.spi.QueryHandlerFactory;
+import org.hyperledger.fabric.gateway.spi.RetryPolicy;
+import org.hyperledger.fabric.gateway.spi.Signer;
 import org.hyperledger.fabric.sdk.HFClient;
 
 /**
@@ -175,6 +180,120 @@ public interface Gateway extends AutoCloseable {
          */
         Builder commitTimeout(long timeout, TimeUnit timeUnit);
 
+        /**
+         * <em>Optional</em> - Set the default maximum time allowed for each transaction invocation, including
+         * endorsement, submit to the orderer and the wait for commit events. By default, there is no overall limit and
+         * only the timeouts for individual phases apply.
+         * @param timeout the maximum time allowed.
+         * @param timeUnit the time unit of the timeout argument.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         * @see Transaction#setTimeout(long, TimeUnit)
+         */
+        Builder transactionTimeout(long timeout, TimeUnit timeUnit);
+
+        /**
+         * <em>Optional</em> - Set the default policy for resubmitting transactions that fail, for example because of
+         * a read conflict with a concurrent transaction. Each retry is endorsed again with a new transaction ID, and
+         * retries are not attempted if they would exceed the transaction timeout. By default, transactions are not
+         * retried.
+         * <p>Policies can be created using {@link RetryPolicies}.</p>
+         * @param retryPolicy A retry policy.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         * @see Transaction#setRetryPolicy(RetryPolicy)
+         */
+        Builder retryPolicy(RetryPolicy retryPolicy);
+
+        /**
+         * <em>Optional</em> - Enable or disable key-aware scheduling of transaction submissions. When enabled, the
+         * keys written by each transaction are tracked from submit to the orderer until the wait for commit events
+         * completes. A transaction whose endorsement read a key written by another transaction still awaiting commit
+         * would be invalidated with a read conflict, so it is instead held back until the conflicting transactions
+         * complete and then endorsed again before being sent to the orderer. Only transactions submitted through this
+         * gateway are tracked, and transactions using a commit handler that does not wait for commit events are not
+         * protected. Key-aware scheduling is disabled by default.
+         * @param enabled - true to enable key-aware scheduling.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder keyAwareScheduling(boolean enabled);
+
+        /**
+         * <em>Optional</em> - Enable or disable adaptive commit timeouts. When enabled, each network observes the
+         * interval between blocks and the time taken for submitted transactions to commit. Once enough commits have
+         * been observed, the wait for commit events times out after a multiple of the 99th percentile of these
+         * values, so that a transaction that will never be committed is detected sooner. The configured commit
+         * timeout remains an upper limit, and is used on its own for transactions that set an explicit commit
+         * timeout. Adaptive commit timeouts are disabled by default.
+         * @param enabled - true to enable adaptive commit timeouts.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         * @see #commitTimeout(long, TimeUnit)
+         */
+        Builder adaptiveCommitTimeout(boolean enabled);
+
+        /**
+         * <em>Optional</em> - Enable or disable commit status recovery. When enabled, commit handlers provided by
+         * {@link DefaultCommitHandlers} look up a transaction on the ledger using the query system chaincode if a peer
+         * disconnects while waiting for commit events, and periodically while the wait continues. If the transaction
+         * is found, the submit completes or fails according to the validation code recorded on the ledger, instead of
+         * waiting for the commit timeout because commit events were missed. Commit status recovery is disabled by
+         * default.
+         * @param enabled - true to enable commit status recovery.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder commitStatusRecovery(boolean enabled);
+
+        /**
+         * <em>Optional</em> - Enable store-and-forward of endorsed transactions, discarding transactions not forwarded
+         * within one hour. Store-and-forward is disabled by default.
+         * @param journalDirectory Directory in which transaction journals are written, or {@code null} to disable
+         *                         store-and-forward.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         * @see #storeAndForward(Path, long, TimeUnit)
+         */
+        Builder storeAndForward(Path journalDirectory);
+
+        /**
+         * <em>Optional</em> - Enable store-and-forward of endorsed transactions. When enabled, a submit whose
+         * transaction is endorsed but cannot be sent to the ordering service, because the orderers fail or are too
+         * slow to respond, does not fail. Instead the endorsed transaction is queued and forwarded to the ordering
+         * service when an orderer accepts transactions again, while the submit continues to wait for the transaction
+         * to commit. While transactions are queued, newly endorsed transactions join the queue rather than being sent
+         * directly. The SDK does not report whether an orderer rejected the transaction itself, so every failure to
+         * send is retried until the transaction reaches the maximum age.
+         * <p>The maximum age is independent of the commit timeout. If the submit's commit wait times out, the queued
+         * transaction is still forwarded, and its commit status is looked up on the ledger until it is found or the
+         * transaction reaches the maximum age. Queued transactions not forwarded within the maximum age are
+         * discarded.</p>
+         * <p>Each queued transaction, including its endorsements, is written to the journal file named after the
+         * channel in the supplied directory before it is forwarded, and its status changes are recorded. Transactions
+         * left unresolved when the process stops or the gateway is closed are recovered when a network for the
+         * channel is next opened: those not yet forwarded are forwarded, and the outcome of each is available from
+         * {@link Network#getRecoveredTransactions()}. Store-and-forward is disabled by default.</p>
+         * @param journalDirectory Directory in which transaction journals are written, or {@code null} to disable
+         *                         store-and-forward.
+         * @param maxAge Time after which a queued transaction is discarded if not forwarded, or its commit status is
+         *               no longer looked up if forwarded.
+         * @param timeUnit the time unit of the maxAge argument.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder storeAndForward(Path journalDirectory, long maxAge, TimeUnit timeUnit);
+
+        /**
+         * <em>Optional</em> - Enable adaptive limits on the number of transaction invocations in progress on each
+         * network. Separate limits apply to submits and evaluates. Each limit adapts to the observed invocation
+         * latency, growing gradually while latency remains low and shrinking quickly when latency rises or
+         * invocations time out. Invocations that exceed the limit wait in a bounded queue and, if the queue is full or
+         * no capacity becomes available within the maximum wait time, fail immediately with a
+         * {@link ConcurrencyLimitExceededException} without being sent to any peers. The wait time also counts
+         * towards the transaction timeout. Invocations of each {@link TransactionPriority} class have their own wait
+         * queue and may use only a share of the limit. Concurrency limits are disabled by default.
+         * @param maxQueued Maximum number of invocations of each priority class waiting for each limit; zero to reject
+         *                  immediately.
+         * @param maxWait Maximum time an invocation may wait.
+         * @param timeUnit the time unit of the maxWait argument.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder concurrencyLimit(int maxQueued, long maxWait, TimeUnit timeUnit);
+
         /**
          * <em>Optional</em> - Enable or disable service discovery for all transaction submissions for this gateway.
          * Service discovery is disabled by default.
@@ -191,6 +310,55 @@ public interface Gateway extends AutoCloseable {
          */
         Builder forceClose(boolean enabled);
 
+        /**
+         * <em>Optional</em> - Specify the endorsement policy of a chaincode. When service discovery is disabled and no
+         * endorsing peers are explicitly set for a transaction, proposals for this chaincode are sent only to a minimal
+         * set of endorsing peers that can satisfy the policy, rotating between peers for successive transactions. If
+         * the selected peers do not provide enough successful responses, the proposal is also sent to the remaining
+         * endorsing peers.
+         * <p>Policies can be created using {@link EndorsementPolicies}.</p>
+         * @param chaincodeId The name of the chaincode.
+         * @param policy The chaincode endorsement policy.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder endorsementPolicy(String chaincodeId, EndorsementPolicy policy);
+
+        /**
+         * <em>Optional</em> - Allows an alternative endorsement selector to be specified. The endorsement selector
+         * chooses which endorsing peers are used from the layouts returned by service discovery, and is only used when
+         * service discovery is enabled.
+         * <p>Default endorsement selector implementations are defined in {@link DefaultEndorsementSelectors}.</p>
+         * @param endorsementSelector An endorsement selector implementation.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder endorsementSelector(EndorsementSelectorFactory endorsementSelector);
+
+        /**
+         * <em>Optional</em> - Allows an alternative signing implementation to be specified. The signer is used to
+         * sign transaction proposals and transactions with the gateway identity's private key.
+         * <p>Default signer implementations are defined in {@link DefaultSigners}. If no signer is specified,
+         * {@link DefaultSigners#SDK} is used. {@link DefaultSigners#ECDSA} can be selected for identities with ECDSA
+         * keys that are signed using a SHA-256 digest.</p>
+         * @param signer A signer implementation.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder signer(Signer signer);
+
+        /**
+         * <em>Optional</em> - Specify an executor on which signatures are generated. A bounded executor can be used to
+         * limit the number of threads performing signing at any time. By default, signatures are generated on the
+         * calling thread.
+         * <p>The executor should be dedicated to signing, since signing requests block while waiting for it. If other
+         * tasks that submit or evaluate transactions also run on the executor, they can occupy every thread while
+         * waiting for signatures that then never get generated. Signing requested from a thread that has already run
+         * a signing task is performed inline to avoid this, but a thread that has not yet run a signing task cannot
+         * be recognized.</p>
+         * <p>If the executor rejects a signing task, the request fails in the same way as any other signing failure.</p>
+         * @param executor An executor.
+         * @return The builder instance, allowing multiple configuration options to be chained.
+         */
+        Builder signingExecutor(Executor executor);
+
         /**
          * Connects to the gateway using the specified options.
          * @return The connected {@link Gateway} object.
@@ -8,10 +8,12 @@ package org.hyperledger.fabric.gateway;
 
 import java.io.IOException;
 import java.util.Collection;
+import java.util.Map;
 import java.util.function.Consumer;
 
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
 import org.hyperledger.fabric.gateway.spi.CommitListener;
+import org.hyperledger.fabric.gateway.spi.RetryPolicy;
 import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.Peer;
@@ -27,6 +29,8 @@ import org.hyperledger.fabric.sdk.Peer;
  *     submit and evaluate transactions for that smart contract.</li>
  *     <li>Listen to new block events using {@link #addBlockListener(Consumer)}.</li>
  *     <li>Replay previous block events using {@link #addBlockListener(long, Consumer)}.</li>
+ *     <li>Iterate over block events from a given block number using {@link #blockEvents(long)}.</li>
+ *     <li>Inspect the request statistics used to select orderers using {@link #getOrdererStatistics()}.</li>
  * </ul>
  *
  * @see <a href="https://hyperledger-fabric.readthedocs.io/en/release-1.4/developapps/application.html#network-channel">Developing Fabric Applications - Network Channel</a>
@@ -95,6 +99,17 @@ public interface Network {
      */
     void removeBlockListener(Consumer<BlockEvent> listener);
 
+    /**
+     * Get an iterator over block events from the network, starting at the given block number and continuing with new
+     * blocks until the iterator is closed. Events are received in order and without duplication. Received events are
+     * held in a bounded buffer, and delivery of events from the network is paused while the buffer is full.
+     * <p>The iterator holds network resources and <strong>must</strong> be closed when no longer required.</p>
+     * @param startBlock The number of the block from which events should be read.
+     * @return A block event iterator.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     */
+    CloseableIterator<BlockEvent> blockEvents(long startBlock);
+
     /**
      * Add a listener to receive transaction commit and peer disconnect events for a set of peers.
      * @param listener A transaction commit listener.
@@ -109,4 +124,83 @@ public interface Network {
      * @param listener A block listener.
      */
     void removeCommitListener(CommitListener listener);
+
+    /**
+     * Get request statistics for each of the network's orderers. Transactions are sent to one orderer at a time,
+     * preferring orderers with the lowest recent latency and load, and failing over to the next orderer on error.
+     * These statistics are the basis for that selection.
+     * @return Orderer statistics.
+     */
+    Collection<NodeStatistics> getOrdererStatistics();
+
+    /**
+     * Get commit statistics for each of the network's event source peers. Latency is the time from a commit handler
+     * starting to listen until the peer reports the transaction commit, and failures are peer disconnects while
+     * waiting. These statistics are used to choose peers for
+     * {@link DefaultCommitHandlers#NETWORK_SCOPE_FASTEST_MAJORITYFORTX} and
+     * {@link DefaultCommitHandlers#networkScopeFastest(int)}.
+     * @return Peer commit statistics.
+     */
+    Collection<NodeStatistics> getCommitStatistics();
+
+    /**
+     * Get transactions that were queued for store-and-forward by a previous process and left unresolved when it
+     * stopped, as recorded in the journal for this network's channel. Recovered transactions not yet forwarded are
+     * forwarded to the ordering service, and the commit status of each is looked up on the ledger until it is found
+     * or the transaction reaches the store-and-forward maximum age. The commit of each transaction reports that
+     * outcome: a {@link ContractException} if it was committed as invalid, or a
+     * {@link java.util.concurrent.TimeoutException} if its status was not found before the maximum age. Waits for
+     * the commit of a recovered transaction are not limited by any commit timeout.
+     * @return Recovered transactions, which is empty if store-and-forward is not enabled or no transactions were left
+     * unresolved.
+     * @see Gateway.Builder#storeAndForward(java.nio.file.Path, long, java.util.concurrent.TimeUnit)
+     */
+    Collection<Commit> getRecoveredTransactions();
+
+    /**
+     * Get counters for notable events in the handling of transactions on this network. Counters include:
+     * <ul>
+     *     <li>{@code orderer.hedge.eligible} - submits with orderer hedging enabled.</li>
+     *     <li>{@code orderer.hedge.sent} - hedged submits sent to a second orderer.</li>
+     *     <li>{@code orderer.hedge.won} - hedged submits acknowledged first by the second orderer.</li>
+     *     <li>{@code orderer.hedge.budgetExhausted} - hedged submits not sent to a second orderer because too many
+     *     hedges had recently been sent.</li>
+     *     <li>{@code transaction.commit.skipped} - read-only submits that were not sent to the orderer.</li>
+     *     <li>{@code transaction.commit.diverged} - peers that reported a transaction as invalid after another peer
+     *     reported it as valid, when using background commit confirmation.</li>
+     *     <li>{@code transaction.commit.unconfirmed} - peers that disconnected or did not report the commit of a
+     *     transaction within the commit timeout after another peer reported it as valid, when using background commit
+     *     confirmation.</li>
+     *     <li>{@code transaction.commit.lookup} - transactions looked up on the ledger because commit events may have
+     *     been missed.</li>
+     *     <li>{@code transaction.commit.lookup.found} - ledger lookups that found the transaction.</li>
+     *     <li>{@code transaction.submit.<em>chaincode</em>:<em>function</em>} - attempts to submit the named
+     *     transaction function to the orderer.</li>
+     *     <li>{@code transaction.conflict.<em>chaincode</em>:<em>function</em>} - attempts rejected during validation
+     *     because of a read conflict with another transaction.</li>
+     *     <li>{@code transaction.retry.<em>chaincode</em>:<em>function</em>} - attempts that were retried.</li>
+     *     <li>{@code transaction.scheduler.delayed} - submits held back and endorsed again because they read keys
+     *     written by uncommitted transactions.</li>
+     *     <li>{@code transaction.submit.rejected} - submits rejected because the concurrency limit was exceeded.</li>
+     *     <li>{@code transaction.evaluate.rejected} - evaluates rejected because the concurrency limit was
+     *     exceeded.</li>
+     *     <li>{@code transaction.forward.stored} - endorsed transactions queued for later forwarding to the
+     *     orderer.</li>
+     *     <li>{@code transaction.forward.forwarded} - queued transactions accepted by an orderer.</li>
+     *     <li>{@code transaction.forward.expired} - queued transactions discarded before they were forwarded.</li>
+     *     <li>{@code transaction.forward.resolved} - queued transactions whose commit status was found on the ledger
+     *     after the submit stopped waiting for the commit, or after recovery by a later process.</li>
+     * </ul>
+     * <p>Counters that have not yet been incremented are omitted.</p>
+     * @return Counter values keyed by name.
+     * @see Transaction#setOrdererHedging(boolean)
+     * @see Transaction#setSkipReadOnlyCommit(boolean)
+     * @see DefaultCommitHandlers#NETWORK_SCOPE_ANYFORTX_CONFIRMALL
+     * @see Transaction#setRetryPolicy(RetryPolicy)
+     * @see Gateway.Builder#keyAwareScheduling(boolean)
+     * @see Gateway.Builder#commitStatusRecovery(boolean)
+     * @see Gateway.Builder#concurrencyLimit(int, long, java.util.concurrent.TimeUnit)
+     * @see Gateway.Builder#storeAndForward(java.nio.file.Path, long, java.util.concurrent.TimeUnit)
+     */
+    Map<String, Long> getMetrics();
 }
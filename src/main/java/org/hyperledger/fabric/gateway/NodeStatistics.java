@@ -0,0 +1,52 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.OptionalLong;
+
+/**
+ * Request statistics recorded by the gateway for a single network node, such as an orderer. Values reflect requests
+ * made by this gateway instance only.
+ */
+public interface NodeStatistics {
+    /**
+     * Get the node endpoint name, which is its {@code host:port} address where available.
+     * @return Node name.
+     */
+    String getName();
+
+    /**
+     * Get the number of requests to this node that completed successfully.
+     * @return Request count.
+     */
+    long getSuccessCount();
+
+    /**
+     * Get the number of requests to this node that failed.
+     * @return Request count.
+     */
+    long getFailureCount();
+
+    /**
+     * Get the number of requests that have failed since the last successful request.
+     * @return Request count.
+     */
+    int getConsecutiveFailureCount();
+
+    /**
+     * Get the number of requests to this node currently in progress.
+     * @return Request count.
+     */
+    int getInFlightCount();
+
+    /**
+     * Get the latency of recent successful requests at a given percentile.
+     * @param percentile A value between 0 and 1, for example 0.95 for the 95th percentile.
+     * @return Latency in nanoseconds, or empty if no requests have completed successfully.
+     */
+    OptionalLong getLatencyPercentile(double percentile);
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.impl.commit.ValidationCodeRetryPolicy;
+import org.hyperledger.fabric.gateway.impl.commit.ValidationCodes;
+import org.hyperledger.fabric.gateway.spi.RetryPolicy;
+
+/**
+ * Factory methods for policies that control resubmission of transactions that fail.
+ * @see Transaction#setRetryPolicy(RetryPolicy)
+ * @see Gateway.Builder#retryPolicy(RetryPolicy)
+ */
+public final class RetryPolicies {
+    private static final RetryPolicy NONE = (attempt, cause) -> -1;
+
+    /**
+     * Policy that never retries.
+     * @return A retry policy.
+     */
+    public static RetryPolicy none() {
+        return NONE;
+    }
+
+    /**
+     * Policy that retries transactions rejected during validation because of a read conflict with another
+     * transaction, indicated by an {@code MVCC_READ_CONFLICT} or {@code PHANTOM_READ_CONFLICT} validation code. The
+     * delay before each retry is chosen at random, up to a limit that starts at the initial backoff and doubles with
+     * each attempt, to spread out retries of transactions that conflicted with each other.
+     * @param maxAttempts Maximum number of attempts, including the first.
+     * @param initialBackoff Limit on the delay before the first retry.
+     * @param maxBackoff Maximum limit on the delay before any retry.
+     * @param timeUnit Time unit of the backoff arguments.
+     * @return A retry policy.
+     */
+    public static RetryPolicy onConflict(final int maxAttempts, final long initialBackoff, final long maxBackoff,
+                                         final TimeUnit timeUnit) {
+        return new ValidationCodeRetryPolicy(ValidationCodes.CONFLICTS, maxAttempts,
+                timeUnit.toNanos(initialBackoff), timeUnit.toNanos(maxBackoff));
+    }
+
+    // Private constructor to prevent instantiation
+    private RetryPolicies() { }
+}
@@ -6,12 +6,15 @@
 
 package org.hyperledger.fabric.gateway;
 
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
+import org.hyperledger.fabric.gateway.spi.EndorsementPolicy;
+import org.hyperledger.fabric.gateway.spi.RetryPolicy;
 import org.hyperledger.fabric.sdk.Peer;
 
 /**
@@ -54,13 +57,24 @@ public interface Transaction {
 
     /**
      * Set the maximum length of time to wait for commit events to be received after submitting a transaction to the
-     * orderer.
+     * orderer. An explicit commit timeout is used in place of any adaptive commit timeout configured for the gateway.
      * @param timeout the maximum time to wait.
      * @param timeUnit the time unit of the timeout argument.
      * @return this transaction object to allow method chaining.
      */
     Transaction setCommitTimeout(long timeout, TimeUnit timeUnit);
 
+    /**
+     * Set the maximum length of time allowed for the whole transaction invocation. For a submit, this time budget is
+     * shared by endorsement, submit to the orderer and the wait for commit events, with each phase allowed only the
+     * time remaining. The commit timeout still applies if it is shorter than the time remaining. For an evaluate, the
+     * time budget limits the wait for peer responses.
+     * @param timeout the maximum time allowed.
+     * @param timeUnit the time unit of the timeout argument.
+     * @return this transaction object to allow method chaining.
+     */
+    Transaction setTimeout(long timeout, TimeUnit timeUnit);
+
     /**
      * Set the commit handler to use for this transaction invocation instead of the default handler configured for the
      * gateway.
@@ -77,6 +91,86 @@ public interface Transaction {
      */
     Transaction setEndorsingPeers(Collection<Peer> peers);
 
+    /**
+     * Set the endorsement policy of the transaction function's chaincode to enable policy-aware endorsement. The
+     * proposal is sent concurrently to each endorsing peer, and the transaction is sent to the orderer as soon as
+     * consistent successful responses that satisfy the policy have been received, without waiting for slower peers.
+     * Endorsing peers are those specified by {@link #setEndorsingPeers(Collection)} or, if not specified, all
+     * endorsing peers in the network.
+     * @param policy An endorsement policy, or {@code null} to wait for responses from all endorsing peers.
+     * @return this transaction object to allow method chaining.
+     * @see EndorsementPolicies
+     */
+    Transaction setEndorsementPolicy(EndorsementPolicy policy);
+
+    /**
+     * Enable hedged endorsement. If an endorsement is slow to arrive, the proposal is also sent to an alternative
+     * endorser and the first successful response is used. Where the gateway chooses one endorsing peer for each
+     * organization, the alternative is another endorsing peer in the same organization as the slow peer. Where service
+     * discovery is used, the proposal is sent again to a selection of endorsers that avoids those already chosen, where
+     * they are known. Where endorsing peers are specified using {@link #setEndorsingPeers(Collection)}, every specified
+     * peer is sent the proposal, and a slow peer is hedged by another endorsing peer in the same organization that was
+     * not specified, so the number of endorsements from each organization is preserved. The delay before hedging
+     * adapts to the observed endorsement latency, and the number of hedged requests is limited to a small proportion
+     * of all requests.
+     * @param enabled {@code true} to enable hedged endorsement; otherwise {@code false}.
+     * @return this transaction object to allow method chaining.
+     */
+    Transaction setEndorsementHedging(boolean enabled);
+
+    /**
+     * Enable hedged submit to the orderer. If the preferred orderer is slow to acknowledge the transaction, the same
+     * signed transaction is also sent to a second orderer and the first successful acknowledgement is used. Only one
+     * copy of the transaction can be committed, since duplicate transaction IDs are rejected during validation. The
+     * delay before hedging adapts to the observed orderer latency, and the number of hedged requests is limited to a
+     * small proportion of all requests. How often hedging occurs is reported by {@link Network#getMetrics()}.
+     * @param enabled {@code true} to enable hedged submit; otherwise {@code false}.
+     * @return this transaction object to allow method chaining.
+     */
+    Transaction setOrdererHedging(boolean enabled);
+
+    /**
+     * Skip submit to the orderer if endorsement shows that the transaction is read-only. A transaction is read-only if
+     * its endorsed read/write set contains no public or private data writes and the transaction function did not set
+     * a chaincode event. In this case {@link #submit(String...)} returns the endorsed result immediately, without
+     * waiting for commit events, and {@link #isCommitSkipped()} returns {@code true}. The result reflects the ledger
+     * state at the time of endorsement and, since the transaction is not committed, the reads are not validated
+     * against concurrent updates and no commit event is emitted.
+     * @param enabled {@code true} to skip commit of read-only transactions; otherwise {@code false}.
+     * @return this transaction object to allow method chaining.
+     */
+    Transaction setSkipReadOnlyCommit(boolean enabled);
+
+    /**
+     * Set the policy for resubmitting this transaction if it fails, instead of the default policy configured for the
+     * gateway. Each retry is endorsed again with a new transaction ID, so {@link #getTransactionId()} returns the ID
+     * of the most recent attempt. A retry is not attempted if the delay before it would exceed the time remaining
+     * from the timeout set by {@link #setTimeout(long, TimeUnit)}, in which case the failure of the last attempt is
+     * thrown.
+     * @param retryPolicy A retry policy.
+     * @return this transaction object to allow method chaining.
+     * @see RetryPolicies
+     */
+    Transaction setRetryPolicy(RetryPolicy retryPolicy);
+
+    /**
+     * Set the priority class of this transaction invocation. Priority only has an effect when concurrency limits are
+     * enabled for the gateway, in which case higher priority invocations are admitted first and capacity is reserved
+     * for them. The default priority is {@link TransactionPriority#NORMAL}.
+     * @param priority A priority class.
+     * @return this transaction object to allow method chaining.
+     * @see Gateway.Builder#concurrencyLimit(int, long, TimeUnit)
+     */
+    Transaction setPriority(TransactionPriority priority);
+
+    /**
+     * Check whether the last submit of this transaction returned without committing to the ledger because the
+     * transaction was read-only.
+     * @return {@code true} if the transaction was not sent to the orderer; otherwise {@code false}.
+     * @see #setSkipReadOnlyCommit(boolean)
+     */
+    boolean isCommitSkipped();
+
     /**
      * Submit a transaction to the ledger. The transaction function represented by this object
      * will be evaluated on the endorsing peers and then submitted to the ordering service
@@ -86,12 +180,103 @@ public interface Transaction {
      * @return Payload response from the transaction function.
      * @throws ContractException if the transaction is rejected.
      * @throws TimeoutException if the transaction was successfully submitted to the orderer but
-     * timed out before a commit event was received from peers.
+     * timed out before a commit event was received from peers, or if the transaction timeout expired before the
+     * transaction could be submitted to the orderer.
      * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws ConcurrencyLimitExceededException if concurrency limits are enabled and the submit could not be
+     * admitted.
      * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
      */
     byte[] submit(String... args) throws ContractException, TimeoutException, InterruptedException;
 
+    /**
+     * Submit a transaction to the ledger with no transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if the transaction is rejected.
+     * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+     * timed out before a commit event was received from peers, or if the transaction timeout expired before the
+     * transaction could be submitted to the orderer.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws ConcurrencyLimitExceededException if concurrency limits are enabled and the submit could not be
+     * admitted.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #submit(String...)
+     */
+    byte[] submit() throws ContractException, TimeoutException, InterruptedException;
+
+    /**
+     * Submit a transaction to the ledger with binary transaction function arguments. The arguments are passed to the
+     * transaction function unchanged, so binary payloads do not need to be encoded as strings.
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if the transaction is rejected.
+     * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+     * timed out before a commit event was received from peers, or if the transaction timeout expired before the
+     * transaction could be submitted to the orderer.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws ConcurrencyLimitExceededException if concurrency limits are enabled and the submit could not be
+     * admitted.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #submit(String...)
+     */
+    byte[] submit(byte[]... args) throws ContractException, TimeoutException, InterruptedException;
+
+    /**
+     * Submit a transaction to the ledger with binary transaction function arguments, and return a read-only view of
+     * the payload response. The view shares the response bytes received from the peer rather than copying them, which
+     * avoids copying large payloads.
+     * @param args Transaction function arguments.
+     * @return Read-only view of the payload response from the transaction function.
+     * @throws ContractException if the transaction is rejected.
+     * @throws TimeoutException if the transaction was successfully submitted to the orderer but
+     * timed out before a commit event was received from peers, or if the transaction timeout expired before the
+     * transaction could be submitted to the orderer.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws ConcurrencyLimitExceededException if concurrency limits are enabled and the submit could not be
+     * admitted.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #submit(String...)
+     */
+    ByteBuffer submitAsBuffer(byte[]... args) throws ContractException, TimeoutException, InterruptedException;
+
+    /**
+     * Endorse a transaction function without sending it to the orderer. The returned endorsed transaction can later
+     * be submitted to the orderer, possibly from another thread, and its commit awaited separately. Retry policies,
+     * key-aware scheduling and concurrency limits apply only to {@link #submit(String...)}.
+     * @param args Transaction function arguments.
+     * @return An endorsed transaction.
+     * @throws ContractException if no valid proposal responses are received, or the endorsement policy set for this
+     * transaction is not satisfied.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see EndorsedTransaction#submit()
+     * @see Commit#waitForCommit()
+     */
+    EndorsedTransaction endorse(String... args) throws ContractException, InterruptedException;
+
+    /**
+     * Endorse a transaction function with no arguments without sending it to the orderer.
+     * @return An endorsed transaction.
+     * @throws ContractException if no valid proposal responses are received, or the endorsement policy set for this
+     * transaction is not satisfied.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #endorse(String...)
+     */
+    EndorsedTransaction endorse() throws ContractException, InterruptedException;
+
+    /**
+     * Endorse a transaction function with binary arguments without sending it to the orderer.
+     * @param args Transaction function arguments.
+     * @return An endorsed transaction.
+     * @throws ContractException if no valid proposal responses are received, or the endorsement policy set for this
+     * transaction is not satisfied.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #endorse(String...)
+     */
+    EndorsedTransaction endorse(byte[]... args) throws ContractException, InterruptedException;
+
     /**
      * Evaluate a transaction function and return its results.
      * The transaction function will be evaluated on the endorsing peers but
@@ -101,7 +286,47 @@ public interface Transaction {
      * @param args Transaction function arguments.
      * @return Payload response from the transaction function.
      * @throws ContractException if no peers are reachable or an error response is returned.
+     * @throws ConcurrencyLimitExceededException if concurrency limits are enabled and the evaluate could not be
+     * admitted.
      * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
      */
     byte[] evaluate(String... args) throws ContractException;
+
+    /**
+     * Evaluate a transaction function with no arguments and return its results.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if no peers are reachable or an error response is returned.
+     * @throws ConcurrencyLimitExceededException if concurrency limits are enabled and the evaluate could not be
+     * admitted.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #evaluate(String...)
+     */
+    byte[] evaluate() throws ContractException;
+
+    /**
+     * Evaluate a transaction function with binary arguments and return its results. The arguments are passed to the
+     * transaction function unchanged, so binary payloads do not need to be encoded as strings.
+     * @param args Transaction function arguments.
+     * @return Payload response from the transaction function.
+     * @throws ContractException if no peers are reachable or an error response is returned.
+     * @throws ConcurrencyLimitExceededException if concurrency limits are enabled and the evaluate could not be
+     * admitted.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #evaluate(String...)
+     */
+    byte[] evaluate(byte[]... args) throws ContractException;
+
+    /**
+     * Evaluate a transaction function with binary arguments, and return a read-only view of the payload response. The
+     * view shares the response bytes received from the peer rather than copying them, which avoids copying large
+     * payloads.
+     * @param args Transaction function arguments.
+     * @return Read-only view of the payload response from the transaction function.
+     * @throws ContractException if no peers are reachable or an error response is returned.
+     * @throws ConcurrencyLimitExceededException if concurrency limits are enabled and the evaluate could not be
+     * admitted.
+     * @throws GatewayRuntimeException if an underlying infrastructure failure occurs.
+     * @see #evaluate(String...)
+     */
+    ByteBuffer evaluateAsBuffer(byte[]... args) throws ContractException;
 }
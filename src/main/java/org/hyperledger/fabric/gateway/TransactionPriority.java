@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+/**
+ * Priority classes for transaction invocations, used by concurrency limits to decide which invocations are admitted
+ * when the network is busy. Each class may only use a share of the concurrency limit, so capacity is always reserved
+ * for higher priority classes, and waiting invocations of a higher priority class are admitted first. Since the limit
+ * shrinks as latency rises, lower priority classes are throttled first.
+ * @see Transaction#setPriority(TransactionPriority)
+ * @see Gateway.Builder#concurrencyLimit(int, long, java.util.concurrent.TimeUnit)
+ */
+public enum TransactionPriority {
+    /**
+     * Latency-sensitive invocations, for example on behalf of an interactive user. May use the whole concurrency
+     * limit.
+     */
+    INTERACTIVE,
+
+    /**
+     * Default priority. May use up to 80% of the concurrency limit.
+     */
+    NORMAL,
+
+    /**
+     * Throughput-oriented invocations, for example bulk loading or backfill jobs. May use up to half of the
+     * concurrency limit.
+     */
+    BULK
+}
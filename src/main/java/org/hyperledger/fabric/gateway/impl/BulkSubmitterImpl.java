@@ -0,0 +1,225 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+
+import org.hyperledger.fabric.gateway.BulkSubmitter;
+import org.hyperledger.fabric.gateway.Commit;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.gateway.Transaction;
+import org.hyperledger.fabric.gateway.spi.BulkProgressStore;
+
+/**
+ * Bulk submitter that endorses and sends to the orderer each item using the gateway's executor, releasing the thread
+ * once the orderer has accepted the transaction. Commits are tracked through {@link Commit#whenCommitted()} so that the
+ * commit handler's recovery of missed commit events applies to bulk items in the same way as to individual submits.
+ * The thread calling {@link #submitAll(Iterator)} only starts items, reports outcomes and records progress.
+ */
+public final class BulkSubmitterImpl implements BulkSubmitter {
+    private static final int DEFAULT_WINDOW = 100;
+
+    private final ContractImpl contract;
+    private final String name;
+    private int window = DEFAULT_WINDOW;
+    private BulkProgressStore progressStore = null;
+    private Consumer<ItemResult> itemListener = result -> { };
+
+    BulkSubmitterImpl(final ContractImpl contract, final String name) {
+        this.contract = contract;
+        this.name = name;
+    }
+
+    @Override
+    public BulkSubmitter setWindow(final int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Window must be at least 1: " + window);
+        }
+        this.window = window;
+        return this;
+    }
+
+    @Override
+    public BulkSubmitter setProgressStore(final BulkProgressStore progressStore) {
+        this.progressStore = progressStore;
+        return this;
+    }
+
+    @Override
+    public BulkSubmitter setItemListener(final Consumer<ItemResult> listener) {
+        this.itemListener = listener;
+        return this;
+    }
+
+    @Override
+    public long submitAll(final Iterator<String[]> items) throws IOException, InterruptedException {
+        long startIndex = progressStore != null ? progressStore.getCompletedCount() : 0;
+        for (long i = 0; i < startIndex && items.hasNext(); i++) {
+            items.next();
+        }
+
+        return new BulkSubmit(startIndex).run(items);
+    }
+
+    /**
+     * State of a single call to {@link #submitAll(Iterator)}.
+     */
+    private final class BulkSubmit {
+        private final Executor executor = contract.getNetwork().getGateway().getClient().getExecutorService();
+        private final BlockingQueue<Item> completedItems = new LinkedBlockingQueue<>();
+        private final SortedSet<Long> inProgressIndexes = new TreeSet<>();
+        private final long startIndex;
+        private long nextIndex;
+        private long recordedIndex;
+
+        BulkSubmit(final long startIndex) {
+            this.startIndex = startIndex;
+            this.nextIndex = startIndex;
+            this.recordedIndex = startIndex;
+        }
+
+        long run(final Iterator<String[]> items) throws IOException, InterruptedException {
+            while (items.hasNext() || !inProgressIndexes.isEmpty()) {
+                while (inProgressIndexes.size() < window && items.hasNext()) {
+                    start(new Item(nextIndex++, items.next()));
+                }
+                receiveCompletedItems();
+                recordProgress();
+            }
+            return nextIndex - startIndex;
+        }
+
+        private void start(final Item item) {
+            inProgressIndexes.add(item.index);
+            try {
+                executor.execute(() -> submit(item));
+            } catch (RejectedExecutionException e) {
+                throw new GatewayRuntimeException("Failed to start submit of item " + item.index, e);
+            }
+        }
+
+        private void submit(final Item item) {
+            Commit commit;
+            try {
+                Transaction transaction = new TransactionImpl(contract, name);
+                item.transactionId = transaction.getTransactionId();
+                commit = transaction.endorse(item.args).submit();
+            } catch (ContractException | TimeoutException | RuntimeException e) {
+                fail(item, e);
+                return;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(item, e);
+                return;
+            }
+
+            commit.whenCommitted().whenComplete((result, e) -> {
+                if (e != null) {
+                    Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+                    item.failure = cause instanceof Exception ? (Exception) cause : new GatewayRuntimeException(cause);
+                } else {
+                    item.result = result;
+                }
+                completedItems.add(item);
+            });
+        }
+
+        private void fail(final Item item, final Exception failure) {
+            item.failure = failure;
+            completedItems.add(item);
+        }
+
+        private void receiveCompletedItems() throws InterruptedException {
+            for (Item item = completedItems.take(); item != null; item = completedItems.poll()) {
+                complete(item);
+            }
+        }
+
+        private void complete(final Item item) {
+            inProgressIndexes.remove(item.index);
+            itemListener.accept(item);
+        }
+
+        private void recordProgress() throws IOException {
+            long completedIndex = inProgressIndexes.isEmpty() ? nextIndex : inProgressIndexes.first();
+            if (progressStore != null && completedIndex > recordedIndex) {
+                progressStore.setCompletedCount(completedIndex);
+                recordedIndex = completedIndex;
+            }
+        }
+    }
+
+    private static final class Item implements ItemResult {
+        private final long index;
+        private final String[] args;
+        private String transactionId;
+        private byte[] result;
+        private Exception failure;
+
+        Item(final long index, final String[] args) {
+            this.index = index;
+            this.args = args;
+        }
+
+        @Override
+        public long getIndex() {
+            return index;
+        }
+
+        @Override
+        public String[] getArgs() {
+            return args;
+        }
+
+        @Override
+        public String getTransactionId() {
+            return transactionId;
+        }
+
+        @Override
+        public boolean isSuccessful() {
+            return failure == null;
+        }
+
+        @Override
+        public byte[] getResult() {
+            return result;
+        }
+
+        @Override
+        public Exception getFailure() {
+            return failure;
+        }
+
+        @Override
+        public String toString() {
+            return GatewayUtils.toString(this,
+                    "index=" + index,
+                    "transactionId=" + transactionId,
+                    "failure=" + failure);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "chaincodeId=" + contract.getChaincodeId(),
+                "name=" + name,
+                "window=" + window);
+    }
+}
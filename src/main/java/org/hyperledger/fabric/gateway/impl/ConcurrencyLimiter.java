@@ -0,0 +1,261 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.ConcurrencyLimitExceededException;
+import org.hyperledger.fabric.gateway.TransactionPriority;
+
+/**
+ * Admission controller limiting the number of requests in progress, using additive-increase/multiplicative-decrease
+ * (AIMD) to adapt the limit to observed latency. The limit grows by roughly one for each round of requests completed
+ * while the limit is in use, and is reduced multiplicatively, at most once per request latency, when a request times
+ * out or its latency exceeds twice the no-load latency by more than a millisecond. The no-load latency tracks the
+ * lowest observed latency and slowly drifts upwards so that it can recover from an outlier.
+ * <p>Each request has a priority class that may only use a share of the limit, reserving capacity for higher
+ * priority classes. Requests that cannot be admitted wait in a bounded queue for their class, and are rejected if the
+ * queue is full or their wait time expires. Waiting requests are not admitted while requests of a higher priority
+ * class are waiting.</p>
+ */
+public final class ConcurrencyLimiter {
+    private static final Log LOG = LogFactory.getLog(ConcurrencyLimiter.class);
+
+    private static final double BACKOFF_RATIO = 0.9;
+    private static final double LATENCY_TOLERANCE = 2.0;
+    private static final double BASELINE_DRIFT = 0.01;
+    private static final long MIN_LATENCY_INCREASE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final Map<TransactionPriority, Double> LIMIT_SHARES = new EnumMap<>(TransactionPriority.class);
+
+    static {
+        LIMIT_SHARES.put(TransactionPriority.INTERACTIVE, 1.0);
+        LIMIT_SHARES.put(TransactionPriority.NORMAL, 0.8);
+        LIMIT_SHARES.put(TransactionPriority.BULK, 0.5);
+    }
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final int maxQueued;
+    private final long maxWaitNanos;
+    private double limit;
+    private int inFlight = 0;
+    private final int[] queued = new int[TransactionPriority.values().length];
+    private double baselineNanos = -1;
+    private long lastDecreaseNanoTime;
+
+    /**
+     * Create a concurrency limiter.
+     * @param name Name used in log and error messages.
+     * @param initialLimit Initial limit on requests in progress.
+     * @param minLimit Minimum limit.
+     * @param maxLimit Maximum limit.
+     * @param maxQueued Maximum number of requests of each priority class that may wait for capacity; zero to reject
+     *                  immediately.
+     * @param maxWait Maximum time a request may wait for capacity.
+     */
+    public ConcurrencyLimiter(final String name, final int initialLimit, final int minLimit, final int maxLimit,
+                              final int maxQueued, final TimePeriod maxWait) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Invalid limits: initial " + initialLimit + ", min " + minLimit
+                    + ", max " + maxLimit);
+        }
+
+        this.name = name;
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxQueued = maxQueued;
+        this.maxWaitNanos = maxWait.getTimeUnit().toNanos(maxWait.getTime());
+        this.lastDecreaseNanoTime = System.nanoTime();
+    }
+
+    /**
+     * Acquire a permit to start a request, waiting if the limit for its priority class has been reached.
+     * @param deadline Deadline for the request, which also limits the wait time.
+     * @param priority Priority class of the request.
+     * @return A permit, which must be released when the request completes.
+     * @throws ConcurrencyLimitExceededException if the wait queue is full or the wait time expires.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    public Permit acquire(final Deadline deadline, final TransactionPriority priority) throws InterruptedException {
+        synchronized (this) {
+            if (!canAdmit(priority)) {
+                awaitCapacity(priority, Math.min(maxWaitNanos, deadline.getRemainingNanos()));
+            }
+            inFlight++;
+        }
+        return new Permit();
+    }
+
+    private boolean canAdmit(final TransactionPriority priority) {
+        for (int i = 0; i < priority.ordinal(); i++) {
+            if (queued[i] > 0) {
+                return false;
+            }
+        }
+        return inFlight < getLimit(priority);
+    }
+
+    private void awaitCapacity(final TransactionPriority priority, final long waitNanos) throws InterruptedException {
+        if (queued[priority.ordinal()] >= maxQueued || waitNanos <= 0) {
+            throw newRejection(priority);
+        }
+
+        queued[priority.ordinal()]++;
+        try {
+            long remainingNanos = waitNanos;
+            while (!canAdmit(priority)) {
+                if (remainingNanos <= 0) {
+                    throw newRejection(priority);
+                }
+                long startNanoTime = System.nanoTime();
+                TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                remainingNanos -= System.nanoTime() - startNanoTime;
+            }
+        } finally {
+            queued[priority.ordinal()]--;
+            notifyAll();
+        }
+    }
+
+    private ConcurrencyLimitExceededException newRejection(final TransactionPriority priority) {
+        String message = String.format("%s concurrency limit exceeded for %s priority: %d in progress, limit %d, %d waiting",
+                name, priority, inFlight, getLimit(priority), queued[priority.ordinal()]);
+        LOG.debug(message);
+        return new ConcurrencyLimitExceededException(message);
+    }
+
+    private synchronized void release(final long latencyNanos, final Outcome outcome) {
+        inFlight--;
+        if (outcome == Outcome.DROPPED) {
+            decrease(latencyNanos);
+        } else if (outcome == Outcome.SUCCESS) {
+            onSample(latencyNanos);
+        }
+        notifyAll();
+    }
+
+    private void onSample(final long latencyNanos) {
+        if (baselineNanos < 0 || latencyNanos < baselineNanos) {
+            baselineNanos = latencyNanos;
+        } else {
+            baselineNanos += (latencyNanos - baselineNanos) * BASELINE_DRIFT;
+        }
+
+        if (latencyNanos > baselineNanos * LATENCY_TOLERANCE && latencyNanos - baselineNanos > MIN_LATENCY_INCREASE_NANOS) {
+            decrease(latencyNanos);
+        } else if (inFlight + 1 >= limit / 2) {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    private void decrease(final long latencyNanos) {
+        long now = System.nanoTime();
+        if (now - lastDecreaseNanoTime < latencyNanos) {
+            return;
+        }
+
+        lastDecreaseNanoTime = now;
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+        LOG.debug(name + " concurrency limit decreased to " + getLimit());
+    }
+
+    /**
+     * Get the current limit on requests in progress.
+     * @return A limit.
+     */
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    /**
+     * Get the current limit on requests in progress that still allows a request of the given priority class to be
+     * admitted.
+     * @param priority Priority class.
+     * @return A limit.
+     */
+    public synchronized int getLimit(final TransactionPriority priority) {
+        return Math.max(minLimit, (int) (limit * LIMIT_SHARES.get(priority)));
+    }
+
+    /**
+     * Get the number of requests in progress.
+     * @return Request count.
+     */
+    public synchronized int getInFlightCount() {
+        return inFlight;
+    }
+
+    private enum Outcome {
+        SUCCESS,
+        DROPPED,
+        IGNORED
+    }
+
+    /**
+     * Permit for a request in progress. Only the first release of a permit has any effect.
+     */
+    public final class Permit {
+        private final long startNanoTime = System.nanoTime();
+        private long excludedNanos = 0;
+        private boolean released = false;
+
+        /**
+         * Exclude time from the request latency used to adjust the limit, for example time the request spent
+         * deliberately waiting rather than being processed.
+         * @param nanos Time to exclude in nanoseconds.
+         */
+        public synchronized void excludeFromLatency(final long nanos) {
+            excludedNanos += nanos;
+        }
+
+        /**
+         * Release the permit after a request completes, using its latency to adjust the limit.
+         */
+        public void onSuccess() {
+            release(Outcome.SUCCESS);
+        }
+
+        /**
+         * Release the permit after a request times out, reducing the limit.
+         */
+        public void onDropped() {
+            release(Outcome.DROPPED);
+        }
+
+        /**
+         * Release the permit without adjusting the limit, for example after a request fails for reasons unrelated
+         * to load.
+         */
+        public void onIgnore() {
+            release(Outcome.IGNORED);
+        }
+
+        private synchronized void release(final Outcome outcome) {
+            if (!released) {
+                released = true;
+                long latencyNanos = Math.max(0, System.nanoTime() - startNanoTime - excludedNanos);
+                ConcurrencyLimiter.this.release(latencyNanos, outcome);
+            }
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return GatewayUtils.toString(this,
+                "name=" + name,
+                "limit=" + getLimit(),
+                "inFlight=" + inFlight,
+                "queued=" + Arrays.toString(queued));
+    }
+}
@@ -13,6 +13,8 @@ import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.regex.Pattern;
 
+import org.hyperledger.fabric.gateway.BulkSubmitter;
+import org.hyperledger.fabric.gateway.CloseableIterator;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.ContractEvent;
 import org.hyperledger.fabric.gateway.ContractException;
@@ -38,11 +40,19 @@ public final class ContractImpl implements Contract, AutoCloseable {
 
     @Override
     public Transaction createTransaction(final String name) {
+        return new TransactionImpl(this, getValidQualifiedName(name));
+    }
+
+    @Override
+    public BulkSubmitter newBulkSubmitter(final String name) {
+        return new BulkSubmitterImpl(this, getValidQualifiedName(name));
+    }
+
+    private String getValidQualifiedName(final String name) {
         if (name == null || name.isEmpty()) {
             throw new IllegalArgumentException("Transaction must be a non-empty string");
         }
-        String qualifiedName = getQualifiedName(name);
-        return new TransactionImpl(this, qualifiedName);
+        return getQualifiedName(name);
     }
 
     @Override
@@ -175,6 +185,22 @@ public final class ContractImpl implements Contract, AutoCloseable {
         }
     }
 
+    @Override
+    public CloseableIterator<ContractEvent> contractEvents(final long startBlock) {
+        return network.newEventIterator(listener -> {
+            Consumer<ContractEvent> contractListener = Listeners.contract(listener, chaincodeId);
+            return newReplayListenerSession(startBlock, contractListener);
+        });
+    }
+
+    @Override
+    public CloseableIterator<ContractEvent> contractEvents(final long startBlock, final Pattern eventNamePattern) {
+        return network.newEventIterator(listener -> {
+            Consumer<ContractEvent> contractListener = Listeners.contract(listener, chaincodeId, eventNamePattern);
+            return newReplayListenerSession(startBlock, contractListener);
+        });
+    }
+
     public NetworkImpl getNetwork() {
         return network;
     }
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time by which an operation must complete. Used to share a single time budget between the successive
+ * phases of an operation, with each phase allowed only the time remaining.
+ */
+public final class Deadline {
+    private static final Deadline NONE = new Deadline(Long.MAX_VALUE, false);
+
+    private final long deadlineNanos;
+    private final boolean bounded;
+
+    private Deadline(final long deadlineNanos, final boolean bounded) {
+        this.deadlineNanos = deadlineNanos;
+        this.bounded = bounded;
+    }
+
+    /**
+     * Get a deadline that expires after the given time period.
+     * @param timeout Time period.
+     * @return A deadline.
+     */
+    public static Deadline after(final TimePeriod timeout) {
+        long timeoutNanos = timeout.getTimeUnit().toNanos(timeout.getTime());
+        return new Deadline(System.nanoTime() + timeoutNanos, true);
+    }
+
+    /**
+     * Get a deadline that never expires.
+     * @return A deadline.
+     */
+    public static Deadline none() {
+        return NONE;
+    }
+
+    /**
+     * Get a deadline for a time period that may be unset.
+     * @param timeout Time period, or {@code null} for no deadline.
+     * @return A deadline.
+     */
+    public static Deadline of(final TimePeriod timeout) {
+        return timeout != null ? after(timeout) : none();
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    public boolean isExpired() {
+        return bounded && getRemainingNanos() <= 0;
+    }
+
+    /**
+     * Get the time remaining before this deadline expires.
+     * @return Remaining time in nanoseconds, which is zero or negative if the deadline has expired.
+     */
+    public long getRemainingNanos() {
+        return bounded ? deadlineNanos - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    /**
+     * Get the lesser of a time period and the time remaining before this deadline expires.
+     * @param timeout A time period.
+     * @return Time period, which is zero if the deadline has expired.
+     */
+    public TimePeriod limit(final TimePeriod timeout) {
+        if (!bounded) {
+            return timeout;
+        }
+
+        long remainingNanos = Math.max(0, getRemainingNanos());
+        if (timeout.getTimeUnit().toNanos(timeout.getTime()) <= remainingNanos) {
+            return timeout;
+        }
+        return new TimePeriod(remainingNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Limit a time period given in milliseconds to the time remaining before this deadline expires.
+     * @param timeoutMillis A time period in milliseconds.
+     * @return Time period in milliseconds, which is zero if the deadline has expired.
+     */
+    public long limitMillis(final long timeoutMillis) {
+        if (!bounded) {
+            return timeoutMillis;
+        }
+        long remainingMillis = Math.max(0, TimeUnit.NANOSECONDS.toMillis(getRemainingNanos()));
+        return Math.min(timeoutMillis, remainingMillis);
+    }
+
+    @Override
+    public String toString() {
+        return bounded ? TimeUnit.NANOSECONDS.toMillis(getRemainingNanos()) + " ms remaining" : "unbounded";
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+import javax.json.Json;
+import javax.json.JsonObject;
+import javax.json.JsonReader;
+import javax.json.JsonWriter;
+
+import org.hyperledger.fabric.gateway.spi.BulkProgressStore;
+
+public final class FileBulkProgressStore implements BulkProgressStore {
+    private static final Set<OpenOption> OPEN_OPTIONS = Collections.unmodifiableSet(EnumSet.of(
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+    ));
+    private static final int VERSION = 1;
+    private static final String CONFIG_KEY_VERSION = "version";
+    private static final String CONFIG_KEY_COMPLETED = "completed";
+
+    private final Path filePath;
+    private final FileChannel fileChannel;
+    private final Reader fileReader;
+    private final Writer fileWriter;
+    private long completedCount = 0;
+
+    public FileBulkProgressStore(final Path progressFile) throws IOException {
+        boolean isFileAlreadyPresent = Files.exists(progressFile);
+
+        filePath = progressFile;
+        fileChannel = FileChannel.open(filePath, OPEN_OPTIONS);
+        lockFile();
+
+        fileReader = Channels.newReader(fileChannel, StandardCharsets.UTF_8.newDecoder(), -1);
+        fileWriter = Channels.newWriter(fileChannel, StandardCharsets.UTF_8.newEncoder(), -1);
+
+        if (isFileAlreadyPresent) {
+            load();
+        } else {
+            save();
+        }
+    }
+
+    private void lockFile() throws IOException {
+        final FileLock fileLock;
+        try {
+            fileLock = fileChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            throw new IOException("File is already locked: " + filePath, e);
+        }
+        if (fileLock == null) {
+            throw new IOException("Another process holds an overlapping lock for file: " + filePath);
+        }
+    }
+
+    private synchronized void load() throws IOException {
+        fileChannel.position(0);
+        JsonObject savedData;
+        JsonReader jsonReader = Json.createReader(fileReader);
+        try {
+            savedData = jsonReader.readObject();
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to parse bulk progress data from file: " + filePath, e);
+        }
+
+        final int version = savedData.getInt(CONFIG_KEY_VERSION, 0);
+        if (version != VERSION) {
+            throw new IOException("Unsupported bulk progress data version " + version + " from file: " + filePath);
+        }
+        try {
+            completedCount = savedData.getJsonNumber(CONFIG_KEY_COMPLETED).longValue();
+        } catch (RuntimeException e) {
+            throw new IOException("Bad format of bulk progress data from file: " + filePath, e);
+        }
+    }
+
+    private synchronized void save() throws IOException {
+        JsonObject jsonData = Json.createObjectBuilder()
+                .add(CONFIG_KEY_VERSION, VERSION)
+                .add(CONFIG_KEY_COMPLETED, completedCount)
+                .build();
+        fileChannel.position(0);
+        JsonWriter jsonWriter = Json.createWriter(fileWriter);
+        try {
+            jsonWriter.writeObject(jsonData);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to write bulk progress data to file: " + filePath, e);
+        }
+        fileWriter.flush();
+        fileChannel.truncate(fileChannel.position());
+    }
+
+    @Override
+    public synchronized long getCompletedCount() {
+        return completedCount;
+    }
+
+    @Override
+    public synchronized void setCompletedCount(final long completedCount) throws IOException {
+        this.completedCount = completedCount;
+        save();
+    }
+
+    @Override
+    public void close() throws IOException {
+        fileChannel.close(); // Also releases lock
+    }
+
+    @Override
+    public synchronized String toString() {
+        return GatewayUtils.toString(this,
+                "file=" + filePath,
+                "completedCount=" + completedCount);
+    }
+}
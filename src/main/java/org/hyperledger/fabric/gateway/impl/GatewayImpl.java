@@ -9,17 +9,25 @@ package org.hyperledger.fabric.gateway.impl;
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.hyperledger.fabric.gateway.DefaultCommitHandlers;
+import org.hyperledger.fabric.gateway.DefaultEndorsementSelectors;
 import org.hyperledger.fabric.gateway.DefaultQueryHandlers;
+import org.hyperledger.fabric.gateway.DefaultSigners;
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.GatewayRuntimeException;
 import org.hyperledger.fabric.gateway.Identities;
 import org.hyperledger.fabric.gateway.Identity;
 import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.RetryPolicies;
 import org.hyperledger.fabric.gateway.Wallet;
 import org.hyperledger.fabric.gateway.X509Identity;
+import org.hyperledger.fabric.gateway.impl.identity.SigningCryptoSuite;
 import org.hyperledger.fabric.gateway.impl.identity.X509IdentityProvider;
 import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
+import org.hyperledger.fabric.gateway.spi.EndorsementPolicy;
+import org.hyperledger.fabric.gateway.spi.EndorsementSelectorFactory;
 import org.hyperledger.fabric.gateway.spi.QueryHandlerFactory;
+import org.hyperledger.fabric.gateway.spi.RetryPolicy;
+import org.hyperledger.fabric.gateway.spi.Signer;
 import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.Channel.PeerOptions;
 import org.hyperledger.fabric.sdk.HFClient;
@@ -30,22 +38,27 @@ import org.hyperledger.fabric.sdk.User;
 import org.hyperledger.fabric.sdk.exception.CryptoException;
 import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
 import org.hyperledger.fabric.sdk.exception.NetworkConfigurationException;
+import org.hyperledger.fabric.sdk.security.CryptoSuite;
+import org.hyperledger.fabric.sdk.security.CryptoSuiteFactory;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.security.cert.CertificateException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.Executor;
 import java.util.concurrent.TimeUnit;
 
 public final class GatewayImpl implements Gateway {
@@ -53,6 +66,8 @@ public final class GatewayImpl implements Gateway {
 
     private static final long DEFAULT_COMMIT_TIMEOUT = 5;
     private static final TimeUnit DEFAULT_COMMIT_TIMEOUT_UNIT = TimeUnit.MINUTES;
+    private static final long DEFAULT_STORE_AND_FORWARD_MAX_AGE = 1;
+    private static final TimeUnit DEFAULT_STORE_AND_FORWARD_MAX_AGE_UNIT = TimeUnit.HOURS;
 
     private final HFClient client;
     private final NetworkConfig networkConfig;
@@ -60,19 +75,45 @@ public final class GatewayImpl implements Gateway {
     private final Map<String, NetworkImpl> networks = new HashMap<>();
     private final CommitHandlerFactory commitHandlerFactory;
     private final TimePeriod commitTimeout;
+    private final TimePeriod transactionTimeout;
+    private final RetryPolicy retryPolicy;
     private final QueryHandlerFactory queryHandlerFactory;
     private final boolean discovery;
     private final boolean forceClose;
+    private final boolean keyAwareScheduling;
+    private final boolean adaptiveCommitTimeout;
+    private final boolean commitStatusRecovery;
+    private final Path storeAndForwardDirectory;
+    private final TimePeriod storeAndForwardMaxAge;
+    private final int concurrencyLimitMaxQueued;
+    private final TimePeriod concurrencyLimitMaxWait;
+    private final Map<String, EndorsementPolicy> endorsementPolicies;
+    private final EndorsementSelectorFactory endorsementSelectorFactory;
+    private final boolean eventReplay;
 
     public static final class Builder implements Gateway.Builder {
         private CommitHandlerFactory commitHandlerFactory = DefaultCommitHandlers.PREFER_MSPID_SCOPE_ALLFORTX;
         private TimePeriod commitTimeout = new TimePeriod(DEFAULT_COMMIT_TIMEOUT, DEFAULT_COMMIT_TIMEOUT_UNIT);
+        private TimePeriod transactionTimeout = null;
+        private RetryPolicy retryPolicy = RetryPolicies.none();
         private QueryHandlerFactory queryHandlerFactory = DefaultQueryHandlers.PREFER_MSPID_SCOPE_SINGLE;
         private NetworkConfig ccp = null;
         private Identity identity = null;
         private HFClient client;
         private boolean discovery = false;
         private boolean forceClose = true;
+        private boolean keyAwareScheduling = false;
+        private boolean adaptiveCommitTimeout = false;
+        private boolean commitStatusRecovery = false;
+        private Path storeAndForwardDirectory = null;
+        private TimePeriod storeAndForwardMaxAge = new TimePeriod(DEFAULT_STORE_AND_FORWARD_MAX_AGE,
+                DEFAULT_STORE_AND_FORWARD_MAX_AGE_UNIT);
+        private int concurrencyLimitMaxQueued = 0;
+        private TimePeriod concurrencyLimitMaxWait = null;
+        private final Map<String, EndorsementPolicy> endorsementPolicies = new HashMap<>();
+        private EndorsementSelectorFactory endorsementSelectorFactory = DefaultEndorsementSelectors.RANDOM;
+        private Signer signer = DefaultSigners.SDK;
+        private Executor signingExecutor = null;
 
         private static final class ExposedByteArrayOutputStream extends ByteArrayOutputStream {
             public byte[] getInternalBuffer() {
@@ -148,6 +189,18 @@ public final class GatewayImpl implements Gateway {
             return this;
         }
 
+        @Override
+        public Builder transactionTimeout(final long timeout, final TimeUnit timeUnit) {
+            this.transactionTimeout = new TimePeriod(timeout, timeUnit);
+            return this;
+        }
+
+        @Override
+        public Builder retryPolicy(final RetryPolicy retryPolicy) {
+            this.retryPolicy = retryPolicy;
+            return this;
+        }
+
         @Override
         public Builder discovery(final boolean enabled) {
             this.discovery = enabled;
@@ -160,6 +213,72 @@ public final class GatewayImpl implements Gateway {
             return this;
         }
 
+        @Override
+        public Builder keyAwareScheduling(final boolean enabled) {
+            this.keyAwareScheduling = enabled;
+            return this;
+        }
+
+        @Override
+        public Builder adaptiveCommitTimeout(final boolean enabled) {
+            this.adaptiveCommitTimeout = enabled;
+            return this;
+        }
+
+        @Override
+        public Builder commitStatusRecovery(final boolean enabled) {
+            this.commitStatusRecovery = enabled;
+            return this;
+        }
+
+        @Override
+        public Builder storeAndForward(final Path journalDirectory) {
+            this.storeAndForwardDirectory = journalDirectory;
+            return this;
+        }
+
+        @Override
+        public Builder storeAndForward(final Path journalDirectory, final long maxAge, final TimeUnit timeUnit) {
+            this.storeAndForwardDirectory = journalDirectory;
+            this.storeAndForwardMaxAge = new TimePeriod(maxAge, timeUnit);
+            return this;
+        }
+
+        @Override
+        public Builder concurrencyLimit(final int maxQueued, final long maxWait, final TimeUnit timeUnit) {
+            this.concurrencyLimitMaxQueued = maxQueued;
+            this.concurrencyLimitMaxWait = new TimePeriod(maxWait, timeUnit);
+            return this;
+        }
+
+        @Override
+        public Builder endorsementPolicy(final String chaincodeId, final EndorsementPolicy policy) {
+            if (null == policy) {
+                endorsementPolicies.remove(chaincodeId);
+            } else {
+                endorsementPolicies.put(chaincodeId, policy);
+            }
+            return this;
+        }
+
+        @Override
+        public Builder endorsementSelector(final EndorsementSelectorFactory endorsementSelector) {
+            this.endorsementSelectorFactory = endorsementSelector;
+            return this;
+        }
+
+        @Override
+        public Builder signer(final Signer signer) {
+            this.signer = signer;
+            return this;
+        }
+
+        @Override
+        public Builder signingExecutor(final Executor executor) {
+            this.signingExecutor = executor;
+            return this;
+        }
+
         public Builder client(final HFClient client) {
             this.client = client;
             return this;
@@ -174,9 +293,21 @@ public final class GatewayImpl implements Gateway {
     private GatewayImpl(final Builder builder) {
         this.commitHandlerFactory = builder.commitHandlerFactory;
         this.commitTimeout = builder.commitTimeout;
+        this.transactionTimeout = builder.transactionTimeout;
+        this.retryPolicy = builder.retryPolicy;
         this.queryHandlerFactory = builder.queryHandlerFactory;
         this.discovery = builder.discovery;
         this.forceClose = builder.forceClose;
+        this.keyAwareScheduling = builder.keyAwareScheduling;
+        this.adaptiveCommitTimeout = builder.adaptiveCommitTimeout;
+        this.commitStatusRecovery = builder.commitStatusRecovery;
+        this.storeAndForwardDirectory = builder.storeAndForwardDirectory;
+        this.storeAndForwardMaxAge = builder.storeAndForwardMaxAge;
+        this.eventReplay = false;
+        this.concurrencyLimitMaxQueued = builder.concurrencyLimitMaxQueued;
+        this.concurrencyLimitMaxWait = builder.concurrencyLimitMaxWait;
+        this.endorsementPolicies = Collections.unmodifiableMap(new HashMap<>(builder.endorsementPolicies));
+        this.endorsementSelectorFactory = builder.endorsementSelectorFactory;
 
         if (builder.client != null) {
             // Only for testing!
@@ -200,17 +331,42 @@ public final class GatewayImpl implements Gateway {
             this.identity = builder.identity;
 
             this.client = HFClient.createNewInstance();
+            if (builder.signer != DefaultSigners.SDK || builder.signingExecutor != null) {
+                setCryptoSuite(client, builder.signer, builder.signingExecutor);
+            }
             // Hard-coded type for now but needs to get appropriate provider from wallet (or registry)
             X509IdentityProvider.INSTANCE.setUserContext(client, identity, "gateway");
         }
     }
 
+    private static void setCryptoSuite(final HFClient client, final Signer signer, final Executor signingExecutor) {
+        try {
+            CryptoSuite cryptoSuite = CryptoSuiteFactory.getDefault().getCryptoSuite();
+            client.setCryptoSuite(new SigningCryptoSuite(cryptoSuite, signer, signingExecutor));
+        } catch (ClassNotFoundException | CryptoException | IllegalAccessException | NoSuchMethodException
+                | InstantiationException | InvalidArgumentException | InvocationTargetException e) {
+            throw new GatewayRuntimeException("Failed to configure crypto suite", e);
+        }
+    }
+
     private GatewayImpl(final GatewayImpl that) {
         this.commitHandlerFactory = that.commitHandlerFactory;
         this.commitTimeout = that.commitTimeout;
+        this.transactionTimeout = that.transactionTimeout;
+        this.retryPolicy = that.retryPolicy;
         this.queryHandlerFactory = that.queryHandlerFactory;
         this.discovery = that.discovery;
         this.forceClose = that.forceClose;
+        this.keyAwareScheduling = that.keyAwareScheduling;
+        this.adaptiveCommitTimeout = that.adaptiveCommitTimeout;
+        this.commitStatusRecovery = that.commitStatusRecovery;
+        this.storeAndForwardDirectory = that.storeAndForwardDirectory;
+        this.storeAndForwardMaxAge = that.storeAndForwardMaxAge;
+        this.eventReplay = true;
+        this.concurrencyLimitMaxQueued = that.concurrencyLimitMaxQueued;
+        this.concurrencyLimitMaxWait = that.concurrencyLimitMaxWait;
+        this.endorsementPolicies = that.endorsementPolicies;
+        this.endorsementSelectorFactory = that.endorsementSelectorFactory;
         this.networkConfig = that.networkConfig;
         this.identity = that.identity;
 
@@ -283,10 +439,26 @@ public final class GatewayImpl implements Gateway {
         return commitTimeout;
     }
 
+    /**
+     * Get the default overall time limit for transaction invocations.
+     * @return A time period, or {@code null} if there is no overall time limit.
+     */
+    public TimePeriod getTransactionTimeout() {
+        return transactionTimeout;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+
     public QueryHandlerFactory getQueryHandlerFactory() {
         return queryHandlerFactory;
     }
 
+    public EndorsementSelectorFactory getEndorsementSelectorFactory() {
+        return endorsementSelectorFactory;
+    }
+
     public boolean isDiscoveryEnabled() {
         return discovery;
     }
@@ -295,6 +467,72 @@ public final class GatewayImpl implements Gateway {
         return forceClose;
     }
 
+    public boolean isKeyAwareSchedulingEnabled() {
+        return keyAwareScheduling;
+    }
+
+    public boolean isAdaptiveCommitTimeoutEnabled() {
+        return adaptiveCommitTimeout;
+    }
+
+    public boolean isCommitStatusRecoveryEnabled() {
+        return commitStatusRecovery;
+    }
+
+    /**
+     * Get the directory in which store-and-forward transaction journals are written.
+     * @return A directory, or {@code null} if store-and-forward is not enabled.
+     */
+    public Path getStoreAndForwardDirectory() {
+        return storeAndForwardDirectory;
+    }
+
+    /**
+     * Get the time after which a transaction held for store-and-forward is discarded if not forwarded.
+     * @return A time period.
+     */
+    public TimePeriod getStoreAndForwardMaxAge() {
+        return storeAndForwardMaxAge;
+    }
+
+    public boolean isConcurrencyLimitEnabled() {
+        return concurrencyLimitMaxWait != null;
+    }
+
+    public int getConcurrencyLimitMaxQueued() {
+        return concurrencyLimitMaxQueued;
+    }
+
+    /**
+     * Get the maximum time a transaction invocation may wait for capacity when concurrency limits are enabled.
+     * @return A time period, or {@code null} if concurrency limits are not enabled.
+     */
+    public TimePeriod getConcurrencyLimitMaxWait() {
+        return concurrencyLimitMaxWait;
+    }
+
+    /**
+     * Get the endorsement policy configured for a chaincode.
+     * @param chaincodeId Chaincode name.
+     * @return An endorsement policy, or {@code null} if none is configured.
+     */
+    public EndorsementPolicy getEndorsementPolicy(final String chaincodeId) {
+        return endorsementPolicies.get(chaincodeId);
+    }
+
+    /**
+     * Check whether this gateway is an internal copy used only to receive replayed events. Networks obtained from such
+     * a gateway do not create the machinery needed to invoke transactions.
+     * @return {@code true} if this gateway was created by {@link #newInstance()}; otherwise {@code false}.
+     */
+    boolean isEventReplay() {
+        return eventReplay;
+    }
+
+    /**
+     * Create a copy of this gateway with an isolated client connection, for use by event replay.
+     * @return A gateway.
+     */
     public GatewayImpl newInstance() {
         return new GatewayImpl(this);
     }
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+/**
+ * Token bucket limiting the additional load generated by hedged requests. Each primary request earns a fraction of a
+ * token and each hedged request spends a whole token, so hedged requests cannot exceed the configured ratio of primary
+ * requests, plus a small burst allowance.
+ */
+public final class HedgeBudget {
+    private final double ratio;
+    private final double maxTokens;
+    private double tokens;
+
+    /**
+     * Create a hedge budget.
+     * @param ratio Maximum ratio of hedged requests to primary requests.
+     * @param maxTokens Maximum number of hedged requests that may be sent in a burst.
+     */
+    public HedgeBudget(final double ratio, final double maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    /**
+     * Record that a primary request has been sent.
+     */
+    public synchronized void recordRequest() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * Attempt to spend budget on a hedged request.
+     * @return {@code true} if a hedged request may be sent; otherwise {@code false}.
+     */
+    public synchronized boolean tryAcquire() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return GatewayUtils.toString(this,
+                "ratio=" + ratio,
+                "tokens=" + tokens);
+    }
+}
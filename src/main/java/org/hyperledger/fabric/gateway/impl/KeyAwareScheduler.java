@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks the keys written by transactions that have been sent to the orderer but not yet committed. A transaction
+ * whose reads overlap an uncommitted write would be invalidated with a read conflict if that write commits, so it is
+ * instead held back until the conflicting transactions complete and can then be endorsed again.
+ */
+final class KeyAwareScheduler {
+    private final Map<String, InFlight> inFlight = new HashMap<>();
+    private final NavigableMap<String, Set<InFlight>> writers = new TreeMap<>();
+
+    /**
+     * Register a transaction as in flight, unless its reads overlap the writes of a transaction already in flight.
+     * @param transactionId Transaction ID.
+     * @param keys Keys read and written by the transaction.
+     * @param force {@code true} to register the transaction regardless of conflicts.
+     * @return Futures that complete when each conflicting transaction completes, or an empty collection if the
+     * transaction was registered.
+     */
+    synchronized Collection<CompletableFuture<Void>> schedule(final String transactionId, final TransactionKeys keys,
+                                                              final boolean force) {
+        Set<InFlight> conflicts = force ? Collections.emptySet() : getConflicts(keys);
+        if (!conflicts.isEmpty()) {
+            return conflicts.stream()
+                    .map(conflict -> conflict.done)
+                    .collect(Collectors.toList());
+        }
+
+        InFlight transaction = new InFlight(keys);
+        inFlight.put(transactionId, transaction);
+        keys.getWrites().forEach(key -> writers.computeIfAbsent(key, k -> new HashSet<>()).add(transaction));
+        return Collections.emptyList();
+    }
+
+    private Set<InFlight> getConflicts(final TransactionKeys keys) {
+        Set<InFlight> results = new LinkedHashSet<>();
+        for (String key : keys.getReads()) {
+            results.addAll(writers.getOrDefault(key, Collections.emptySet()));
+        }
+        for (TransactionKeys.KeyRange range : keys.getRanges()) {
+            writers.subMap(range.getFrom(), true, range.getTo(), false).values().forEach(results::addAll);
+        }
+        return results;
+    }
+
+    /**
+     * Record that a transaction is no longer in flight, either because it has committed or because it failed.
+     * @param transactionId Transaction ID.
+     */
+    void complete(final String transactionId) {
+        InFlight transaction;
+        synchronized (this) {
+            transaction = inFlight.remove(transactionId);
+            if (transaction == null) {
+                return;
+            }
+            for (String key : transaction.keys.getWrites()) {
+                Set<InFlight> keyWriters = writers.get(key);
+                keyWriters.remove(transaction);
+                if (keyWriters.isEmpty()) {
+                    writers.remove(key);
+                }
+            }
+        }
+        transaction.done.complete(null);
+    }
+
+    synchronized int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private static final class InFlight {
+        private final TransactionKeys keys;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        InFlight(final TransactionKeys keys) {
+            this.keys = keys;
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return GatewayUtils.toString(this,
+                "inFlight=" + inFlight.size(),
+                "writtenKeys=" + writers.size());
+    }
+}
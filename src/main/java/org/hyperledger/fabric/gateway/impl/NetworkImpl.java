@@ -7,41 +7,94 @@
 package org.hyperledger.fabric.gateway.impl;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import org.hyperledger.fabric.gateway.CloseableIterator;
+import org.hyperledger.fabric.gateway.Commit;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.GatewayRuntimeException;
 import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.NodeStatistics;
+import org.hyperledger.fabric.gateway.impl.commit.AdaptiveCommitTimeout;
+import org.hyperledger.fabric.gateway.impl.commit.CommitStatusResolver;
+import org.hyperledger.fabric.gateway.impl.endorse.MinimalEndorser;
 import org.hyperledger.fabric.gateway.impl.event.BlockEventSource;
 import org.hyperledger.fabric.gateway.impl.event.BlockEventSourceFactory;
 import org.hyperledger.fabric.gateway.impl.event.BlockListenerSession;
+import org.hyperledger.fabric.gateway.impl.event.BufferedEventIterator;
 import org.hyperledger.fabric.gateway.impl.event.CommitListenerSession;
 import org.hyperledger.fabric.gateway.impl.event.ListenerSession;
 import org.hyperledger.fabric.gateway.impl.event.Listeners;
 import org.hyperledger.fabric.gateway.impl.event.OrderedBlockEventSource;
 import org.hyperledger.fabric.gateway.impl.event.ReplayListenerSession;
+import org.hyperledger.fabric.gateway.impl.orderer.OrdererSubmitter;
+import org.hyperledger.fabric.gateway.impl.orderer.ProposalResponseCodec;
+import org.hyperledger.fabric.gateway.impl.orderer.StoreAndForwardQueue;
+import org.hyperledger.fabric.gateway.impl.stats.Counters;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
 import org.hyperledger.fabric.gateway.spi.Checkpointer;
 import org.hyperledger.fabric.gateway.spi.CommitListener;
+import org.hyperledger.fabric.gateway.spi.EndorsementPolicy;
 import org.hyperledger.fabric.gateway.spi.QueryHandler;
 import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ServiceDiscovery;
 import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
 import org.hyperledger.fabric.sdk.exception.TransactionException;
 
 public final class NetworkImpl implements Network, AutoCloseable {
+    private static final int EVENT_BUFFER_SIZE = 100;
+    private static final double ENDORSEMENT_HEDGE_RATIO = 0.1;
+    private static final double ENDORSEMENT_HEDGE_BURST = 10;
+    private static final double ORDERER_HEDGE_RATIO = 0.1;
+    private static final double ORDERER_HEDGE_BURST = 10;
+    private static final int TRANSACTION_CONTEXT_POOL_SIZE = 32;
+    private static final int SUBMIT_INITIAL_LIMIT = 32;
+    private static final int SUBMIT_MAX_LIMIT = 1000;
+    private static final int EVALUATE_INITIAL_LIMIT = 64;
+    private static final int EVALUATE_MAX_LIMIT = 2000;
+    private static final int COMMIT_STATUS_LOOKUP_WORKERS = 4;
+    private static final String JOURNAL_FILE_SUFFIX = ".journal";
+    private static final EnumSet<Peer.PeerRole> EVENT_SOURCE_ROLES = EnumSet.of(Peer.PeerRole.EVENT_SOURCE);
+
     private final Channel channel;
     private final GatewayImpl gateway;
     private final Map<String, Contract> contracts = new ConcurrentHashMap<>();
     private final BlockEventSource channelBlockSource;
     private final BlockEventSource orderedBlockSource;
     private final QueryHandler queryHandler;
+    private final ServiceDiscovery.EndorsementSelector endorsementSelector;
     private final Map<Consumer<BlockEvent>, ListenerSession> blockListenerSessions = new HashMap<>();
     private final Map<CommitListener, CommitListenerSession> commitListenerSessions = new ConcurrentHashMap<>();
+    private final Set<CloseableIterator<?>> eventIterators = ConcurrentHashMap.newKeySet();
+    private final StatisticsRegistry peerStatistics = new StatisticsRegistry();
+    private final StatisticsRegistry ordererStatistics = new StatisticsRegistry();
+    private final StatisticsRegistry commitStatistics = new StatisticsRegistry();
+    private final HedgeBudget ordererHedgeBudget = new HedgeBudget(ORDERER_HEDGE_RATIO, ORDERER_HEDGE_BURST);
+    private final Counters counters = new Counters();
+    private final KeyAwareScheduler keyAwareScheduler = new KeyAwareScheduler();
+    private final OrdererSubmitter ordererSubmitter;
+    private final TransactionContextPool transactionContextPool;
+    private final ConcurrencyLimiter submitLimiter;
+    private final ConcurrencyLimiter evaluateLimiter;
+    private final AdaptiveCommitTimeout adaptiveCommitTimeout;
+    private final CommitStatusResolver commitStatusResolver;
+    private final StoreAndForwardQueue storeAndForwardQueue;
+    private final Collection<Commit> recoveredTransactions;
+    private final HedgeBudget endorsementHedgeBudget = new HedgeBudget(ENDORSEMENT_HEDGE_RATIO, ENDORSEMENT_HEDGE_BURST);
+    private final Map<String, MinimalEndorser> minimalEndorsers = new ConcurrentHashMap<>();
 
     NetworkImpl(final Channel channel, final GatewayImpl gateway) {
         this.channel = channel;
@@ -52,6 +105,65 @@ public final class NetworkImpl implements Network, AutoCloseable {
         channelBlockSource = BlockEventSourceFactory.getInstance().newBlockEventSource(channel);
         orderedBlockSource = new OrderedBlockEventSource(channelBlockSource);
         queryHandler = gateway.getQueryHandlerFactory().create(this);
+        endorsementSelector = gateway.getEndorsementSelectorFactory().create(this);
+
+        // Gateways used only for event replay never invoke transactions, and must not claim shared resources such as
+        // the store-and-forward journal that belong to the application's gateway
+        boolean transactional = !gateway.isEventReplay();
+        ordererSubmitter = transactional
+                ? new OrdererSubmitter(channel, ordererStatistics, gateway.getClient().getExecutorService(), ordererHedgeBudget, counters)
+                : null;
+        transactionContextPool = transactional
+                ? new TransactionContextPool(channel, gateway.getClient().getExecutorService(), TRANSACTION_CONTEXT_POOL_SIZE)
+                : null;
+        submitLimiter = newConcurrencyLimiter("Submit", SUBMIT_INITIAL_LIMIT, SUBMIT_MAX_LIMIT);
+        evaluateLimiter = newConcurrencyLimiter("Evaluate", EVALUATE_INITIAL_LIMIT, EVALUATE_MAX_LIMIT);
+        adaptiveCommitTimeout = newAdaptiveCommitTimeout();
+        commitStatusResolver = transactional && gateway.isCommitStatusRecoveryEnabled()
+                ? new CommitStatusResolver(channel, gateway.getClient().getExecutorService(), COMMIT_STATUS_LOOKUP_WORKERS, counters)
+                : null;
+        storeAndForwardQueue = newStoreAndForwardQueue();
+        recoveredTransactions = storeAndForwardQueue != null
+                ? Collections.unmodifiableList(storeAndForwardQueue.getRecoveredTransactions().stream()
+                        .map(RecoveredCommit::new)
+                        .collect(Collectors.toList()))
+                : Collections.emptyList();
+    }
+
+    private AdaptiveCommitTimeout newAdaptiveCommitTimeout() {
+        if (!gateway.isAdaptiveCommitTimeoutEnabled() || gateway.isEventReplay()) {
+            return null;
+        }
+        AdaptiveCommitTimeout result = new AdaptiveCommitTimeout();
+        orderedBlockSource.addBlockListener(result);
+        return result;
+    }
+
+    private StoreAndForwardQueue newStoreAndForwardQueue() {
+        Path journalDirectory = gateway.getStoreAndForwardDirectory();
+        if (journalDirectory == null || gateway.isEventReplay()) {
+            return null;
+        }
+        Path journalFile = journalDirectory.resolve(channel.getName() + JOURNAL_FILE_SUFFIX);
+        ExecutorService executor = gateway.getClient().getExecutorService();
+        // Transactions that the submitter has stopped waiting for are always looked up on the ledger
+        CommitStatusResolver resolver = commitStatusResolver != null
+                ? commitStatusResolver
+                : new CommitStatusResolver(channel, executor, COMMIT_STATUS_LOOKUP_WORKERS, counters);
+        try {
+            return new StoreAndForwardQueue(ordererSubmitter, resolver, new ProposalResponseCodec(channel), executor, journalFile,
+                    gateway.getStoreAndForwardMaxAge(), counters);
+        } catch (IOException e) {
+            throw new GatewayRuntimeException("Failed to open transaction journal: " + journalFile, e);
+        }
+    }
+
+    private ConcurrencyLimiter newConcurrencyLimiter(final String name, final int initialLimit, final int maxLimit) {
+        if (!gateway.isConcurrencyLimitEnabled() || gateway.isEventReplay()) {
+            return null;
+        }
+        return new ConcurrencyLimiter(name, initialLimit, 1, maxLimit, gateway.getConcurrencyLimitMaxQueued(),
+                gateway.getConcurrencyLimitMaxWait());
     }
 
     private void initializeChannel() {
@@ -142,6 +254,25 @@ public final class NetworkImpl implements Network, AutoCloseable {
         }
     }
 
+    @Override
+    public CloseableIterator<BlockEvent> blockEvents(final long startBlock) {
+        return newEventIterator(listener -> new ReplayListenerSession(this, listener, startBlock));
+    }
+
+    /**
+     * Create a closeable iterator backed by a bounded buffer of events delivered by a listener session. The iterator
+     * is closed automatically if this network is closed.
+     * @param sessionFactory Creates a listener session that delivers events to the supplied listener.
+     * @param <T> Event type.
+     * @return An event iterator.
+     */
+    public <T> CloseableIterator<T> newEventIterator(final Function<Consumer<T>, ListenerSession> sessionFactory) {
+        BufferedEventIterator<T> iterator = new BufferedEventIterator<>(EVENT_BUFFER_SIZE, sessionFactory);
+        eventIterators.add(iterator);
+        iterator.onClose(() -> eventIterators.remove(iterator));
+        return iterator;
+    }
+
     @Override
     public CommitListener addCommitListener(final CommitListener listener,
                                             final Collection<Peer> peers,
@@ -159,14 +290,137 @@ public final class NetworkImpl implements Network, AutoCloseable {
         }
     }
 
+    @Override
+    public Collection<NodeStatistics> getOrdererStatistics() {
+        return channel.getOrderers().stream()
+                .map(ordererStatistics::get)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Collection<NodeStatistics> getCommitStatistics() {
+        return channel.getPeers(EVENT_SOURCE_ROLES).stream()
+                .map(commitStatistics::get)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Collection<Commit> getRecoveredTransactions() {
+        return recoveredTransactions;
+    }
+
+    @Override
+    public Map<String, Long> getMetrics() {
+        return counters.snapshot();
+    }
+
+    public Counters getCounters() {
+        return counters;
+    }
+
+    /**
+     * Get the concurrency limiter for transaction submits.
+     * @return A concurrency limiter, or {@code null} if concurrency limits are not enabled.
+     */
+    public ConcurrencyLimiter getSubmitLimiter() {
+        return submitLimiter;
+    }
+
+    /**
+     * Get the concurrency limiter for transaction evaluates.
+     * @return A concurrency limiter, or {@code null} if concurrency limits are not enabled.
+     */
+    public ConcurrencyLimiter getEvaluateLimiter() {
+        return evaluateLimiter;
+    }
+
+    /**
+     * Get the commit timeout derived from observed block cadence and commit latency.
+     * @return An adaptive commit timeout, or {@code null} if adaptive commit timeouts are not enabled.
+     */
+    public AdaptiveCommitTimeout getAdaptiveCommitTimeout() {
+        return adaptiveCommitTimeout;
+    }
+
+    /**
+     * Get the resolver used to look up the status of transactions whose commit events may have been missed.
+     * @return A commit status resolver, or {@code null} if commit status recovery is not enabled.
+     */
+    public CommitStatusResolver getCommitStatusResolver() {
+        return commitStatusResolver;
+    }
+
+    /**
+     * Get the queue that holds endorsed transactions for forwarding when they cannot be sent to the orderer.
+     * @return A store-and-forward queue, or {@code null} if store-and-forward is not enabled.
+     */
+    public StoreAndForwardQueue getStoreAndForwardQueue() {
+        return storeAndForwardQueue;
+    }
+
+    KeyAwareScheduler getKeyAwareScheduler() {
+        return keyAwareScheduler;
+    }
+
+    /**
+     * Get the pool of pre-built transaction contexts.
+     * @return A transaction context pool, or {@code null} if this network is used only for event replay.
+     */
+    public TransactionContextPool getTransactionContextPool() {
+        return transactionContextPool;
+    }
+
+    /**
+     * Get the submitter used to send endorsed transactions to the orderer.
+     * @return An orderer submitter, or {@code null} if this network is used only for event replay.
+     */
+    public OrdererSubmitter getOrdererSubmitter() {
+        return ordererSubmitter;
+    }
+
     public QueryHandler getQueryHandler() {
         return queryHandler;
     }
 
+    public ServiceDiscovery.EndorsementSelector getEndorsementSelector() {
+        return endorsementSelector;
+    }
+
     public BlockEventSource getBlockSource() {
         return orderedBlockSource;
     }
 
+    public StatisticsRegistry getPeerStatistics() {
+        return peerStatistics;
+    }
+
+    /**
+     * Get the time taken for each peer to report transaction commits, measured from when commit handlers start
+     * listening.
+     * @return Commit lag statistics.
+     */
+    public StatisticsRegistry getCommitLagStatistics() {
+        return commitStatistics;
+    }
+
+    public HedgeBudget getEndorsementHedgeBudget() {
+        return endorsementHedgeBudget;
+    }
+
+    /**
+     * Get an endorser that selects a minimal set of endorsing peers for a chaincode, based on the endorsement policy
+     * configured for the gateway.
+     * @param chaincodeId Chaincode name.
+     * @return An endorser, or {@code null} if no endorsement policy is configured for the chaincode.
+     */
+    public MinimalEndorser getMinimalEndorser(final String chaincodeId) {
+        EndorsementPolicy policy = gateway.getEndorsementPolicy(chaincodeId);
+        if (policy == null) {
+            return null;
+        }
+        return minimalEndorsers.computeIfAbsent(chaincodeId, k -> new MinimalEndorser(channel, policy));
+    }
+
     @Override
     public void close() {
         synchronized (blockListenerSessions) {
@@ -175,6 +429,13 @@ public final class NetworkImpl implements Network, AutoCloseable {
         }
         commitListenerSessions.values().forEach(ListenerSession::close);
         commitListenerSessions.clear();
+        eventIterators.forEach(CloseableIterator::close);
+        if (storeAndForwardQueue != null) {
+            storeAndForwardQueue.close();
+        }
+        if (transactionContextPool != null) {
+            transactionContextPool.close();
+        }
 
         orderedBlockSource.close();
         channelBlockSource.close();
@@ -189,6 +450,7 @@ public final class NetworkImpl implements Network, AutoCloseable {
                 "channelBlockSource=" + channelBlockSource,
                 "commitListenerSessions=" + commitListenerSessions,
                 "orderedBlockSource=" + orderedBlockSource,
-                "blockListenerSessions=" + blockListenerSessions);
+                "blockListenerSessions=" + blockListenerSessions,
+                "eventIterators=" + eventIterators);
     }
 }
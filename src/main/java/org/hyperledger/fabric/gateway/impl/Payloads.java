@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedInputStream;
+import org.hyperledger.fabric.protos.peer.ProposalPackage;
+import org.hyperledger.fabric.protos.peer.ProposalResponsePackage;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
+
+/**
+ * Conversion of transaction function arguments and results to and from their wire representation, avoiding
+ * intermediate copies of large payloads.
+ */
+final class Payloads {
+    private Payloads() { }
+
+    /**
+     * Get a read-only view of the payload returned by the transaction function. The serialized proposal response is
+     * parsed with aliasing enabled, so the view shares the bytes received from the peer instead of copying them.
+     * @param response A proposal response.
+     * @return Payload response from the transaction function.
+     * @throws InvalidArgumentException if the proposal response cannot be parsed.
+     */
+    static ByteBuffer getPayload(final ProposalResponse response) throws InvalidArgumentException {
+        ProposalResponsePackage.ProposalResponse proposalResponse = response.getProposalResponse();
+        if (proposalResponse == null) {
+            return ByteBuffer.wrap(response.getChaincodeActionResponsePayload()).asReadOnlyBuffer();
+        }
+        return getPayload(proposalResponse);
+    }
+
+    /**
+     * Get a read-only view of the payload returned by the transaction function, from the response of an endorsing
+     * peer.
+     * @param proposalResponse A peer's proposal response.
+     * @return Payload response from the transaction function.
+     * @throws InvalidArgumentException if the proposal response cannot be parsed.
+     */
+    static ByteBuffer getPayload(final ProposalResponsePackage.ProposalResponse proposalResponse) throws InvalidArgumentException {
+        try {
+            ProposalResponsePackage.ProposalResponsePayload payload =
+                    ProposalResponsePackage.ProposalResponsePayload.parseFrom(newAliasingInput(proposalResponse.getPayload()));
+            ProposalPackage.ChaincodeAction action = ProposalPackage.ChaincodeAction.parseFrom(newAliasingInput(payload.getExtension()));
+            return action.getResponse().getPayload().asReadOnlyByteBuffer();
+        } catch (IOException e) {
+            throw new InvalidArgumentException(e);
+        }
+    }
+
+    private static CodedInputStream newAliasingInput(final ByteString bytes) {
+        CodedInputStream input = bytes.newCodedInput();
+        input.enableAliasing(true);
+        return input;
+    }
+
+    /**
+     * Copy the remaining content of a buffer to a new array, without changing the buffer's position.
+     * @param buffer A buffer.
+     * @return Buffer content.
+     */
+    static byte[] toByteArray(final ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Encode string arguments as UTF-8, which is the encoding used by the SDK for string arguments.
+     * @param args String arguments.
+     * @return Encoded arguments.
+     */
+    static byte[][] toBytes(final String... args) {
+        byte[][] result = new byte[args.length][];
+        for (int i = 0; i < args.length; i++) {
+            result[i] = args[i].getBytes(StandardCharsets.UTF_8);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Collection;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.protos.ledger.rwset.Rwset;
+import org.hyperledger.fabric.protos.ledger.rwset.kvrwset.KvRwset;
+import org.hyperledger.fabric.protos.peer.ProposalPackage;
+import org.hyperledger.fabric.protos.peer.ProposalResponsePackage;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+
+/**
+ * Inspects the read/write sets of endorsed proposal responses.
+ */
+final class ReadWriteSets {
+    private static final Log LOG = LogFactory.getLog(ReadWriteSets.class);
+
+    private ReadWriteSets() { }
+
+    /**
+     * Check whether committing the endorsed transaction would have no effect on the ledger. This is the case only if
+     * no namespace contains public or private data writes, including metadata writes, and the chaincode did not set
+     * a chaincode event. Responses that cannot be parsed are treated as not read-only.
+     * @param responses Successful proposal responses.
+     * @return {@code true} if the transaction is read-only; otherwise {@code false}.
+     */
+    static boolean isReadOnly(final Collection<ProposalResponse> responses) {
+        return !responses.isEmpty() && responses.stream().allMatch(ReadWriteSets::isReadOnly);
+    }
+
+    private static boolean isReadOnly(final ProposalResponse response) {
+        try {
+            ProposalPackage.ChaincodeAction action = getChaincodeAction(response);
+            if (action == null || !action.getEvents().isEmpty()) {
+                return false;
+            }
+
+            Rwset.TxReadWriteSet txReadWriteSet = Rwset.TxReadWriteSet.parseFrom(action.getResults());
+            for (Rwset.NsReadWriteSet nsReadWriteSet : txReadWriteSet.getNsRwsetList()) {
+                if (hasWrites(nsReadWriteSet)) {
+                    return false;
+                }
+            }
+            return true;
+        } catch (InvalidProtocolBufferException e) {
+            LOG.warn("Failed to parse read/write set; treating transaction as not read-only", e);
+            return false;
+        }
+    }
+
+    /**
+     * Get the keys read and written by an endorsed transaction. Since successful responses used for a transaction
+     * must have identical read/write sets, only the first response is inspected.
+     * @param responses Successful proposal responses.
+     * @return Transaction keys, or {@code null} if the read/write set could not be parsed.
+     */
+    static TransactionKeys getKeys(final Collection<ProposalResponse> responses) {
+        if (responses.isEmpty()) {
+            return null;
+        }
+
+        try {
+            ProposalPackage.ChaincodeAction action = getChaincodeAction(responses.iterator().next());
+            if (action == null) {
+                return null;
+            }
+
+            TransactionKeys keys = new TransactionKeys();
+            Rwset.TxReadWriteSet txReadWriteSet = Rwset.TxReadWriteSet.parseFrom(action.getResults());
+            for (Rwset.NsReadWriteSet nsReadWriteSet : txReadWriteSet.getNsRwsetList()) {
+                addKeys(keys, nsReadWriteSet);
+            }
+            return keys;
+        } catch (InvalidProtocolBufferException e) {
+            LOG.warn("Failed to parse read/write set", e);
+            return null;
+        }
+    }
+
+    private static ProposalPackage.ChaincodeAction getChaincodeAction(final ProposalResponse response)
+            throws InvalidProtocolBufferException {
+        ProposalResponsePackage.ProposalResponse proposalResponse = response.getProposalResponse();
+        if (proposalResponse == null) {
+            return null;
+        }
+
+        ProposalResponsePackage.ProposalResponsePayload payload =
+                ProposalResponsePackage.ProposalResponsePayload.parseFrom(proposalResponse.getPayload());
+        return ProposalPackage.ChaincodeAction.parseFrom(payload.getExtension());
+    }
+
+    private static void addKeys(final TransactionKeys keys, final Rwset.NsReadWriteSet nsReadWriteSet)
+            throws InvalidProtocolBufferException {
+        String namespace = nsReadWriteSet.getNamespace();
+        KvRwset.KVRWSet kvReadWriteSet = KvRwset.KVRWSet.parseFrom(nsReadWriteSet.getRwset());
+        kvReadWriteSet.getReadsList().forEach(read -> keys.addRead(namespace, read.getKey()));
+        kvReadWriteSet.getWritesList().forEach(write -> keys.addWrite(namespace, write.getKey()));
+        kvReadWriteSet.getMetadataWritesList().forEach(write -> keys.addWrite(namespace, write.getKey()));
+        kvReadWriteSet.getRangeQueriesInfoList().forEach(range -> keys.addRange(namespace, range.getStartKey(), range.getEndKey()));
+
+        for (Rwset.CollectionHashedReadWriteSet collection : nsReadWriteSet.getCollectionHashedRwsetList()) {
+            String collectionName = collection.getCollectionName();
+            KvRwset.HashedRWSet hashedReadWriteSet = KvRwset.HashedRWSet.parseFrom(collection.getHashedRwset());
+            hashedReadWriteSet.getHashedReadsList()
+                    .forEach(read -> keys.addPrivateRead(namespace, collectionName, read.getKeyHash()));
+            hashedReadWriteSet.getHashedWritesList()
+                    .forEach(write -> keys.addPrivateWrite(namespace, collectionName, write.getKeyHash()));
+            hashedReadWriteSet.getMetadataWritesList()
+                    .forEach(write -> keys.addPrivateWrite(namespace, collectionName, write.getKeyHash()));
+        }
+    }
+
+    private static boolean hasWrites(final Rwset.NsReadWriteSet nsReadWriteSet) throws InvalidProtocolBufferException {
+        if (hasPublicWrites(nsReadWriteSet.getRwset())) {
+            return true;
+        }
+        for (Rwset.CollectionHashedReadWriteSet collection : nsReadWriteSet.getCollectionHashedRwsetList()) {
+            if (hasPrivateWrites(collection.getHashedRwset())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasPublicWrites(final ByteString rwset) throws InvalidProtocolBufferException {
+        KvRwset.KVRWSet kvReadWriteSet = KvRwset.KVRWSet.parseFrom(rwset);
+        return kvReadWriteSet.getWritesCount() > 0 || kvReadWriteSet.getMetadataWritesCount() > 0;
+    }
+
+    private static boolean hasPrivateWrites(final ByteString hashedRwset) throws InvalidProtocolBufferException {
+        KvRwset.HashedRWSet hashedReadWriteSet = KvRwset.HashedRWSet.parseFrom(hashedRwset);
+        return hashedReadWriteSet.getHashedWritesCount() > 0 || hashedReadWriteSet.getMetadataWritesCount() > 0;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import org.hyperledger.fabric.gateway.Commit;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.gateway.impl.orderer.StoreAndForwardQueue;
+import org.hyperledger.fabric.protos.peer.ProposalResponsePackage;
+import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
+
+/**
+ * Commit of a transaction recovered by a {@link StoreAndForwardQueue} from the journal of a previous process. There is
+ * no commit handler; the outcome is reported once the queue has resolved the transaction, which is limited only by the
+ * queue's maximum age.
+ */
+final class RecoveredCommit implements Commit {
+    private final String transactionId;
+    private final CompletableFuture<byte[]> outcome;
+
+    RecoveredCommit(final StoreAndForwardQueue.RecoveredTransaction transaction) {
+        transactionId = transaction.getTransactionId();
+        outcome = transaction.getOutcome().thenCompose(status -> toResult(status, transaction.getProposalResponse()));
+    }
+
+    private CompletableFuture<byte[]> toResult(final StoreAndForwardQueue.Status status, final Optional<byte[]> proposalResponse) {
+        CompletableFuture<byte[]> result = new CompletableFuture<>();
+        if (status == StoreAndForwardQueue.Status.COMMITTED) {
+            try {
+                result.complete(getPayload(proposalResponse));
+            } catch (InvalidProtocolBufferException | InvalidArgumentException e) {
+                result.completeExceptionally(new GatewayRuntimeException("Failed to read result of transaction " + transactionId, e));
+            }
+        } else if (status == StoreAndForwardQueue.Status.FAILED) {
+            result.completeExceptionally(new ContractException("Transaction " + transactionId + " failed to commit"));
+        } else {
+            result.completeExceptionally(new TimeoutException("Commit status of transaction " + transactionId
+                    + " was not found before it expired"));
+        }
+        return result;
+    }
+
+    private static byte[] getPayload(final Optional<byte[]> proposalResponse)
+            throws InvalidProtocolBufferException, InvalidArgumentException {
+        if (!proposalResponse.isPresent()) {
+            return new byte[0];
+        }
+        ProposalResponsePackage.ProposalResponse response = ProposalResponsePackage.ProposalResponse.parseFrom(proposalResponse.get());
+        return Payloads.toByteArray(Payloads.getPayload(response));
+    }
+
+    @Override
+    public String getTransactionId() {
+        return transactionId;
+    }
+
+    @Override
+    public boolean isDone() {
+        return outcome.isDone();
+    }
+
+    @Override
+    public byte[] waitForCommit() throws ContractException, TimeoutException, InterruptedException {
+        byte[] result = null;
+        try {
+            result = outcome.get();
+        } catch (ExecutionException e) {
+            throwCommitFailure(e.getCause());
+        }
+        return result.clone();
+    }
+
+    @Override
+    public byte[] waitForCommit(final long timeout, final TimeUnit timeUnit)
+            throws ContractException, TimeoutException, InterruptedException {
+        byte[] result = null;
+        try {
+            result = outcome.get(timeout, timeUnit);
+        } catch (ExecutionException e) {
+            throwCommitFailure(e.getCause());
+        } catch (TimeoutException e) {
+            throw new TimeoutException("Timeout waiting for commit of transaction " + transactionId);
+        }
+        return result.clone();
+    }
+
+    @Override
+    public CompletableFuture<byte[]> whenCommitted() {
+        return outcome.thenApply(byte[]::clone);
+    }
+
+    private void throwCommitFailure(final Throwable cause) throws ContractException, TimeoutException {
+        if (cause instanceof ContractException) {
+            throw (ContractException) cause;
+        } else if (cause instanceof TimeoutException) {
+            throw (TimeoutException) cause;
+        }
+        throw new GatewayRuntimeException("Failed waiting for commit of transaction " + transactionId, cause);
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this, "transactionId=" + transactionId);
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.transaction.TransactionContext;
+
+/**
+ * Pool of transaction contexts created in advance, so that generating a nonce, serializing the client identity and
+ * computing the transaction ID happen off the request path. The pool is refilled in the background whenever it falls
+ * below half its capacity. If the pool is empty, a new context is created on the caller's thread.
+ * <p>Each context is handed out only once, so every transaction still has a unique transaction ID. The proposal
+ * timestamp is not fixed when a context is created, so pooled contexts do not become stale.</p>
+ */
+public final class TransactionContextPool implements AutoCloseable {
+    private static final Log LOG = LogFactory.getLog(TransactionContextPool.class);
+
+    private final Channel channel;
+    private final Executor executor;
+    private final int capacity;
+    private final BlockingQueue<TransactionContext> contexts;
+    private final AtomicBoolean refilling = new AtomicBoolean(false);
+    private volatile boolean closed = false;
+
+    /**
+     * Create a pool.
+     * @param channel Channel for which transaction contexts are created.
+     * @param executor Used to refill the pool in the background, or {@code null} to always create contexts on demand.
+     * @param capacity Maximum number of contexts held in the pool.
+     */
+    public TransactionContextPool(final Channel channel, final Executor executor, final int capacity) {
+        this.channel = channel;
+        this.executor = executor;
+        this.capacity = capacity;
+        this.contexts = new ArrayBlockingQueue<>(capacity);
+    }
+
+    /**
+     * Take a transaction context from the pool, creating a new context if the pool is empty.
+     * @return A transaction context that has not been used by any other transaction.
+     */
+    public TransactionContext take() {
+        TransactionContext context = contexts.poll();
+        refill();
+        return context != null ? context : channel.newTransactionContext();
+    }
+
+    private void refill() {
+        if (executor == null || closed || contexts.size() > capacity / 2 || !refilling.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            executor.execute(this::fill);
+        } catch (RejectedExecutionException e) {
+            refilling.set(false);
+        }
+    }
+
+    private void fill() {
+        try {
+            while (!closed && contexts.remainingCapacity() > 0) {
+                contexts.offer(channel.newTransactionContext());
+            }
+        } catch (RuntimeException e) {
+            LOG.warn("Failed to create transaction context", e);
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    int size() {
+        return contexts.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        contexts.clear();
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "channel=" + channel.getName(),
+                "size=" + contexts.size(),
+                "capacity=" + capacity);
+    }
+}
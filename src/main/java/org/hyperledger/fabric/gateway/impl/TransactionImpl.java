@@ -6,22 +6,42 @@
 
 package org.hyperledger.fabric.gateway.impl;
 
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.Commit;
+import org.hyperledger.fabric.gateway.ConcurrencyLimitExceededException;
 import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.EndorsedTransaction;
 import org.hyperledger.fabric.gateway.GatewayRuntimeException;
 import org.hyperledger.fabric.gateway.Transaction;
+import org.hyperledger.fabric.gateway.TransactionPriority;
+import org.hyperledger.fabric.gateway.impl.commit.AdaptiveCommitTimeout;
+import org.hyperledger.fabric.gateway.impl.commit.CompletableCommitHandler;
+import org.hyperledger.fabric.gateway.impl.commit.NoOpCommitHandler;
+import org.hyperledger.fabric.gateway.impl.commit.ValidationCodes;
+import org.hyperledger.fabric.gateway.impl.endorse.HedgedEndorser;
+import org.hyperledger.fabric.gateway.impl.endorse.MinimalEndorser;
+import org.hyperledger.fabric.gateway.impl.endorse.PolicyEndorser;
+import org.hyperledger.fabric.gateway.impl.orderer.StoreAndForwardQueue;
 import org.hyperledger.fabric.gateway.impl.query.QueryImpl;
 import org.hyperledger.fabric.gateway.spi.CommitHandler;
 import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
+import org.hyperledger.fabric.gateway.spi.EndorsementPolicy;
 import org.hyperledger.fabric.gateway.spi.Query;
 import org.hyperledger.fabric.gateway.spi.QueryHandler;
+import org.hyperledger.fabric.gateway.spi.RetryPolicy;
 import org.hyperledger.fabric.sdk.ChaincodeResponse;
 import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.Peer;
@@ -38,10 +58,20 @@ import org.hyperledger.fabric.sdk.transaction.TransactionContext;
 import static org.hyperledger.fabric.sdk.Channel.DiscoveryOptions.createDiscoveryOptions;
 
 public final class TransactionImpl implements Transaction {
+    public static final String COMMIT_SKIPPED_COUNT = "transaction.commit.skipped";
+    public static final String SUBMIT_COUNT_PREFIX = "transaction.submit.";
+    public static final String CONFLICT_COUNT_PREFIX = "transaction.conflict.";
+    public static final String RETRY_COUNT_PREFIX = "transaction.retry.";
+    public static final String SCHEDULER_DELAY_COUNT = "transaction.scheduler.delayed";
+    public static final String SUBMIT_REJECTED_COUNT = "transaction.submit.rejected";
+    public static final String EVALUATE_REJECTED_COUNT = "transaction.evaluate.rejected";
+
     private static final Log LOG = LogFactory.getLog(TransactionImpl.class);
 
     private static final long DEFAULT_ORDERER_TIMEOUT = 60;
     private static final TimeUnit DEFAULT_ORDERER_TIMEOUT_UNIT = TimeUnit.SECONDS;
+    private static final EnumSet<Peer.PeerRole> ENDORSING_ROLES = EnumSet.of(Peer.PeerRole.ENDORSING_PEER);
+    private static final int MAX_SCHEDULED_ENDORSEMENTS = 3;
 
     private final ContractImpl contract;
     private final String name;
@@ -50,10 +80,21 @@ public final class TransactionImpl implements Transaction {
     private final GatewayImpl gateway;
     private CommitHandlerFactory commitHandlerFactory;
     private TimePeriod commitTimeout;
+    private boolean adaptiveCommitTimeout;
+    private TimePeriod timeout;
+    private RetryPolicy retryPolicy;
+    private TransactionPriority priority = TransactionPriority.NORMAL;
+    private Deadline deadline = Deadline.none();
     private final QueryHandler queryHandler;
     private Map<String, byte[]> transientData = null;
     private Collection<Peer> endorsingPeers = null;
-    private final TransactionContext transactionContext;
+    private ConcurrencyLimiter.Permit submitPermit = null;
+    private EndorsementPolicy endorsementPolicy = null;
+    private boolean endorsementHedging = false;
+    private boolean ordererHedging = false;
+    private boolean skipReadOnlyCommit = false;
+    private boolean commitSkipped = false;
+    private TransactionContext transactionContext = null;
 
     TransactionImpl(final ContractImpl contract, final String name) {
         this.contract = contract;
@@ -63,8 +104,10 @@ public final class TransactionImpl implements Transaction {
         gateway = network.getGateway();
         commitHandlerFactory = gateway.getCommitHandlerFactory();
         commitTimeout = gateway.getCommitTimeout();
+        adaptiveCommitTimeout = gateway.isAdaptiveCommitTimeoutEnabled();
+        timeout = gateway.getTransactionTimeout();
+        retryPolicy = gateway.getRetryPolicy();
         queryHandler = network.getQueryHandler();
-        transactionContext = channel.newTransactionContext();
     }
 
     @Override
@@ -74,7 +117,14 @@ public final class TransactionImpl implements Transaction {
 
     @Override
     public String getTransactionId() {
-        return transactionContext.getTxID();
+        return getTransactionContext().getTxID();
+    }
+
+    private synchronized TransactionContext getTransactionContext() {
+        if (transactionContext == null) {
+            transactionContext = network.getTransactionContextPool().take();
+        }
+        return transactionContext;
     }
 
     @Override
@@ -86,6 +136,42 @@ public final class TransactionImpl implements Transaction {
     @Override
     public Transaction setCommitTimeout(final long timeout, final TimeUnit timeUnit) {
         commitTimeout = new TimePeriod(timeout, timeUnit);
+        adaptiveCommitTimeout = false;
+        return this;
+    }
+
+    @Override
+    public Transaction setOrdererHedging(final boolean enabled) {
+        ordererHedging = enabled;
+        return this;
+    }
+
+    @Override
+    public Transaction setSkipReadOnlyCommit(final boolean enabled) {
+        skipReadOnlyCommit = enabled;
+        return this;
+    }
+
+    @Override
+    public boolean isCommitSkipped() {
+        return commitSkipped;
+    }
+
+    @Override
+    public Transaction setPriority(final TransactionPriority priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    @Override
+    public Transaction setRetryPolicy(final RetryPolicy retryPolicy) {
+        this.retryPolicy = retryPolicy;
+        return this;
+    }
+
+    @Override
+    public Transaction setTimeout(final long timeout, final TimeUnit timeUnit) {
+        this.timeout = new TimePeriod(timeout, timeUnit);
         return this;
     }
 
@@ -101,20 +187,219 @@ public final class TransactionImpl implements Transaction {
         return this;
     }
 
+    @Override
+    public Transaction setEndorsementPolicy(final EndorsementPolicy policy) {
+        endorsementPolicy = policy;
+        return this;
+    }
+
+    @Override
+    public Transaction setEndorsementHedging(final boolean enabled) {
+        endorsementHedging = enabled;
+        return this;
+    }
+
+    @Override
+    public byte[] submit() throws ContractException, TimeoutException, InterruptedException {
+        return submit(new byte[0][]);
+    }
+
     @Override
     public byte[] submit(final String... args) throws ContractException, TimeoutException, InterruptedException {
+        return submit(Payloads.toBytes(args));
+    }
+
+    @Override
+    public byte[] submit(final byte[]... args) throws ContractException, TimeoutException, InterruptedException {
+        return Payloads.toByteArray(submitAsBuffer(args));
+    }
+
+    @Override
+    public ByteBuffer submitAsBuffer(final byte[]... args) throws ContractException, TimeoutException, InterruptedException {
+        deadline = Deadline.of(timeout);
+        return submitWithRetry(args);
+    }
+
+    private ConcurrencyLimiter.Permit acquire(final ConcurrencyLimiter limiter, final String rejectedCounter)
+            throws InterruptedException {
+        try {
+            return limiter.acquire(deadline, priority);
+        } catch (ConcurrencyLimitExceededException e) {
+            network.getCounters().increment(rejectedCounter);
+            throw e;
+        }
+    }
+
+    private ByteBuffer submitWithRetry(final byte[]... args) throws ContractException, TimeoutException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return submitAttempt(args);
+            } catch (ContractException e) {
+                long delayNanos = getRetryDelayNanos(attempt, e);
+                if (delayNanos < 0) {
+                    throw e;
+                }
+
+                LOG.info("Retrying transaction " + getTransactionId() + " after attempt " + attempt + " failed: " + e.getMessage());
+                network.getCounters().increment(RETRY_COUNT_PREFIX + getFunctionName());
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+                resetTransactionContext();
+            }
+        }
+    }
+
+    private long getRetryDelayNanos(final int attempt, final ContractException cause) {
+        if (ValidationCodes.isConflict(cause)) {
+            network.getCounters().increment(CONFLICT_COUNT_PREFIX + getFunctionName());
+        }
+
+        long delayNanos = retryPolicy.getRetryDelayNanos(attempt, cause);
+        if (delayNanos < 0 || (deadline.isBounded() && delayNanos >= deadline.getRemainingNanos())) {
+            return -1;
+        }
+        return delayNanos;
+    }
+
+    private String getFunctionName() {
+        return contract.getChaincodeId() + ":" + name;
+    }
+
+    private synchronized void resetTransactionContext() {
+        transactionContext = null;
+    }
+
+    /**
+     * Make a single submit attempt, holding a concurrency limiter permit only for the duration of the attempt so that
+     * retry backoff does not contribute to the latency used to adjust the limit.
+     */
+    private ByteBuffer submitAttempt(final byte[]... args) throws ContractException, TimeoutException, InterruptedException {
+        ConcurrencyLimiter limiter = network.getSubmitLimiter();
+        if (limiter == null) {
+            return endorseAndCommit(args);
+        }
+
+        submitPermit = acquire(limiter, SUBMIT_REJECTED_COUNT);
+        try {
+            ByteBuffer result = endorseAndCommit(args);
+            submitPermit.onSuccess();
+            return result;
+        } catch (TimeoutException e) {
+            submitPermit.onDropped();
+            throw e;
+        } finally {
+            submitPermit.onIgnore();
+            submitPermit = null;
+        }
+    }
+
+    private ByteBuffer endorseAndCommit(final byte[]... args) throws ContractException, TimeoutException, InterruptedException {
+        commitSkipped = false;
         Collection<ProposalResponse> proposalResponses = endorseTransaction(args);
         Collection<ProposalResponse> validResponses = validatePeerResponses(proposalResponses);
+        if (skipCommitIfReadOnly(validResponses)) {
+            return getResponsePayload(validResponses.iterator().next());
+        }
+        if (!gateway.isKeyAwareSchedulingEnabled()) {
+            return commitEndorsedTransaction(proposalResponses, validResponses);
+        }
 
+        KeyAwareScheduler scheduler = network.getKeyAwareScheduler();
         try {
-            return commitTransaction(validResponses);
-        } catch (ContractException e) {
-            e.setProposalResponses(proposalResponses);
-            throw e;
+            return scheduleEndorsedTransaction(scheduler, proposalResponses, validResponses, args);
+        } finally {
+            scheduler.complete(getTransactionId());
+        }
+    }
+
+    private boolean skipCommitIfReadOnly(final Collection<ProposalResponse> validResponses) {
+        commitSkipped = skipReadOnlyCommit && ReadWriteSets.isReadOnly(validResponses);
+        if (commitSkipped) {
+            LOG.debug("Transaction " + getTransactionId() + " is read-only; skipping submit to the orderer");
+            network.getCounters().increment(COMMIT_SKIPPED_COUNT);
         }
+        return commitSkipped;
     }
 
-    private Collection<ProposalResponse> endorseTransaction(final String... args) {
+    private ByteBuffer scheduleEndorsedTransaction(final KeyAwareScheduler scheduler, final Collection<ProposalResponse> proposalResponses,
+                                                   final Collection<ProposalResponse> validResponses, final byte[]... args)
+            throws ContractException, TimeoutException, InterruptedException {
+        Collection<ProposalResponse> currentProposalResponses = proposalResponses;
+        Collection<ProposalResponse> currentValidResponses = validResponses;
+        for (int endorsement = 1; ; endorsement++) {
+            TransactionKeys keys = ReadWriteSets.getKeys(currentValidResponses);
+            if (keys == null) {
+                return commitEndorsedTransaction(currentProposalResponses, currentValidResponses);
+            }
+
+            boolean force = endorsement >= MAX_SCHEDULED_ENDORSEMENTS;
+            Collection<CompletableFuture<Void>> conflicts = scheduler.schedule(getTransactionId(), keys, force);
+            if (conflicts.isEmpty()) {
+                return commitEndorsedTransaction(currentProposalResponses, currentValidResponses);
+            }
+            if (!awaitConflicts(conflicts)) {
+                scheduler.schedule(getTransactionId(), keys, true);
+                return commitEndorsedTransaction(currentProposalResponses, currentValidResponses);
+            }
+
+            LOG.debug("Transaction " + getTransactionId() + " read keys written by " + conflicts.size()
+                    + " uncommitted transactions; endorsing again");
+            network.getCounters().increment(SCHEDULER_DELAY_COUNT);
+            currentProposalResponses = endorseTransaction(args);
+            currentValidResponses = validatePeerResponses(currentProposalResponses);
+        }
+    }
+
+    private boolean awaitConflicts(final Collection<CompletableFuture<Void>> conflicts) throws InterruptedException {
+        TimePeriod wait = deadline.limit(commitTimeout);
+        long startNanos = System.nanoTime();
+        try {
+            CompletableFuture.allOf(conflicts.toArray(new CompletableFuture<?>[0])).get(wait.getTime(), wait.getTimeUnit());
+            return true;
+        } catch (ExecutionException | TimeoutException e) {
+            LOG.debug("Conflicting transactions did not complete within " + wait);
+            return false;
+        } finally {
+            if (submitPermit != null) {
+                // Time spent deliberately waiting for other transactions does not reflect load
+                submitPermit.excludeFromLatency(System.nanoTime() - startNanos);
+            }
+        }
+    }
+
+    private ByteBuffer commitEndorsedTransaction(final Collection<ProposalResponse> proposalResponses,
+                                                 final Collection<ProposalResponse> validResponses)
+            throws ContractException, TimeoutException, InterruptedException {
+        return sendTransaction(proposalResponses, validResponses).awaitPayload();
+    }
+
+    @Override
+    public EndorsedTransaction endorse() throws ContractException, InterruptedException {
+        return endorse(new byte[0][]);
+    }
+
+    @Override
+    public EndorsedTransaction endorse(final String... args) throws ContractException, InterruptedException {
+        return endorse(Payloads.toBytes(args));
+    }
+
+    @Override
+    public EndorsedTransaction endorse(final byte[]... args) throws ContractException, InterruptedException {
+        deadline = Deadline.of(timeout);
+        Collection<ProposalResponse> proposalResponses = endorseTransaction(args);
+        Collection<ProposalResponse> validResponses = validatePeerResponses(proposalResponses);
+        return new EndorsedTransactionImpl(proposalResponses, validResponses);
+    }
+
+    private Collection<ProposalResponse> endorseTransaction(final byte[]... args) throws ContractException, InterruptedException {
+        if (endorsementPolicy != null) {
+            PolicyEndorser endorser = new PolicyEndorser(channel, endorsementPolicy, gateway.getClient().getExecutorService());
+            Collection<Peer> peers = endorsingPeers != null ? endorsingPeers : channel.getPeers(ENDORSING_ROLES);
+            return endorser.sendTransactionProposal(() -> newProposalRequest(args), peers);
+        }
+        if (endorsementHedging) {
+            return sendHedgedTransactionProposal(args);
+        }
+
         try {
             TransactionProposalRequest request = newProposalRequest(args);
             return sendTransactionProposal(request);
@@ -128,45 +413,332 @@ public final class TransactionImpl implements Transaction {
         if (endorsingPeers != null) {
             return channel.sendTransactionProposal(request, endorsingPeers);
         } else if (network.getGateway().isDiscoveryEnabled()) {
-            Channel.DiscoveryOptions discoveryOptions = createDiscoveryOptions()
-                    .setEndorsementSelector(ServiceDiscovery.EndorsementSelector.ENDORSEMENT_SELECTION_RANDOM)
-                    .setInspectResults(true);
-            return channel.sendTransactionProposalToEndorsers(request, discoveryOptions);
+            long startTime = System.nanoTime();
+            Collection<ProposalResponse> responses = channel.sendTransactionProposalToEndorsers(request, newDiscoveryOptions());
+            network.getPeerStatistics().recordProposalResponses(responses, System.nanoTime() - startTime);
+            return responses;
+        }
+
+        MinimalEndorser minimalEndorser = network.getMinimalEndorser(contract.getChaincodeId());
+        if (minimalEndorser != null) {
+            return minimalEndorser.sendTransactionProposal(request);
         } else {
             return channel.sendTransactionProposal(request);
         }
     }
 
-    private byte[] commitTransaction(final Collection<ProposalResponse> validResponses)
+    private Collection<ProposalResponse> sendHedgedTransactionProposal(final byte[]... args) throws InterruptedException {
+        HedgedEndorser endorser = new HedgedEndorser(channel, gateway.getClient().getExecutorService(),
+                network.getPeerStatistics(), network.getEndorsementHedgeBudget());
+        if (endorsingPeers != null) {
+            return endorser.sendTransactionProposalToPeers(() -> newProposalRequest(args), endorsingPeers);
+        } else if (gateway.isDiscoveryEnabled()) {
+            return endorser.sendTransactionProposalToEndorsers(() -> newProposalRequest(args),
+                    network.getEndorsementSelector(), this::newDiscoveryOptions);
+        }
+
+        return endorser.sendTransactionProposal(() -> newProposalRequest(args), getHedgedEndorsingPeers());
+    }
+
+    private Collection<Peer> getHedgedEndorsingPeers() {
+        MinimalEndorser minimalEndorser = network.getMinimalEndorser(contract.getChaincodeId());
+        Collection<Peer> peers = minimalEndorser != null ? minimalEndorser.selectPeers() : Collections.emptyList();
+        return !peers.isEmpty() ? peers : channel.getPeers(ENDORSING_ROLES);
+    }
+
+    private Channel.DiscoveryOptions newDiscoveryOptions() {
+        return newDiscoveryOptions(network.getEndorsementSelector());
+    }
+
+    private Channel.DiscoveryOptions newDiscoveryOptions(final ServiceDiscovery.EndorsementSelector selector) {
+        return createDiscoveryOptions()
+                .setEndorsementSelector(selector)
+                .setInspectResults(true);
+    }
+
+    private CommitImpl sendTransaction(final Collection<ProposalResponse> proposalResponses,
+                                       final Collection<ProposalResponse> validResponses)
             throws TimeoutException, ContractException, InterruptedException {
-        ProposalResponse proposalResponse = validResponses.iterator().next();
+        if (deadline.isExpired()) {
+            throw new TimeoutException("Transaction " + getTransactionId() + " deadline expired before submit to the orderer");
+        }
 
         CommitHandler commitHandler = commitHandlerFactory.create(getTransactionId(), network);
         commitHandler.startListening();
 
+        network.getCounters().increment(SUBMIT_COUNT_PREFIX + getFunctionName());
+        CommitImpl commit = new CommitImpl(commitHandler, proposalResponses, getResponsePayload(validResponses.iterator().next()));
+        StoreAndForwardQueue forwardQueue = network.getStoreAndForwardQueue();
+        if (forwardQueue != null && forwardQueue.isBacklogged()) {
+            return commit.storeAndForward(forwardQueue, validResponses);
+        }
+
         try {
-            Channel.TransactionOptions transactionOptions = Channel.TransactionOptions.createTransactionOptions()
-                    .nOfEvents(Channel.NOfEvents.createNoEvents()); // Disable default commit wait behaviour
-            channel.sendTransaction(validResponses, transactionOptions)
-                    .get(DEFAULT_ORDERER_TIMEOUT, DEFAULT_ORDERER_TIMEOUT_UNIT);
+            TimePeriod ordererTimeout = deadline.limit(new TimePeriod(DEFAULT_ORDERER_TIMEOUT, DEFAULT_ORDERER_TIMEOUT_UNIT));
+            network.getOrdererSubmitter().sendTransaction(validResponses, ordererTimeout, ordererHedging);
         } catch (TimeoutException e) {
+            if (isStoreAndForwardAllowed(forwardQueue)) {
+                LOG.warn("Timeout sending transaction " + getTransactionId() + " to the orderer; storing for forwarding");
+                return commit.storeAndForward(forwardQueue, validResponses);
+            }
             commitHandler.cancelListening();
             throw e;
+        } catch (ContractException e) {
+            if (isStoreAndForwardAllowed(forwardQueue)) {
+                LOG.warn("Failed to send transaction " + getTransactionId() + " to the orderer; storing for forwarding", e);
+                return commit.storeAndForward(forwardQueue, validResponses);
+            }
+            commitHandler.cancelListening();
+            e.setProposalResponses(proposalResponses);
+            throw e;
         } catch (Exception e) {
             commitHandler.cancelListening();
-            throw new ContractException("Failed to send transaction to the orderer", e);
+            ContractException failure = new ContractException("Failed to send transaction to the orderer", e);
+            failure.setProposalResponses(proposalResponses);
+            throw failure;
+        }
+
+        return commit;
+    }
+
+    private boolean isStoreAndForwardAllowed(final StoreAndForwardQueue forwardQueue) {
+        return forwardQueue != null && !deadline.isExpired();
+    }
+
+    /**
+     * Endorsed transaction returned by {@link #endorse(byte[]...)}.
+     */
+    private final class EndorsedTransactionImpl implements EndorsedTransaction {
+        private final String transactionId = getTransactionId();
+        private final Collection<ProposalResponse> proposalResponses;
+        private final Collection<ProposalResponse> validResponses;
+
+        EndorsedTransactionImpl(final Collection<ProposalResponse> proposalResponses,
+                                final Collection<ProposalResponse> validResponses) {
+            this.proposalResponses = proposalResponses;
+            this.validResponses = validResponses;
+        }
+
+        @Override
+        public String getTransactionId() {
+            return transactionId;
+        }
+
+        @Override
+        public byte[] getResult() {
+            return Payloads.toByteArray(getResultBuffer());
+        }
+
+        @Override
+        public ByteBuffer getResultBuffer() {
+            return getResponsePayload(validResponses.iterator().next());
+        }
+
+        @Override
+        public Collection<ProposalResponse> getProposalResponses() {
+            return Collections.unmodifiableCollection(validResponses);
+        }
+
+        @Override
+        public Commit submit() throws ContractException, TimeoutException, InterruptedException {
+            if (skipCommitIfReadOnly(validResponses)) {
+                return new CommitImpl(NoOpCommitHandler.INSTANCE, proposalResponses, getResultBuffer());
+            }
+            return sendTransaction(proposalResponses, validResponses);
+        }
+
+        @Override
+        public String toString() {
+            return GatewayUtils.toString(this, "transactionId=" + transactionId);
+        }
+    }
+
+    /**
+     * Commit of a transaction sent to the orderer. The first wait for commit starts the commit handler's wait, using
+     * the commit timeout, and the outcome of that wait is retained since commit handlers stop listening once their
+     * wait completes. A caller's wait that is interrupted or times out before the outcome is known does not affect the
+     * outcome seen by later waits.
+     */
+    private final class CommitImpl implements Commit {
+        private final String transactionId = getTransactionId();
+        private final Deadline commitDeadline = deadline;
+        private final CommitHandler commitHandler;
+        private final Collection<ProposalResponse> proposalResponses;
+        private final ByteBuffer result;
+        private final long submitNanos = System.nanoTime();
+        private CompletableFuture<Void> outcome = null;
+        private volatile StoreAndForwardQueue forwardQueue = null;
+        private volatile Throwable forwardFailure = null;
+
+        CommitImpl(final CommitHandler commitHandler, final Collection<ProposalResponse> proposalResponses,
+                   final ByteBuffer result) {
+            this.commitHandler = commitHandler;
+            this.proposalResponses = proposalResponses;
+            this.result = result;
+        }
+
+        /**
+         * Store the transaction for forwarding to the orderer instead of sending it directly. If the queue discards the
+         * transaction before forwarding it, the wait for commit ends immediately with that failure. If the wait for
+         * commit ends without a known outcome, the queue continues to forward the transaction and looks up its commit
+         * status.
+         * @param queue Store-and-forward queue.
+         * @param validResponses Proposal responses that make up the endorsed transaction.
+         * @return This commit.
+         */
+        CommitImpl storeAndForward(final StoreAndForwardQueue queue, final Collection<ProposalResponse> validResponses) {
+            forwardQueue = queue;
+            queue.store(transactionId, validResponses)
+                    .whenComplete((result, e) -> {
+                        if (e != null) {
+                            forwardFailure = e instanceof CompletionException ? e.getCause() : e;
+                            commitHandler.cancelListening();
+                        }
+                    });
+            return this;
+        }
+
+        @Override
+        public String getTransactionId() {
+            return transactionId;
+        }
+
+        @Override
+        public synchronized boolean isDone() {
+            return (outcome != null && outcome.isDone()) || commitHandler.isDone();
+        }
+
+        @Override
+        public byte[] waitForCommit() throws ContractException, TimeoutException, InterruptedException {
+            return Payloads.toByteArray(awaitPayload());
         }
 
-        commitHandler.waitForEvents(commitTimeout.getTime(), commitTimeout.getTimeUnit());
+        @Override
+        public byte[] waitForCommit(final long timeout, final TimeUnit timeUnit)
+                throws ContractException, TimeoutException, InterruptedException {
+            try {
+                getOutcome().get(timeout, timeUnit);
+            } catch (ExecutionException e) {
+                throwCommitFailure(e.getCause());
+            } catch (TimeoutException e) {
+                // Only this wait has expired; the commit handler continues to wait for the outcome
+                throw new TimeoutException("Timeout waiting for commit of transaction " + transactionId);
+            }
+            return Payloads.toByteArray(result.duplicate());
+        }
+
+        @Override
+        public CompletableFuture<byte[]> whenCommitted() {
+            return getOutcome().thenApply(v -> Payloads.toByteArray(result.duplicate()));
+        }
+
+        /**
+         * Wait for commit using the commit timeout, as for {@link #waitForCommit()}.
+         * @return Read-only view of the payload response from the transaction function.
+         */
+        ByteBuffer awaitPayload() throws ContractException, TimeoutException, InterruptedException {
+            try {
+                getOutcome().get();
+            } catch (ExecutionException e) {
+                throwCommitFailure(e.getCause());
+            }
+            return result.duplicate();
+        }
+
+        private synchronized CompletableFuture<Void> getOutcome() {
+            if (outcome == null) {
+                outcome = startWait();
+            }
+            return outcome;
+        }
+
+        private CompletableFuture<Void> startWait() {
+            AdaptiveCommitTimeout adaptiveTimeout = adaptiveCommitTimeout ? network.getAdaptiveCommitTimeout() : null;
+            TimePeriod wait = commitDeadline.limit(adaptiveTimeout != null ? adaptiveTimeout.getTimeout(commitTimeout) : commitTimeout);
+            boolean recordLatency = !commitHandler.isDone() && adaptiveTimeout != null && commitHandler != NoOpCommitHandler.INSTANCE;
+
+            CompletableFuture<Void> terminal = new CompletableFuture<>();
+            CompletableCommitHandler.awaitCommit(commitHandler, wait.getTime(), wait.getTimeUnit())
+                    .whenComplete((v, e) -> {
+                        Throwable failure = getFailure(e);
+                        if (recordLatency) {
+                            recordLatency(adaptiveTimeout, failure);
+                        }
+                        completeForwarding(failure);
+                        if (failure != null) {
+                            terminal.completeExceptionally(failure);
+                        } else {
+                            terminal.complete(null);
+                        }
+                    });
+            return terminal;
+        }
+
+        private Throwable getFailure(final Throwable waitFailure) {
+            Throwable failure = waitFailure instanceof CompletionException ? waitFailure.getCause() : waitFailure;
+            if (failure == null) {
+                failure = getForwardFailure();
+            }
+            if (failure instanceof ContractException) {
+                ((ContractException) failure).setProposalResponses(proposalResponses);
+            }
+            return failure;
+        }
+
+        private void recordLatency(final AdaptiveCommitTimeout adaptiveTimeout, final Throwable failure) {
+            if (failure == null) {
+                adaptiveTimeout.recordCommit(System.nanoTime() - submitNanos);
+            } else if (failure instanceof TimeoutException) {
+                adaptiveTimeout.recordTimeout(System.nanoTime() - submitNanos);
+            }
+        }
+
+        private Throwable getForwardFailure() {
+            Throwable cause = forwardFailure;
+            if (cause == null || cause instanceof ContractException || cause instanceof TimeoutException) {
+                return cause;
+            }
+            return new ContractException("Failed to forward transaction " + transactionId + " to the orderer", cause);
+        }
+
+        private void completeForwarding(final Throwable failure) {
+            StoreAndForwardQueue queue = forwardQueue;
+            if (queue == null) {
+                return;
+            }
+            if (failure == null) {
+                queue.complete(transactionId, StoreAndForwardQueue.Status.COMMITTED);
+            } else if (failure instanceof ContractException) {
+                queue.complete(transactionId, StoreAndForwardQueue.Status.FAILED);
+            } else {
+                queue.abandon(transactionId);
+            }
+        }
+
+        private void throwCommitFailure(final Throwable cause) throws ContractException, TimeoutException {
+            if (cause instanceof ContractException) {
+                throw (ContractException) cause;
+            } else if (cause instanceof TimeoutException) {
+                throw (TimeoutException) cause;
+            }
+            throw new GatewayRuntimeException("Failed waiting for commit of transaction " + transactionId, cause);
+        }
+
+        @Override
+        public String toString() {
+            return GatewayUtils.toString(this, "transactionId=" + transactionId);
+        }
+    }
 
+    private static ByteBuffer getResponsePayload(final ProposalResponse proposalResponse) {
         try {
-            return proposalResponse.getChaincodeActionResponsePayload();
+            return Payloads.getPayload(proposalResponse);
         } catch (InvalidArgumentException e) {
             throw new GatewayRuntimeException(e);
         }
     }
 
-    private TransactionProposalRequest newProposalRequest(final String... args) {
+    private TransactionProposalRequest newProposalRequest(final byte[]... args) {
         TransactionProposalRequest request = network.getGateway().getClient().newTransactionProposalRequest();
         configureRequest(request, args);
         if (transientData != null) {
@@ -180,11 +752,14 @@ public final class TransactionImpl implements Transaction {
         return request;
     }
 
-    private void configureRequest(final TransactionRequest request, final String... args) {
+    private void configureRequest(final TransactionRequest request, final byte[]... args) {
         request.setChaincodeName(contract.getChaincodeId());
         request.setFcn(name);
         request.setArgs(args);
-        request.setTransactionContext(transactionContext);
+        request.setTransactionContext(getTransactionContext());
+        if (deadline.isBounded()) {
+            request.setProposalWaitTime(Math.max(1, deadline.limitMillis(request.getProposalWaitTime())));
+        }
     }
 
     private Collection<ProposalResponse> validatePeerResponses(final Collection<ProposalResponse> proposalResponses)
@@ -212,21 +787,60 @@ public final class TransactionImpl implements Transaction {
         return validResponses;
     }
 
+    @Override
+    public byte[] evaluate() throws ContractException {
+        return evaluate(new byte[0][]);
+    }
+
     @Override
     public byte[] evaluate(final String... args) throws ContractException {
+        return evaluate(Payloads.toBytes(args));
+    }
+
+    @Override
+    public byte[] evaluate(final byte[]... args) throws ContractException {
+        return Payloads.toByteArray(evaluateAsBuffer(args));
+    }
+
+    @Override
+    public ByteBuffer evaluateAsBuffer(final byte[]... args) throws ContractException {
+        deadline = Deadline.of(timeout);
+        ConcurrencyLimiter limiter = network.getEvaluateLimiter();
+        if (limiter == null) {
+            return evaluateQuery(args);
+        }
+
+        ConcurrencyLimiter.Permit permit;
+        try {
+            permit = acquire(limiter, EVALUATE_REJECTED_COUNT);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayRuntimeException("Interrupted waiting to evaluate transaction", e);
+        }
+
+        try {
+            ByteBuffer result = evaluateQuery(args);
+            permit.onSuccess();
+            return result;
+        } finally {
+            permit.onIgnore();
+        }
+    }
+
+    private ByteBuffer evaluateQuery(final byte[]... args) throws ContractException {
         QueryByChaincodeRequest request = newQueryRequest(args);
-        Query query = new QueryImpl(network.getChannel(), request);
+        Query query = new QueryImpl(network.getChannel(), request, network.getPeerStatistics());
 
         ProposalResponse response = queryHandler.evaluate(query);
 
         try {
-            return response.getChaincodeActionResponsePayload();
+            return Payloads.getPayload(response);
         } catch (InvalidArgumentException e) {
             throw new ContractException(response.getMessage(), e);
         }
     }
 
-    private QueryByChaincodeRequest newQueryRequest(final String... args) {
+    private QueryByChaincodeRequest newQueryRequest(final byte[]... args) {
         QueryByChaincodeRequest request = gateway.getClient().newQueryProposalRequest();
         configureRequest(request, args);
         if (transientData != null) {
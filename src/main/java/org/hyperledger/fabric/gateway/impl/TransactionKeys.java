@@ -0,0 +1,116 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.protobuf.ByteString;
+
+/**
+ * Ledger keys read and written by an endorsed transaction, used to detect conflicts between transactions. Keys are
+ * qualified by chaincode namespace and, for private data, by collection. Private data keys are identified by their
+ * hash, since that is all the read/write set contains.
+ */
+final class TransactionKeys {
+    private static final char PUBLIC_SEPARATOR = '\u0000';
+    private static final char PRIVATE_SEPARATOR = '\u0001';
+
+    private final Set<String> reads = new HashSet<>();
+    private final Set<String> writes = new HashSet<>();
+    private final List<KeyRange> ranges = new ArrayList<>();
+
+    void addRead(final String namespace, final String key) {
+        reads.add(publicKey(namespace, key));
+    }
+
+    void addWrite(final String namespace, final String key) {
+        writes.add(publicKey(namespace, key));
+    }
+
+    void addPrivateRead(final String namespace, final String collection, final ByteString keyHash) {
+        reads.add(privateKey(namespace, collection, keyHash));
+    }
+
+    void addPrivateWrite(final String namespace, final String collection, final ByteString keyHash) {
+        writes.add(privateKey(namespace, collection, keyHash));
+    }
+
+    /**
+     * Add a range query.
+     * @param namespace Chaincode namespace.
+     * @param startKey Inclusive start key.
+     * @param endKey Exclusive end key, or an empty string for no end key.
+     */
+    void addRange(final String namespace, final String startKey, final String endKey) {
+        String from = publicKey(namespace, startKey);
+        String to = endKey.isEmpty() ? namespace + PRIVATE_SEPARATOR : publicKey(namespace, endKey);
+        ranges.add(new KeyRange(from, to));
+    }
+
+    Set<String> getReads() {
+        return Collections.unmodifiableSet(reads);
+    }
+
+    Set<String> getWrites() {
+        return Collections.unmodifiableSet(writes);
+    }
+
+    List<KeyRange> getRanges() {
+        return Collections.unmodifiableList(ranges);
+    }
+
+    private static String publicKey(final String namespace, final String key) {
+        return namespace + PUBLIC_SEPARATOR + key;
+    }
+
+    private static String privateKey(final String namespace, final String collection, final ByteString keyHash) {
+        return namespace + PRIVATE_SEPARATOR + collection + PUBLIC_SEPARATOR
+                + Base64.getEncoder().encodeToString(keyHash.toByteArray());
+    }
+
+    /**
+     * Range of qualified public keys read by a range query.
+     */
+    static final class KeyRange {
+        private final String from;
+        private final String to;
+
+        KeyRange(final String from, final String to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Inclusive start of the range.
+         * @return A qualified key.
+         */
+        String getFrom() {
+            return from;
+        }
+
+        /**
+         * Exclusive end of the range.
+         * @return A qualified key.
+         */
+        String getTo() {
+            return to;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "reads=" + reads.size(),
+                "writes=" + writes.size(),
+                "ranges=" + ranges.size());
+    }
+}
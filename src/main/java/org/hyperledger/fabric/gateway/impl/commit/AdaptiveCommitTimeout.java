@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.TimePeriod;
+import org.hyperledger.fabric.gateway.impl.stats.LatencyStatistics;
+import org.hyperledger.fabric.sdk.BlockEvent;
+
+/**
+ * Derives a commit timeout from the observed behaviour of a channel, so that a transaction that will never be
+ * committed, for example because the orderer dropped it, is detected well before a conservative fixed commit timeout
+ * expires. The timeout is a multiple of the larger of the 99th percentile commit latency, measured from submit to the
+ * orderer until the commit handler completes, and the 99th percentile interval between blocks. Until enough commits
+ * have been observed, or if the derived timeout would exceed it, the configured commit timeout is used.
+ * <p>Commit waits that time out are recorded as samples of the time waited. If commit latency rises above the derived
+ * timeout, these samples raise the 99th percentile so the timeout grows back towards the configured timeout instead of
+ * continuing to fail commits that would have succeeded.</p>
+ */
+public final class AdaptiveCommitTimeout implements Consumer<BlockEvent> {
+    private static final int SAMPLE_SIZE = 256;
+    private static final int MIN_SAMPLES = 20;
+    private static final double PERCENTILE = 0.99;
+    private static final long MULTIPLIER = 3;
+    private static final long MIN_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final LatencyStatistics commitLatency = new LatencyStatistics(SAMPLE_SIZE);
+    private final LatencyStatistics blockInterval = new LatencyStatistics(SAMPLE_SIZE);
+    private long lastBlockNanos = -1;
+
+    /**
+     * Record the arrival of a block.
+     * @param blockEvent A block event.
+     */
+    @Override
+    public void accept(final BlockEvent blockEvent) {
+        long now = System.nanoTime();
+        synchronized (this) {
+            if (lastBlockNanos >= 0) {
+                blockInterval.record(now - lastBlockNanos);
+            }
+            lastBlockNanos = now;
+        }
+    }
+
+    /**
+     * Record the time taken for a successful commit.
+     * @param elapsedNanos Time from submit to the orderer until the commit handler completed.
+     */
+    public void recordCommit(final long elapsedNanos) {
+        commitLatency.record(elapsedNanos);
+    }
+
+    /**
+     * Record a wait for commit that timed out. The actual commit latency is not known, so the time waited is recorded
+     * as a lower bound.
+     * @param elapsedNanos Time from submit to the orderer until the wait for commit timed out.
+     */
+    public void recordTimeout(final long elapsedNanos) {
+        commitLatency.record(elapsedNanos);
+    }
+
+    /**
+     * Get the commit timeout to use.
+     * @param configuredTimeout Configured commit timeout, which is used until enough commits have been observed and
+     *                          is never exceeded.
+     * @return A commit timeout.
+     */
+    public TimePeriod getTimeout(final TimePeriod configuredTimeout) {
+        if (commitLatency.getCount() < MIN_SAMPLES) {
+            return configuredTimeout;
+        }
+
+        long expectedNanos = Math.max(commitLatency.getPercentile(PERCENTILE).orElse(0),
+                blockInterval.getPercentile(PERCENTILE).orElse(0));
+        long configuredNanos = configuredTimeout.getTimeUnit().toNanos(configuredTimeout.getTime());
+        if (expectedNanos >= configuredNanos / MULTIPLIER) {
+            return configuredTimeout;
+        }
+
+        long timeoutNanos = Math.max(MIN_TIMEOUT_NANOS, expectedNanos * MULTIPLIER);
+        return timeoutNanos < configuredNanos ? new TimePeriod(timeoutNanos, TimeUnit.NANOSECONDS) : configuredTimeout;
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "commitLatency=" + commitLatency,
+                "blockInterval=" + blockInterval);
+    }
+}
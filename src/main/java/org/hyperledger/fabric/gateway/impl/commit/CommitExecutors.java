@@ -0,0 +1,38 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Threads shared by all commit handlers. Timeouts and ledger status lookups for commit waits are scheduled on a single
+ * timer thread; the blocking wait of a commit handler that cannot complete asynchronously occupies a thread from a
+ * separate pool for the duration of the wait.
+ */
+final class CommitExecutors {
+    static final ScheduledThreadPoolExecutor TIMER = newTimer();
+    static final ExecutorService BLOCKING_WAITS = Executors.newCachedThreadPool(newThreadFactory("commit-wait"));
+
+    private CommitExecutors() { }
+
+    private static ScheduledThreadPoolExecutor newTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, newThreadFactory("commit-timer"));
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private static ThreadFactory newThreadFactory(final String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
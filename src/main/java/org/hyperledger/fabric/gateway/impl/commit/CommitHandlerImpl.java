@@ -8,8 +8,11 @@ package org.hyperledger.fabric.gateway.impl.commit;
 
 import java.util.Collections;
 import java.util.HashSet;
+import java.util.Optional;
 import java.util.Set;
-import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
@@ -17,17 +20,23 @@ import java.util.concurrent.atomic.AtomicReference;
 import org.hyperledger.fabric.gateway.ContractException;
 import org.hyperledger.fabric.gateway.Network;
 import org.hyperledger.fabric.gateway.impl.GatewayUtils;
-import org.hyperledger.fabric.gateway.spi.CommitHandler;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
 import org.hyperledger.fabric.gateway.spi.CommitListener;
 import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
 import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.Peer;
 import org.hyperledger.fabric.sdk.exception.TransactionEventException;
 
-public final class CommitHandlerImpl implements CommitHandler {
+public final class CommitHandlerImpl implements CompletableCommitHandler {
+    private static final long MIN_LOOKUP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MAX_LOOKUP_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(30);
+
     private final String transactionId;
     private final Network network;
     private final CommitStrategy strategy;
+    private final StatisticsRegistry commitStatistics;
+    private final CommitStatusResolver statusResolver;
     private final CommitListener listener = new CommitListener() {
         @Override
         public void acceptCommit(final BlockEvent.TransactionEvent transactionEvent) {
@@ -40,18 +49,38 @@ public final class CommitHandlerImpl implements CommitHandler {
         }
     };
     private final Set<Peer> peers;
-    private final CountDownLatch latch = new CountDownLatch(1);
+    private final CompletableFuture<Void> waitCompletion = new CompletableFuture<>();
     private final AtomicReference<ContractException> error = new AtomicReference<>();
+    private volatile long startNanos;
 
     public CommitHandlerImpl(final String transactionId, final Network network, final CommitStrategy strategy) {
+        this(transactionId, network, strategy, null, null);
+    }
+
+    /**
+     * Create a commit handler that also records, for each peer, the time from starting to listen until the peer
+     * reports the commit, and peer disconnects. If a status resolver is supplied, the transaction is looked up on the
+     * ledger when a peer disconnects and periodically while waiting, so that the outcome of a transaction whose commit
+     * events were missed is known without waiting for the full timeout.
+     * @param transactionId Transaction ID.
+     * @param network Network on which the transaction is submitted.
+     * @param strategy Commit strategy.
+     * @param commitStatistics Commit lag statistics, or {@code null} if commit lag is not recorded.
+     * @param statusResolver Looks up transaction status on the ledger, or {@code null} to rely only on commit events.
+     */
+    public CommitHandlerImpl(final String transactionId, final Network network, final CommitStrategy strategy,
+                             final StatisticsRegistry commitStatistics, final CommitStatusResolver statusResolver) {
         this.transactionId = transactionId;
         this.network = network;
         this.strategy = strategy;
+        this.commitStatistics = commitStatistics;
+        this.statusResolver = statusResolver;
         this.peers = Collections.synchronizedSet(new HashSet<>(strategy.getPeers()));
     }
 
     @Override
     public void startListening() {
+        startNanos = System.nanoTime();
         if (peers.isEmpty()) {
             cancelListening();
         } else {
@@ -62,23 +91,79 @@ public final class CommitHandlerImpl implements CommitHandler {
     @Override
     public void waitForEvents(final long timeout, final TimeUnit timeUnit) throws ContractException, TimeoutException, InterruptedException {
         try {
-            boolean complete = latch.await(timeout, timeUnit);
-            if (!complete) {
-                throw new TimeoutException("Timeout waiting for commit of transaction " + transactionId);
+            awaitCommit(timeout, timeUnit).get();
+        } catch (InterruptedException e) {
+            cancelListening();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ContractException) {
+                throw (ContractException) cause;
             }
-        } finally {
+            throw (TimeoutException) cause;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> awaitCommit(final long timeout, final TimeUnit timeUnit) {
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        long timeoutNanos = timeUnit.toNanos(timeout);
+        ScheduledFuture<?> timer = CommitExecutors.TIMER.schedule(() -> {
+            outcome.completeExceptionally(new TimeoutException("Timeout waiting for commit of transaction " + transactionId));
             cancelListening();
+        }, timeoutNanos, TimeUnit.NANOSECONDS);
+        ScheduledFuture<?> lookups = statusResolver != null ? scheduleStatusLookups(timeoutNanos) : null;
+
+        waitCompletion.whenComplete((result, e) -> {
+            timer.cancel(false);
+            if (lookups != null) {
+                lookups.cancel(false);
+            }
+            ContractException cause = error.get();
+            if (cause != null) {
+                outcome.completeExceptionally(cause);
+            } else {
+                outcome.complete(null);
+            }
+        });
+        return outcome;
+    }
+
+    private ScheduledFuture<?> scheduleStatusLookups(final long timeoutNanos) {
+        long interval = Math.max(MIN_LOOKUP_INTERVAL_NANOS, Math.min(timeoutNanos / 2, MAX_LOOKUP_INTERVAL_NANOS));
+        return CommitExecutors.TIMER.scheduleWithFixedDelay(() -> lookupStatus(false), interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    private void lookupStatus(final boolean strategyFailed) {
+        statusResolver.resolve(transactionId)
+                .thenAccept(status -> onStatusResolved(status, strategyFailed));
+    }
+
+    private void onStatusResolved(final Optional<TransactionPackage.TxValidationCode> status, final boolean strategyFailed) {
+        if (waitCompletion.isDone()) {
+            return;
         }
 
-        ContractException cause = error.get();
-        if (cause != null) {
-            throw cause;
+        if (status.isPresent()) {
+            if (status.get() == TransactionPackage.TxValidationCode.VALID) {
+                cancelListening();
+            } else {
+                LedgerValidationException cause = new LedgerValidationException(transactionId, status.get());
+                fail(new ContractException("Transaction commit was rejected: " + status.get(), cause));
+            }
+        } else if (strategyFailed) {
+            fail(new ContractException("Commit strategy failed"));
         }
     }
 
+    @Override
+    public boolean isDone() {
+        return waitCompletion.isDone();
+    }
+
     @Override
     public void cancelListening() {
-        latch.countDown();
+        waitCompletion.complete(null);
         network.removeCommitListener(listener);
         peers.clear();
     }
@@ -97,6 +182,10 @@ public final class CommitHandlerImpl implements CommitHandler {
             return;
         }
 
+        if (commitStatistics != null) {
+            commitStatistics.get(event.getPeer()).recordSuccess(System.nanoTime() - startNanos);
+        }
+
         if (event.isValid()) {
             CommitStrategy.Result result = strategy.onEvent(event);
             processStrategyResult(result);
@@ -113,8 +202,16 @@ public final class CommitHandlerImpl implements CommitHandler {
             return;
         }
 
+        if (commitStatistics != null) {
+            commitStatistics.get(event.getPeer()).recordFailure();
+        }
+
         CommitStrategy.Result result = strategy.onError(event);
-        processStrategyResult(result);
+        if (statusResolver != null && result != CommitStrategy.Result.SUCCESS) {
+            lookupStatus(result == CommitStrategy.Result.FAIL);
+        } else {
+            processStrategyResult(result);
+        }
     }
 
     private void processStrategyResult(final CommitStrategy.Result strategyResult) {
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.stats.Counters;
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.TransactionInfo;
+
+/**
+ * Looks up the validation code recorded on the ledger for transactions whose commit events may have been missed, using
+ * the query system chaincode. The query system chaincode looks up one transaction per request, so lookups are instead
+ * batched by coalescing concurrent requests for the same transaction and draining all pending lookups with a bounded
+ * number of workers, rather than issuing one background task per request.
+ */
+public final class CommitStatusResolver {
+    private static final Log LOG = LogFactory.getLog(CommitStatusResolver.class);
+
+    /** Counter incremented for each transaction status looked up on the ledger. */
+    public static final String LOOKUP_COUNT = "transaction.commit.lookup";
+    /** Counter incremented for each transaction status lookup that found the transaction on the ledger. */
+    public static final String FOUND_COUNT = "transaction.commit.lookup.found";
+
+    private static final EnumSet<Peer.PeerRole> LEDGER_QUERY_ROLES = EnumSet.of(Peer.PeerRole.LEDGER_QUERY);
+
+    private final Channel channel;
+    private final Executor executor;
+    private final int maxWorkers;
+    private final Counters counters;
+    private final Map<String, CompletableFuture<Optional<TransactionPackage.TxValidationCode>>> lookups =
+            new ConcurrentHashMap<>();
+    private final Queue<String> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger workerCount = new AtomicInteger();
+
+    /**
+     * Create a resolver.
+     * @param channel Channel on which transactions are looked up.
+     * @param executor Runs lookups in the background.
+     * @param maxWorkers Maximum number of lookups in progress at once.
+     * @param counters Network metrics.
+     */
+    public CommitStatusResolver(final Channel channel, final Executor executor, final int maxWorkers,
+                                final Counters counters) {
+        this.channel = channel;
+        this.executor = executor;
+        this.maxWorkers = maxWorkers;
+        this.counters = counters;
+    }
+
+    /**
+     * Look up the validation code recorded on the ledger for a transaction. If a lookup for the same transaction is
+     * already pending, its result is shared.
+     * @param transactionId Transaction ID.
+     * @return The validation code, or empty if the transaction was not found on the ledger or the lookup failed.
+     */
+    public CompletableFuture<Optional<TransactionPackage.TxValidationCode>> resolve(final String transactionId) {
+        CompletableFuture<Optional<TransactionPackage.TxValidationCode>> newLookup = new CompletableFuture<>();
+        CompletableFuture<Optional<TransactionPackage.TxValidationCode>> lookup = lookups.putIfAbsent(transactionId, newLookup);
+        if (lookup != null) {
+            return lookup;
+        }
+
+        pending.add(transactionId);
+        startWorker();
+        return newLookup;
+    }
+
+    private void startWorker() {
+        int count = workerCount.get();
+        while (count < maxWorkers) {
+            if (workerCount.compareAndSet(count, count + 1)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    workerCount.decrementAndGet();
+                    LOG.warn("Failed to start transaction status lookup", e);
+                    abandonPending();
+                }
+                return;
+            }
+            count = workerCount.get();
+        }
+    }
+
+    private void drain() {
+        try {
+            for (String transactionId = pending.poll(); transactionId != null; transactionId = pending.poll()) {
+                Optional<TransactionPackage.TxValidationCode> result = lookup(transactionId);
+                CompletableFuture<Optional<TransactionPackage.TxValidationCode>> lookup = lookups.remove(transactionId);
+                if (lookup != null) {
+                    lookup.complete(result);
+                }
+            }
+        } finally {
+            workerCount.decrementAndGet();
+        }
+
+        // A lookup may have been queued after this worker found the queue empty but before it stopped
+        if (!pending.isEmpty()) {
+            startWorker();
+        }
+    }
+
+    private void abandonPending() {
+        for (String transactionId = pending.poll(); transactionId != null; transactionId = pending.poll()) {
+            CompletableFuture<Optional<TransactionPackage.TxValidationCode>> lookup = lookups.remove(transactionId);
+            if (lookup != null) {
+                lookup.complete(Optional.empty());
+            }
+        }
+    }
+
+    private Optional<TransactionPackage.TxValidationCode> lookup(final String transactionId) {
+        counters.increment(LOOKUP_COUNT);
+        Collection<Peer> peers = channel.getPeers(LEDGER_QUERY_ROLES);
+        try {
+            TransactionInfo info = channel.queryTransactionByID(peers, transactionId);
+            if (info == null || info.getValidationCode() == null) {
+                return Optional.empty();
+            }
+
+            LOG.debug("Transaction " + transactionId + " found on ledger with validation code " + info.getValidationCode());
+            counters.increment(FOUND_COUNT);
+            return Optional.of(info.getValidationCode());
+        } catch (Exception e) {
+            // Peers report an error if the transaction has not been committed
+            LOG.debug("Transaction " + transactionId + " not found on ledger", e);
+            return Optional.empty();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "channel=" + channel.getName(),
+                "pending=" + lookups.size());
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.spi.CommitHandler;
+
+/**
+ * Commit handler that can report the outcome of its wait for commit events without a thread blocked for the duration
+ * of the wait.
+ */
+public interface CompletableCommitHandler extends CommitHandler {
+    /**
+     * Wait asynchronously for enough commit events to satisfy the commit strategy. As for
+     * {@link #waitForEvents(long, TimeUnit)}, the handler stops listening once the wait completes.
+     * @param timeout the maximum time to wait.
+     * @param timeUnit the time unit of the timeout argument.
+     * @return A future that completes when the commit succeeds, or completes exceptionally with a
+     * {@link org.hyperledger.fabric.gateway.ContractException} if the commit fails or a
+     * {@link java.util.concurrent.TimeoutException} if the commit does not complete in time.
+     */
+    CompletableFuture<Void> awaitCommit(long timeout, TimeUnit timeUnit);
+
+    /**
+     * Wait asynchronously for commit events using any commit handler. The blocking wait of a handler that does not
+     * implement this interface occupies a thread from a shared pool until it completes.
+     * @param handler A commit handler that has started listening.
+     * @param timeout the maximum time to wait.
+     * @param timeUnit the time unit of the timeout argument.
+     * @return A future that completes with the outcome of the wait.
+     */
+    static CompletableFuture<Void> awaitCommit(final CommitHandler handler, final long timeout, final TimeUnit timeUnit) {
+        if (handler instanceof CompletableCommitHandler) {
+            return ((CompletableCommitHandler) handler).awaitCommit(timeout, timeUnit);
+        }
+
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        CommitExecutors.BLOCKING_WAITS.execute(() -> {
+            try {
+                handler.waitForEvents(timeout, timeUnit);
+                outcome.complete(null);
+            } catch (Exception e) {
+                outcome.completeExceptionally(e);
+            }
+        });
+        return outcome;
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.stats.Counters;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.gateway.spi.CommitConfirmationListener;
+import org.hyperledger.fabric.gateway.spi.CommitListener;
+import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.exception.TransactionEventException;
+
+/**
+ * Commit handler that completes as soon as any peer reports a valid commit, and then continues to listen for commit
+ * events from the remaining peers in the background. If any of the remaining peers reports the transaction as invalid,
+ * disconnects, or does not report the commit before the commit timeout expires, the discrepancy is counted in the
+ * network metrics and reported to a confirmation listener.
+ * <p>If a peer reports the transaction as invalid before any peer reports it as valid, or all peers disconnect before
+ * a valid commit event is received, the commit fails as it would for {@link AnyCommitStrategy}.</p>
+ */
+public final class ConfirmingCommitHandler implements CompletableCommitHandler {
+    private static final Log LOG = LogFactory.getLog(ConfirmingCommitHandler.class);
+
+    /** Counter incremented when a peer reports a transaction as invalid after another peer reported it valid. */
+    public static final String DIVERGED_COUNT = "transaction.commit.diverged";
+    /** Counter incremented when a peer does not confirm a transaction reported valid by another peer. */
+    public static final String UNCONFIRMED_COUNT = "transaction.commit.unconfirmed";
+
+    private final String transactionId;
+    private final Network network;
+    private final Collection<Peer> peers;
+    private final CommitConfirmationListener confirmationListener;
+    private final Counters counters;
+    private final StatisticsRegistry commitStatistics;
+    private final CommitListener listener = new CommitListener() {
+        @Override
+        public void acceptCommit(final BlockEvent.TransactionEvent transactionEvent) {
+            onTxEvent(transactionEvent);
+        }
+
+        @Override
+        public void acceptDisconnect(final PeerDisconnectEvent disconnectEvent) {
+            onDisconnectEvent(disconnectEvent);
+        }
+    };
+    private final Set<Peer> pendingPeers;
+    private final Map<Peer, TransactionPackage.TxValidationCode> invalidPeers = new HashMap<>();
+    private final List<Peer> missingPeers = new ArrayList<>();
+    private final CompletableFuture<Void> waitCompletion = new CompletableFuture<>();
+    private ContractException error;
+    private boolean committed = false;
+    private boolean done = false;
+    private ScheduledFuture<?> confirmationTimeout;
+    private volatile long startNanos;
+
+    /**
+     * Create a commit handler.
+     * @param transactionId Transaction ID.
+     * @param network Network on which the transaction is submitted.
+     * @param peers Peers from which commit events are expected.
+     * @param confirmationListener Notified if not all peers confirm the commit; may be {@code null}.
+     * @param counters Network metrics; may be {@code null}.
+     * @param commitStatistics Commit lag statistics; may be {@code null}.
+     */
+    public ConfirmingCommitHandler(final String transactionId, final Network network, final Collection<Peer> peers,
+                                   final CommitConfirmationListener confirmationListener, final Counters counters,
+                                   final StatisticsRegistry commitStatistics) {
+        this.transactionId = transactionId;
+        this.network = network;
+        this.peers = peers;
+        this.confirmationListener = confirmationListener;
+        this.counters = counters;
+        this.commitStatistics = commitStatistics;
+        this.pendingPeers = new HashSet<>(peers);
+    }
+
+    @Override
+    public void startListening() {
+        startNanos = System.nanoTime();
+        if (peers.isEmpty()) {
+            cancelListening();
+        } else {
+            network.addCommitListener(listener, peers, transactionId);
+        }
+    }
+
+    @Override
+    public void waitForEvents(final long timeout, final TimeUnit timeUnit) throws ContractException, TimeoutException, InterruptedException {
+        try {
+            awaitCommit(timeout, timeUnit).get();
+        } catch (InterruptedException e) {
+            cancelListening();
+            throw e;
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof ContractException) {
+                throw (ContractException) cause;
+            }
+            throw (TimeoutException) cause;
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> awaitCommit(final long timeout, final TimeUnit timeUnit) {
+        CompletableFuture<Void> outcome = new CompletableFuture<>();
+        long timeoutNanos = timeUnit.toNanos(timeout);
+        long waitStartNanos = System.nanoTime();
+        ScheduledFuture<?> timer = CommitExecutors.TIMER.schedule(() -> {
+            outcome.completeExceptionally(new TimeoutException("Timeout waiting for commit of transaction " + transactionId));
+            cancelListening();
+        }, timeoutNanos, TimeUnit.NANOSECONDS);
+
+        waitCompletion.whenComplete((result, e) -> {
+            timer.cancel(false);
+            synchronized (this) {
+                if (error != null) {
+                    outcome.completeExceptionally(error);
+                    return;
+                }
+                if (!done && !outcome.isDone()) {
+                    long remainingNanos = Math.max(0, timeoutNanos - (System.nanoTime() - waitStartNanos));
+                    confirmationTimeout = CommitExecutors.TIMER.schedule(this::onConfirmationTimeout, remainingNanos,
+                            TimeUnit.NANOSECONDS);
+                }
+            }
+            outcome.complete(null);
+        });
+        return outcome;
+    }
+
+    @Override
+    public boolean isDone() {
+        return waitCompletion.isDone();
+    }
+
+    @Override
+    public void cancelListening() {
+        synchronized (this) {
+            done = true;
+            pendingPeers.clear();
+            if (confirmationTimeout != null) {
+                confirmationTimeout.cancel(false);
+            }
+        }
+        waitCompletion.complete(null);
+        network.removeCommitListener(listener);
+    }
+
+    private void onTxEvent(final BlockEvent.TransactionEvent event) {
+        Runnable completion;
+        synchronized (this) {
+            if (!transactionId.equals(event.getTransactionID()) || !pendingPeers.remove(event.getPeer())) {
+                // Not a transaction or peer we were looking for
+                return;
+            }
+
+            if (commitStatistics != null) {
+                commitStatistics.get(event.getPeer()).recordSuccess(System.nanoTime() - startNanos);
+            }
+
+            if (event.isValid()) {
+                committed = true;
+                waitCompletion.complete(null);
+            } else if (committed) {
+                invalidPeers.put(event.getPeer(), getValidationCode(event));
+            } else {
+                String peerName = event.getPeer().getName();
+                TransactionEventException cause = new TransactionEventException("Transaction event is invalid", event);
+                error = new ContractException("Transaction commit was rejected by peer " + peerName, cause);
+            }
+            completion = getCompletion();
+        }
+        completion.run();
+    }
+
+    private void onDisconnectEvent(final PeerDisconnectEvent event) {
+        Runnable completion;
+        synchronized (this) {
+            if (!pendingPeers.remove(event.getPeer())) {
+                // Not a peer we were looking for
+                return;
+            }
+
+            if (commitStatistics != null) {
+                commitStatistics.get(event.getPeer()).recordFailure();
+            }
+
+            missingPeers.add(event.getPeer());
+            if (!committed && pendingPeers.isEmpty()) {
+                error = new ContractException("Commit strategy failed");
+            }
+            completion = getCompletion();
+        }
+        completion.run();
+    }
+
+    private void onConfirmationTimeout() {
+        Runnable completion;
+        synchronized (this) {
+            missingPeers.addAll(pendingPeers);
+            pendingPeers.clear();
+            completion = getCompletion();
+        }
+        completion.run();
+    }
+
+    private Runnable getCompletion() {
+        if (done || (error == null && !pendingPeers.isEmpty())) {
+            return () -> { };
+        }
+
+        if (error != null) {
+            return this::cancelListening;
+        }
+
+        done = true;
+        if (confirmationTimeout != null) {
+            confirmationTimeout.cancel(false);
+        }
+        Map<Peer, TransactionPackage.TxValidationCode> invalid = new HashMap<>(invalidPeers);
+        List<Peer> missing = new ArrayList<>(missingPeers);
+        return () -> {
+            report(invalid, missing);
+            network.removeCommitListener(listener);
+        };
+    }
+
+    private void report(final Map<Peer, TransactionPackage.TxValidationCode> invalid, final Collection<Peer> missing) {
+        if (invalid.isEmpty() && missing.isEmpty()) {
+            return;
+        }
+
+        LOG.warn("Commit of transaction " + transactionId + " was not confirmed by all peers. Invalid: " + invalid
+                + ", missing: " + missing);
+        if (counters != null) {
+            invalid.forEach((peer, code) -> counters.increment(DIVERGED_COUNT));
+            missing.forEach(peer -> counters.increment(UNCONFIRMED_COUNT));
+        }
+        if (confirmationListener != null) {
+            try {
+                confirmationListener.acceptUnconfirmed(transactionId, Collections.unmodifiableMap(invalid),
+                        Collections.unmodifiableCollection(missing));
+            } catch (RuntimeException e) {
+                LOG.warn("Commit confirmation listener failed", e);
+            }
+        }
+    }
+
+    private static TransactionPackage.TxValidationCode getValidationCode(final BlockEvent.TransactionEvent event) {
+        TransactionPackage.TxValidationCode code = TransactionPackage.TxValidationCode.forNumber(event.getValidationCode());
+        return code != null ? code : TransactionPackage.TxValidationCode.UNRECOGNIZED;
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "transactionId=" + transactionId,
+                "peers=" + peers);
+    }
+}
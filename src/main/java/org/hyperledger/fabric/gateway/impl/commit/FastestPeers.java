@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.impl.stats.EndpointStatistics;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.sdk.Peer;
+
+/**
+ * Selects the peers that have historically been quickest to report commits. Peers are ranked by median commit lag,
+ * with a penalty for each consecutive disconnect. Peers with no recorded commit lag are ranked first so that they are
+ * sampled. One additional peer is chosen at random from the remainder, both as a spare in case a selected peer
+ * disconnects and so that the commit lag of slower peers continues to be sampled.
+ */
+final class FastestPeers {
+    private static final double LATENCY_PERCENTILE = 0.5;
+    private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private FastestPeers() { }
+
+    /**
+     * Select peers.
+     * @param peers Candidate peers.
+     * @param count Number of fast peers required.
+     * @param commitStatistics Commit lag statistics for each peer.
+     * @return Selected peers, fastest first.
+     */
+    static List<Peer> select(final Collection<Peer> peers, final int count, final StatisticsRegistry commitStatistics) {
+        List<Peer> candidates = new ArrayList<>(peers);
+        Collections.shuffle(candidates);
+        candidates.sort(Comparator.comparingLong(peer -> score(commitStatistics.get(peer))));
+        if (candidates.size() <= count + 1) {
+            return candidates;
+        }
+
+        List<Peer> results = new ArrayList<>(candidates.subList(0, count));
+        results.add(candidates.get(ThreadLocalRandom.current().nextInt(count, candidates.size())));
+        return results;
+    }
+
+    private static long score(final EndpointStatistics statistics) {
+        long latency = statistics.getLatencyPercentile(LATENCY_PERCENTILE).orElse(0);
+        return latency + statistics.getConsecutiveFailureCount() * FAILURE_PENALTY_NANOS;
+    }
+}
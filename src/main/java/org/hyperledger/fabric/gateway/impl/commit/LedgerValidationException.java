@@ -0,0 +1,27 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
+
+/**
+ * Cause of a commit failure determined by looking up the transaction on the ledger rather than from a commit event.
+ */
+final class LedgerValidationException extends Exception {
+    private static final long serialVersionUID = 1L;
+
+    private final TransactionPackage.TxValidationCode validationCode;
+
+    LedgerValidationException(final String transactionId, final TransactionPackage.TxValidationCode validationCode) {
+        super("Transaction " + transactionId + " recorded on the ledger with validation code " + validationCode);
+        this.validationCode = validationCode;
+    }
+
+    TransactionPackage.TxValidationCode getValidationCode() {
+        return validationCode;
+    }
+}
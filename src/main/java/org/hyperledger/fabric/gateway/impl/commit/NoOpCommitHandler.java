@@ -6,11 +6,10 @@
 
 package org.hyperledger.fabric.gateway.impl.commit;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
-import org.hyperledger.fabric.gateway.spi.CommitHandler;
-
-public enum NoOpCommitHandler implements CommitHandler {
+public enum NoOpCommitHandler implements CompletableCommitHandler {
     INSTANCE;
 
     @Override
@@ -19,6 +18,16 @@ public enum NoOpCommitHandler implements CommitHandler {
     @Override
     public void waitForEvents(final long timeout, final TimeUnit timeUnit) { }
 
+    @Override
+    public CompletableFuture<Void> awaitCommit(final long timeout, final TimeUnit timeUnit) {
+        return CompletableFuture.completedFuture(null);
+    }
+
     @Override
     public void cancelListening() { }
+
+    @Override
+    public boolean isDone() {
+        return true;
+    }
 }
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.Collection;
+
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Peer;
+
+/**
+ * Commit strategy that succeeds once a required number of peers have reported a successful commit, and fails as soon as
+ * too many peers have disconnected for the required number to be reached. If fewer peers than the required number are
+ * available, commit events are required from all of them.
+ */
+public final class QuorumCommitStrategy implements CommitStrategy {
+    private final Collection<Peer> peers;
+    private final int required;
+    private int successCount = 0;
+    private int failureCount = 0;
+
+    /**
+     * Create a strategy requiring commit events from a specific number of peers.
+     * @param peers Peers from which commit events are expected.
+     * @param required Number of successful commit events required.
+     */
+    public QuorumCommitStrategy(final Collection<Peer> peers, final int required) {
+        if (required < 1) {
+            throw new IllegalArgumentException("Required commit count must be at least 1: " + required);
+        }
+
+        this.peers = peers;
+        this.required = Math.min(required, peers.size());
+    }
+
+    /**
+     * Create a strategy requiring commit events from a majority of peers.
+     * @param peers Peers from which commit events are expected.
+     * @return A commit strategy.
+     */
+    public static QuorumCommitStrategy majority(final Collection<Peer> peers) {
+        return new QuorumCommitStrategy(peers, peers.size() / 2 + 1);
+    }
+
+    /**
+     * Create a strategy requiring commit events from a specific number of peers, chosen from those that have
+     * historically been quickest to report commits. One additional peer is also chosen, so that a single disconnect
+     * does not cause the strategy to fail.
+     * @param peers Candidate peers.
+     * @param required Number of successful commit events required.
+     * @param commitStatistics Commit lag statistics for each peer.
+     * @return A commit strategy.
+     */
+    public static QuorumCommitStrategy fastest(final Collection<Peer> peers, final int required,
+                                               final StatisticsRegistry commitStatistics) {
+        return new QuorumCommitStrategy(FastestPeers.select(peers, required, commitStatistics), required);
+    }
+
+    @Override
+    public Collection<Peer> getPeers() {
+        return peers;
+    }
+
+    @Override
+    public synchronized Result onEvent(final BlockEvent.TransactionEvent event) {
+        successCount++;
+        return getResult();
+    }
+
+    @Override
+    public synchronized Result onError(final PeerDisconnectEvent event) {
+        failureCount++;
+        return getResult();
+    }
+
+    private Result getResult() {
+        if (successCount >= required) {
+            return Result.SUCCESS;
+        } else if (peers.size() - failureCount < required) {
+            return Result.FAIL;
+        } else {
+            return Result.CONTINUE;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "required=" + required,
+                "peers=" + peers);
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.spi.RetryPolicy;
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
+
+/**
+ * Retries transactions rejected with specific validation codes, using exponential backoff with full jitter. The delay
+ * before each retry is chosen uniformly at random between zero and a limit that doubles with each attempt, up to a
+ * maximum.
+ */
+public final class ValidationCodeRetryPolicy implements RetryPolicy {
+    private final Set<TransactionPackage.TxValidationCode> codes;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    public ValidationCodeRetryPolicy(final Set<TransactionPackage.TxValidationCode> codes, final int maxAttempts,
+                                     final long initialBackoffNanos, final long maxBackoffNanos) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("Maximum attempts must be at least 1: " + maxAttempts);
+        }
+        if (initialBackoffNanos < 0 || maxBackoffNanos < initialBackoffNanos) {
+            throw new IllegalArgumentException("Invalid backoff: initial " + initialBackoffNanos + "ns, maximum "
+                    + maxBackoffNanos + "ns");
+        }
+
+        this.codes = codes;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoffNanos;
+        this.maxBackoffNanos = maxBackoffNanos;
+    }
+
+    @Override
+    public long getRetryDelayNanos(final int attempt, final ContractException cause) {
+        if (attempt >= maxAttempts || !ValidationCodes.of(cause).filter(codes::contains).isPresent()) {
+            return -1;
+        }
+
+        long limit = getBackoffLimitNanos(attempt);
+        return limit > 0 ? ThreadLocalRandom.current().nextLong(limit + 1) : 0;
+    }
+
+    long getBackoffLimitNanos(final int attempt) {
+        int shift = attempt - 1;
+        if (shift >= Long.numberOfLeadingZeros(initialBackoffNanos)) {
+            return maxBackoffNanos;
+        }
+        return Math.min(initialBackoffNanos << shift, maxBackoffNanos);
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "codes=" + codes,
+                "maxAttempts=" + maxAttempts,
+                "initialBackoffNanos=" + initialBackoffNanos,
+                "maxBackoffNanos=" + maxBackoffNanos);
+    }
+}
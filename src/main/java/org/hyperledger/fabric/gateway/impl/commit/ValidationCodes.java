@@ -0,0 +1,61 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
+import org.hyperledger.fabric.sdk.exception.TransactionEventException;
+
+/**
+ * Utility methods for transaction validation codes reported by commit failures.
+ */
+public final class ValidationCodes {
+    /** Validation codes indicating that a transaction read data updated by another transaction. */
+    public static final Set<TransactionPackage.TxValidationCode> CONFLICTS = Collections.unmodifiableSet(EnumSet.of(
+            TransactionPackage.TxValidationCode.MVCC_READ_CONFLICT,
+            TransactionPackage.TxValidationCode.PHANTOM_READ_CONFLICT));
+
+    /**
+     * Get the validation code of a transaction rejected by a committing peer.
+     * @param e Transaction failure.
+     * @return The validation code, or empty if the failure was not caused by an invalid commit event or an invalid
+     * transaction recorded on the ledger.
+     */
+    public static Optional<TransactionPackage.TxValidationCode> of(final ContractException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof LedgerValidationException) {
+            return Optional.of(((LedgerValidationException) cause).getValidationCode());
+        }
+        if (!(cause instanceof TransactionEventException)) {
+            return Optional.empty();
+        }
+
+        TransactionEventException eventException = (TransactionEventException) cause;
+        if (eventException.getTransactionEvent() == null) {
+            return Optional.empty();
+        }
+        int code = eventException.getTransactionEvent().getValidationCode();
+        return Optional.ofNullable(TransactionPackage.TxValidationCode.forNumber(code));
+    }
+
+    /**
+     * Check whether a transaction failed because it conflicted with another transaction.
+     * @param e Transaction failure.
+     * @return {@code true} if the failure was a read conflict; otherwise {@code false}.
+     */
+    public static boolean isConflict(final ContractException e) {
+        return of(e).filter(CONFLICTS::contains).isPresent();
+    }
+
+    // Private constructor to prevent instantiation
+    private ValidationCodes() { }
+}
@@ -0,0 +1,410 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.endorse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.HedgeBudget;
+import org.hyperledger.fabric.gateway.impl.stats.EndpointStatistics;
+import org.hyperledger.fabric.gateway.impl.stats.LatencyStatistics;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.sdk.ChaincodeResponse;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.ServiceDiscovery;
+import org.hyperledger.fabric.sdk.TransactionProposalRequest;
+
+/**
+ * Sends transaction proposals and, if an endorsement is slow to arrive, sends a hedged request to an alternative
+ * endorser. The first successful response is used. The hedge delay adapts to observed endorsement latency, and the
+ * number of hedged requests is limited by a {@link HedgeBudget}.
+ */
+public final class HedgedEndorser {
+    private static final Log LOG = LogFactory.getLog(HedgedEndorser.class);
+
+    private static final double HEDGE_PERCENTILE = 0.95;
+    private static final int MIN_SAMPLES = 10;
+    private static final long DEFAULT_HEDGE_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long MIN_HEDGE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final String DISCOVERY_STATISTICS_NAME = "discovery";
+    private static final EnumSet<Peer.PeerRole> ENDORSING_ROLES = EnumSet.of(Peer.PeerRole.ENDORSING_PEER);
+
+    private final Channel channel;
+    private final ExecutorService executor;
+    private final StatisticsRegistry statistics;
+    private final HedgeBudget budget;
+
+    public HedgedEndorser(final Channel channel, final ExecutorService executor, final StatisticsRegistry statistics,
+                          final HedgeBudget budget) {
+        this.channel = channel;
+        this.executor = executor;
+        this.statistics = statistics;
+        this.budget = budget;
+    }
+
+    /**
+     * Send a proposal to the supplied peers. If a peer is slow to respond, the proposal is also sent to another
+     * endorsing peer in the same organization, and the first successful response for that organization is used.
+     * Only one endorsement is obtained for each organization, so peers explicitly requested by the application, all of
+     * which must endorse, should instead be supplied to {@link #sendTransactionProposalToPeers(Supplier, Collection)}.
+     * @param requestSupplier Creates a proposal request; invoked once for each peer.
+     * @param peers Endorsing peers chosen by the gateway.
+     * @return One proposal response for each organization.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    public Collection<ProposalResponse> sendTransactionProposal(final Supplier<TransactionProposalRequest> requestSupplier,
+                                                                final Collection<Peer> peers)
+            throws InterruptedException {
+        Map<Peer, String> peerOrganizations = PeerOrganizations.forChannel(channel);
+        Collection<Peer> channelEndorsers = channel.getPeers(ENDORSING_ROLES);
+
+        Map<String, OrganizationEndorsement> endorsements = new LinkedHashMap<>();
+        for (Peer peer : peers) {
+            String mspId = peerOrganizations.getOrDefault(peer, peer.getName());
+            endorsements.computeIfAbsent(mspId, k -> {
+                Deque<Peer> alternates = Stream.concat(peers.stream(), channelEndorsers.stream())
+                        .distinct()
+                        .filter(candidate -> candidate != peer)
+                        .filter(candidate -> mspId.equals(peerOrganizations.get(candidate)))
+                        .collect(Collectors.toCollection(ConcurrentLinkedDeque::new));
+                return new OrganizationEndorsement(requestSupplier, peer, alternates);
+            });
+        }
+
+        return endorse(endorsements.values());
+    }
+
+    /**
+     * Send a proposal to each of the peers explicitly requested by the application. If a peer is slow to respond, the
+     * proposal is also sent to an endorsing peer in the same organization that was not requested, and the first
+     * successful response is used in place of the slow peer's response. One endorsement is obtained for each
+     * requested peer, so the number of endorsements from each organization is preserved, and each alternative peer
+     * stands in for at most one requested peer.
+     * @param requestSupplier Creates a proposal request; invoked once for each peer.
+     * @param peers Endorsing peers requested by the application.
+     * @return One proposal response for each requested peer.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    public Collection<ProposalResponse> sendTransactionProposalToPeers(final Supplier<TransactionProposalRequest> requestSupplier,
+                                                                       final Collection<Peer> peers)
+            throws InterruptedException {
+        Map<Peer, String> peerOrganizations = PeerOrganizations.forChannel(channel);
+
+        // Alternative peers for each organization are shared by all requested peers in that organization
+        Map<String, Deque<Peer>> alternatesByOrganization = new HashMap<>();
+        for (Peer candidate : channel.getPeers(ENDORSING_ROLES)) {
+            String mspId = peerOrganizations.get(candidate);
+            if (mspId != null && !peers.contains(candidate)) {
+                alternatesByOrganization.computeIfAbsent(mspId, k -> new ConcurrentLinkedDeque<>()).add(candidate);
+            }
+        }
+
+        List<OrganizationEndorsement> endorsements = peers.stream()
+                .distinct()
+                .map(peer -> {
+                    Deque<Peer> alternates = alternatesByOrganization.get(peerOrganizations.get(peer));
+                    return new OrganizationEndorsement(requestSupplier, peer,
+                            alternates != null ? alternates : new ConcurrentLinkedDeque<>());
+                })
+                .collect(Collectors.toList());
+
+        return endorse(endorsements);
+    }
+
+    private Collection<ProposalResponse> endorse(final Collection<OrganizationEndorsement> endorsements)
+            throws InterruptedException {
+        endorsements.forEach(OrganizationEndorsement::start);
+        awaitWithHedging(endorsements);
+
+        return endorsements.stream()
+                .map(endorsement -> endorsement.result.join())
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private void awaitWithHedging(final Collection<OrganizationEndorsement> endorsements) throws InterruptedException {
+        CompletableFuture<?> all = CompletableFuture.allOf(endorsements.stream()
+                .map(endorsement -> endorsement.result)
+                .toArray(CompletableFuture[]::new));
+
+        while (!all.isDone()) {
+            long now = System.nanoTime();
+            endorsements.stream()
+                    .filter(endorsement -> endorsement.isHedgeDue(now))
+                    .forEach(OrganizationEndorsement::hedge);
+
+            long nextHedgeTime = endorsements.stream()
+                    .filter(OrganizationEndorsement::isHedgePending)
+                    .mapToLong(endorsement -> endorsement.hedgeTime)
+                    .min()
+                    .orElse(Long.MAX_VALUE);
+            await(all, nextHedgeTime - now);
+        }
+    }
+
+    private static void await(final CompletableFuture<?> future, final long timeoutNanos) throws InterruptedException {
+        try {
+            if (timeoutNanos == Long.MAX_VALUE) {
+                future.get();
+            } else {
+                future.get(Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS);
+            }
+        } catch (ExecutionException | TimeoutException e) {
+            // Completion is checked by the caller
+        }
+    }
+
+    /**
+     * Send a proposal to endorsers selected by service discovery. If the endorsements are slow to arrive, the proposal
+     * is sent again using a new endorser selection, and the first set of responses containing a successful response
+     * is used. Where the endorsers chosen for the first proposal are known, which is the case for a
+     * {@link LatencyAwareEndorsementSelector}, the new selection avoids them. Otherwise the new selection is random, so
+     * that a deterministic selector does not choose the same endorsers again.
+     * @param requestSupplier Creates a proposal request; invoked once for each send.
+     * @param selector Endorsement selector used for the first proposal.
+     * @param discoveryOptions Creates service discovery options that use a given endorsement selector.
+     * @return Proposal responses.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    public Collection<ProposalResponse> sendTransactionProposalToEndorsers(
+            final Supplier<TransactionProposalRequest> requestSupplier, final ServiceDiscovery.EndorsementSelector selector,
+            final Function<ServiceDiscovery.EndorsementSelector, Channel.DiscoveryOptions> discoveryOptions)
+            throws InterruptedException {
+        LatencyStatistics latency = statistics.get(DISCOVERY_STATISTICS_NAME).getLatency();
+        FirstSuccess firstSuccess = new FirstSuccess();
+
+        Set<String> primaryEndpoints = ConcurrentHashMap.newKeySet();
+        ServiceDiscovery.EndorsementSelector primarySelector = selector instanceof LatencyAwareEndorsementSelector
+                ? ((LatencyAwareEndorsementSelector) selector).recordingTo(primaryEndpoints)
+                : selector;
+
+        budget.recordRequest();
+        firstSuccess.add(sendToEndorsers(requestSupplier, discoveryOptions.apply(primarySelector)));
+        try {
+            return firstSuccess.result.get(getHedgeDelay(latency), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            if (budget.tryAcquire()) {
+                LOG.debug("Sending hedged proposal to endorsers selected by service discovery");
+                ServiceDiscovery.EndorsementSelector hedgeSelector = selector instanceof LatencyAwareEndorsementSelector
+                        ? ((LatencyAwareEndorsementSelector) selector).excluding(primaryEndpoints)
+                        : ServiceDiscovery.EndorsementSelector.ENDORSEMENT_SELECTION_RANDOM;
+                firstSuccess.add(sendToEndorsers(requestSupplier, discoveryOptions.apply(hedgeSelector)));
+            }
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+
+        try {
+            return firstSuccess.result.get();
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private CompletableFuture<Collection<ProposalResponse>> sendToEndorsers(final Supplier<TransactionProposalRequest> requestSupplier,
+                                                                         final Channel.DiscoveryOptions discoveryOptions) {
+        return CompletableFuture.supplyAsync(() -> {
+            long startTime = System.nanoTime();
+            try {
+                Collection<ProposalResponse> responses = channel.sendTransactionProposalToEndorsers(requestSupplier.get(), discoveryOptions);
+                long elapsedNanos = System.nanoTime() - startTime;
+                statistics.recordProposalResponses(responses, elapsedNanos);
+                if (containsSuccess(responses)) {
+                    statistics.get(DISCOVERY_STATISTICS_NAME).recordSuccess(elapsedNanos);
+                }
+                return responses;
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    private static GatewayRuntimeException unwrap(final ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof CompletionException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return new GatewayRuntimeException(cause);
+    }
+
+    private static boolean isSuccess(final ProposalResponse response) {
+        return ChaincodeResponse.Status.SUCCESS.equals(response.getStatus());
+    }
+
+    private static boolean containsSuccess(final Collection<ProposalResponse> responses) {
+        return responses.stream().anyMatch(HedgedEndorser::isSuccess);
+    }
+
+    private static long getHedgeDelay(final LatencyStatistics latency) {
+        if (latency.getCount() < MIN_SAMPLES) {
+            return DEFAULT_HEDGE_DELAY_NANOS;
+        }
+        return Math.max(MIN_HEDGE_DELAY_NANOS, latency.getPercentile(HEDGE_PERCENTILE).orElse(DEFAULT_HEDGE_DELAY_NANOS));
+    }
+
+    /**
+     * Completes with the first set of responses containing a successful response or, if there are none, the last
+     * result received.
+     */
+    private static final class FirstSuccess {
+        private final CompletableFuture<Collection<ProposalResponse>> result = new CompletableFuture<>();
+        private int outstandingCount = 0;
+
+        synchronized void add(final CompletableFuture<Collection<ProposalResponse>> future) {
+            outstandingCount++;
+            future.whenComplete(this::accept);
+        }
+
+        private synchronized void accept(final Collection<ProposalResponse> responses, final Throwable error) {
+            outstandingCount--;
+            if (error == null && containsSuccess(responses)) {
+                result.complete(responses);
+            } else if (outstandingCount == 0 && error != null) {
+                result.completeExceptionally(error);
+            } else if (outstandingCount == 0) {
+                result.complete(responses);
+            }
+        }
+    }
+
+    /**
+     * Endorsement by a single organization, or by a single requested peer, which may be hedged by sending to an
+     * alternative peer. Alternative peers may be shared with other endorsements, in which case each is used at most
+     * once.
+     */
+    private final class OrganizationEndorsement {
+        private final Supplier<TransactionProposalRequest> requestSupplier;
+        private final Peer primary;
+        private final Deque<Peer> alternates;
+        private final CompletableFuture<ProposalResponse> result = new CompletableFuture<>();
+        private final List<ProposalResponse> failures = new ArrayList<>();
+        private int outstandingCount = 0;
+        private volatile long hedgeTime;
+        private boolean hedged = false;
+
+        OrganizationEndorsement(final Supplier<TransactionProposalRequest> requestSupplier, final Peer primary,
+                                final Deque<Peer> alternates) {
+            this.requestSupplier = requestSupplier;
+            this.primary = primary;
+            this.alternates = alternates;
+        }
+
+        void start() {
+            budget.recordRequest();
+            hedgeTime = System.nanoTime() + getHedgeDelay(statistics.get(primary).getLatency());
+            send(primary);
+        }
+
+        synchronized boolean isHedgePending() {
+            return !hedged && !result.isDone() && !alternates.isEmpty();
+        }
+
+        boolean isHedgeDue(final long now) {
+            return isHedgePending() && now - hedgeTime >= 0;
+        }
+
+        synchronized boolean hedge() {
+            hedged = true;
+            Peer alternate = alternates.poll();
+            if (alternate == null || !budget.tryAcquire()) {
+                if (alternate != null) {
+                    // Leave the alternative for another endorsement
+                    alternates.addFirst(alternate);
+                }
+                LOG.debug("Unable to hedge endorsement from peer " + primary.getName());
+                return false;
+            }
+            LOG.debug("Sending hedged proposal to peer " + alternate.getName() + " in place of " + primary.getName());
+            send(alternate);
+            return true;
+        }
+
+        private synchronized void send(final Peer peer) {
+            outstandingCount++;
+            CompletableFuture.runAsync(() -> sendProposal(peer), executor);
+        }
+
+        private void sendProposal(final Peer peer) {
+            EndpointStatistics peerStatistics = statistics.get(peer);
+            peerStatistics.requestStarted();
+            long startTime = System.nanoTime();
+            Collection<ProposalResponse> responses;
+            try {
+                responses = channel.sendTransactionProposal(requestSupplier.get(), Collections.singleton(peer));
+            } catch (Exception e) {
+                LOG.warn("Failed to send proposal to peer " + peer.getName(), e);
+                responses = Collections.emptyList();
+            } finally {
+                peerStatistics.requestCompleted();
+            }
+
+            if (containsSuccess(responses)) {
+                peerStatistics.recordSuccess(System.nanoTime() - startTime);
+            } else {
+                peerStatistics.recordFailure();
+            }
+            accept(responses);
+        }
+
+        private synchronized void accept(final Collection<ProposalResponse> responses) {
+            outstandingCount--;
+            for (ProposalResponse response : responses) {
+                if (isSuccess(response)) {
+                    result.complete(response);
+                } else {
+                    failures.add(response);
+                }
+            }
+
+            // Fail over immediately if no response was successful and a hedged request has not yet been sent
+            if (outstandingCount == 0 && !result.isDone() && !(isHedgePending() && hedge())) {
+                result.complete(failures.isEmpty() ? null : failures.get(0));
+            }
+        }
+
+        @Override
+        public String toString() {
+            return GatewayUtils.toString(this,
+                    "primary=" + primary.getName(),
+                    "alternates=" + alternates.size());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "channel=" + channel.getName(),
+                "budget=" + budget);
+    }
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.endorse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.stats.EndpointStatistics;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.sdk.ServiceDiscovery;
+
+/**
+ * Endorsement selector that chooses the service discovery layout, and the endorsers within it, with the lowest
+ * expected endorsement time. Each endorser is scored by its median observed latency, increased in proportion to the
+ * number of requests currently in progress and by a fixed penalty for each consecutive failure. Since endorsements
+ * are requested in parallel, a layout's cost is the score of its slowest selected endorser, with ties broken by the
+ * total score of all selected endorsers. Endorsers with equal scores are chosen at random to spread load.
+ * <p>A selector can be derived that avoids a set of excluded endorsers, choosing them only where a layout cannot be
+ * satisfied without them, or that records the endorsers it chooses. These are used to send a hedged proposal to
+ * different endorsers from the original proposal.</p>
+ */
+public final class LatencyAwareEndorsementSelector implements ServiceDiscovery.EndorsementSelector {
+    private static final Log LOG = LogFactory.getLog(LatencyAwareEndorsementSelector.class);
+
+    private static final double LATENCY_PERCENTILE = 0.5;
+    private static final long UNKNOWN_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long FAILURE_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long EXCLUDED_PENALTY_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    private final StatisticsRegistry statistics;
+    private final Set<String> excludedEndpoints;
+    private final Set<String> pickedEndpoints;
+
+    public LatencyAwareEndorsementSelector(final StatisticsRegistry statistics) {
+        this(statistics, Collections.emptySet(), null);
+    }
+
+    private LatencyAwareEndorsementSelector(final StatisticsRegistry statistics, final Set<String> excludedEndpoints,
+                                            final Set<String> pickedEndpoints) {
+        this.statistics = statistics;
+        this.excludedEndpoints = excludedEndpoints;
+        this.pickedEndpoints = pickedEndpoints;
+    }
+
+    /**
+     * Get a selector that makes the same choices as this one and adds the endpoints of the endorsers it chooses to a
+     * set.
+     * @param picked Set to which chosen endpoints are added; must be thread-safe.
+     * @return A selector.
+     */
+    LatencyAwareEndorsementSelector recordingTo(final Set<String> picked) {
+        return new LatencyAwareEndorsementSelector(statistics, excludedEndpoints, picked);
+    }
+
+    /**
+     * Get a selector that avoids endorsers at the given endpoints unless a layout cannot be satisfied without them.
+     * The set is read each time a selection is made.
+     * @param endpoints Endpoints to avoid.
+     * @return A selector.
+     */
+    LatencyAwareEndorsementSelector excluding(final Set<String> endpoints) {
+        return new LatencyAwareEndorsementSelector(statistics, endpoints, pickedEndpoints);
+    }
+
+    @Override
+    public ServiceDiscovery.SDEndorserState endorserSelector(final ServiceDiscovery.SDChaindcode sdChaindcode) {
+        ServiceDiscovery.SDEndorserState state = new ServiceDiscovery.SDEndorserState();
+        Selection best = select(sdChaindcode.getLayouts());
+        if (best != null) {
+            LOG.debug("Selected endorsers for chaincode " + sdChaindcode.getName() + ": " + best);
+            state.setPickedEndorsers(best.getEndorsers());
+            state.setPickedLayout(best.getLayout());
+            if (pickedEndpoints != null) {
+                best.getEndorsers().forEach(endorser -> pickedEndpoints.add(endorser.getEndpoint()));
+            }
+        }
+        return state;
+    }
+
+    /**
+     * Select the lowest cost layout and endorsers.
+     * @param layouts Candidate layouts.
+     * @return The selection, or {@code null} if there are no layouts.
+     */
+    Selection select(final Collection<ServiceDiscovery.SDLayout> layouts) {
+        Map<ServiceDiscovery.SDEndorser, Long> scores = new HashMap<>();
+        Selection best = null;
+        for (ServiceDiscovery.SDLayout layout : layouts) {
+            Selection selection = select(layout, scores);
+            if (best == null || selection.compareTo(best) < 0) {
+                best = selection;
+            }
+        }
+        return best;
+    }
+
+    private Selection select(final ServiceDiscovery.SDLayout layout, final Map<ServiceDiscovery.SDEndorser, Long> scores) {
+        Set<ServiceDiscovery.SDEndorser> picked = new LinkedHashSet<>();
+        for (ServiceDiscovery.SDLayout.SDLGroup group : layout.getSDLGroups()) {
+            List<ServiceDiscovery.SDEndorser> candidates = new ArrayList<>(group.getEndorsers());
+            Collections.shuffle(candidates);
+            candidates.sort(Comparator.comparingLong(endorser -> scores.computeIfAbsent(endorser, this::score)));
+
+            int required = group.getStillRequired();
+            for (ServiceDiscovery.SDEndorser endorser : candidates) {
+                if (required <= 0) {
+                    break;
+                }
+                if (picked.add(endorser)) {
+                    required--;
+                }
+            }
+        }
+
+        long maxScore = picked.stream().mapToLong(scores::get).max().orElse(0);
+        long totalScore = picked.stream().mapToLong(scores::get).sum();
+        return new Selection(layout, picked, maxScore, totalScore);
+    }
+
+    private long score(final ServiceDiscovery.SDEndorser endorser) {
+        EndpointStatistics endpointStatistics = statistics.get(endorser.getEndpoint());
+        long latency = endpointStatistics.getLatency().getPercentile(LATENCY_PERCENTILE).orElse(UNKNOWN_LATENCY_NANOS);
+        long loadedLatency = latency * (1 + Math.max(0, endpointStatistics.getInFlightCount()));
+        long penalty = endpointStatistics.getConsecutiveFailureCount() * FAILURE_PENALTY_NANOS;
+        if (excludedEndpoints.contains(endorser.getEndpoint())) {
+            penalty += EXCLUDED_PENALTY_NANOS;
+        }
+        return loadedLatency + penalty;
+    }
+
+    static final class Selection implements Comparable<Selection> {
+        private final ServiceDiscovery.SDLayout layout;
+        private final Collection<ServiceDiscovery.SDEndorser> endorsers;
+        private final long maxScore;
+        private final long totalScore;
+
+        Selection(final ServiceDiscovery.SDLayout layout, final Collection<ServiceDiscovery.SDEndorser> endorsers,
+                  final long maxScore, final long totalScore) {
+            this.layout = layout;
+            this.endorsers = endorsers;
+            this.maxScore = maxScore;
+            this.totalScore = totalScore;
+        }
+
+        ServiceDiscovery.SDLayout getLayout() {
+            return layout;
+        }
+
+        Collection<ServiceDiscovery.SDEndorser> getEndorsers() {
+            return endorsers;
+        }
+
+        @Override
+        public int compareTo(final Selection other) {
+            int result = Long.compare(maxScore, other.maxScore);
+            return result != 0 ? result : Long.compare(totalScore, other.totalScore);
+        }
+
+        @Override
+        public String toString() {
+            return GatewayUtils.toString(this,
+                    "maxScore=" + maxScore,
+                    "totalScore=" + totalScore,
+                    "endorsers=" + endorsers.stream().map(ServiceDiscovery.SDEndorser::getEndpoint).collect(Collectors.toList()));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "statistics=" + statistics,
+                "excludedEndpoints=" + excludedEndpoints);
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.endorse;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.spi.EndorsementPolicy;
+
+/**
+ * Policy satisfied by an endorsement from a single organization.
+ */
+public final class MemberPolicy implements EndorsementPolicy {
+    private final String mspId;
+
+    public MemberPolicy(final String mspId) {
+        this.mspId = Objects.requireNonNull(mspId, "mspId");
+    }
+
+    /**
+     * Get the organization whose endorsement satisfies this policy.
+     * @return Member services provider ID.
+     */
+    public String getMspId() {
+        return mspId;
+    }
+
+    @Override
+    public boolean isSatisfiedBy(final Collection<String> mspIds) {
+        return mspIds.contains(mspId);
+    }
+
+    @Override
+    public Set<String> getOrganizations() {
+        return Collections.singleton(mspId);
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this, "mspId=" + mspId);
+    }
+}
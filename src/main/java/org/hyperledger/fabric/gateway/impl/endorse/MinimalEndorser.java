@@ -0,0 +1,200 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.endorse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.spi.EndorsementPolicy;
+import org.hyperledger.fabric.sdk.ChaincodeResponse;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.TransactionProposalRequest;
+import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
+import org.hyperledger.fabric.sdk.exception.ProposalException;
+
+/**
+ * Sends transaction proposals to a minimal set of endorsing peers that can satisfy a chaincode endorsement policy,
+ * instead of to every endorsing peer in the channel. Successive proposals rotate between the smallest sets of
+ * organizations that satisfy the policy, and between the endorsing peers of each organization. If the selected peers
+ * do not provide enough successful responses, the proposal is also sent to the remaining endorsing peers.
+ */
+public final class MinimalEndorser {
+    private static final Log LOG = LogFactory.getLog(MinimalEndorser.class);
+
+    private static final int MAX_ENUMERATED_ORGANIZATIONS = 16;
+    private static final EnumSet<Peer.PeerRole> ENDORSING_ROLES = EnumSet.of(Peer.PeerRole.ENDORSING_PEER);
+
+    private final Channel channel;
+    private final EndorsementPolicy policy;
+    private final AtomicInteger organizationCounter = new AtomicInteger();
+    private final Map<String, AtomicInteger> peerCounters = new ConcurrentHashMap<>();
+    private volatile OrganizationSets organizationSets = new OrganizationSets(Collections.emptySet(), Collections.emptyList());
+
+    public MinimalEndorser(final Channel channel, final EndorsementPolicy policy) {
+        this.channel = channel;
+        this.policy = policy;
+    }
+
+    /**
+     * Select a minimal set of endorsing peers that can satisfy the endorsement policy.
+     * @return Endorsing peers, or an empty list if the policy cannot be satisfied by the channel's endorsing peers.
+     */
+    public List<Peer> selectPeers() {
+        Map<String, List<Peer>> peersByOrganization = getEndorsingPeersByOrganization();
+        List<Set<String>> candidates = getMinimalOrganizationSets(peersByOrganization.keySet());
+        if (candidates.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Set<String> mspIds = candidates.get(Math.floorMod(organizationCounter.getAndIncrement(), candidates.size()));
+        return mspIds.stream()
+                .map(mspId -> {
+                    List<Peer> peers = peersByOrganization.get(mspId);
+                    int index = peerCounters.computeIfAbsent(mspId, k -> new AtomicInteger()).getAndIncrement();
+                    return peers.get(Math.floorMod(index, peers.size()));
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Send a proposal to a minimal set of endorsing peers, falling back to the remaining endorsing peers if the
+     * endorsement policy is not satisfied by successful responses.
+     * @param request Proposal request.
+     * @return Proposal responses.
+     * @throws ProposalException if the proposal could not be sent.
+     * @throws InvalidArgumentException if the request is invalid.
+     */
+    public Collection<ProposalResponse> sendTransactionProposal(final TransactionProposalRequest request)
+            throws ProposalException, InvalidArgumentException {
+        List<Peer> selectedPeers = selectPeers();
+        if (selectedPeers.isEmpty()) {
+            return channel.sendTransactionProposal(request);
+        }
+
+        Collection<ProposalResponse> responses;
+        try {
+            responses = channel.sendTransactionProposal(request, selectedPeers);
+        } catch (ProposalException e) {
+            LOG.warn("Failed to send proposal to selected endorsing peers; sending to all endorsing peers", e);
+            return channel.sendTransactionProposal(request);
+        }
+        if (isPolicySatisfied(responses)) {
+            return responses;
+        }
+
+        List<Peer> remainingPeers = new ArrayList<>(channel.getPeers(ENDORSING_ROLES));
+        remainingPeers.removeAll(selectedPeers);
+        if (remainingPeers.isEmpty()) {
+            return responses;
+        }
+
+        LOG.info("Endorsement policy not satisfied by selected endorsing peers; sending to remaining endorsing peers");
+        Collection<ProposalResponse> results = new ArrayList<>(responses);
+        results.addAll(channel.sendTransactionProposal(request, remainingPeers));
+        return results;
+    }
+
+    private boolean isPolicySatisfied(final Collection<ProposalResponse> responses) {
+        Map<Peer, String> peerOrganizations = PeerOrganizations.forChannel(channel);
+        List<String> mspIds = responses.stream()
+                .filter(response -> ChaincodeResponse.Status.SUCCESS.equals(response.getStatus()))
+                .map(response -> peerOrganizations.get(response.getPeer()))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return policy.isSatisfiedBy(mspIds);
+    }
+
+    private Map<String, List<Peer>> getEndorsingPeersByOrganization() {
+        Map<Peer, String> peerOrganizations = PeerOrganizations.forChannel(channel);
+        Map<String, List<Peer>> results = new TreeMap<>();
+        for (Peer peer : channel.getPeers(ENDORSING_ROLES)) {
+            String mspId = peerOrganizations.get(peer);
+            if (mspId != null && policy.getOrganizations().contains(mspId)) {
+                results.computeIfAbsent(mspId, k -> new ArrayList<>()).add(peer);
+            }
+        }
+        return results;
+    }
+
+    private List<Set<String>> getMinimalOrganizationSets(final Set<String> availableMspIds) {
+        OrganizationSets current = organizationSets;
+        if (!current.availableMspIds.equals(availableMspIds)) {
+            current = new OrganizationSets(availableMspIds, findMinimalOrganizationSets(availableMspIds));
+            organizationSets = current;
+        }
+        return current.minimalSets;
+    }
+
+    private List<Set<String>> findMinimalOrganizationSets(final Set<String> availableMspIds) {
+        List<String> mspIds = new ArrayList<>(availableMspIds);
+        if (mspIds.size() > MAX_ENUMERATED_ORGANIZATIONS) {
+            return policy.isSatisfiedBy(mspIds)
+                    ? Collections.singletonList(new HashSet<>(mspIds))
+                    : Collections.emptyList();
+        }
+
+        List<Set<String>> results = new ArrayList<>();
+        int subsetCount = 1 << mspIds.size();
+        for (int size = 1; size <= mspIds.size() && results.isEmpty(); size++) {
+            for (int mask = 1; mask < subsetCount; mask++) {
+                if (Integer.bitCount(mask) != size) {
+                    continue;
+                }
+                Set<String> subset = subset(mspIds, mask);
+                if (policy.isSatisfiedBy(subset)) {
+                    results.add(subset);
+                }
+            }
+        }
+
+        LOG.debug("Minimal organization sets for endorsement policy: " + results);
+        return results;
+    }
+
+    private static Set<String> subset(final List<String> values, final int mask) {
+        Set<String> results = new HashSet<>();
+        for (int i = 0; i < values.size(); i++) {
+            if ((mask & (1 << i)) != 0) {
+                results.add(values.get(i));
+            }
+        }
+        return results;
+    }
+
+    private static final class OrganizationSets {
+        private final Set<String> availableMspIds;
+        private final List<Set<String>> minimalSets;
+
+        OrganizationSets(final Set<String> availableMspIds, final List<Set<String>> minimalSets) {
+            this.availableMspIds = new HashSet<>(availableMspIds);
+            this.minimalSets = minimalSets;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "channel=" + channel.getName(),
+                "policy=" + policy);
+    }
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.endorse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.spi.EndorsementPolicy;
+
+/**
+ * Policy satisfied when at least a given number of its sub-policies are satisfied. As when Fabric evaluates a
+ * signature policy, each endorsement can satisfy only one member policy, so {@code OutOf(2, Org1, Org1)} requires two
+ * endorsements from Org1. Endorsements are assigned to sub-policies in order, and a sub-policy that is not satisfied
+ * does not use any endorsements.
+ */
+public final class OutOfPolicy implements EndorsementPolicy {
+    private final int required;
+    private final List<EndorsementPolicy> policies;
+    private final Set<String> organizations;
+
+    public OutOfPolicy(final int required, final Collection<EndorsementPolicy> policies) {
+        if (required < 0 || required > policies.size()) {
+            throw new IllegalArgumentException("Required policy count " + required + " must be between 0 and "
+                    + policies.size());
+        }
+
+        this.required = required;
+        this.policies = Collections.unmodifiableList(new ArrayList<>(policies));
+
+        Set<String> mspIds = new HashSet<>();
+        policies.forEach(policy -> mspIds.addAll(policy.getOrganizations()));
+        organizations = Collections.unmodifiableSet(mspIds);
+    }
+
+    @Override
+    public boolean isSatisfiedBy(final Collection<String> mspIds) {
+        return satisfy(new ArrayList<>(mspIds));
+    }
+
+    /**
+     * Check whether this policy is satisfied by the available endorsements and, if it is, remove the endorsements
+     * used to satisfy it.
+     * @param available MSP IDs of endorsements not yet used by another policy.
+     * @return {@code true} if the policy is satisfied; otherwise {@code false}.
+     */
+    private boolean satisfy(final List<String> available) {
+        List<String> remaining = new ArrayList<>(available);
+        int satisfiedCount = 0;
+        for (EndorsementPolicy policy : policies) {
+            if (satisfiedCount >= required) {
+                break;
+            }
+            List<String> candidate = new ArrayList<>(remaining);
+            if (satisfy(policy, candidate)) {
+                remaining = candidate;
+                satisfiedCount++;
+            }
+        }
+
+        if (satisfiedCount < required) {
+            return false;
+        }
+        available.clear();
+        available.addAll(remaining);
+        return true;
+    }
+
+    private static boolean satisfy(final EndorsementPolicy policy, final List<String> available) {
+        if (policy instanceof MemberPolicy) {
+            return available.remove(((MemberPolicy) policy).getMspId());
+        } else if (policy instanceof OutOfPolicy) {
+            return ((OutOfPolicy) policy).satisfy(available);
+        }
+
+        // Endorsements used by other policy implementations are not known
+        return policy.isSatisfiedBy(available);
+    }
+
+    @Override
+    public Set<String> getOrganizations() {
+        return organizations;
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "required=" + required,
+                "policies=" + policies);
+    }
+}
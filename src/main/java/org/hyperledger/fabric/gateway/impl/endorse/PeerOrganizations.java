@@ -0,0 +1,40 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.endorse;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
+
+/**
+ * Utility for looking up the organizations to which channel peers belong.
+ */
+final class PeerOrganizations {
+    /**
+     * Get the member services provider ID for each peer known to a channel.
+     * @param channel A channel.
+     * @return Map of peer to MSP ID.
+     */
+    static Map<Peer, String> forChannel(final Channel channel) {
+        Map<Peer, String> results = new HashMap<>();
+        for (String mspId : channel.getPeersOrganizationMSPIDs()) {
+            try {
+                channel.getPeersForOrganization(mspId).forEach(peer -> results.put(peer, mspId));
+            } catch (InvalidArgumentException e) {
+                // This should never happen as mspId should not be null
+                throw new IllegalStateException(e);
+            }
+        }
+        return results;
+    }
+
+    // Private constructor to prevent instantiation
+    private PeerOrganizations() { }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.endorse;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import com.google.protobuf.ByteString;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.spi.EndorsementPolicy;
+import org.hyperledger.fabric.sdk.ChaincodeResponse;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.TransactionProposalRequest;
+
+/**
+ * Sends a transaction proposal to each endorsing peer concurrently and completes as soon as a set of consistent,
+ * successful proposal responses satisfies the endorsement policy. Responses are consistent if their proposal response
+ * payloads, which include the read/write set and chaincode response, are identical. Requests still outstanding when
+ * the policy is satisfied are cancelled and their responses ignored.
+ */
+public final class PolicyEndorser {
+    private static final Log LOG = LogFactory.getLog(PolicyEndorser.class);
+
+    private final Channel channel;
+    private final EndorsementPolicy policy;
+    private final ExecutorService executor;
+
+    public PolicyEndorser(final Channel channel, final EndorsementPolicy policy, final ExecutorService executor) {
+        this.channel = channel;
+        this.policy = policy;
+        this.executor = executor;
+    }
+
+    /**
+     * Send a proposal to the supplied peers.
+     * @param requestSupplier Creates a proposal request; invoked once for each peer.
+     * @param peers Endorsing peers.
+     * @return Consistent successful proposal responses that satisfy the endorsement policy.
+     * @throws ContractException if the endorsement policy cannot be satisfied.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    public Collection<ProposalResponse> sendTransactionProposal(final Supplier<TransactionProposalRequest> requestSupplier,
+                                                                final Collection<Peer> peers)
+            throws ContractException, InterruptedException {
+        ResponseCollector collector = new ResponseCollector(PeerOrganizations.forChannel(channel), peers.size());
+        List<Future<?>> futures = peers.stream()
+                .map(peer -> executor.submit(() -> collector.addAll(sendProposal(requestSupplier.get(), peer))))
+                .collect(Collectors.toList());
+
+        try {
+            return collector.get();
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+    }
+
+    private Collection<ProposalResponse> sendProposal(final TransactionProposalRequest request, final Peer peer) {
+        try {
+            return channel.sendTransactionProposal(request, Collections.singleton(peer));
+        } catch (Exception e) {
+            LOG.warn("Failed to send proposal to peer " + peer.getName(), e);
+            return Collections.emptyList();
+        }
+    }
+
+    private final class ResponseCollector {
+        private final Map<Peer, String> peerOrganizations;
+        private final Map<ByteString, List<ProposalResponse>> consistentResponses = new HashMap<>();
+        private final List<ProposalResponse> allResponses = new ArrayList<>();
+        private final CompletableFuture<Collection<ProposalResponse>> result = new CompletableFuture<>();
+        private int outstandingCount;
+
+        ResponseCollector(final Map<Peer, String> peerOrganizations, final int peerCount) {
+            this.peerOrganizations = peerOrganizations;
+            outstandingCount = peerCount;
+            if (peerCount == 0) {
+                complete();
+            }
+        }
+
+        synchronized void addAll(final Collection<ProposalResponse> responses) {
+            responses.forEach(this::add);
+            if (--outstandingCount == 0) {
+                complete();
+            }
+        }
+
+        private void add(final ProposalResponse response) {
+            allResponses.add(response);
+            if (!ChaincodeResponse.Status.SUCCESS.equals(response.getStatus()) || result.isDone()) {
+                return;
+            }
+
+            ByteString payload = response.getProposalResponse().getPayload();
+            List<ProposalResponse> matches = consistentResponses.computeIfAbsent(payload, k -> new ArrayList<>());
+            matches.add(response);
+            if (policy.isSatisfiedBy(getOrganizations(matches))) {
+                LOG.debug("Endorsement policy satisfied by " + matches.size() + " proposal responses");
+                result.complete(new ArrayList<>(matches));
+            }
+        }
+
+        private void complete() {
+            result.complete(Collections.emptyList());
+        }
+
+        private List<String> getOrganizations(final Collection<ProposalResponse> responses) {
+            return responses.stream()
+                    .map(response -> peerOrganizations.get(response.getPeer()))
+                    .filter(Objects::nonNull)
+                    .collect(Collectors.toList());
+        }
+
+        Collection<ProposalResponse> get() throws ContractException, InterruptedException {
+            Collection<ProposalResponse> responses;
+            try {
+                responses = result.get();
+            } catch (ExecutionException e) {
+                throw new GatewayRuntimeException(e.getCause());
+            }
+
+            if (responses.isEmpty()) {
+                throw newPolicyFailure();
+            }
+            return responses;
+        }
+
+        private synchronized ContractException newPolicyFailure() {
+            List<String> errorMessages = allResponses.stream()
+                    .filter(response -> !ChaincodeResponse.Status.SUCCESS.equals(response.getStatus()))
+                    .map(ProposalResponse::getMessage)
+                    .collect(Collectors.toList());
+            String msg = String.format("Endorsement policy not satisfied by %d proposal responses. %d peer error responses: %s",
+                    allResponses.size(), errorMessages.size(), String.join("; ", errorMessages));
+            LOG.error(msg);
+            return new ContractException(msg, new ArrayList<>(allResponses));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "channel=" + channel.getName(),
+                "policy=" + policy);
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.hyperledger.fabric.gateway.CloseableIterator;
+import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+
+/**
+ * Pull-based view of events delivered by a listener session. Events are held in a bounded buffer. When the buffer is
+ * full, the thread delivering events is blocked until space becomes available, which pauses delivery from the
+ * underlying event source rather than discarding events or consuming unbounded memory.
+ * <p>
+ * The iterator itself should only be consumed by a single thread but may be closed from any thread.
+ * </p>
+ * @param <T> Event type.
+ */
+public final class BufferedEventIterator<T> implements CloseableIterator<T> {
+    private static final long POLL_INTERVAL_MILLIS = 100;
+
+    private final BlockingQueue<T> buffer;
+    private final ListenerSession session;
+    private final Object closeLock = new Object();
+    private volatile boolean closed = false;
+    private Runnable closeHandler = () -> { };
+    private T next = null;
+
+    /**
+     * Create an iterator with a given buffer capacity.
+     * @param capacity Maximum number of events to buffer.
+     * @param sessionFactory Creates a listener session that delivers events to the supplied listener.
+     */
+    public BufferedEventIterator(final int capacity, final Function<Consumer<T>, ListenerSession> sessionFactory) {
+        buffer = new ArrayBlockingQueue<>(capacity);
+        session = sessionFactory.apply(this::put);
+    }
+
+    /**
+     * Set an action to be performed once when this iterator is closed.
+     * @param handler Close action.
+     */
+    public void onClose(final Runnable handler) {
+        synchronized (closeLock) {
+            closeHandler = handler;
+        }
+    }
+
+    private void put(final T event) {
+        try {
+            while (!closed) {
+                if (buffer.offer(event, POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (next == null && !closed) {
+                next = buffer.poll(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GatewayRuntimeException("Interrupted while waiting for event", e);
+        }
+
+        return next != null && !closed;
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        T result = next;
+        next = null;
+        return result;
+    }
+
+    @Override
+    public void close() {
+        final Runnable handler;
+        synchronized (closeLock) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            handler = closeHandler;
+        }
+
+        session.close();
+        buffer.clear();
+        handler.run();
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "closed=" + closed,
+                "buffered=" + buffer.size(),
+                "session=" + session);
+    }
+}
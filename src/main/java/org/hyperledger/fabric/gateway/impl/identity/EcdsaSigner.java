@@ -0,0 +1,162 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.identity;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.InvalidKeyException;
+import java.security.PrivateKey;
+import java.security.Signature;
+import java.security.SignatureException;
+import java.security.interfaces.ECPrivateKey;
+
+import org.hyperledger.fabric.gateway.spi.Signer;
+
+/**
+ * ECDSA signer that reuses a {@link Signature} instance for each thread. A signature instance returns to its
+ * initialized state after each signature is generated, so it only needs to be initialized again if a different private
+ * key is used. Signatures are normalized to use a low S value, as required by Fabric to prevent signature
+ * malleability.
+ */
+public final class EcdsaSigner implements Signer {
+    private static final String ALGORITHM = "SHA256withECDSA";
+    private static final int DER_SEQUENCE = 0x30;
+    private static final int DER_INTEGER = 0x02;
+    private static final int DER_LONG_LENGTH = 0x80;
+    private static final int BYTE_MASK = 0xff;
+    private static final int BITS_PER_BYTE = 8;
+
+    private final ThreadLocal<KeyedSignature> signatures = ThreadLocal.withInitial(KeyedSignature::new);
+
+    @Override
+    public byte[] sign(final PrivateKey privateKey, final byte[] message) throws GeneralSecurityException {
+        if (!(privateKey instanceof ECPrivateKey)) {
+            throw new InvalidKeyException("ECDSA signing requires an EC private key: " + privateKey.getAlgorithm());
+        }
+
+        byte[] signature = signatures.get().sign(privateKey, message);
+        BigInteger curveOrder = ((ECPrivateKey) privateKey).getParams().getOrder();
+        return toLowS(signature, curveOrder);
+    }
+
+    /**
+     * Normalize a DER-encoded ECDSA signature so that its S value is not greater than half the curve order.
+     * @param signature DER-encoded signature.
+     * @param curveOrder Order of the curve used to create the signature.
+     * @return DER-encoded signature with a low S value.
+     * @throws SignatureException if the signature is not a valid DER-encoded ECDSA signature.
+     */
+    static byte[] toLowS(final byte[] signature, final BigInteger curveOrder) throws SignatureException {
+        DerReader reader = new DerReader(signature);
+        reader.readHeader(DER_SEQUENCE);
+        BigInteger r = reader.readInteger();
+        BigInteger s = reader.readInteger();
+
+        if (s.compareTo(curveOrder.shiftRight(1)) <= 0) {
+            return signature;
+        }
+
+        ByteArrayOutputStream content = new ByteArrayOutputStream();
+        writeInteger(content, r);
+        writeInteger(content, curveOrder.subtract(s));
+
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        writeHeader(result, DER_SEQUENCE, content.size());
+        byte[] contentBytes = content.toByteArray();
+        result.write(contentBytes, 0, contentBytes.length);
+        return result.toByteArray();
+    }
+
+    private static void writeInteger(final ByteArrayOutputStream out, final BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        writeHeader(out, DER_INTEGER, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeHeader(final ByteArrayOutputStream out, final int tag, final int length) {
+        out.write(tag);
+        if (length < DER_LONG_LENGTH) {
+            out.write(length);
+            return;
+        }
+
+        int lengthBytes = (Integer.SIZE - Integer.numberOfLeadingZeros(length) + BITS_PER_BYTE - 1) / BITS_PER_BYTE;
+        out.write(DER_LONG_LENGTH | lengthBytes);
+        for (int i = lengthBytes - 1; i >= 0; i--) {
+            out.write((length >>> (i * BITS_PER_BYTE)) & BYTE_MASK);
+        }
+    }
+
+    private static final class DerReader {
+        private final byte[] bytes;
+        private int position = 0;
+
+        DerReader(final byte[] bytes) {
+            this.bytes = bytes;
+        }
+
+        int readHeader(final int expectedTag) throws SignatureException {
+            int tag = readByte();
+            if (tag != expectedTag) {
+                throw new SignatureException("Unexpected DER tag " + tag + ", expected " + expectedTag);
+            }
+
+            int length = readByte();
+            if ((length & DER_LONG_LENGTH) != 0) {
+                int lengthBytes = length & ~DER_LONG_LENGTH;
+                length = 0;
+                for (int i = 0; i < lengthBytes; i++) {
+                    length = (length << BITS_PER_BYTE) | readByte();
+                }
+            }
+
+            if (length < 0 || position + length > bytes.length) {
+                throw new SignatureException("Invalid DER length: " + length);
+            }
+            return length;
+        }
+
+        BigInteger readInteger() throws SignatureException {
+            int length = readHeader(DER_INTEGER);
+            byte[] value = new byte[length];
+            System.arraycopy(bytes, position, value, 0, length);
+            position += length;
+            return new BigInteger(value);
+        }
+
+        private int readByte() throws SignatureException {
+            if (position >= bytes.length) {
+                throw new SignatureException("Truncated DER signature");
+            }
+            return bytes[position++] & BYTE_MASK;
+        }
+    }
+
+    private static final class KeyedSignature {
+        private PrivateKey privateKey;
+        private Signature signature;
+
+        byte[] sign(final PrivateKey key, final byte[] message) throws GeneralSecurityException {
+            try {
+                if (key != privateKey) {
+                    if (signature == null) {
+                        signature = Signature.getInstance(ALGORITHM);
+                    }
+                    signature.initSign(key);
+                    privateKey = key;
+                }
+                signature.update(message);
+                return signature.sign();
+            } catch (GeneralSecurityException | RuntimeException e) {
+                // Signature state is unknown so force initialization on next use
+                privateKey = null;
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.identity;
+
+import java.lang.reflect.InvocationTargetException;
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+
+import org.hyperledger.fabric.gateway.spi.Signer;
+import org.hyperledger.fabric.sdk.exception.CryptoException;
+import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
+import org.hyperledger.fabric.sdk.security.CryptoSuite;
+import org.hyperledger.fabric.sdk.security.CryptoSuiteFactory;
+
+/**
+ * Signs using the default crypto suite of the Fabric SDK.
+ */
+public final class SdkSigner implements Signer {
+    private volatile CryptoSuite cryptoSuite;
+
+    @Override
+    public byte[] sign(final PrivateKey privateKey, final byte[] message) throws GeneralSecurityException {
+        try {
+            return getCryptoSuite().sign(privateKey, message);
+        } catch (CryptoException e) {
+            throw new GeneralSecurityException(e);
+        }
+    }
+
+    private CryptoSuite getCryptoSuite() throws GeneralSecurityException {
+        CryptoSuite result = cryptoSuite;
+        if (result == null) {
+            try {
+                result = CryptoSuiteFactory.getDefault().getCryptoSuite();
+            } catch (ClassNotFoundException | CryptoException | IllegalAccessException | NoSuchMethodException
+                    | InstantiationException | InvalidArgumentException | InvocationTargetException e) {
+                throw new GeneralSecurityException("Failed to create crypto suite", e);
+            }
+            cryptoSuite = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.identity;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.PrivateKey;
+import java.security.cert.Certificate;
+import java.util.Collection;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.spi.Signer;
+import org.hyperledger.fabric.sdk.exception.CryptoException;
+import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
+import org.hyperledger.fabric.sdk.security.CryptoSuite;
+import org.hyperledger.fabric.sdk.security.CryptoSuiteFactory;
+
+/**
+ * Crypto suite that signs using a pluggable {@link Signer}, and delegates all other operations to another crypto
+ * suite. If a signing executor is supplied, signatures are generated on that executor, which can be used to bound the
+ * number of threads performing signing at any time.
+ * <p>Threads that have run a signing task are remembered. Signing requested from one of those threads is performed
+ * inline rather than waiting for another task on the same executor, which could never run if every thread of a
+ * bounded executor were waiting in the same way.</p>
+ */
+public final class SigningCryptoSuite implements CryptoSuite {
+    private final CryptoSuite delegate;
+    private final Signer signer;
+    private final Executor signingExecutor;
+    private final ThreadLocal<Boolean> isSigningThread = ThreadLocal.withInitial(() -> false);
+
+    /**
+     * Create a crypto suite.
+     * @param delegate Crypto suite used for all operations other than signing.
+     * @param signer Used to generate signatures.
+     * @param signingExecutor Executor on which signatures are generated, or {@code null} to sign on the calling thread.
+     */
+    public SigningCryptoSuite(final CryptoSuite delegate, final Signer signer, final Executor signingExecutor) {
+        this.delegate = delegate;
+        this.signer = signer;
+        this.signingExecutor = signingExecutor;
+    }
+
+    @Override
+    public byte[] sign(final PrivateKey key, final byte[] plainText) throws CryptoException {
+        if (signingExecutor == null || isSigningThread.get()) {
+            return signNow(key, plainText);
+        }
+
+        final CompletableFuture<byte[]> future;
+        try {
+            future = CompletableFuture.supplyAsync(() -> {
+                isSigningThread.set(true);
+                try {
+                    return signNow(key, plainText);
+                } catch (CryptoException e) {
+                    throw new CompletionException(e);
+                }
+            }, signingExecutor);
+        } catch (RejectedExecutionException e) {
+            throw new CryptoException("Signing executor rejected signing request", e);
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof CryptoException ? (CryptoException) cause : new CryptoException("Signing failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CryptoException("Interrupted while signing", e);
+        }
+    }
+
+    private byte[] signNow(final PrivateKey key, final byte[] plainText) throws CryptoException {
+        try {
+            return signer.sign(key, plainText);
+        } catch (GeneralSecurityException e) {
+            throw new CryptoException("Signing failed", e);
+        }
+    }
+
+    @Override
+    public CryptoSuiteFactory getCryptoSuiteFactory() {
+        return delegate.getCryptoSuiteFactory();
+    }
+
+    @Override
+    public Properties getProperties() {
+        return delegate.getProperties();
+    }
+
+    @Override
+    public void loadCACertificates(final Collection<Certificate> certificates) throws CryptoException {
+        delegate.loadCACertificates(certificates);
+    }
+
+    @Override
+    public void loadCACertificatesAsBytes(final Collection<byte[]> certificates) throws CryptoException {
+        delegate.loadCACertificatesAsBytes(certificates);
+    }
+
+    @Override
+    public KeyPair keyGen() throws CryptoException {
+        return delegate.keyGen();
+    }
+
+    @Override
+    public boolean verify(final byte[] certificate, final String signatureAlgorithm, final byte[] signature,
+                          final byte[] plainText) throws CryptoException {
+        return delegate.verify(certificate, signatureAlgorithm, signature, plainText);
+    }
+
+    @Override
+    public byte[] hash(final byte[] plainText) {
+        return delegate.hash(plainText);
+    }
+
+    @Override
+    public String generateCertificationRequest(final String user, final KeyPair keypair) throws InvalidArgumentException {
+        return delegate.generateCertificationRequest(user, keypair);
+    }
+
+    @Override
+    public Certificate bytesToCertificate(final byte[] certBytes) throws CryptoException {
+        return delegate.bytesToCertificate(certBytes);
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "signer=" + signer,
+                "signingExecutor=" + signingExecutor);
+    }
+}
@@ -109,8 +109,10 @@ public enum X509IdentityProvider implements IdentityProvider<X509Identity> {
         User user = new GatewayUser(name, x509Identity.getMspId(), enrollment);
 
         try {
-            CryptoSuite cryptoSuite = CryptoSuiteFactory.getDefault().getCryptoSuite();
-            client.setCryptoSuite(cryptoSuite);
+            if (client.getCryptoSuite() == null) {
+                CryptoSuite cryptoSuite = CryptoSuiteFactory.getDefault().getCryptoSuite();
+                client.setCryptoSuite(cryptoSuite);
+            }
             client.setUserContext(user);
         } catch (ClassNotFoundException | CryptoException | IllegalAccessException | NoSuchMethodException
                 | InstantiationException | InvalidArgumentException | InvocationTargetException e) {
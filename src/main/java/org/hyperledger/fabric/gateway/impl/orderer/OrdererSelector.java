@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.orderer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.stats.EndpointStatistics;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Orderer;
+
+/**
+ * Orders a channel's orderers by their expected broadcast time. Each orderer is scored by its median observed
+ * latency, increased in proportion to the number of broadcasts currently in progress so that load is spread across
+ * the ordering service. Orderers that have failed recently are placed last, and are tried again once a retry interval
+ * has passed. Orderers with equal scores are ordered at random.
+ */
+public final class OrdererSelector {
+    private static final double LATENCY_PERCENTILE = 0.5;
+    private static final long UNKNOWN_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(50);
+    private static final long RETRY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    private final Channel channel;
+    private final StatisticsRegistry statistics;
+
+    public OrdererSelector(final Channel channel, final StatisticsRegistry statistics) {
+        this.channel = channel;
+        this.statistics = statistics;
+    }
+
+    /**
+     * Get the channel's orderers, in the order in which they should be tried.
+     * @return Orderers, or an empty list if the channel has no orderers.
+     */
+    public List<Orderer> getOrderers() {
+        Collection<Orderer> orderers = channel.getOrderers();
+        if (orderers == null || orderers.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Orderer> results = new ArrayList<>(orderers);
+        Collections.shuffle(results);
+
+        Map<Orderer, Boolean> healthy = new HashMap<>();
+        Map<Orderer, Long> scores = new HashMap<>();
+        for (Orderer orderer : results) {
+            EndpointStatistics endpointStatistics = statistics.get(orderer);
+            healthy.put(orderer, isHealthy(endpointStatistics));
+            scores.put(orderer, score(endpointStatistics));
+        }
+
+        results.sort(Comparator.<Orderer, Boolean>comparing(orderer -> !healthy.get(orderer))
+                .thenComparingLong(scores::get));
+        return results;
+    }
+
+    private static boolean isHealthy(final EndpointStatistics endpointStatistics) {
+        return endpointStatistics.getConsecutiveFailureCount() == 0
+                || endpointStatistics.getNanosSinceLastFailure().orElse(Long.MAX_VALUE) >= RETRY_INTERVAL_NANOS;
+    }
+
+    private static long score(final EndpointStatistics endpointStatistics) {
+        long latency = endpointStatistics.getLatencyPercentile(LATENCY_PERCENTILE).orElse(UNKNOWN_LATENCY_NANOS);
+        return latency * (1 + Math.max(0, endpointStatistics.getInFlightCount()));
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "channel=" + channel.getName(),
+                "statistics=" + statistics);
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.orderer;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.impl.Deadline;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.HedgeBudget;
+import org.hyperledger.fabric.gateway.impl.TimePeriod;
+import org.hyperledger.fabric.gateway.impl.stats.Counters;
+import org.hyperledger.fabric.gateway.impl.stats.EndpointStatistics;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Orderer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+
+/**
+ * Sends endorsed transactions to one orderer at a time, in the order chosen by an {@link OrdererSelector}. If an
+ * orderer fails, the transaction is sent immediately to the next orderer. If an orderer does not respond within a
+ * time based on its observed latency, the transaction is also sent to the next orderer. Sending the same transaction
+ * more than once is safe since only the first copy to be ordered can be committed. A broadcast that is no longer
+ * awaited is not cancelled, since the SDK cannot withdraw a transaction once sending has started. It completes in
+ * the background and its outcome is still recorded in the orderer's statistics.
+ * <p>Each broadcast is a separate SDK send, started on the client's executor so that concurrent submits to the same
+ * orderer are not limited by the gateway. Only failures reported by the orderer count against its statistics; a
+ * broadcast that cannot be started locally does not.</p>
+ * <p>Broadcasts from concurrent submits are not pipelined onto a single long-lived broadcast stream. The SDK opens a
+ * new broadcast stream on the orderer's shared connection for each send and waits for its acknowledgement, and does
+ * not expose either the orderer's gRPC channel or the signed transaction envelope, so the gateway cannot write
+ * envelopes onto a stream of its own.</p>
+ * <p>Hedged submits also send the transaction to the second orderer if the first has not accepted it after a delay
+ * based on its observed latency, and use whichever acknowledgement arrives first. The other broadcast is left to
+ * complete, so both orderers receive the transaction. The number of hedged broadcasts is limited by a
+ * {@link HedgeBudget}.</p>
+ */
+public final class OrdererSubmitter {
+    /** Count of hedged submits. */
+    public static final String HEDGE_ELIGIBLE_COUNT = "orderer.hedge.eligible";
+    /** Count of hedged submits for which the transaction was sent to a second orderer. */
+    public static final String HEDGE_SENT_COUNT = "orderer.hedge.sent";
+    /** Count of hedged submits for which the second orderer acknowledged the transaction first. */
+    public static final String HEDGE_WON_COUNT = "orderer.hedge.won";
+    /** Count of hedged submits for which no hedge was sent because the hedge budget was exhausted. */
+    public static final String HEDGE_BUDGET_EXHAUSTED_COUNT = "orderer.hedge.budgetExhausted";
+
+    private static final Log LOG = LogFactory.getLog(OrdererSubmitter.class);
+
+    private static final int MIN_SAMPLES = 10;
+    private static final double ATTEMPT_TIMEOUT_PERCENTILE = 0.99;
+    private static final int ATTEMPT_TIMEOUT_MULTIPLIER = 4;
+    private static final long MIN_ATTEMPT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long DEFAULT_ATTEMPT_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final double HEDGE_DELAY_PERCENTILE = 0.95;
+    private static final long MIN_HEDGE_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(5);
+    private static final long DEFAULT_HEDGE_DELAY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Channel channel;
+    private final OrdererSelector selector;
+    private final StatisticsRegistry statistics;
+    private final ExecutorService executor;
+    private final HedgeBudget hedgeBudget;
+    private final Counters counters;
+
+    public OrdererSubmitter(final Channel channel, final StatisticsRegistry statistics, final ExecutorService executor,
+                            final HedgeBudget hedgeBudget, final Counters counters) {
+        this.channel = channel;
+        this.selector = new OrdererSelector(channel, statistics);
+        this.statistics = statistics;
+        this.executor = executor;
+        this.hedgeBudget = hedgeBudget;
+        this.counters = counters;
+    }
+
+    /**
+     * Send an endorsed transaction to the ordering service.
+     * @param responses Proposal responses that make up the endorsed transaction.
+     * @param timeout Maximum time to wait for an orderer to accept the transaction.
+     * @param hedged {@code true} to also send the transaction to a second orderer if the first is slow to respond.
+     * @throws ContractException if no orderer accepted the transaction.
+     * @throws TimeoutException if the timeout expired before an orderer accepted the transaction.
+     * @throws InterruptedException if the current thread is interrupted while waiting.
+     */
+    public void sendTransaction(final Collection<ProposalResponse> responses, final TimePeriod timeout, final boolean hedged)
+            throws ContractException, TimeoutException, InterruptedException {
+        List<Orderer> orderers = selector.getOrderers();
+        if (orderers.isEmpty()) {
+            // Leave orderer selection to the SDK
+            get(channel.sendTransaction(responses, newTransactionOptions()), timeout);
+            return;
+        }
+
+        new Submission(responses, orderers, timeout).send(hedged);
+    }
+
+    private CompletableFuture<Void> broadcast(final Collection<ProposalResponse> responses, final Orderer orderer) {
+        EndpointStatistics endpointStatistics = statistics.get(orderer);
+        endpointStatistics.requestStarted();
+        long startTime = System.nanoTime();
+
+        CompletableFuture<Void> future;
+        try {
+            // The SDK sends to the orderer on the calling thread and returns a completed future
+            future = CompletableFuture
+                    .supplyAsync(() -> channel.sendTransaction(responses, newTransactionOptions().orderers(orderer)), executor)
+                    .thenCompose(result -> result)
+                    .thenApply(result -> null);
+        } catch (RejectedExecutionException e) {
+            endpointStatistics.requestCompleted();
+            future = new CompletableFuture<>();
+            future.completeExceptionally(e);
+            return future;
+        }
+
+        future.whenComplete((result, e) -> {
+            endpointStatistics.requestCompleted();
+            if (e == null) {
+                endpointStatistics.recordSuccess(System.nanoTime() - startTime);
+            } else {
+                endpointStatistics.recordFailure();
+            }
+        });
+        return future;
+    }
+
+    private static void get(final CompletableFuture<?> future, final TimePeriod timeout)
+            throws ContractException, TimeoutException, InterruptedException {
+        try {
+            future.get(timeout.getTime(), timeout.getTimeUnit());
+        } catch (ExecutionException e) {
+            throw new ContractException("Failed to send transaction to the orderer", e.getCause());
+        }
+    }
+
+    private TimePeriod getAttemptTimeout(final Orderer orderer) {
+        EndpointStatistics endpointStatistics = statistics.get(orderer);
+        long timeoutNanos = DEFAULT_ATTEMPT_TIMEOUT_NANOS;
+        if (endpointStatistics.getLatency().getCount() >= MIN_SAMPLES) {
+            long latency = endpointStatistics.getLatencyPercentile(ATTEMPT_TIMEOUT_PERCENTILE).orElse(0);
+            timeoutNanos = Math.max(MIN_ATTEMPT_TIMEOUT_NANOS, latency * ATTEMPT_TIMEOUT_MULTIPLIER);
+        }
+        return new TimePeriod(timeoutNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private TimePeriod getHedgeDelay(final Orderer orderer) {
+        EndpointStatistics endpointStatistics = statistics.get(orderer);
+        long delayNanos = DEFAULT_HEDGE_DELAY_NANOS;
+        if (endpointStatistics.getLatency().getCount() >= MIN_SAMPLES) {
+            long latency = endpointStatistics.getLatencyPercentile(HEDGE_DELAY_PERCENTILE).orElse(0);
+            delayNanos = Math.max(MIN_HEDGE_DELAY_NANOS, latency);
+        }
+        return new TimePeriod(delayNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Channel.TransactionOptions newTransactionOptions() {
+        return Channel.TransactionOptions.createTransactionOptions()
+                .nOfEvents(Channel.NOfEvents.createNoEvents()); // Disable default commit wait behaviour
+    }
+
+    /**
+     * A single transaction submit, which tries each orderer in turn until one accepts the transaction.
+     */
+    private final class Submission {
+        private final Collection<ProposalResponse> responses;
+        private final List<Orderer> orderers;
+        private final TimePeriod timeout;
+        private final Deadline deadline;
+        private int nextIndex = 0;
+        private Exception lastFailure = null;
+
+        Submission(final Collection<ProposalResponse> responses, final List<Orderer> orderers, final TimePeriod timeout) {
+            this.responses = responses;
+            this.orderers = orderers;
+            this.timeout = timeout;
+            this.deadline = Deadline.after(timeout);
+        }
+
+        void send(final boolean hedged) throws ContractException, TimeoutException, InterruptedException {
+            if (hedged && orderers.size() > 1 && sendHedged()) {
+                return;
+            }
+
+            while (nextIndex < orderers.size()) {
+                Orderer orderer = orderers.get(nextIndex++);
+                if (await(orderer, broadcast(responses, orderer))) {
+                    return;
+                }
+            }
+
+            if (lastFailure instanceof TimeoutException) {
+                throw (TimeoutException) lastFailure;
+            }
+            throw new ContractException("Failed to send transaction to any orderer", lastFailure);
+        }
+
+        private boolean await(final Orderer orderer, final CompletableFuture<Void> future)
+                throws TimeoutException, InterruptedException {
+            boolean isLast = nextIndex >= orderers.size();
+            TimePeriod attemptTimeout = deadline.limit(isLast ? timeout : getAttemptTimeout(orderer));
+            try {
+                get(future, attemptTimeout);
+                return true;
+            } catch (ContractException e) {
+                LOG.warn("Failed to send transaction to orderer " + orderer.getName(), e);
+                lastFailure = e;
+            } catch (TimeoutException e) {
+                LOG.warn("Timeout sending transaction to orderer " + orderer.getName());
+                statistics.get(orderer).recordFailure();
+                onTimeout(e);
+            }
+            return false;
+        }
+
+        private boolean sendHedged() throws TimeoutException, InterruptedException {
+            counters.increment(HEDGE_ELIGIBLE_COUNT);
+            hedgeBudget.recordRequest();
+
+            Orderer primary = orderers.get(nextIndex++);
+            CompletableFuture<Void> primaryFuture = broadcast(responses, primary);
+            try {
+                TimePeriod delay = deadline.limit(getHedgeDelay(primary));
+                primaryFuture.get(delay.getTime(), delay.getTimeUnit());
+                return true;
+            } catch (ExecutionException e) {
+                LOG.warn("Failed to send transaction to orderer " + primary.getName(), e.getCause());
+                lastFailure = new ContractException("Failed to send transaction to the orderer", e.getCause());
+                return false;
+            } catch (TimeoutException e) {
+                // Primary orderer is slow to respond
+            }
+
+            if (deadline.isExpired() || !hedgeBudget.tryAcquire()) {
+                if (!deadline.isExpired()) {
+                    counters.increment(HEDGE_BUDGET_EXHAUSTED_COUNT);
+                }
+                return await(primary, primaryFuture);
+            }
+            return awaitHedged(primary, primaryFuture);
+        }
+
+        private boolean awaitHedged(final Orderer primary, final CompletableFuture<Void> primaryFuture)
+                throws TimeoutException, InterruptedException {
+            Orderer secondary = orderers.get(nextIndex++);
+            LOG.debug("Hedging transaction submit to orderer " + secondary.getName());
+            counters.increment(HEDGE_SENT_COUNT);
+            CompletableFuture<Void> secondaryFuture = broadcast(responses, secondary);
+
+            CompletableFuture<Orderer> firstSuccess = new CompletableFuture<>();
+            AtomicInteger outstanding = new AtomicInteger(2);
+            onSuccess(primaryFuture, primary, firstSuccess, outstanding);
+            onSuccess(secondaryFuture, secondary, firstSuccess, outstanding);
+
+            boolean isLast = nextIndex >= orderers.size();
+            TimePeriod attemptTimeout = deadline.limit(isLast ? timeout : getAttemptTimeout(secondary));
+            try {
+                Orderer winner = firstSuccess.get(attemptTimeout.getTime(), attemptTimeout.getTimeUnit());
+                if (winner == secondary) {
+                    counters.increment(HEDGE_WON_COUNT);
+                }
+                return true;
+            } catch (ExecutionException e) {
+                lastFailure = new ContractException("Failed to send transaction to the orderer", e.getCause());
+            } catch (TimeoutException e) {
+                LOG.warn("Timeout sending transaction to orderers " + primary.getName() + " and " + secondary.getName());
+                recordTimeout(primary, primaryFuture);
+                recordTimeout(secondary, secondaryFuture);
+                onTimeout(e);
+            }
+            return false;
+        }
+
+        private void recordTimeout(final Orderer orderer, final CompletableFuture<Void> future) {
+            if (!future.isDone()) {
+                statistics.get(orderer).recordFailure();
+            }
+        }
+
+        private void onSuccess(final CompletableFuture<Void> future, final Orderer orderer,
+                               final CompletableFuture<Orderer> firstSuccess, final AtomicInteger outstanding) {
+            future.whenComplete((result, e) -> {
+                if (e == null) {
+                    firstSuccess.complete(orderer);
+                } else if (outstanding.decrementAndGet() == 0) {
+                    firstSuccess.completeExceptionally(e);
+                }
+            });
+        }
+
+        private void onTimeout(final TimeoutException e) throws TimeoutException {
+            if (deadline.isExpired()) {
+                throw e;
+            }
+            lastFailure = e;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "channel=" + channel.getName(),
+                "statistics=" + statistics,
+                "counters=" + counters);
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.orderer;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import com.google.protobuf.ByteString;
+import org.hyperledger.fabric.protos.peer.ProposalPackage;
+import org.hyperledger.fabric.protos.peer.ProposalResponsePackage;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.transaction.TransactionContext;
+
+/**
+ * Converts the proposal responses that make up an endorsed transaction to and from bytes, so that a transaction held
+ * by a {@link StoreAndForwardQueue} can be sent to the orderer by a later process. Only the parts of the responses
+ * that the SDK uses to build the transaction envelope are kept: the proposal, and the serialized response from each
+ * endorsing peer. The envelope is signed by the client's current user when the transaction is sent.
+ * <p>The SDK provides no public way to create a {@link ProposalResponse}, so decoded responses are built using its
+ * non-public constructor and setters. If these are not available, stored transactions cannot be decoded and are not
+ * forwarded after a restart, but their commit status can still be looked up on the ledger.</p>
+ */
+public final class ProposalResponseCodec {
+    private final Channel channel;
+
+    /**
+     * Create a codec.
+     * @param channel Channel used to create the transaction context of decoded responses.
+     */
+    public ProposalResponseCodec(final Channel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Serialize the proposal shared by the responses of an endorsed transaction.
+     * @param responses Proposal responses that make up the endorsed transaction.
+     * @return The serialized proposal, or {@code null} if the responses do not include the proposal.
+     */
+    static byte[] encodeProposal(final Collection<ProposalResponse> responses) {
+        ProposalPackage.Proposal proposal = responses.iterator().next().getProposal();
+        return proposal != null ? proposal.toByteArray() : null;
+    }
+
+    /**
+     * Serialize the response from each endorsing peer.
+     * @param responses Proposal responses that make up the endorsed transaction.
+     * @return The serialized responses, or {@code null} if any response does not include the peer's response.
+     */
+    static List<byte[]> encodeResponses(final Collection<ProposalResponse> responses) {
+        List<byte[]> results = new ArrayList<>(responses.size());
+        for (ProposalResponse response : responses) {
+            ProposalResponsePackage.ProposalResponse proposalResponse = response.getProposalResponse();
+            if (proposalResponse == null) {
+                return null;
+            }
+            results.add(proposalResponse.toByteArray());
+        }
+        return results;
+    }
+
+    /**
+     * Rebuild the proposal responses of an endorsed transaction.
+     * @param proposal Serialized proposal.
+     * @param responses Serialized response from each endorsing peer.
+     * @return Proposal responses that can be sent to the orderer.
+     * @throws IOException if the responses could not be rebuilt.
+     */
+    public Collection<ProposalResponse> decode(final byte[] proposal, final List<byte[]> responses) throws IOException {
+        ProposalPackage.SignedProposal signedProposal = ProposalPackage.SignedProposal.newBuilder()
+                .setProposalBytes(ByteString.copyFrom(proposal))
+                .build();
+        try {
+            Constructor<ProposalResponse> constructor = ProposalResponse.class.getDeclaredConstructor(
+                    TransactionContext.class, int.class, String.class);
+            Method setProposal = ProposalResponse.class.getDeclaredMethod("setProposal", ProposalPackage.SignedProposal.class);
+            Method setProposalResponse = ProposalResponse.class.getDeclaredMethod("setProposalResponse",
+                    ProposalResponsePackage.ProposalResponse.class);
+            constructor.setAccessible(true);
+            setProposal.setAccessible(true);
+            setProposalResponse.setAccessible(true);
+
+            List<ProposalResponse> results = new ArrayList<>(responses.size());
+            for (byte[] bytes : responses) {
+                ProposalResponsePackage.ProposalResponse proposalResponse = ProposalResponsePackage.ProposalResponse.parseFrom(bytes);
+                ProposalResponse result = constructor.newInstance(channel.newTransactionContext(),
+                        proposalResponse.getResponse().getStatus(), proposalResponse.getResponse().getMessage());
+                setProposal.invoke(result, signedProposal);
+                setProposalResponse.invoke(result, proposalResponse);
+                results.add(result);
+            }
+            return results;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IOException("Failed to rebuild proposal responses", e);
+        }
+    }
+}
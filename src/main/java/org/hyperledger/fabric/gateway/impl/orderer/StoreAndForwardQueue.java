@@ -0,0 +1,639 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.orderer;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.gateway.impl.TimePeriod;
+import org.hyperledger.fabric.gateway.impl.commit.CommitStatusResolver;
+import org.hyperledger.fabric.gateway.impl.stats.Counters;
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+
+/**
+ * Holds endorsed transactions that could not be sent to the ordering service, and forwards them once an orderer
+ * accepts transactions again. While the orderer is unavailable, a single transaction is retried with exponential
+ * backoff, and a transaction that fails is moved to the back of the queue so that a different transaction is tried next.
+ * When an orderer accepts a transaction, the remaining transactions are forwarded concurrently in batches. The SDK does
+ * not report why an orderer failed to accept a transaction in a form that distinguishes a rejected transaction from an
+ * unavailable orderer, so every failure is retried. Transactions that are not forwarded before the queue's maximum age
+ * are discarded.
+ * <p>The maximum age is independent of the submitter's commit timeout. If the submitter stops waiting for the commit,
+ * the transaction is still forwarded, and its commit status is then looked up on the ledger until it is found or the
+ * transaction reaches its maximum age.</p>
+ * <p>If a journal file is supplied, each stored transaction and its proposal responses are recorded in it, and a
+ * transaction is only forwarded once its record is durable. Status changes are also recorded. Transactions left
+ * unresolved by a previous process are recovered when the queue is created: those not yet forwarded are forwarded
+ * again, and the commit status of all of them is looked up on the ledger. They are available from
+ * {@link #getRecoveredTransactions()} so that the application can observe their outcome.</p>
+ */
+public final class StoreAndForwardQueue implements AutoCloseable {
+    /** Count of transactions stored for later forwarding to the orderer. */
+    public static final String STORED_COUNT = "transaction.forward.stored";
+    /** Count of stored transactions accepted by an orderer. */
+    public static final String FORWARDED_COUNT = "transaction.forward.forwarded";
+    /** Count of stored transactions discarded before they could be forwarded. */
+    public static final String EXPIRED_COUNT = "transaction.forward.expired";
+    /** Count of stored transactions whose commit status was found on the ledger after the submitter stopped waiting. */
+    public static final String RESOLVED_COUNT = "transaction.forward.resolved";
+
+    /**
+     * Status of a stored transaction.
+     */
+    public enum Status {
+        /** Waiting to be forwarded to the orderer. */
+        STORED,
+        /** Accepted by an orderer; commit outcome not yet known. */
+        FORWARDED,
+        /** Committed as valid. */
+        COMMITTED,
+        /** Committed as invalid, or the commit failed. */
+        FAILED,
+        /** Not forwarded, or commit outcome not observed, within the maximum age. */
+        EXPIRED;
+
+        boolean isResolved() {
+            return this != STORED && this != FORWARDED;
+        }
+    }
+
+    private static final Log LOG = LogFactory.getLog(StoreAndForwardQueue.class);
+
+    private static final TimePeriod ATTEMPT_TIMEOUT = new TimePeriod(10, TimeUnit.SECONDS);
+    private static final long MIN_RETRY_DELAY_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long MAX_RETRY_DELAY_NANOS = TimeUnit.SECONDS.toNanos(10);
+    private static final long LOOKUP_INTERVAL_SECONDS = 5;
+    private static final int MAX_BATCH_SIZE = 100;
+    private static final ScheduledThreadPoolExecutor TIMER = newTimer();
+
+    private final OrdererSubmitter submitter;
+    private final CommitStatusResolver resolver;
+    private final ExecutorService executor;
+    private final TransactionJournal journal;
+    private final long maxAgeMillis;
+    private final Counters counters;
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+    private final List<RecoveredTransaction> recoveredTransactions;
+    private final ScheduledFuture<?> lookupTask;
+    private int storedCount = 0;
+    private boolean draining = false;
+    private boolean recovering = false;
+    private boolean closed = false;
+    private long retryDelayNanos = MIN_RETRY_DELAY_NANOS;
+
+    /**
+     * Create a queue.
+     * @param submitter Used to forward transactions to the ordering service.
+     * @param resolver Used to look up the commit status of transactions that the submitter is no longer waiting for.
+     * @param codec Used to rebuild transactions recovered from the journal.
+     * @param executor Used to run forwarding.
+     * @param journalFile Journal of stored transactions, or {@code null} to hold transactions only in memory.
+     * @param maxAge Time after which a transaction is discarded if not forwarded, or no longer looked up if forwarded.
+     * @param counters Forwarding counters.
+     * @throws IOException if the journal file could not be opened.
+     */
+    public StoreAndForwardQueue(final OrdererSubmitter submitter, final CommitStatusResolver resolver,
+                                final ProposalResponseCodec codec, final ExecutorService executor, final Path journalFile,
+                                final TimePeriod maxAge, final Counters counters) throws IOException {
+        this.submitter = submitter;
+        this.resolver = resolver;
+        this.executor = executor;
+        this.journal = journalFile != null ? new TransactionJournal(journalFile) : null;
+        this.maxAgeMillis = maxAge.getTimeUnit().toMillis(maxAge.getTime());
+        this.counters = counters;
+
+        recoveredTransactions = journal != null
+                ? recover(journal.getRecoveredTransactions().values(), codec)
+                : Collections.emptyList();
+        lookupTask = TIMER.scheduleWithFixedDelay(this::lookUpUnawaited, LOOKUP_INTERVAL_SECONDS, LOOKUP_INTERVAL_SECONDS,
+                TimeUnit.SECONDS);
+    }
+
+    private static ScheduledThreadPoolExecutor newTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "store-and-forward-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    private List<RecoveredTransaction> recover(final Collection<TransactionJournal.Record> records,
+                                               final ProposalResponseCodec codec) {
+        if (records.isEmpty()) {
+            return Collections.emptyList();
+        }
+        LOG.warn("Recovered " + records.size() + " transactions not forwarded or not confirmed as committed by a previous process");
+
+        List<RecoveredTransaction> results = new ArrayList<>(records.size());
+        boolean startDrain;
+        synchronized (this) {
+            for (TransactionJournal.Record record : records) {
+                Collection<ProposalResponse> responses = record.getStatus() == Status.STORED ? decode(record, codec) : null;
+                Entry entry = new Entry(record.getTransactionId(), responses, record.getExpiryMillis(), false);
+                entry.status = record.getStatus();
+                entries.put(entry.transactionId, entry);
+                if (entry.isQueued()) {
+                    queue.add(entry);
+                    storedCount++;
+                }
+                byte[] response = record.getResponses() != null && !record.getResponses().isEmpty() ? record.getResponses().get(0) : null;
+                results.add(new RecoveredTransaction(entry.transactionId, response, entry.outcome));
+            }
+            startDrain = !queue.isEmpty();
+            draining = startDrain;
+        }
+
+        if (startDrain) {
+            scheduleDrain(0);
+        }
+        lookUpUnawaited();
+        return Collections.unmodifiableList(results);
+    }
+
+    private static Collection<ProposalResponse> decode(final TransactionJournal.Record record, final ProposalResponseCodec codec) {
+        if (record.getProposal() == null) {
+            LOG.warn("Recovered transaction " + record.getTransactionId() + " cannot be forwarded since its proposal responses "
+                    + "were not recorded");
+            return null;
+        }
+        try {
+            return codec.decode(record.getProposal(), record.getResponses());
+        } catch (IOException e) {
+            LOG.warn("Recovered transaction " + record.getTransactionId() + " cannot be forwarded", e);
+            return null;
+        }
+    }
+
+    /**
+     * Transactions left unresolved by a previous process using the same journal file, in the order of their last
+     * status change. Recovered transactions are forwarded if necessary, and their commit status looked up on the
+     * ledger, in the same way as transactions stored by this process.
+     * @return Recovered transactions.
+     */
+    public List<RecoveredTransaction> getRecoveredTransactions() {
+        return recoveredTransactions;
+    }
+
+    /**
+     * Check whether transactions are waiting to be forwarded. New transactions should be stored rather than sent
+     * directly to the orderer while this is the case.
+     * @return {@code true} if transactions are waiting; otherwise {@code false}.
+     */
+    public synchronized boolean isBacklogged() {
+        return storedCount > 0;
+    }
+
+    /**
+     * Store an endorsed transaction for forwarding to the ordering service.
+     * @param transactionId Transaction ID.
+     * @param responses Proposal responses that make up the endorsed transaction.
+     * @return A future that completes when an orderer accepts the transaction. It completes exceptionally with a
+     * {@link ContractException} if the queue is closed, or with a {@link TimeoutException} if the transaction is
+     * discarded before it is forwarded.
+     */
+    public CompletableFuture<Void> store(final String transactionId, final Collection<ProposalResponse> responses) {
+        Entry entry = new Entry(transactionId, responses, System.currentTimeMillis() + maxAgeMillis, true);
+
+        CompletableFuture<Void> recorded;
+        synchronized (this) {
+            if (closed) {
+                entry.forwarded.completeExceptionally(new ContractException("Transaction " + transactionId
+                        + " was not stored since the queue is closed"));
+                return entry.forwarded;
+            }
+            purgeExpired();
+            entries.put(transactionId, entry);
+            storedCount++;
+            recorded = journal != null
+                    ? journal.recordStored(transactionId, entry.expiryMillis, responses)
+                    : CompletableFuture.completedFuture(null);
+        }
+
+        counters.increment(STORED_COUNT);
+        LOG.debug("Stored transaction " + transactionId + " for forwarding to the orderer");
+        recorded.whenComplete((result, e) -> {
+            if (e != null) {
+                LOG.error("Failed to record transaction " + transactionId + " in " + journal
+                        + "; it will not be recovered if the process stops", e);
+            }
+            enqueue(entry);
+        });
+        return entry.forwarded;
+    }
+
+    private void enqueue(final Entry entry) {
+        boolean startDrain;
+        synchronized (this) {
+            if (closed || entries.get(entry.transactionId) != entry || entry.status != Status.STORED) {
+                return;
+            }
+            queue.add(entry);
+            startDrain = !draining;
+            draining = true;
+        }
+
+        if (startDrain) {
+            scheduleDrain(0);
+        }
+    }
+
+    /**
+     * Record the commit outcome of a stored transaction. A transaction that has not yet been forwarded is discarded.
+     * Has no effect if the transaction is not stored.
+     * @param transactionId Transaction ID.
+     * @param outcome {@link Status#COMMITTED}, {@link Status#FAILED} or {@link Status#EXPIRED}.
+     */
+    public void complete(final String transactionId, final Status outcome) {
+        if (!outcome.isResolved()) {
+            throw new IllegalArgumentException("Not a commit outcome: " + outcome);
+        }
+
+        Entry entry;
+        synchronized (this) {
+            entry = entries.remove(transactionId);
+            if (entry == null) {
+                return;
+            }
+            queue.remove(entry);
+            if (entry.isQueued()) {
+                storedCount--;
+            }
+            if (entry.status == Status.STORED) {
+                counters.increment(EXPIRED_COUNT);
+                entry.forwarded.completeExceptionally(new TimeoutException("Transaction " + transactionId + " was not forwarded"));
+            }
+            entry.status = outcome;
+            journal(transactionId, outcome);
+        }
+        entry.outcome.complete(outcome);
+    }
+
+    /**
+     * Stop waiting for the commit outcome of a stored transaction, for example because the submitter's commit wait
+     * has timed out. The transaction is still forwarded if it has not been, and its commit status is then looked up on
+     * the ledger until it is found or the transaction reaches its maximum age. Has no effect if the transaction is not
+     * stored.
+     * @param transactionId Transaction ID.
+     */
+    public void abandon(final String transactionId) {
+        boolean forwarded;
+        synchronized (this) {
+            Entry entry = entries.get(transactionId);
+            if (entry == null) {
+                return;
+            }
+            entry.awaited = false;
+            forwarded = !entry.isQueued();
+        }
+
+        if (forwarded) {
+            lookUp(transactionId);
+        }
+    }
+
+    /**
+     * Get the status of a stored transaction.
+     * @param transactionId Transaction ID.
+     * @return The status, or empty if the transaction is not stored or its outcome has been recorded.
+     */
+    public synchronized Optional<Status> getStatus(final String transactionId) {
+        return Optional.ofNullable(entries.get(transactionId)).map(entry -> entry.status);
+    }
+
+    private synchronized void purgeExpired() {
+        long now = System.currentTimeMillis();
+        List<Entry> expired = new ArrayList<>();
+        for (Iterator<Entry> iter = entries.values().iterator(); iter.hasNext();) {
+            Entry entry = iter.next();
+            // The commit outcome of a forwarded transaction that is still awaited is reported by the submitter
+            boolean expirable = entry.status == Status.STORED || !entry.awaited;
+            if (expirable && now >= entry.expiryMillis) {
+                iter.remove();
+                queue.remove(entry);
+                expired.add(entry);
+            }
+        }
+        expired.forEach(this::expire);
+    }
+
+    private void expire(final Entry entry) {
+        if (entry.isQueued()) {
+            storedCount--;
+        }
+        if (entry.status == Status.STORED) {
+            LOG.warn("Discarding transaction " + entry.transactionId + " not forwarded to the orderer before it expired");
+            counters.increment(EXPIRED_COUNT);
+            entry.forwarded.completeExceptionally(new TimeoutException(
+                    "Transaction " + entry.transactionId + " was not forwarded to the orderer before it expired"));
+        } else {
+            LOG.warn("Commit status of transaction " + entry.transactionId + " not found before it expired");
+        }
+        entry.status = Status.EXPIRED;
+        journal(entry.transactionId, Status.EXPIRED);
+        entry.outcome.complete(Status.EXPIRED);
+    }
+
+    private void lookUpUnawaited() {
+        // An exception would stop subsequent runs of this periodic task
+        try {
+            List<String> transactionIds;
+            synchronized (this) {
+                purgeExpired();
+                transactionIds = entries.values().stream()
+                        .filter(entry -> !entry.awaited && !entry.isQueued())
+                        .map(entry -> entry.transactionId)
+                        .collect(Collectors.toList());
+            }
+            transactionIds.forEach(this::lookUp);
+        } catch (RuntimeException e) {
+            LOG.error("Failed to look up commit status of stored transactions", e);
+        }
+    }
+
+    private void lookUp(final String transactionId) {
+        resolver.resolve(transactionId).thenAccept(validationCode -> validationCode.ifPresent(code -> {
+            LOG.info("Stored transaction " + transactionId + " found on ledger with validation code " + code);
+            counters.increment(RESOLVED_COUNT);
+            complete(transactionId, code == TransactionPackage.TxValidationCode.VALID ? Status.COMMITTED : Status.FAILED);
+        }));
+    }
+
+    private void scheduleDrain(final long delayNanos) {
+        try {
+            TIMER.schedule(() -> execute(this::drain), delayNanos, TimeUnit.NANOSECONDS);
+        } catch (RejectedExecutionException e) {
+            LOG.error("Failed to schedule forwarding of stored transactions", e);
+            stopDraining();
+        }
+    }
+
+    private void execute(final Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Failed to start forwarding of stored transactions; retrying", e);
+            retryLater();
+        }
+    }
+
+    private synchronized void stopDraining() {
+        draining = false;
+    }
+
+    private void drain() {
+        List<Entry> batch = nextBatch();
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        List<Entry> failed = forward(batch);
+        synchronized (this) {
+            // Failed transactions go to the back of the queue so that one bad transaction cannot block the others
+            for (Entry entry : failed) {
+                if (entry.status == Status.STORED && entries.containsKey(entry.transactionId)) {
+                    queue.addLast(entry);
+                }
+            }
+            recovering = !failed.isEmpty();
+        }
+
+        if (failed.isEmpty()) {
+            retryDelayNanos = MIN_RETRY_DELAY_NANOS;
+            execute(this::drain);
+        } else {
+            retryLater();
+        }
+    }
+
+    private void retryLater() {
+        long delay = retryDelayNanos;
+        retryDelayNanos = Math.min(MAX_RETRY_DELAY_NANOS, delay * 2);
+        scheduleDrain(delay);
+    }
+
+    private synchronized List<Entry> nextBatch() {
+        purgeExpired();
+        if (closed || queue.isEmpty()) {
+            draining = false;
+            return Collections.emptyList();
+        }
+
+        // While the orderer is unavailable, only a single transaction is retried
+        int batchSize = recovering ? 1 : MAX_BATCH_SIZE;
+        List<Entry> batch = new ArrayList<>(batchSize);
+        while (batch.size() < batchSize && !queue.isEmpty()) {
+            batch.add(queue.poll());
+        }
+        return batch;
+    }
+
+    private List<Entry> forward(final List<Entry> batch) {
+        if (batch.size() == 1) {
+            return forward(batch.get(0)) ? Collections.emptyList() : batch;
+        }
+
+        List<CompletableFuture<Boolean>> futures;
+        try {
+            futures = batch.stream()
+                    .map(entry -> CompletableFuture.supplyAsync(() -> forward(entry), executor))
+                    .collect(Collectors.toList());
+        } catch (RejectedExecutionException e) {
+            LOG.warn("Failed to forward stored transactions", e);
+            return batch;
+        }
+
+        List<Entry> failed = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (!futures.get(i).join()) {
+                failed.add(batch.get(i));
+            }
+        }
+        return failed;
+    }
+
+    /**
+     * Send a stored transaction to the orderer.
+     * @param entry A stored transaction.
+     * @return {@code false} if the transaction should be retried; otherwise {@code true}.
+     */
+    private boolean forward(final Entry entry) {
+        try {
+            submitter.sendTransaction(entry.responses, ATTEMPT_TIMEOUT, false);
+        } catch (ContractException e) {
+            LOG.debug("Failed to forward stored transaction " + entry.transactionId, e);
+            return false;
+        } catch (TimeoutException e) {
+            LOG.debug("Timeout forwarding stored transaction " + entry.transactionId, e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        onForwarded(entry);
+        return true;
+    }
+
+    private void onForwarded(final Entry entry) {
+        synchronized (this) {
+            if (entry.status != Status.STORED) {
+                return;
+            }
+            entry.status = Status.FORWARDED;
+            storedCount--;
+            journal(entry.transactionId, Status.FORWARDED);
+        }
+
+        counters.increment(FORWARDED_COUNT);
+        LOG.debug("Forwarded stored transaction " + entry.transactionId + " to the orderer");
+        entry.forwarded.complete(null);
+    }
+
+    private void journal(final String transactionId, final Status status) {
+        // Called while holding the queue's lock so that records are written in the order of status changes
+        if (journal == null) {
+            return;
+        }
+        journal.record(transactionId, status).whenComplete((result, e) -> {
+            if (e != null) {
+                LOG.error("Failed to record status " + status + " for transaction " + transactionId + " in " + journal, e);
+            }
+        });
+    }
+
+    /**
+     * Stop forwarding transactions. Transactions still stored are discarded, and remain unresolved in the journal so
+     * that a later process can recover them.
+     */
+    @Override
+    public void close() {
+        lookupTask.cancel(false);
+        List<Entry> discarded;
+        synchronized (this) {
+            closed = true;
+            discarded = new ArrayList<>(entries.values());
+            queue.clear();
+            entries.clear();
+            storedCount = 0;
+        }
+        for (Entry entry : discarded) {
+            ContractException e = new ContractException("Transaction " + entry.transactionId
+                    + " was not resolved before the queue was closed");
+            entry.forwarded.completeExceptionally(e);
+            entry.outcome.completeExceptionally(e);
+        }
+
+        if (journal != null) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                LOG.warn("Failed to close " + journal, e);
+            }
+        }
+    }
+
+    private static final class Entry {
+        private final String transactionId;
+        private final Collection<ProposalResponse> responses;
+        private final long expiryMillis;
+        private final CompletableFuture<Void> forwarded = new CompletableFuture<>();
+        private final CompletableFuture<Status> outcome = new CompletableFuture<>();
+        private Status status = Status.STORED;
+        private boolean awaited;
+
+        Entry(final String transactionId, final Collection<ProposalResponse> responses, final long expiryMillis,
+              final boolean awaited) {
+            this.transactionId = transactionId;
+            this.responses = responses;
+            this.expiryMillis = expiryMillis;
+            this.awaited = awaited;
+        }
+
+        /**
+         * A transaction recovered without its proposal responses cannot be forwarded, and is only looked up.
+         */
+        boolean isQueued() {
+            return status == Status.STORED && responses != null;
+        }
+    }
+
+    /**
+     * A transaction left unresolved by a previous process.
+     */
+    public static final class RecoveredTransaction {
+        private final String transactionId;
+        private final byte[] proposalResponse;
+        private final CompletableFuture<Status> outcome;
+
+        RecoveredTransaction(final String transactionId, final byte[] proposalResponse, final CompletableFuture<Status> outcome) {
+            this.transactionId = transactionId;
+            this.proposalResponse = proposalResponse;
+            this.outcome = outcome;
+        }
+
+        public String getTransactionId() {
+            return transactionId;
+        }
+
+        /**
+         * Get the serialized response of the first endorsing peer, which holds the transaction function's result.
+         * @return Proposal response bytes, or empty if the proposal responses were not recorded.
+         */
+        public Optional<byte[]> getProposalResponse() {
+            return Optional.ofNullable(proposalResponse);
+        }
+
+        /**
+         * Get the outcome of the transaction.
+         * @return A future that completes with {@link Status#COMMITTED}, {@link Status#FAILED} or
+         * {@link Status#EXPIRED}, or completes exceptionally with a {@link ContractException} if the queue is closed
+         * first.
+         */
+        public CompletableFuture<Status> getOutcome() {
+            return outcome.thenApply(status -> status);
+        }
+
+        @Override
+        public String toString() {
+            return GatewayUtils.toString(this, "transactionId=" + transactionId);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return GatewayUtils.toString(this,
+                "queued=" + queue.size(),
+                "entries=" + entries.size(),
+                "journal=" + journal);
+    }
+}
@@ -0,0 +1,385 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.orderer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import javax.json.Json;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+import javax.json.JsonString;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+
+/**
+ * Append-only journal of transactions held by a {@link StoreAndForwardQueue}. Each line is a JSON record of one
+ * status change. The record of a newly stored transaction also holds its expiry time and its serialized proposal
+ * responses, so that a later process can forward it.
+ * <p>Records are written and forced to storage by a single background thread, which writes all records queued since
+ * its last write before each force. Callers are not blocked while records are written; each record returns a future
+ * that completes once the record is durable.</p>
+ * <p>When the journal is opened, transactions whose last recorded status is
+ * {@link StoreAndForwardQueue.Status#STORED} or {@link StoreAndForwardQueue.Status#FORWARDED} were left unresolved by
+ * a previous process, and are made available as recovered transactions. The journal is then compacted to hold only
+ * these transactions, by writing a new file and moving it into place, so that a failure while opening the journal
+ * leaves either the previous or the compacted journal intact. The journal is locked using a separate lock file, since
+ * compaction replaces the journal file itself.</p>
+ */
+final class TransactionJournal implements AutoCloseable {
+    private static final Log LOG = LogFactory.getLog(TransactionJournal.class);
+
+    private static final String LOCK_FILE_SUFFIX = ".lock";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String KEY_TRANSACTION_ID = "transactionId";
+    private static final String KEY_STATUS = "status";
+    private static final String KEY_TIMESTAMP = "timestamp";
+    private static final String KEY_EXPIRY = "expiry";
+    private static final String KEY_PROPOSAL = "proposal";
+    private static final String KEY_RESPONSES = "responses";
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    private final Path filePath;
+    private final FileChannel lockChannel;
+    private final FileChannel fileChannel;
+    private final Writer fileWriter;
+    private final Map<String, Record> recoveredTransactions;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "transaction-journal");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final List<PendingRecord> pending = new ArrayList<>();
+    private boolean writeScheduled = false;
+    private boolean closed = false;
+
+    TransactionJournal(final Path journalFile) throws IOException {
+        filePath = journalFile;
+        lockChannel = FileChannel.open(filePath.resolveSibling(filePath.getFileName() + LOCK_FILE_SUFFIX),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            lockFile();
+            recoveredTransactions = Collections.unmodifiableMap(load());
+            compact();
+            fileChannel = FileChannel.open(filePath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        } catch (IOException | RuntimeException e) {
+            writer.shutdown();
+            lockChannel.close();
+            throw e;
+        }
+        fileWriter = Channels.newWriter(fileChannel, StandardCharsets.UTF_8.newEncoder(), -1);
+    }
+
+    private void lockFile() throws IOException {
+        final FileLock fileLock;
+        try {
+            fileLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            throw new IOException("File is already locked: " + filePath, e);
+        }
+        if (fileLock == null) {
+            throw new IOException("Another process holds an overlapping lock for file: " + filePath);
+        }
+    }
+
+    private Map<String, Record> load() throws IOException {
+        Map<String, Record> results = new LinkedHashMap<>();
+        if (!Files.exists(filePath)) {
+            return results;
+        }
+
+        String content = new String(Files.readAllBytes(filePath), StandardCharsets.UTF_8);
+        BufferedReader reader = new BufferedReader(new StringReader(content));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (!line.trim().isEmpty()) {
+                parseRecord(line, results);
+            }
+        }
+
+        results.values().removeIf(record -> record.getStatus().isResolved());
+        return results;
+    }
+
+    private void parseRecord(final String line, final Map<String, Record> results) {
+        // A record can be incomplete if the process stopped while writing it
+        try (JsonReader jsonReader = Json.createReader(new StringReader(line))) {
+            JsonObject json = jsonReader.readObject();
+            String transactionId = json.getString(KEY_TRANSACTION_ID);
+            StoreAndForwardQueue.Status status = StoreAndForwardQueue.Status.valueOf(json.getString(KEY_STATUS));
+            Record previous = results.remove(transactionId); // Preserve order of last status change
+            Record record = json.containsKey(KEY_EXPIRY) || previous == null
+                    ? Record.fromJson(transactionId, status, json)
+                    : previous.withStatus(status);
+            results.put(transactionId, record);
+        } catch (RuntimeException e) {
+            LOG.warn("Ignoring bad record in transaction journal " + filePath + ": " + line, e);
+        }
+    }
+
+    private void compact() throws IOException {
+        Path tempFile = filePath.resolveSibling(filePath.getFileName() + TEMP_FILE_SUFFIX);
+        try (FileChannel tempChannel = FileChannel.open(tempFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Writer tempWriter = Channels.newWriter(tempChannel, StandardCharsets.UTF_8.newEncoder(), -1);
+            for (Record record : recoveredTransactions.values()) {
+                writeLine(tempWriter, record.toJson());
+            }
+            tempWriter.flush();
+            tempChannel.force(true);
+        }
+        Files.move(tempFile, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void writeLine(final Writer writer, final JsonObject json) throws IOException {
+        writer.write(json.toString());
+        writer.write('\n');
+    }
+
+    /**
+     * Transactions left unresolved by a previous process, in the order of their last status change.
+     * @return Last recorded state of each unresolved transaction, by transaction ID.
+     */
+    Map<String, Record> getRecoveredTransactions() {
+        return recoveredTransactions;
+    }
+
+    /**
+     * Append the record of a newly stored transaction to the journal. The transaction's proposal responses are
+     * serialized on the journal's thread; if they cannot be serialized, only the transaction ID is recorded.
+     * @param transactionId Transaction ID.
+     * @param expiryMillis Time in milliseconds since the epoch after which the transaction is discarded.
+     * @param responses Proposal responses that make up the endorsed transaction.
+     * @return A future that completes once the record is durable, or completes exceptionally with an
+     * {@link IOException} if the record could not be written.
+     */
+    CompletableFuture<Void> recordStored(final String transactionId, final long expiryMillis,
+                                         final Collection<ProposalResponse> responses) {
+        return append(() -> {
+            byte[] proposal = ProposalResponseCodec.encodeProposal(responses);
+            List<byte[]> encodedResponses = proposal != null ? ProposalResponseCodec.encodeResponses(responses) : null;
+            if (encodedResponses == null) {
+                LOG.warn("Transaction " + transactionId + " cannot be forwarded after a restart since its proposal "
+                        + "responses could not be serialized");
+            }
+            Record record = new Record(transactionId, StoreAndForwardQueue.Status.STORED, expiryMillis,
+                    encodedResponses != null ? proposal : null, encodedResponses);
+            return record.toJson();
+        });
+    }
+
+    /**
+     * Append a status change to the journal.
+     * @param transactionId Transaction ID.
+     * @param status New status.
+     * @return A future that completes once the record is durable, or completes exceptionally with an
+     * {@link IOException} if the record could not be written.
+     */
+    CompletableFuture<Void> record(final String transactionId, final StoreAndForwardQueue.Status status) {
+        return append(() -> newRecordBuilder(transactionId, status).build());
+    }
+
+    private static JsonObjectBuilder newRecordBuilder(final String transactionId, final StoreAndForwardQueue.Status status) {
+        return Json.createObjectBuilder()
+                .add(KEY_TRANSACTION_ID, transactionId)
+                .add(KEY_STATUS, status.name())
+                .add(KEY_TIMESTAMP, System.currentTimeMillis());
+    }
+
+    private CompletableFuture<Void> append(final Supplier<JsonObject> record) {
+        CompletableFuture<Void> written = new CompletableFuture<>();
+        synchronized (this) {
+            if (closed) {
+                written.completeExceptionally(new IOException("Transaction journal is closed: " + filePath));
+                return written;
+            }
+            pending.add(new PendingRecord(record, written));
+            if (!writeScheduled) {
+                writeScheduled = true;
+                writer.execute(this::writePending);
+            }
+        }
+        return written;
+    }
+
+    private void writePending() {
+        List<PendingRecord> batch;
+        synchronized (this) {
+            batch = new ArrayList<>(pending);
+            pending.clear();
+            writeScheduled = false;
+        }
+
+        try {
+            for (PendingRecord record : batch) {
+                writeLine(fileWriter, record.record.get());
+            }
+            fileWriter.flush();
+            fileChannel.force(false);
+        } catch (IOException | RuntimeException e) {
+            batch.forEach(record -> record.written.completeExceptionally(e));
+            return;
+        }
+        batch.forEach(record -> record.written.complete(null));
+    }
+
+    /**
+     * Write any pending records and close the journal.
+     * @throws IOException if the journal file could not be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOG.warn("Timeout writing pending records to transaction journal " + filePath);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        try {
+            fileChannel.close();
+        } finally {
+            lockChannel.close(); // Also releases lock
+        }
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this, "file=" + filePath);
+    }
+
+    /**
+     * Last recorded state of a transaction.
+     */
+    static final class Record {
+        private final String transactionId;
+        private final StoreAndForwardQueue.Status status;
+        private final long expiryMillis;
+        private final byte[] proposal;
+        private final List<byte[]> responses;
+
+        Record(final String transactionId, final StoreAndForwardQueue.Status status, final long expiryMillis,
+               final byte[] proposal, final List<byte[]> responses) {
+            this.transactionId = transactionId;
+            this.status = status;
+            this.expiryMillis = expiryMillis;
+            this.proposal = proposal;
+            this.responses = responses;
+        }
+
+        private static Record fromJson(final String transactionId, final StoreAndForwardQueue.Status status,
+                                       final JsonObject json) {
+            Base64.Decoder decoder = Base64.getDecoder();
+            long expiryMillis = json.containsKey(KEY_EXPIRY) ? json.getJsonNumber(KEY_EXPIRY).longValue() : 0;
+            if (!json.containsKey(KEY_PROPOSAL)) {
+                return new Record(transactionId, status, expiryMillis, null, null);
+            }
+
+            byte[] proposal = decoder.decode(json.getString(KEY_PROPOSAL));
+            List<byte[]> responses = new ArrayList<>();
+            for (JsonString response : json.getJsonArray(KEY_RESPONSES).getValuesAs(JsonString.class)) {
+                responses.add(decoder.decode(response.getString()));
+            }
+            return new Record(transactionId, status, expiryMillis, proposal, responses);
+        }
+
+        private Record withStatus(final StoreAndForwardQueue.Status newStatus) {
+            return new Record(transactionId, newStatus, expiryMillis, proposal, responses);
+        }
+
+        private JsonObject toJson() {
+            JsonObjectBuilder builder = newRecordBuilder(transactionId, status)
+                    .add(KEY_EXPIRY, expiryMillis);
+            if (proposal != null) {
+                Base64.Encoder encoder = Base64.getEncoder();
+                JsonArrayBuilder responsesBuilder = Json.createArrayBuilder();
+                responses.forEach(response -> responsesBuilder.add(encoder.encodeToString(response)));
+                builder.add(KEY_PROPOSAL, encoder.encodeToString(proposal))
+                        .add(KEY_RESPONSES, responsesBuilder);
+            }
+            return builder.build();
+        }
+
+        String getTransactionId() {
+            return transactionId;
+        }
+
+        StoreAndForwardQueue.Status getStatus() {
+            return status;
+        }
+
+        /**
+         * Get the time after which the transaction is discarded.
+         * @return Time in milliseconds since the epoch, or zero if not recorded.
+         */
+        long getExpiryMillis() {
+            return expiryMillis;
+        }
+
+        /**
+         * Get the serialized proposal.
+         * @return Proposal bytes, or {@code null} if the transaction's proposal responses were not recorded.
+         */
+        byte[] getProposal() {
+            return proposal;
+        }
+
+        /**
+         * Get the serialized response from each endorsing peer.
+         * @return Proposal response bytes, or {@code null} if the transaction's proposal responses were not recorded.
+         */
+        List<byte[]> getResponses() {
+            return responses;
+        }
+    }
+
+    private static final class PendingRecord {
+        private final Supplier<JsonObject> record;
+        private final CompletableFuture<Void> written;
+
+        PendingRecord(final Supplier<JsonObject> record, final CompletableFuture<Void> written) {
+            this.record = record;
+            this.written = written;
+        }
+    }
+}
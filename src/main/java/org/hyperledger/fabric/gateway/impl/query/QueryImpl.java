@@ -12,7 +12,10 @@ import java.util.Map;
 import java.util.stream.Collectors;
 
 import org.hyperledger.fabric.gateway.GatewayRuntimeException;
+import org.hyperledger.fabric.gateway.impl.stats.EndpointStatistics;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
 import org.hyperledger.fabric.gateway.spi.Query;
+import org.hyperledger.fabric.sdk.ChaincodeResponse;
 import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.Peer;
 import org.hyperledger.fabric.sdk.ProposalResponse;
@@ -23,19 +26,48 @@ import org.hyperledger.fabric.sdk.exception.ProposalException;
 public final class QueryImpl implements Query {
     private final Channel channel;
     private final QueryByChaincodeRequest request;
+    private final StatisticsRegistry peerStatistics;
 
     public QueryImpl(final Channel channel, final QueryByChaincodeRequest request) {
+        this(channel, request, new StatisticsRegistry());
+    }
+
+    /**
+     * Create a query that records the latency and outcome of requests to individual peers.
+     * @param channel Channel on which the query is evaluated.
+     * @param request Query request.
+     * @param peerStatistics Peer statistics to update.
+     */
+    public QueryImpl(final Channel channel, final QueryByChaincodeRequest request, final StatisticsRegistry peerStatistics) {
         this.channel = channel;
         this.request = request;
+        this.peerStatistics = peerStatistics;
     }
 
     @Override
     public ProposalResponse evaluate(final Peer peer) {
+        EndpointStatistics statistics = peerStatistics.get(peer);
+        statistics.requestStarted();
+        long startTime = System.nanoTime();
         try {
             Collection<ProposalResponse> responses = channel.queryByChaincode(request, Collections.singletonList(peer));
-            return responses.iterator().next();
+            ProposalResponse response = responses.iterator().next();
+            recordResponse(statistics, response, startTime);
+            return response;
         } catch (ProposalException | InvalidArgumentException e) {
+            statistics.recordFailure();
             throw new GatewayRuntimeException(e);
+        } finally {
+            statistics.requestCompleted();
+        }
+    }
+
+    private static void recordResponse(final EndpointStatistics statistics, final ProposalResponse response, final long startTime) {
+        // Only unavailable peers count as failures; chaincode errors still indicate a healthy peer
+        if (response.getStatus() == ChaincodeResponse.Status.FAILURE && response.getProposalResponse() == null) {
+            statistics.recordFailure();
+        } else {
+            statistics.recordSuccess(System.nanoTime() - startTime);
         }
     }
 
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.stats;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+
+/**
+ * Thread-safe collection of named event counters.
+ */
+public final class Counters {
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Increment the named counter, creating it if it does not already exist.
+     * @param name Counter name.
+     */
+    public void increment(final String name) {
+        counters.computeIfAbsent(name, k -> new LongAdder()).increment();
+    }
+
+    /**
+     * Get the current value of the named counter.
+     * @param name Counter name.
+     * @return Counter value, which is zero if the counter has never been incremented.
+     */
+    public long get(final String name) {
+        LongAdder counter = counters.get(name);
+        return counter != null ? counter.sum() : 0;
+    }
+
+    /**
+     * Get the current value of all counters.
+     * @return Counter values keyed by name, sorted by name.
+     */
+    public Map<String, Long> snapshot() {
+        Map<String, Long> results = new TreeMap<>();
+        counters.forEach((name, counter) -> results.put(name, counter.sum()));
+        return Collections.unmodifiableMap(results);
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this, "counters=" + snapshot());
+    }
+}
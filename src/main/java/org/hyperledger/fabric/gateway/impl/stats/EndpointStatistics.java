@@ -0,0 +1,128 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.stats;
+
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hyperledger.fabric.gateway.NodeStatistics;
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+
+/**
+ * Request statistics for a single network endpoint, such as a peer or orderer.
+ */
+public final class EndpointStatistics implements NodeStatistics {
+    private static final int SAMPLE_SIZE = 256;
+
+    private final String name;
+    private final LatencyStatistics latency = new LatencyStatistics(SAMPLE_SIZE);
+    private final AtomicLong successCount = new AtomicLong();
+    private final AtomicLong failureCount = new AtomicLong();
+    private final AtomicInteger consecutiveFailureCount = new AtomicInteger();
+    private final AtomicInteger inFlightCount = new AtomicInteger();
+    private final AtomicLong lastFailureNanoTime = new AtomicLong();
+
+    public EndpointStatistics(final String name) {
+        this.name = name;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Record a successful request.
+     * @param elapsedNanos Time taken for the request to complete.
+     */
+    public void recordSuccess(final long elapsedNanos) {
+        successCount.incrementAndGet();
+        consecutiveFailureCount.set(0);
+        latency.record(elapsedNanos);
+    }
+
+    /**
+     * Record a failed request.
+     */
+    public void recordFailure() {
+        lastFailureNanoTime.set(System.nanoTime());
+        failureCount.incrementAndGet();
+        consecutiveFailureCount.incrementAndGet();
+    }
+
+    /**
+     * Record that a request has been sent to this endpoint. Must be followed by a call to {@link #requestCompleted()}.
+     */
+    public void requestStarted() {
+        inFlightCount.incrementAndGet();
+    }
+
+    /**
+     * Record that a request to this endpoint has completed, successfully or otherwise.
+     */
+    public void requestCompleted() {
+        inFlightCount.decrementAndGet();
+    }
+
+    public LatencyStatistics getLatency() {
+        return latency;
+    }
+
+    @Override
+    public OptionalLong getLatencyPercentile(final double percentile) {
+        return latency.getPercentile(percentile);
+    }
+
+    @Override
+    public long getSuccessCount() {
+        return successCount.get();
+    }
+
+    @Override
+    public long getFailureCount() {
+        return failureCount.get();
+    }
+
+    /**
+     * Get the number of requests that have failed since the last successful request.
+     * @return Failure count.
+     */
+    @Override
+    public int getConsecutiveFailureCount() {
+        return consecutiveFailureCount.get();
+    }
+
+    /**
+     * Get the time elapsed since the most recent failed request.
+     * @return Elapsed time in nanoseconds, or empty if no requests have failed.
+     */
+    public OptionalLong getNanosSinceLastFailure() {
+        return failureCount.get() > 0
+                ? OptionalLong.of(System.nanoTime() - lastFailureNanoTime.get())
+                : OptionalLong.empty();
+    }
+
+    /**
+     * Get the number of requests currently in progress.
+     * @return Request count.
+     */
+    @Override
+    public int getInFlightCount() {
+        return inFlightCount.get();
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this,
+                "name=" + name,
+                "successCount=" + successCount,
+                "failureCount=" + failureCount,
+                "inFlightCount=" + inFlightCount,
+                "latency=" + latency);
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.stats;
+
+import java.util.Arrays;
+import java.util.OptionalLong;
+
+/**
+ * Thread-safe record of the most recent latency samples, from which percentiles can be calculated.
+ */
+public final class LatencyStatistics {
+    private final long[] samples;
+    private int nextIndex = 0;
+    private int count = 0;
+
+    /**
+     * Create latency statistics that retain a given number of the most recent samples.
+     * @param sampleSize Number of samples retained.
+     */
+    public LatencyStatistics(final int sampleSize) {
+        if (sampleSize < 1) {
+            throw new IllegalArgumentException("Sample size must be positive: " + sampleSize);
+        }
+        samples = new long[sampleSize];
+    }
+
+    /**
+     * Record a latency sample.
+     * @param nanos Latency in nanoseconds.
+     */
+    public synchronized void record(final long nanos) {
+        samples[nextIndex] = nanos;
+        nextIndex = (nextIndex + 1) % samples.length;
+        count = Math.min(count + 1, samples.length);
+    }
+
+    /**
+     * Get the number of samples currently retained.
+     * @return Sample count.
+     */
+    public synchronized int getCount() {
+        return count;
+    }
+
+    /**
+     * Get the latency at a given percentile of the retained samples.
+     * @param percentile A value between 0 and 1, for example 0.95 for the 95th percentile.
+     * @return Latency in nanoseconds, or empty if there are no samples.
+     */
+    public OptionalLong getPercentile(final double percentile) {
+        long[] sorted;
+        synchronized (this) {
+            sorted = Arrays.copyOf(samples, count);
+        }
+        if (sorted.length == 0) {
+            return OptionalLong.empty();
+        }
+
+        Arrays.sort(sorted);
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return OptionalLong.of(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d samples, p50 %s ns, p95 %s ns", getCount(), format(getPercentile(0.5)),
+                format(getPercentile(0.95)));
+    }
+
+    private static String format(final OptionalLong value) {
+        return value.isPresent() ? Long.toString(value.getAsLong()) : "-";
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.stats;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hyperledger.fabric.gateway.impl.GatewayUtils;
+import org.hyperledger.fabric.sdk.ChaincodeResponse;
+import org.hyperledger.fabric.sdk.Orderer;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+
+/**
+ * Thread-safe collection of endpoint statistics, keyed by endpoint name. Where an endpoint URL is available, the
+ * endpoint name is its {@code host:port} address, which matches the endpoint names used by service discovery.
+ */
+public final class StatisticsRegistry {
+    private final Map<String, EndpointStatistics> statistics = new ConcurrentHashMap<>();
+
+    /**
+     * Get statistics for the named endpoint, creating them if they do not already exist.
+     * @param name Endpoint name.
+     * @return Endpoint statistics.
+     */
+    public EndpointStatistics get(final String name) {
+        return statistics.computeIfAbsent(name, EndpointStatistics::new);
+    }
+
+    /**
+     * Get statistics for a peer, creating them if they do not already exist.
+     * @param peer A peer.
+     * @return Endpoint statistics.
+     */
+    public EndpointStatistics get(final Peer peer) {
+        return get(getEndpointName(peer.getUrl(), peer.getName()));
+    }
+
+    /**
+     * Get statistics for an orderer, creating them if they do not already exist.
+     * @param orderer An orderer.
+     * @return Endpoint statistics.
+     */
+    public EndpointStatistics get(final Orderer orderer) {
+        return get(getEndpointName(orderer.getUrl(), orderer.getName()));
+    }
+
+    /**
+     * Record the outcome for each peer that responded to a proposal sent to several peers at once. Individual peer
+     * response times are not available, so the time taken for the whole request, which is that of the slowest peer,
+     * is recorded for each peer. Only unavailable peers count as failures; chaincode errors still indicate a healthy
+     * peer.
+     * @param responses Proposal responses.
+     * @param elapsedNanos Time taken for all responses to be received.
+     */
+    public void recordProposalResponses(final Collection<ProposalResponse> responses, final long elapsedNanos) {
+        for (ProposalResponse response : responses) {
+            Peer peer = response.getPeer();
+            if (peer == null) {
+                continue;
+            }
+
+            EndpointStatistics peerStatistics = get(peer);
+            if (response.getStatus() == ChaincodeResponse.Status.FAILURE && response.getProposalResponse() == null) {
+                peerStatistics.recordFailure();
+            } else {
+                peerStatistics.recordSuccess(elapsedNanos);
+            }
+        }
+    }
+
+    /**
+     * Get the endpoint name for a URL.
+     * @param url An endpoint URL, such as {@code grpcs://host:port}.
+     * @param defaultName Name to use if the URL is not available.
+     * @return The endpoint {@code host:port} address.
+     */
+    public static String getEndpointName(final String url, final String defaultName) {
+        if (url == null) {
+            return defaultName;
+        }
+        int index = url.indexOf("://");
+        return index >= 0 ? url.substring(index + "://".length()) : url;
+    }
+
+    public Collection<EndpointStatistics> getAll() {
+        return Collections.unmodifiableCollection(statistics.values());
+    }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this, "statistics=" + statistics.values());
+    }
+}
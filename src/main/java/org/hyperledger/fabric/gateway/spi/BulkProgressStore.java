@@ -0,0 +1,37 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.spi;
+
+import java.io.IOException;
+
+/**
+ * Persists the progress of a {@link org.hyperledger.fabric.gateway.BulkSubmitter} to enable a bulk submit that stops
+ * part-way through to be resumed. Progress is recorded as the number of leading items in the sequence of items whose
+ * outcome has been reported.
+ * <p>Default implementations can be obtained from {@link org.hyperledger.fabric.gateway.DefaultBulkProgressStores}.
+ * Application developers are encouraged to build their own implementations that use a persistent store suitable to
+ * their environment.</p>
+ * <p>Implementations must be thread-safe.</p>
+ */
+public interface BulkProgressStore extends AutoCloseable {
+    /**
+     * Get the number of leading items whose outcome has been reported, or zero if there is no previously saved state.
+     * @return An item count.
+     * @throws IOException if the progress store fails to access persistent state.
+     */
+    long getCompletedCount() throws IOException;
+
+    /**
+     * Set the number of leading items whose outcome has been reported.
+     * @param completedCount An item count.
+     * @throws IOException if the progress store fails to access persistent state.
+     */
+    void setCompletedCount(long completedCount) throws IOException;
+
+    @Override
+    void close() throws IOException;
+}
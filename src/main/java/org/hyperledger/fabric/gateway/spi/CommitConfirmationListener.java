@@ -0,0 +1,31 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.spi;
+
+import java.util.Collection;
+import java.util.Map;
+
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
+import org.hyperledger.fabric.sdk.Peer;
+
+/**
+ * Implemented by listeners notified when background confirmation of a transaction commit finds that not all peers
+ * agree the transaction was committed successfully. Background confirmation continues after a submit has returned
+ * on receipt of the first valid commit event, until every peer has reported or the commit timeout expires.
+ */
+@FunctionalInterface
+public interface CommitConfirmationListener {
+    /**
+     * Called to notify the listener that a transaction committed successfully on at least one peer was not confirmed
+     * by all peers.
+     * @param transactionId Transaction ID.
+     * @param invalidPeers Peers that reported the transaction as invalid, with the validation code they reported.
+     * @param missingPeers Peers that disconnected or did not report the transaction commit within the commit timeout.
+     */
+    void acceptUnconfirmed(String transactionId, Map<Peer, TransactionPackage.TxValidationCode> invalidPeers,
+                           Collection<Peer> missingPeers);
+}
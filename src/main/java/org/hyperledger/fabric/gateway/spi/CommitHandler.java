@@ -41,4 +41,13 @@ public interface CommitHandler {
      * Called to interrupt the waiting state of {@link #waitForEvents(long, TimeUnit)} before completion.
      */
     void cancelListening();
+
+    /**
+     * Check, without blocking, whether {@link #waitForEvents(long, TimeUnit)} would return or throw without waiting.
+     * The default implementation always returns {@code false}.
+     * @return {@code true} if the wait for commit events is complete; otherwise {@code false}.
+     */
+    default boolean isDone() {
+        return false;
+    }
 }
@@ -0,0 +1,31 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.spi;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Client-side representation of a chaincode endorsement policy, used to decide when enough endorsements have been
+ * collected for a transaction to be sent to the orderer.
+ * <p>Default implementations can be obtained from {@link org.hyperledger.fabric.gateway.EndorsementPolicies}.</p>
+ */
+public interface EndorsementPolicy {
+    /**
+     * Check whether endorsements from the given organizations satisfy this policy.
+     * @param mspIds Member services provider IDs of the endorsing organizations. Organizations that provided more
+     *               than one endorsement appear more than once.
+     * @return {@code true} if the policy is satisfied; otherwise {@code false}.
+     */
+    boolean isSatisfiedBy(Collection<String> mspIds);
+
+    /**
+     * Get the member services provider IDs of all organizations referenced by this policy.
+     * @return Organization MSP IDs.
+     */
+    Set<String> getOrganizations();
+}
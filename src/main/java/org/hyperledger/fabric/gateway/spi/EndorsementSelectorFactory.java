@@ -0,0 +1,25 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.spi;
+
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.sdk.ServiceDiscovery;
+
+/**
+ * Functional interface describing a factory function for constructing the endorsement selector used to choose
+ * endorsing peers from the layouts returned by service discovery.
+ * <p>Default implementations can be obtained from {@link org.hyperledger.fabric.gateway.DefaultEndorsementSelectors}.</p>
+ */
+@FunctionalInterface
+public interface EndorsementSelectorFactory {
+    /**
+     * Factory function to create an endorsement selector instance.
+     * @param network Network on which transactions are endorsed.
+     * @return An endorsement selector.
+     */
+    ServiceDiscovery.EndorsementSelector create(Network network);
+}
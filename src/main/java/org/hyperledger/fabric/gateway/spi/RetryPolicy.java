@@ -0,0 +1,27 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.spi;
+
+import org.hyperledger.fabric.gateway.ContractException;
+
+/**
+ * Functional interface describing a policy for resubmitting transactions that fail. Each retry endorses the
+ * transaction again using a new transaction ID, so a policy should only retry failures where a new endorsement may
+ * succeed. Implementations must be thread-safe.
+ * <p>Default implementations can be obtained from {@link org.hyperledger.fabric.gateway.RetryPolicies}.</p>
+ */
+@FunctionalInterface
+public interface RetryPolicy {
+    /**
+     * Decide whether a failed transaction should be retried, and how long to wait before retrying.
+     * @param attempt Number of attempts made so far, starting at 1.
+     * @param cause Failure of the most recent attempt.
+     * @return Delay in nanoseconds before the next attempt, or a negative value if the transaction should not be
+     * retried.
+     */
+    long getRetryDelayNanos(int attempt, ContractException cause);
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.spi;
+
+import java.security.GeneralSecurityException;
+import java.security.PrivateKey;
+
+/**
+ * Functional interface describing a signing implementation, used to sign transaction proposals and transactions with
+ * the gateway identity's private key. Implementations must be thread-safe, and must produce signatures in the form
+ * required by Fabric; for ECDSA this is a DER-encoded signature with a low S value.
+ * <p>Default implementations can be obtained from {@link org.hyperledger.fabric.gateway.DefaultSigners}.</p>
+ */
+@FunctionalInterface
+public interface Signer {
+    /**
+     * Sign a message.
+     * @param privateKey Private key used to create the signature.
+     * @param message Message to be signed.
+     * @return A signature.
+     * @throws GeneralSecurityException if the message could not be signed.
+     */
+    byte[] sign(PrivateKey privateKey, byte[] message) throws GeneralSecurityException;
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.hyperledger.fabric.gateway.spi.EndorsementPolicy;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EndorsementPoliciesTest {
+    private static final EndorsementPolicy ORG1 = EndorsementPolicies.member("Org1MSP");
+    private static final EndorsementPolicy ORG2 = EndorsementPolicies.member("Org2MSP");
+    private static final EndorsementPolicy ORG3 = EndorsementPolicies.member("Org3MSP");
+
+    @Test
+    public void member_satisfied_by_matching_organization() {
+        assertThat(ORG1.isSatisfiedBy(Collections.singletonList("Org1MSP"))).isTrue();
+    }
+
+    @Test
+    public void member_not_satisfied_by_other_organization() {
+        assertThat(ORG1.isSatisfiedBy(Collections.singletonList("Org2MSP"))).isFalse();
+    }
+
+    @Test
+    public void outOf_satisfied_by_required_number_of_organizations() {
+        EndorsementPolicy policy = EndorsementPolicies.outOf(2, ORG1, ORG2, ORG3);
+
+        assertThat(policy.isSatisfiedBy(Arrays.asList("Org1MSP", "Org3MSP"))).isTrue();
+    }
+
+    @Test
+    public void outOf_not_satisfied_by_fewer_organizations() {
+        EndorsementPolicy policy = EndorsementPolicies.outOf(2, ORG1, ORG2, ORG3);
+
+        assertThat(policy.isSatisfiedBy(Arrays.asList("Org1MSP", "Org1MSP"))).isFalse();
+    }
+
+    @Test
+    public void outOf_requires_distinct_endorsement_for_each_repeated_member() {
+        EndorsementPolicy policy = EndorsementPolicies.outOf(2, ORG1, ORG1);
+
+        assertThat(policy.isSatisfiedBy(Collections.singletonList("Org1MSP"))).isFalse();
+        assertThat(policy.isSatisfiedBy(Arrays.asList("Org1MSP", "Org1MSP"))).isTrue();
+    }
+
+    @Test
+    public void nested_policies_do_not_share_endorsements() {
+        EndorsementPolicy policy = EndorsementPolicies.allOf(ORG1, EndorsementPolicies.anyOf(ORG1, ORG2));
+
+        assertThat(policy.isSatisfiedBy(Collections.singletonList("Org1MSP"))).isFalse();
+        assertThat(policy.isSatisfiedBy(Arrays.asList("Org1MSP", "Org2MSP"))).isTrue();
+        assertThat(policy.isSatisfiedBy(Arrays.asList("Org1MSP", "Org1MSP"))).isTrue();
+    }
+
+    @Test
+    public void allOf_requires_every_organization() {
+        EndorsementPolicy policy = EndorsementPolicies.allOf(ORG1, ORG2);
+
+        assertThat(policy.isSatisfiedBy(Collections.singletonList("Org1MSP"))).isFalse();
+        assertThat(policy.isSatisfiedBy(Arrays.asList("Org2MSP", "Org1MSP"))).isTrue();
+    }
+
+    @Test
+    public void anyOf_requires_one_organization() {
+        EndorsementPolicy policy = EndorsementPolicies.anyOf(ORG1, ORG2);
+
+        assertThat(policy.isSatisfiedBy(Collections.singletonList("Org2MSP"))).isTrue();
+    }
+
+    @Test
+    public void majorityOf_requires_more_than_half_of_organizations() {
+        EndorsementPolicy policy = EndorsementPolicies.majorityOf("Org1MSP", "Org2MSP", "Org3MSP", "Org4MSP");
+
+        assertThat(policy.isSatisfiedBy(Arrays.asList("Org1MSP", "Org2MSP"))).isFalse();
+        assertThat(policy.isSatisfiedBy(Arrays.asList("Org1MSP", "Org2MSP", "Org4MSP"))).isTrue();
+    }
+
+    @Test
+    public void nested_policy_organizations() {
+        EndorsementPolicy policy = EndorsementPolicies.anyOf(ORG1, EndorsementPolicies.allOf(ORG2, ORG3));
+
+        assertThat(policy.getOrganizations()).containsExactlyInAnyOrder("Org1MSP", "Org2MSP", "Org3MSP");
+    }
+
+    @Test
+    public void outOf_throws_if_more_required_than_available() {
+        assertThatThrownBy(() -> EndorsementPolicies.outOf(3, ORG1, ORG2))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
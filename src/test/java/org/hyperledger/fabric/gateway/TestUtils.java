@@ -20,15 +20,19 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
+import com.google.protobuf.ByteString;
 import org.hyperledger.fabric.gateway.impl.GatewayImpl;
 import org.hyperledger.fabric.gateway.impl.identity.GatewayUser;
 import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
+import org.hyperledger.fabric.protos.peer.ProposalPackage;
 import org.hyperledger.fabric.protos.peer.ProposalResponsePackage;
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
 import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.ChaincodeResponse;
 import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.Enrollment;
 import org.hyperledger.fabric.sdk.HFClient;
+import org.hyperledger.fabric.sdk.Orderer;
 import org.hyperledger.fabric.sdk.Peer;
 import org.hyperledger.fabric.sdk.ProposalResponse;
 import org.hyperledger.fabric.sdk.QueryByChaincodeRequest;
@@ -36,6 +40,7 @@ import org.hyperledger.fabric.sdk.TransactionProposalRequest;
 import org.hyperledger.fabric.sdk.User;
 import org.hyperledger.fabric.sdk.exception.InvalidArgumentException;
 import org.hyperledger.fabric.sdk.exception.ServiceDiscoveryException;
+import org.hyperledger.fabric.sdk.exception.TransactionEventException;
 import org.hyperledger.fabric.sdk.identity.X509Enrollment;
 import org.hyperledger.fabric.sdk.transaction.TransactionContext;
 import org.mockito.Mockito;
@@ -101,6 +106,13 @@ public final class TestUtils {
         return mockPeer;
     }
 
+    public Orderer newMockOrderer(String name) {
+        Orderer mockOrderer = Mockito.mock(Orderer.class);
+        Mockito.when(mockOrderer.getName()).thenReturn(name);
+        Mockito.when(mockOrderer.getUrl()).thenReturn("grpcs://" + name + ":7050");
+        return mockOrderer;
+    }
+
     public Channel newMockChannel(String name) {
         Channel mockChannel = Mockito.mock(Channel.class);
         Mockito.when(mockChannel.getName()).thenReturn(name);
@@ -149,6 +161,13 @@ public final class TestUtils {
         return txEvent;
     }
 
+    public ContractException newCommitFailure(TransactionPackage.TxValidationCode validationCode) {
+        BlockEvent.TransactionEvent txEvent = newInvalidMockTransactionEvent(newMockPeer("peer"), "txId");
+        Mockito.when(txEvent.getValidationCode()).thenReturn((byte) validationCode.getNumber());
+        TransactionEventException cause = new TransactionEventException("Transaction event is invalid", txEvent);
+        return new ContractException("Transaction commit was rejected by peer peer", cause);
+    }
+
     private BlockEvent.TransactionEvent newMockTransactionEvent(Peer peer, String transactionId) {
         BlockEvent.TransactionEvent txEvent = Mockito.mock(BlockEvent.TransactionEvent.class);
         Mockito.when(txEvent.getPeer()).thenReturn(peer);
@@ -193,7 +212,7 @@ public final class TestUtils {
     public ProposalResponse newSuccessfulProposalResponse(byte[] responsePayload) {
         ProposalResponse response = newProposalResponse(200, responsePayload);
         Mockito.when(response.getStatus()).thenReturn(ChaincodeResponse.Status.SUCCESS);
-        Mockito.when(response.getProposalResponse()).thenReturn(newFabricProposalResponse());
+        Mockito.when(response.getProposalResponse()).thenReturn(newFabricProposalResponse(responsePayload));
         return response;
     }
 
@@ -201,7 +220,7 @@ public final class TestUtils {
         ProposalResponse response = newProposalResponse(500, message.getBytes(StandardCharsets.UTF_8));
         Mockito.when(response.getStatus()).thenReturn(ChaincodeResponse.Status.FAILURE);
         Mockito.when(response.getMessage()).thenReturn(message);
-        Mockito.when(response.getProposalResponse()).thenReturn(newFabricProposalResponse());
+        Mockito.when(response.getProposalResponse()).thenReturn(newFabricProposalResponse(new byte[0]));
         return response;
     }
 
@@ -223,8 +242,16 @@ public final class TestUtils {
         return response;
     }
 
-    private ProposalResponsePackage.ProposalResponse newFabricProposalResponse() {
-        return ProposalResponsePackage.ProposalResponse.getDefaultInstance();
+    private ProposalResponsePackage.ProposalResponse newFabricProposalResponse(byte[] responsePayload) {
+        ProposalPackage.ChaincodeAction action = ProposalPackage.ChaincodeAction.newBuilder()
+                .setResponse(ProposalResponsePackage.Response.newBuilder().setPayload(ByteString.copyFrom(responsePayload)))
+                .build();
+        ProposalResponsePackage.ProposalResponsePayload payload = ProposalResponsePackage.ProposalResponsePayload.newBuilder()
+                .setExtension(action.toByteString())
+                .build();
+        return ProposalResponsePackage.ProposalResponse.newBuilder()
+                .setPayload(payload.toByteString())
+                .build();
     }
 
     public Consumer<BlockEvent> stubBlockListener() {
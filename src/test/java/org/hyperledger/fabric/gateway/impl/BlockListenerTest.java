@@ -215,6 +215,21 @@ public class BlockListenerTest {
         Mockito.verify(replayListener, Mockito.only()).accept(event2);
     }
 
+    @Test
+    public void replay_listener_receives_replay_events_with_store_and_forward_enabled() throws Exception {
+        Consumer<BlockEvent> replayListener = Mockito.spy(testUtils.stubBlockListener());
+        BlockEvent event = testUtils.newMockBlockEvent(peer1, 2);
+
+        try (Gateway forwardingGateway = testUtils.newGatewayBuilder().storeAndForward(testUtils.createTempDirectory()).connect()) {
+            Network forwardingNetwork = forwardingGateway.getNetwork("ch1");
+            forwardingNetwork.addBlockListener(2, replayListener);
+            stubBlockEventSource.sendEvent(event);
+
+            Mockito.verify(replayListener).accept(event);
+            assertThat(((NetworkImpl) forwardingNetwork).getStoreAndForwardQueue()).isNotNull();
+        }
+    }
+
     @Test
     public void close_network_removes_listeners() {
         Consumer<BlockEvent> listener = Mockito.spy(testUtils.stubBlockListener());
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hyperledger.fabric.gateway.BulkSubmitter;
+import org.hyperledger.fabric.gateway.Contract;
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.Gateway;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.commit.CompletableCommitHandler;
+import org.hyperledger.fabric.gateway.spi.CommitHandler;
+import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.HFClient;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class BulkSubmitterTest {
+    private final TestUtils testUtils = TestUtils.getInstance();
+    private final List<BulkSubmitter.ItemResult> results = Collections.synchronizedList(new ArrayList<>());
+    private ExecutorService executor;
+    private Gateway gateway;
+    private HFClient client;
+    private Channel channel;
+    private Contract contract;
+    private CommitHandler commitHandler;
+    private ProposalResponse successResponse;
+
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        executor = Executors.newCachedThreadPool();
+
+        channel = testUtils.newMockChannel("channel");
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        successResponse = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(successResponse));
+
+        client = testUtils.newMockClient();
+        when(client.getChannel(anyString())).thenReturn(channel);
+        when(client.getExecutorService()).thenReturn(executor);
+
+        commitHandler = mock(CommitHandler.class);
+        CommitHandlerFactory commitHandlerFactory = (transactionId, network) -> commitHandler;
+
+        gateway = testUtils.newGatewayBuilder()
+                .client(client)
+                .commitHandler(commitHandlerFactory)
+                .connect();
+        contract = gateway.getNetwork("network").getContract("contract");
+    }
+
+    @AfterEach
+    public void afterEach() {
+        gateway.close();
+        executor.shutdownNow();
+    }
+
+    private static List<String[]> items(final int count) {
+        List<String[]> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(new String[] {"item" + i});
+        }
+        return items;
+    }
+
+    @Test
+    public void submits_all_items() throws Exception {
+        long count = contract.newBulkSubmitter("txn")
+                .setItemListener(results::add)
+                .submitAll(items(5).iterator());
+
+        assertThat(count).isEqualTo(5);
+        assertThat(results).extracting(BulkSubmitter.ItemResult::getIndex).containsExactlyInAnyOrder(0L, 1L, 2L, 3L, 4L);
+        assertThat(results).allMatch(BulkSubmitter.ItemResult::isSuccessful);
+        assertThat(results).extracting(result -> new String(result.getResult())).containsOnly("result");
+        verify(channel, times(5)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void reports_failed_item_and_continues() throws Exception {
+        ProposalResponse failureResponse = testUtils.newFailureProposalResponse("Epic fail");
+        when(channel.sendTransactionProposal(any()))
+                .thenReturn(Collections.singletonList(successResponse))
+                .thenReturn(Collections.singletonList(failureResponse))
+                .thenReturn(Collections.singletonList(successResponse));
+
+        contract.newBulkSubmitter("txn")
+                .setWindow(1)
+                .setItemListener(results::add)
+                .submitAll(items(3).iterator());
+
+        assertThat(results).extracting(BulkSubmitter.ItemResult::isSuccessful).containsExactly(true, false, true);
+        assertThat(results.get(1).getFailure()).isInstanceOf(ContractException.class);
+        assertThat(results.get(1).getArgs()).containsExactly("item1");
+    }
+
+    @Test
+    public void reports_commit_failure() throws Exception {
+        doThrow(new ContractException("Commit failed")).when(commitHandler).waitForEvents(anyLong(), any());
+
+        contract.newBulkSubmitter("txn")
+                .setItemListener(results::add)
+                .submitAll(items(1).iterator());
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getFailure()).isInstanceOf(ContractException.class);
+        assertThat(results.get(0).getTransactionId()).isNotEmpty();
+    }
+
+    @Test
+    public void waits_for_commit_using_commit_handler() throws Exception {
+        contract.newBulkSubmitter("txn")
+                .setItemListener(results::add)
+                .submitAll(items(3).iterator());
+
+        verify(commitHandler, times(3)).waitForEvents(anyLong(), any());
+    }
+
+    @Test
+    public void does_not_hold_executor_threads_while_waiting_for_commit() throws Exception {
+        ExecutorService singleThreadExecutor = Executors.newSingleThreadExecutor();
+        when(client.getExecutorService()).thenReturn(singleThreadExecutor);
+        CompletableFuture<Void> committed = new CompletableFuture<>();
+        CompletableCommitHandler completableCommitHandler = mock(CompletableCommitHandler.class);
+        when(completableCommitHandler.awaitCommit(anyLong(), any())).thenReturn(committed);
+        commitHandler = completableCommitHandler;
+
+        try {
+            BulkSubmitter submitter = contract.newBulkSubmitter("txn")
+                    .setWindow(3)
+                    .setItemListener(results::add);
+            Future<Long> count = executor.submit(() -> submitter.submitAll(items(3).iterator()));
+
+            verify(channel, timeout(TimeUnit.SECONDS.toMillis(5)).times(3))
+                    .sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+            assertThat(count).isNotDone();
+
+            committed.complete(null);
+            assertThat(count.get(5, TimeUnit.SECONDS)).isEqualTo(3);
+            assertThat(results).allMatch(BulkSubmitter.ItemResult::isSuccessful);
+            verify(completableCommitHandler, never()).waitForEvents(anyLong(), any());
+        } finally {
+            singleThreadExecutor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void reports_commit_timeout() throws Exception {
+        doThrow(new TimeoutException("Commit timed out")).when(commitHandler).waitForEvents(anyLong(), any());
+
+        contract.newBulkSubmitter("txn")
+                .setItemListener(results::add)
+                .submitAll(items(1).iterator());
+
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getFailure()).isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    public void records_progress_with_progress_store() throws Exception {
+        InMemoryBulkProgressStore progressStore = new InMemoryBulkProgressStore();
+
+        contract.newBulkSubmitter("txn")
+                .setProgressStore(progressStore)
+                .submitAll(items(3).iterator());
+
+        assertThat(progressStore.getCompletedCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void resumes_from_recorded_progress() throws Exception {
+        InMemoryBulkProgressStore progressStore = new InMemoryBulkProgressStore(2);
+
+        long count = contract.newBulkSubmitter("txn")
+                .setProgressStore(progressStore)
+                .setItemListener(results::add)
+                .submitAll(items(3).iterator());
+
+        assertThat(count).isEqualTo(1);
+        assertThat(results).extracting(BulkSubmitter.ItemResult::getIndex).containsExactly(2L);
+        assertThat(results.get(0).getArgs()).containsExactly("item2");
+        assertThat(progressStore.getCompletedCount()).isEqualTo(3);
+    }
+
+    @Test
+    public void listener_exception_stops_bulk_submit() {
+        RuntimeException failure = new RuntimeException("Listener failure");
+        BulkSubmitter submitter = contract.newBulkSubmitter("txn")
+                .setWindow(1)
+                .setItemListener(result -> {
+                    throw failure;
+                });
+
+        assertThatThrownBy(() -> submitter.submitAll(items(3).iterator())).isSameAs(failure);
+        verify(channel, times(1)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void window_less_than_one_throws() {
+        BulkSubmitter submitter = contract.newBulkSubmitter("txn");
+
+        assertThatThrownBy(() -> submitter.setWindow(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void empty_transaction_name_throws() {
+        assertThatThrownBy(() -> contract.newBulkSubmitter("")).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.ConcurrencyLimitExceededException;
+import org.hyperledger.fabric.gateway.TransactionPriority;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ConcurrencyLimiterTest {
+    private static final TimePeriod NO_WAIT = new TimePeriod(0, TimeUnit.MILLISECONDS);
+
+    private ConcurrencyLimiter newLimiter(final int initialLimit, final int maxQueued, final TimePeriod maxWait) {
+        return new ConcurrencyLimiter("Test", initialLimit, 1, 100, maxQueued, maxWait);
+    }
+
+    @Test
+    public void admits_requests_within_limit() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(2, 0, NO_WAIT);
+
+        limiter.acquire(Deadline.none(), TransactionPriority.NORMAL);
+        limiter.acquire(Deadline.none(), TransactionPriority.NORMAL);
+
+        assertThat(limiter.getInFlightCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void rejects_request_over_limit_with_no_queue() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(1, 0, NO_WAIT);
+        limiter.acquire(Deadline.none(), TransactionPriority.NORMAL);
+
+        assertThatThrownBy(() -> limiter.acquire(Deadline.none(), TransactionPriority.NORMAL))
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+    }
+
+    @Test
+    public void rejects_queued_request_after_max_wait() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(1, 1, new TimePeriod(10, TimeUnit.MILLISECONDS));
+        limiter.acquire(Deadline.none(), TransactionPriority.NORMAL);
+
+        assertThatThrownBy(() -> limiter.acquire(Deadline.none(), TransactionPriority.NORMAL))
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+        assertThat(limiter.getInFlightCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void queued_request_wait_is_limited_by_deadline() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(1, 1, new TimePeriod(1, TimeUnit.DAYS));
+        limiter.acquire(Deadline.none(), TransactionPriority.NORMAL);
+        Deadline deadline = Deadline.after(new TimePeriod(10, TimeUnit.MILLISECONDS));
+
+        assertThatThrownBy(() -> limiter.acquire(deadline, TransactionPriority.NORMAL))
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+    }
+
+    @Test
+    public void queued_request_admitted_when_permit_released() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(1, 1, new TimePeriod(1, TimeUnit.MINUTES));
+        ConcurrencyLimiter.Permit permit = limiter.acquire(Deadline.none(), TransactionPriority.NORMAL);
+
+        CompletableFuture<ConcurrencyLimiter.Permit> queued = CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire(Deadline.none(), TransactionPriority.NORMAL);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        permit.onIgnore();
+
+        assertThat(queued.get(1, TimeUnit.MINUTES)).isNotNull();
+        assertThat(limiter.getInFlightCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void permit_released_only_once() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(2, 0, NO_WAIT);
+        limiter.acquire(Deadline.none(), TransactionPriority.NORMAL);
+        ConcurrencyLimiter.Permit permit = limiter.acquire(Deadline.none(), TransactionPriority.NORMAL);
+
+        permit.onSuccess();
+        permit.onIgnore();
+
+        assertThat(limiter.getInFlightCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void limit_increases_with_successful_requests_at_limit() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(2, 0, NO_WAIT);
+
+        for (int i = 0; i < 10; i++) {
+            ConcurrencyLimiter.Permit first = limiter.acquire(Deadline.none(), TransactionPriority.NORMAL);
+            ConcurrencyLimiter.Permit second = limiter.acquire(Deadline.none(), TransactionPriority.NORMAL);
+            first.onSuccess();
+            second.onSuccess();
+        }
+
+        assertThat(limiter.getLimit()).isGreaterThan(2);
+    }
+
+    @Test
+    public void limit_decreases_when_request_dropped() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(50, 0, NO_WAIT);
+
+        limiter.acquire(Deadline.none(), TransactionPriority.NORMAL).onDropped();
+
+        assertThat(limiter.getLimit()).isLessThan(50);
+    }
+
+    @Test
+    public void excluded_time_does_not_count_towards_latency() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(50, 0, NO_WAIT);
+        limiter.acquire(Deadline.none(), TransactionPriority.NORMAL).onSuccess(); // Establish a low baseline latency
+        Thread.sleep(100); // Allow a limit decrease
+
+        ConcurrencyLimiter.Permit permit = limiter.acquire(Deadline.none(), TransactionPriority.NORMAL);
+        long startNanos = System.nanoTime();
+        Thread.sleep(50);
+        permit.excludeFromLatency(System.nanoTime() - startNanos);
+        permit.onSuccess();
+
+        assertThat(limiter.getLimit()).isEqualTo(50);
+    }
+
+    @Test
+    public void limit_does_not_fall_below_minimum() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(1, 0, NO_WAIT);
+
+        limiter.acquire(Deadline.none(), TransactionPriority.NORMAL).onDropped();
+
+        assertThat(limiter.getLimit()).isEqualTo(1);
+    }
+
+    @Test
+    public void throws_on_invalid_limits() {
+        assertThatThrownBy(() -> new ConcurrencyLimiter("Test", 0, 0, 10, 0, NO_WAIT))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void lower_priority_rejected_while_capacity_reserved_for_higher_priority() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(10, 0, NO_WAIT);
+        for (int i = 0; i < limiter.getLimit(TransactionPriority.BULK); i++) {
+            limiter.acquire(Deadline.none(), TransactionPriority.BULK);
+        }
+
+        assertThatThrownBy(() -> limiter.acquire(Deadline.none(), TransactionPriority.BULK))
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+        assertThat(limiter.acquire(Deadline.none(), TransactionPriority.INTERACTIVE)).isNotNull();
+    }
+
+    @Test
+    public void interactive_priority_may_use_whole_limit() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(10, 0, NO_WAIT);
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire(Deadline.none(), TransactionPriority.INTERACTIVE);
+        }
+
+        assertThatThrownBy(() -> limiter.acquire(Deadline.none(), TransactionPriority.INTERACTIVE))
+                .isInstanceOf(ConcurrencyLimitExceededException.class);
+    }
+
+    @Test
+    public void priority_limits_shrink_with_overall_limit() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(50, 0, NO_WAIT);
+        int bulkLimit = limiter.getLimit(TransactionPriority.BULK);
+
+        limiter.acquire(Deadline.none(), TransactionPriority.BULK).onDropped();
+
+        assertThat(limiter.getLimit(TransactionPriority.BULK)).isLessThan(bulkLimit);
+        assertThat(limiter.getLimit(TransactionPriority.BULK)).isLessThan(limiter.getLimit(TransactionPriority.NORMAL));
+        assertThat(limiter.getLimit(TransactionPriority.NORMAL)).isLessThan(limiter.getLimit(TransactionPriority.INTERACTIVE));
+    }
+
+    @Test
+    public void waiting_higher_priority_admitted_before_lower_priority() throws Exception {
+        ConcurrencyLimiter limiter = newLimiter(2, 1, new TimePeriod(1, TimeUnit.MINUTES));
+        ConcurrencyLimiter.Permit permit = limiter.acquire(Deadline.none(), TransactionPriority.INTERACTIVE);
+        limiter.acquire(Deadline.none(), TransactionPriority.INTERACTIVE);
+
+        CompletableFuture<ConcurrencyLimiter.Permit> bulk = acquireAsync(limiter, TransactionPriority.BULK);
+        CompletableFuture<ConcurrencyLimiter.Permit> interactive = acquireAsync(limiter, TransactionPriority.INTERACTIVE);
+        while (!limiter.toString().contains("queued=[1, 0, 1]")) {
+            Thread.sleep(1);
+        }
+        permit.onIgnore();
+
+        assertThat(interactive.get(1, TimeUnit.MINUTES)).isNotNull();
+        assertThat(bulk).isNotDone();
+    }
+
+    private CompletableFuture<ConcurrencyLimiter.Permit> acquireAsync(final ConcurrencyLimiter limiter,
+                                                                      final TransactionPriority priority) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return limiter.acquire(Deadline.none(), priority);
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DeadlineTest {
+    @Test
+    public void unbounded_deadline_does_not_limit_time_period() {
+        TimePeriod timeout = new TimePeriod(1, TimeUnit.HOURS);
+
+        Deadline deadline = Deadline.of(null);
+
+        assertThat(deadline.isBounded()).isFalse();
+        assertThat(deadline.isExpired()).isFalse();
+        assertThat(deadline.limit(timeout)).isSameAs(timeout);
+        assertThat(deadline.limitMillis(Long.MAX_VALUE)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void longer_deadline_does_not_limit_time_period() {
+        TimePeriod timeout = new TimePeriod(1, TimeUnit.SECONDS);
+
+        Deadline deadline = Deadline.after(new TimePeriod(1, TimeUnit.HOURS));
+
+        assertThat(deadline.limit(timeout)).isSameAs(timeout);
+        assertThat(deadline.limitMillis(1000)).isEqualTo(1000);
+    }
+
+    @Test
+    public void shorter_deadline_limits_time_period() {
+        Deadline deadline = Deadline.after(new TimePeriod(1, TimeUnit.SECONDS));
+
+        TimePeriod result = deadline.limit(new TimePeriod(1, TimeUnit.HOURS));
+
+        assertThat(result.getTimeUnit().toMillis(result.getTime())).isBetween(0L, 1000L);
+        assertThat(deadline.limitMillis(TimeUnit.HOURS.toMillis(1))).isBetween(0L, 1000L);
+    }
+
+    @Test
+    public void expired_deadline_limits_time_period_to_zero() {
+        Deadline deadline = Deadline.after(new TimePeriod(0, TimeUnit.NANOSECONDS));
+
+        assertThat(deadline.isExpired()).isTrue();
+        assertThat(deadline.limit(new TimePeriod(1, TimeUnit.SECONDS)).getTime()).isZero();
+        assertThat(deadline.limitMillis(1000)).isZero();
+    }
+}
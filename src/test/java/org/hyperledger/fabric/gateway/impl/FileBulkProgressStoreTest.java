@@ -0,0 +1,57 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.spi.BulkProgressStore;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class FileBulkProgressStoreTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    @Test
+    public void progress_store_for_file_without_progress_data_throws() throws IOException {
+        Path file = testUtils.createTempFile();
+        assertThatThrownBy(() -> new FileBulkProgressStore(file))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void progress_store_for_missing_file_has_no_completed_items() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (BulkProgressStore progressStore = new FileBulkProgressStore(file)) {
+            assertThat(progressStore.getCompletedCount()).isZero();
+        }
+    }
+
+    @Test
+    public void completed_count_is_persisted() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (BulkProgressStore progressStore = new FileBulkProgressStore(file)) {
+            progressStore.setCompletedCount(101);
+        }
+
+        try (BulkProgressStore progressStore = new FileBulkProgressStore(file)) {
+            assertThat(progressStore.getCompletedCount()).isEqualTo(101);
+        }
+    }
+
+    @Test
+    public void second_progress_store_for_same_file_throws() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (BulkProgressStore progressStore = new FileBulkProgressStore(file)) {
+            assertThatThrownBy(() -> new FileBulkProgressStore(file))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+}
@@ -15,14 +15,18 @@ import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
+import org.hyperledger.fabric.gateway.DefaultSigners;
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.Identities;
 import org.hyperledger.fabric.gateway.Identity;
 import org.hyperledger.fabric.gateway.Wallet;
 import org.hyperledger.fabric.gateway.Wallets;
 import org.hyperledger.fabric.gateway.X509Credentials;
+import org.hyperledger.fabric.gateway.impl.identity.SigningCryptoSuite;
 import org.hyperledger.fabric.sdk.HFClient;
 import org.hyperledger.fabric.sdk.Peer;
 import org.junit.jupiter.api.BeforeEach;
@@ -158,6 +162,43 @@ public class GatewayBuilderTest {
         }
     }
 
+    @Test
+    public void testDefaultSignerLeavesSdkCryptoSuite() throws IOException {
+        builder.identity(identity)
+                .networkConfig(JSON_NETWORK_CONFIG_PATH);
+        try (Gateway gateway = builder.connect()) {
+            HFClient client = ((GatewayImpl) gateway).getClient();
+            assertThat(client.getCryptoSuite()).isNotInstanceOf(SigningCryptoSuite.class);
+        }
+    }
+
+    @Test
+    public void testSignerSetsSigningCryptoSuite() throws IOException {
+        builder.identity(identity)
+                .networkConfig(JSON_NETWORK_CONFIG_PATH)
+                .signer(DefaultSigners.ECDSA);
+        try (Gateway gateway = builder.connect()) {
+            HFClient client = ((GatewayImpl) gateway).getClient();
+            assertThat(client.getCryptoSuite()).isInstanceOf(SigningCryptoSuite.class)
+                    .asString().contains("signer=" + DefaultSigners.ECDSA);
+        }
+    }
+
+    @Test
+    public void testSigningExecutorSetsSigningCryptoSuite() throws IOException {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        builder.identity(identity)
+                .networkConfig(JSON_NETWORK_CONFIG_PATH)
+                .signingExecutor(executor);
+        try (Gateway gateway = builder.connect()) {
+            HFClient client = ((GatewayImpl) gateway).getClient();
+            assertThat(client.getCryptoSuite()).isInstanceOf(SigningCryptoSuite.class)
+                    .asString().contains("signingExecutor=" + executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void testFileNetworkConfigReturnsBuilder() throws IOException {
         Gateway.Builder result = builder.networkConfig(JSON_NETWORK_CONFIG_PATH);
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class HedgeBudgetTest {
+    @Test
+    public void allows_initial_burst() {
+        HedgeBudget budget = new HedgeBudget(0.1, 2);
+
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isTrue();
+        assertThat(budget.tryAcquire()).isFalse();
+    }
+
+    @Test
+    public void requests_replenish_budget() {
+        HedgeBudget budget = new HedgeBudget(0.5, 1);
+        budget.tryAcquire();
+
+        budget.recordRequest();
+        assertThat(budget.tryAcquire()).isFalse();
+
+        budget.recordRequest();
+        budget.recordRequest();
+        assertThat(budget.tryAcquire()).isTrue();
+    }
+}
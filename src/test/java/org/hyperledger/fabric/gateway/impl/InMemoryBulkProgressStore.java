@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hyperledger.fabric.gateway.spi.BulkProgressStore;
+
+/**
+ * Transient in-memory bulk progress store implementation with no persistent storage.
+ */
+public class InMemoryBulkProgressStore implements BulkProgressStore {
+    private final AtomicLong completedCount;
+
+    public InMemoryBulkProgressStore() {
+        this(0);
+    }
+
+    public InMemoryBulkProgressStore(long completedCount) {
+        this.completedCount = new AtomicLong(completedCount);
+    }
+
+    @Override
+    public long getCompletedCount() {
+        return completedCount.get();
+    }
+
+    @Override
+    public void setCompletedCount(long completedCount) {
+        this.completedCount.set(completedCount);
+    }
+
+    @Override
+    public void close() { }
+
+    @Override
+    public String toString() {
+        return GatewayUtils.toString(this, "completedCount=" + completedCount.get());
+    }
+}
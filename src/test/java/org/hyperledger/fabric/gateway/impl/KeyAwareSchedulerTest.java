@@ -0,0 +1,150 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+
+import com.google.protobuf.ByteString;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KeyAwareSchedulerTest {
+    private KeyAwareScheduler scheduler;
+
+    @BeforeEach
+    public void beforeEach() {
+        scheduler = new KeyAwareScheduler();
+    }
+
+    private TransactionKeys newWriter(final String namespace, final String key) {
+        TransactionKeys keys = new TransactionKeys();
+        keys.addWrite(namespace, key);
+        return keys;
+    }
+
+    private TransactionKeys newReader(final String namespace, final String key) {
+        TransactionKeys keys = new TransactionKeys();
+        keys.addRead(namespace, key);
+        return keys;
+    }
+
+    @Test
+    public void schedules_transaction_with_no_conflicts() {
+        Collection<CompletableFuture<Void>> conflicts = scheduler.schedule("tx1", newWriter("cc", "key"), false);
+
+        assertThat(conflicts).isEmpty();
+        assertThat(scheduler.getInFlightCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void read_of_uncommitted_write_conflicts() {
+        scheduler.schedule("tx1", newWriter("cc", "key"), false);
+
+        Collection<CompletableFuture<Void>> conflicts = scheduler.schedule("tx2", newReader("cc", "key"), false);
+
+        assertThat(conflicts).hasSize(1);
+        assertThat(scheduler.getInFlightCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void read_of_same_key_in_different_namespace_does_not_conflict() {
+        scheduler.schedule("tx1", newWriter("cc1", "key"), false);
+
+        Collection<CompletableFuture<Void>> conflicts = scheduler.schedule("tx2", newReader("cc2", "key"), false);
+
+        assertThat(conflicts).isEmpty();
+    }
+
+    @Test
+    public void concurrent_writes_do_not_conflict() {
+        scheduler.schedule("tx1", newWriter("cc", "key"), false);
+
+        Collection<CompletableFuture<Void>> conflicts = scheduler.schedule("tx2", newWriter("cc", "key"), false);
+
+        assertThat(conflicts).isEmpty();
+        assertThat(scheduler.getInFlightCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void range_read_containing_uncommitted_write_conflicts() {
+        scheduler.schedule("tx1", newWriter("cc", "key5"), false);
+        TransactionKeys keys = new TransactionKeys();
+        keys.addRange("cc", "key1", "key9");
+
+        Collection<CompletableFuture<Void>> conflicts = scheduler.schedule("tx2", keys, false);
+
+        assertThat(conflicts).hasSize(1);
+    }
+
+    @Test
+    public void range_read_excludes_end_key() {
+        scheduler.schedule("tx1", newWriter("cc", "key9"), false);
+        TransactionKeys keys = new TransactionKeys();
+        keys.addRange("cc", "key1", "key9");
+
+        Collection<CompletableFuture<Void>> conflicts = scheduler.schedule("tx2", keys, false);
+
+        assertThat(conflicts).isEmpty();
+    }
+
+    @Test
+    public void open_ended_range_read_is_limited_to_namespace() {
+        scheduler.schedule("tx1", newWriter("cc", "zzz"), false);
+        scheduler.schedule("tx2", newWriter("cc2", "key"), false);
+        TransactionKeys keys = new TransactionKeys();
+        keys.addRange("cc", "", "");
+
+        Collection<CompletableFuture<Void>> conflicts = scheduler.schedule("tx3", keys, false);
+
+        assertThat(conflicts).hasSize(1);
+    }
+
+    @Test
+    public void private_data_read_of_uncommitted_write_conflicts() {
+        ByteString keyHash = ByteString.copyFromUtf8("hash");
+        TransactionKeys writer = new TransactionKeys();
+        writer.addPrivateWrite("cc", "collection", keyHash);
+        scheduler.schedule("tx1", writer, false);
+        TransactionKeys reader = new TransactionKeys();
+        reader.addPrivateRead("cc", "collection", keyHash);
+
+        Collection<CompletableFuture<Void>> conflicts = scheduler.schedule("tx2", reader, false);
+
+        assertThat(conflicts).hasSize(1);
+    }
+
+    @Test
+    public void complete_releases_conflicting_transactions() {
+        scheduler.schedule("tx1", newWriter("cc", "key"), false);
+        Collection<CompletableFuture<Void>> conflicts = scheduler.schedule("tx2", newReader("cc", "key"), false);
+
+        scheduler.complete("tx1");
+
+        assertThat(conflicts).allMatch(CompletableFuture::isDone);
+        assertThat(scheduler.schedule("tx2", newReader("cc", "key"), false)).isEmpty();
+    }
+
+    @Test
+    public void force_schedules_conflicting_transaction() {
+        scheduler.schedule("tx1", newWriter("cc", "key"), false);
+
+        Collection<CompletableFuture<Void>> conflicts = scheduler.schedule("tx2", newReader("cc", "key"), true);
+
+        assertThat(conflicts).isEmpty();
+        assertThat(scheduler.getInFlightCount()).isEqualTo(2);
+    }
+
+    @Test
+    public void complete_of_unknown_transaction_is_ignored() {
+        scheduler.complete("unknown");
+
+        assertThat(scheduler.getInFlightCount()).isZero();
+    }
+}
@@ -6,6 +6,15 @@
 
 package org.hyperledger.fabric.gateway.impl;
 
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hyperledger.fabric.gateway.Commit;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.Network;
@@ -86,4 +95,26 @@ public class NetworkTest {
         ((NetworkImpl)network).close();
         assertThat(network.getChannel().isShutdown()).isTrue();
     }
+
+    @Test
+    public void testNoRecoveredTransactionsWithoutStoreAndForward() {
+        assertThat(network.getRecoveredTransactions()).isEmpty();
+    }
+
+    @Test
+    public void testRecoveredTransactionExpiresIfNotFoundOnLedger() throws Exception {
+        Path journalDirectory = testUtils.createTempDirectory();
+        Files.write(journalDirectory.resolve("ch1.journal"), Collections.singletonList(
+                "{\"transactionId\":\"txId\",\"status\":\"FORWARDED\",\"timestamp\":1,\"expiry\":1}"
+        ), StandardCharsets.UTF_8);
+
+        try (Gateway forwardingGateway = testUtils.newGatewayBuilder().storeAndForward(journalDirectory).connect()) {
+            Collection<Commit> recovered = forwardingGateway.getNetwork("ch1").getRecoveredTransactions();
+
+            assertThat(recovered).extracting(Commit::getTransactionId).containsExactly("txId");
+            assertThatThrownBy(() -> recovered.iterator().next().waitForCommit(5, TimeUnit.SECONDS))
+                    .isInstanceOf(TimeoutException.class)
+                    .hasMessageContaining("not found");
+        }
+    }
 }
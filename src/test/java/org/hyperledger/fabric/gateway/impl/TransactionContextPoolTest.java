@@ -0,0 +1,74 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.transaction.TransactionContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class TransactionContextPoolTest {
+    private static final Executor DIRECT_EXECUTOR = Runnable::run;
+
+    private Channel channel;
+
+    @BeforeEach
+    public void beforeEach() {
+        channel = TestUtils.getInstance().newMockChannel("channel");
+    }
+
+    @Test
+    public void creates_context_on_demand_without_executor() {
+        TransactionContextPool pool = new TransactionContextPool(channel, null, 4);
+
+        TransactionContext context = pool.take();
+
+        assertThat(context).isNotNull();
+        assertThat(pool.size()).isZero();
+        verify(channel, times(1)).newTransactionContext();
+    }
+
+    @Test
+    public void refills_pool_in_background() {
+        TransactionContextPool pool = new TransactionContextPool(channel, DIRECT_EXECUTOR, 4);
+
+        pool.take();
+
+        assertThat(pool.size()).isEqualTo(4);
+    }
+
+    @Test
+    public void each_context_is_used_once() {
+        TransactionContextPool pool = new TransactionContextPool(channel, DIRECT_EXECUTOR, 4);
+
+        Set<String> transactionIds = new HashSet<>();
+        for (int i = 0; i < 10; i++) {
+            transactionIds.add(pool.take().getTxID());
+        }
+
+        assertThat(transactionIds).hasSize(10);
+    }
+
+    @Test
+    public void close_discards_pooled_contexts() {
+        TransactionContextPool pool = new TransactionContextPool(channel, DIRECT_EXECUTOR, 4);
+        pool.take();
+
+        pool.close();
+
+        assertThat(pool.size()).isZero();
+    }
+}
@@ -6,6 +6,8 @@
 
 package org.hyperledger.fabric.gateway.impl;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -13,21 +15,40 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
+import com.google.protobuf.ByteString;
+import org.hyperledger.fabric.gateway.Commit;
+import org.hyperledger.fabric.gateway.ConcurrencyLimitExceededException;
 import org.hyperledger.fabric.gateway.Contract;
 import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.EndorsedTransaction;
 import org.hyperledger.fabric.gateway.Gateway;
 import org.hyperledger.fabric.gateway.GatewayException;
 import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.RetryPolicies;
 import org.hyperledger.fabric.gateway.TestUtils;
 import org.hyperledger.fabric.gateway.Transaction;
+import org.hyperledger.fabric.gateway.TransactionPriority;
+import org.hyperledger.fabric.gateway.impl.orderer.StoreAndForwardQueue;
 import org.hyperledger.fabric.gateway.spi.CommitHandler;
 import org.hyperledger.fabric.gateway.spi.CommitHandlerFactory;
+import org.hyperledger.fabric.gateway.spi.EndorsementSelectorFactory;
+import org.hyperledger.fabric.protos.ledger.rwset.Rwset;
+import org.hyperledger.fabric.protos.ledger.rwset.kvrwset.KvRwset;
+import org.hyperledger.fabric.protos.peer.ProposalPackage;
+import org.hyperledger.fabric.protos.peer.ProposalResponsePackage;
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
+import org.hyperledger.fabric.sdk.BlockEvent;
 import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.HFClient;
 import org.hyperledger.fabric.sdk.Peer;
 import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.ServiceDiscovery;
 import org.hyperledger.fabric.sdk.TransactionProposalRequest;
 import org.hyperledger.fabric.sdk.transaction.TransactionContext;
 import org.junit.jupiter.api.AfterEach;
@@ -46,9 +67,13 @@ import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.any;
 import static org.mockito.Mockito.anyCollection;
 import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -250,6 +275,30 @@ public class TransactionTest {
         assertThat(peerCaptor.getValue()).containsExactly(peer2);
     }
 
+    @Test
+    public void submit_with_endorsement_hedging_sends_to_all_explicit_endorsing_peers() throws Exception {
+        ExecutorService executor = Executors.newCachedThreadPool();
+        try {
+            when(((GatewayImpl) gateway).getClient().getExecutorService()).thenReturn(executor);
+            ProposalResponse peer1Response = testUtils.newSuccessfulProposalResponse();
+            ProposalResponse peer2Response = testUtils.newSuccessfulProposalResponse();
+            when(channel.sendTransactionProposal(any(TransactionProposalRequest.class), eq(Collections.singleton(peer1))))
+                    .thenReturn(Collections.singletonList(peer1Response));
+            when(channel.sendTransactionProposal(any(TransactionProposalRequest.class), eq(Collections.singleton(peer2))))
+                    .thenReturn(Collections.singletonList(peer2Response));
+
+            contract.createTransaction("txn")
+                    .setEndorsingPeers(Arrays.asList(peer1, peer2))
+                    .setEndorsementHedging(true)
+                    .submit();
+
+            verify(channel).sendTransaction(proposalResponseCaptor.capture(), any(Channel.TransactionOptions.class));
+            assertThat(proposalResponseCaptor.getValue()).containsExactlyInAnyOrder(peer1Response, peer2Response);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     @Test
     public void submit_using_discovery_sets_inspect_results_option() throws Exception {
         String expected = "successful result";
@@ -268,6 +317,45 @@ public class TransactionTest {
         assertThat(discoveryOptionsCaptor.getValue().isInspectResults()).isTrue();
     }
 
+    @Test
+    public void submit_using_discovery_uses_configured_endorsement_selector() throws Exception {
+        ServiceDiscovery.EndorsementSelector selector = mock(ServiceDiscovery.EndorsementSelector.class);
+        EndorsementSelectorFactory selectorFactory = mock(EndorsementSelectorFactory.class);
+        when(selectorFactory.create(any())).thenReturn(selector);
+        when(channel.sendTransactionProposalToEndorsers(any(TransactionProposalRequest.class), any(Channel.DiscoveryOptions.class)))
+                .thenReturn(Collections.singletonList(testUtils.newSuccessfulProposalResponse()));
+        gateway = gatewayBuilder
+                .discovery(true)
+                .endorsementSelector(selectorFactory)
+                .connect();
+        Network network = gateway.getNetwork("network");
+
+        network.getContract("contract").submitTransaction("txn");
+
+        verify(selectorFactory).create(network);
+        assertThat(((NetworkImpl) network).getEndorsementSelector()).isSameAs(selector);
+    }
+
+    @Test
+    public void submit_using_discovery_records_peer_statistics() throws Exception {
+        ProposalResponse goodResponse = testUtils.newSuccessfulProposalResponse();
+        when(goodResponse.getPeer()).thenReturn(peer1);
+        ProposalResponse unavailableResponse = testUtils.newUnavailableProposalResponse("Unavailable");
+        when(unavailableResponse.getPeer()).thenReturn(peer2);
+        when(channel.sendTransactionProposalToEndorsers(any(TransactionProposalRequest.class), any(Channel.DiscoveryOptions.class)))
+                .thenReturn(Arrays.asList(goodResponse, unavailableResponse));
+        gateway = gatewayBuilder
+                .discovery(true)
+                .connect();
+        NetworkImpl network = (NetworkImpl) gateway.getNetwork("network");
+
+        network.getContract("contract").submitTransaction("txn");
+
+        assertThat(network.getPeerStatistics().get(peer1).getSuccessCount()).isEqualTo(1);
+        assertThat(network.getPeerStatistics().get(peer1).getLatency().getCount()).isEqualTo(1);
+        assertThat(network.getPeerStatistics().get(peer2).getFailureCount()).isEqualTo(1);
+    }
+
     @Test
     public void commit_failure_throws_ContractException_with_proposal_responses() throws Exception {
         ProposalResponse response = testUtils.newSuccessfulProposalResponse();
@@ -332,4 +420,582 @@ public class TransactionTest {
 
         verify(commitHandlerFactory).create(anyString(), any(Network.class));
     }
+
+    @Test
+    public void submit_with_timeout_limits_commit_wait() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse();
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        contract.createTransaction("txn")
+                .setTimeout(1, TimeUnit.MILLISECONDS)
+                .submit();
+
+        ArgumentCaptor<Long> timeCaptor = ArgumentCaptor.forClass(Long.class);
+        ArgumentCaptor<TimeUnit> unitCaptor = ArgumentCaptor.forClass(TimeUnit.class);
+        verify(commitHandler).waitForEvents(timeCaptor.capture(), unitCaptor.capture());
+        assertThat(unitCaptor.getValue().toMillis(timeCaptor.getValue())).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    public void submit_with_timeout_limits_proposal_wait_time() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse();
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        contract.createTransaction("txn")
+                .setTimeout(1, TimeUnit.SECONDS)
+                .submit();
+
+        verify(channel).sendTransactionProposal(proposalRequestCaptor.capture());
+        assertThat(proposalRequestCaptor.getValue().getProposalWaitTime()).isBetween(1L, 1000L);
+    }
+
+    @Test
+    public void submit_with_expired_timeout_throws_TimeoutException() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse();
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        Transaction transaction = contract.createTransaction("txn")
+                .setTimeout(0, TimeUnit.NANOSECONDS);
+
+        assertThatThrownBy(transaction::submit)
+                .isInstanceOf(TimeoutException.class);
+        verify(channel, never()).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    private ProposalResponse newProposalResponse(final String result, final Rwset.NsReadWriteSet nsReadWriteSet,
+                                                 final ByteString events) {
+        Rwset.TxReadWriteSet txReadWriteSet = Rwset.TxReadWriteSet.newBuilder()
+                .addNsRwset(nsReadWriteSet)
+                .build();
+        ProposalPackage.ChaincodeAction action = ProposalPackage.ChaincodeAction.newBuilder()
+                .setResults(txReadWriteSet.toByteString())
+                .setEvents(events)
+                .setResponse(ProposalResponsePackage.Response.newBuilder().setPayload(ByteString.copyFromUtf8(result)))
+                .build();
+        ProposalResponsePackage.ProposalResponsePayload payload = ProposalResponsePackage.ProposalResponsePayload.newBuilder()
+                .setExtension(action.toByteString())
+                .build();
+        ProposalResponsePackage.ProposalResponse fabricResponse = ProposalResponsePackage.ProposalResponse.newBuilder()
+                .setPayload(payload.toByteString())
+                .build();
+
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse(result);
+        when(response.getProposalResponse()).thenReturn(fabricResponse);
+        return response;
+    }
+
+    private Rwset.NsReadWriteSet newNsReadWriteSet(final KvRwset.KVRWSet kvReadWriteSet) {
+        return Rwset.NsReadWriteSet.newBuilder()
+                .setNamespace("contract")
+                .setRwset(kvReadWriteSet.toByteString())
+                .build();
+    }
+
+    private KvRwset.KVRWSet newReadOnlyKVRWSet() {
+        return KvRwset.KVRWSet.newBuilder()
+                .addReads(KvRwset.KVRead.newBuilder().setKey("key"))
+                .build();
+    }
+
+    private ProposalResponse newReadOnlyProposalResponse(final String result) {
+        return newProposalResponse(result, newNsReadWriteSet(newReadOnlyKVRWSet()), ByteString.EMPTY);
+    }
+
+    @Test
+    public void submit_with_skip_read_only_commit_does_not_send_read_only_transaction_to_orderer() throws Exception {
+        String expected = "successful result";
+        ProposalResponse response = newReadOnlyProposalResponse(expected);
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        Transaction transaction = contract.createTransaction("txn")
+                .setSkipReadOnlyCommit(true);
+        byte[] result = transaction.submit("arg1");
+
+        assertThat(new String(result)).isEqualTo(expected);
+        assertThat(transaction.isCommitSkipped()).isTrue();
+        verify(channel, never()).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+        verify(defaultCommithandlerFactory, never()).create(anyString(), any(Network.class));
+        assertThat(gateway.getNetwork("network").getMetrics()).containsEntry(TransactionImpl.COMMIT_SKIPPED_COUNT, 1L);
+    }
+
+    @Test
+    public void submit_without_skip_read_only_commit_sends_read_only_transaction_to_orderer() throws Exception {
+        ProposalResponse response = newReadOnlyProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        Transaction transaction = contract.createTransaction("txn");
+        transaction.submit("arg1");
+
+        assertThat(transaction.isCommitSkipped()).isFalse();
+        verify(channel).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void submit_with_skip_read_only_commit_sends_public_data_write_to_orderer() throws Exception {
+        KvRwset.KVRWSet kvReadWriteSet = KvRwset.KVRWSet.newBuilder()
+                .addWrites(KvRwset.KVWrite.newBuilder().setKey("key").setValue(ByteString.copyFromUtf8("value")))
+                .build();
+        ProposalResponse response = newProposalResponse("result", newNsReadWriteSet(kvReadWriteSet), ByteString.EMPTY);
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        Transaction transaction = contract.createTransaction("txn")
+                .setSkipReadOnlyCommit(true);
+        transaction.submit("arg1");
+
+        assertThat(transaction.isCommitSkipped()).isFalse();
+        verify(channel).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void submit_with_skip_read_only_commit_sends_private_data_write_to_orderer() throws Exception {
+        KvRwset.HashedRWSet hashedReadWriteSet = KvRwset.HashedRWSet.newBuilder()
+                .addHashedWrites(KvRwset.KVWriteHash.newBuilder().setKeyHash(ByteString.copyFromUtf8("keyHash")))
+                .build();
+        Rwset.NsReadWriteSet nsReadWriteSet = Rwset.NsReadWriteSet.newBuilder()
+                .setNamespace("contract")
+                .setRwset(newReadOnlyKVRWSet().toByteString())
+                .addCollectionHashedRwset(Rwset.CollectionHashedReadWriteSet.newBuilder()
+                        .setCollectionName("collection")
+                        .setHashedRwset(hashedReadWriteSet.toByteString()))
+                .build();
+        ProposalResponse response = newProposalResponse("result", nsReadWriteSet, ByteString.EMPTY);
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        Transaction transaction = contract.createTransaction("txn")
+                .setSkipReadOnlyCommit(true);
+        transaction.submit("arg1");
+
+        assertThat(transaction.isCommitSkipped()).isFalse();
+        verify(channel).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void submit_with_skip_read_only_commit_sends_transaction_with_chaincode_event_to_orderer() throws Exception {
+        ByteString events = ByteString.copyFromUtf8("event");
+        ProposalResponse response = newProposalResponse("result", newNsReadWriteSet(newReadOnlyKVRWSet()), events);
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        Transaction transaction = contract.createTransaction("txn")
+                .setSkipReadOnlyCommit(true);
+        transaction.submit("arg1");
+
+        assertThat(transaction.isCommitSkipped()).isFalse();
+        verify(channel).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void submit_with_retry_policy_resubmits_conflicting_transaction_with_new_transaction_ID() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        ContractException conflict = testUtils.newCommitFailure(TransactionPackage.TxValidationCode.MVCC_READ_CONFLICT);
+        doThrow(conflict).doNothing().when(commitHandler).waitForEvents(anyLong(), any(TimeUnit.class));
+
+        Transaction transaction = contract.createTransaction("txn")
+                .setRetryPolicy(RetryPolicies.onConflict(3, 1, 1, TimeUnit.MILLISECONDS));
+        String firstTransactionId = transaction.getTransactionId();
+        byte[] result = transaction.submit("arg1");
+
+        assertThat(new String(result)).isEqualTo("result");
+        verify(channel, times(2)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+        assertThat(transaction.getTransactionId()).isNotEqualTo(firstTransactionId);
+    }
+
+    @Test
+    public void submit_with_retry_policy_records_conflict_metrics() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        ContractException conflict = testUtils.newCommitFailure(TransactionPackage.TxValidationCode.PHANTOM_READ_CONFLICT);
+        doThrow(conflict).doNothing().when(commitHandler).waitForEvents(anyLong(), any(TimeUnit.class));
+
+        contract.createTransaction("txn")
+                .setRetryPolicy(RetryPolicies.onConflict(3, 1, 1, TimeUnit.MILLISECONDS))
+                .submit("arg1");
+
+        assertThat(gateway.getNetwork("network").getMetrics())
+                .containsEntry(TransactionImpl.SUBMIT_COUNT_PREFIX + "contract:txn", 2L)
+                .containsEntry(TransactionImpl.CONFLICT_COUNT_PREFIX + "contract:txn", 1L)
+                .containsEntry(TransactionImpl.RETRY_COUNT_PREFIX + "contract:txn", 1L);
+    }
+
+    @Test
+    public void submit_without_retry_policy_throws_conflict() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        ContractException conflict = testUtils.newCommitFailure(TransactionPackage.TxValidationCode.MVCC_READ_CONFLICT);
+        doThrow(conflict).when(commitHandler).waitForEvents(anyLong(), any(TimeUnit.class));
+
+        Transaction transaction = contract.createTransaction("txn");
+
+        assertThatThrownBy(() -> transaction.submit("arg1")).isSameAs(conflict);
+        verify(channel).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void submit_with_retry_policy_does_not_retry_beyond_deadline() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        ContractException conflict = testUtils.newCommitFailure(TransactionPackage.TxValidationCode.MVCC_READ_CONFLICT);
+        doThrow(conflict).when(commitHandler).waitForEvents(anyLong(), any(TimeUnit.class));
+
+        Transaction transaction = contract.createTransaction("txn")
+                .setTimeout(1, TimeUnit.SECONDS)
+                .setRetryPolicy((attempt, cause) -> TimeUnit.MINUTES.toNanos(1));
+
+        assertThatThrownBy(() -> transaction.submit("arg1")).isSameAs(conflict);
+        verify(channel).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void submit_uses_gateway_retry_policy() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        ContractException conflict = testUtils.newCommitFailure(TransactionPackage.TxValidationCode.MVCC_READ_CONFLICT);
+        doThrow(conflict).doNothing().when(commitHandler).waitForEvents(anyLong(), any(TimeUnit.class));
+
+        try (Gateway retryGateway = gatewayBuilder.retryPolicy(RetryPolicies.onConflict(2, 1, 1, TimeUnit.MILLISECONDS)).connect()) {
+            retryGateway.getNetwork("network").getContract("contract").submitTransaction("txn", "arg1");
+        }
+
+        verify(channel, times(2)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void submit_with_key_aware_scheduling_endorses_again_after_conflicting_transaction_completes() throws Exception {
+        KvRwset.KVRWSet kvReadWriteSet = KvRwset.KVRWSet.newBuilder()
+                .addReads(KvRwset.KVRead.newBuilder().setKey("key"))
+                .addWrites(KvRwset.KVWrite.newBuilder().setKey("key").setValue(ByteString.copyFromUtf8("value")))
+                .build();
+        ProposalResponse response = newProposalResponse("result", newNsReadWriteSet(kvReadWriteSet), ByteString.EMPTY);
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        try (Gateway schedulingGateway = gatewayBuilder.keyAwareScheduling(true).connect()) {
+            NetworkImpl network = (NetworkImpl) schedulingGateway.getNetwork("network");
+            KeyAwareScheduler scheduler = network.getKeyAwareScheduler();
+            TransactionKeys inFlightKeys = new TransactionKeys();
+            inFlightKeys.addWrite("contract", "key");
+            scheduler.schedule("inFlight", inFlightKeys, false);
+            CompletableFuture.runAsync(() -> {
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                scheduler.complete("inFlight");
+            });
+
+            network.getContract("contract").submitTransaction("txn", "arg1");
+
+            verify(channel, times(2)).sendTransactionProposal(any());
+            verify(channel).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+            assertThat(network.getMetrics()).containsEntry(TransactionImpl.SCHEDULER_DELAY_COUNT, 1L);
+            assertThat(scheduler.getInFlightCount()).isZero();
+        }
+    }
+
+    @Test
+    public void submit_with_key_aware_scheduling_releases_keys_after_commit() throws Exception {
+        KvRwset.KVRWSet kvReadWriteSet = KvRwset.KVRWSet.newBuilder()
+                .addWrites(KvRwset.KVWrite.newBuilder().setKey("key").setValue(ByteString.copyFromUtf8("value")))
+                .build();
+        ProposalResponse response = newProposalResponse("result", newNsReadWriteSet(kvReadWriteSet), ByteString.EMPTY);
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        try (Gateway schedulingGateway = gatewayBuilder.keyAwareScheduling(true).connect()) {
+            NetworkImpl network = (NetworkImpl) schedulingGateway.getNetwork("network");
+            network.getContract("contract").submitTransaction("txn", "arg1");
+
+            verify(channel).sendTransactionProposal(any());
+            assertThat(network.getKeyAwareScheduler().getInFlightCount()).isZero();
+        }
+    }
+
+    @Test
+    public void submit_over_concurrency_limit_is_rejected_without_endorsement() throws Exception {
+        try (Gateway limitedGateway = gatewayBuilder.concurrencyLimit(0, 0, TimeUnit.MILLISECONDS).connect()) {
+            NetworkImpl network = (NetworkImpl) limitedGateway.getNetwork("network");
+            ConcurrencyLimiter limiter = network.getSubmitLimiter();
+            while (limiter.getInFlightCount() < limiter.getLimit()) {
+                limiter.acquire(Deadline.none(), TransactionPriority.INTERACTIVE);
+            }
+
+            Transaction transaction = network.getContract("contract").createTransaction("txn");
+
+            assertThatThrownBy(() -> transaction.submit("arg1"))
+                    .isInstanceOf(ConcurrencyLimitExceededException.class);
+            verify(channel, never()).sendTransactionProposal(any());
+            assertThat(network.getMetrics()).containsEntry(TransactionImpl.SUBMIT_REJECTED_COUNT, 1L);
+        }
+    }
+
+    @Test
+    public void submit_within_concurrency_limit_releases_permit() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        try (Gateway limitedGateway = gatewayBuilder.concurrencyLimit(0, 0, TimeUnit.MILLISECONDS).connect()) {
+            NetworkImpl network = (NetworkImpl) limitedGateway.getNetwork("network");
+            network.getContract("contract").submitTransaction("txn", "arg1");
+
+            assertThat(network.getSubmitLimiter().getInFlightCount()).isZero();
+        }
+    }
+
+    @Test
+    public void evaluate_over_concurrency_limit_is_rejected() throws Exception {
+        try (Gateway limitedGateway = gatewayBuilder.concurrencyLimit(0, 0, TimeUnit.MILLISECONDS).connect()) {
+            NetworkImpl network = (NetworkImpl) limitedGateway.getNetwork("network");
+            ConcurrencyLimiter limiter = network.getEvaluateLimiter();
+            while (limiter.getInFlightCount() < limiter.getLimit()) {
+                limiter.acquire(Deadline.none(), TransactionPriority.INTERACTIVE);
+            }
+
+            Transaction transaction = network.getContract("contract").createTransaction("txn");
+
+            assertThatThrownBy(() -> transaction.evaluate("arg1"))
+                    .isInstanceOf(ConcurrencyLimitExceededException.class);
+            assertThat(network.getMetrics()).containsEntry(TransactionImpl.EVALUATE_REJECTED_COUNT, 1L);
+        }
+    }
+
+    @Test
+    public void endorse_does_not_send_transaction_to_orderer() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        Transaction transaction = contract.createTransaction("txn");
+        EndorsedTransaction endorsed = transaction.endorse("arg1");
+
+        assertThat(endorsed.getTransactionId()).isEqualTo(transaction.getTransactionId());
+        assertThat(new String(endorsed.getResult())).isEqualTo("result");
+        assertThat(endorsed.getProposalResponses()).containsExactly(response);
+        verify(channel, never()).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+        verify(defaultCommithandlerFactory, never()).create(anyString(), any(Network.class));
+    }
+
+    @Test
+    public void endorsed_result_buffer_is_read_only() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        ByteBuffer result = contract.createTransaction("txn").endorse("arg1").getResultBuffer();
+
+        assertThat(result.isReadOnly()).isTrue();
+        assertThat(StandardCharsets.UTF_8.decode(result).toString()).isEqualTo("result");
+    }
+
+    @Test
+    public void submit_passes_binary_arguments_unchanged() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        byte[] arg = new byte[] {0, (byte) 0xff, (byte) 0x80};
+
+        byte[] result = contract.createTransaction("txn").submit(arg);
+
+        verify(channel).sendTransactionProposal(proposalRequestCaptor.capture());
+        assertThat(proposalRequestCaptor.getValue().getArgBytes()).containsExactly(arg);
+        assertThat(new String(result)).isEqualTo("result");
+    }
+
+    @Test
+    public void submit_encodes_string_arguments_as_utf8() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        contract.createTransaction("txn").submit("café");
+
+        verify(channel).sendTransactionProposal(proposalRequestCaptor.capture());
+        assertThat(proposalRequestCaptor.getValue().getArgBytes()).containsExactly("café".getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void submit_as_buffer_returns_read_only_result() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        ByteBuffer result = contract.createTransaction("txn").submitAsBuffer("arg1".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(result.isReadOnly()).isTrue();
+        assertThat(StandardCharsets.UTF_8.decode(result).toString()).isEqualTo("result");
+    }
+
+    @Test
+    public void evaluate_as_buffer_returns_read_only_result() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(response.getPeer()).thenReturn(peer1);
+        when(channel.queryByChaincode(any(), anyCollection())).thenReturn(Collections.singletonList(response));
+
+        ByteBuffer result = contract.createTransaction("txn").evaluateAsBuffer("arg1".getBytes(StandardCharsets.UTF_8));
+
+        assertThat(result.isReadOnly()).isTrue();
+        assertThat(StandardCharsets.UTF_8.decode(result).toString()).isEqualTo("result");
+    }
+
+    @Test
+    public void endorse_throws_ContractException_with_bad_responses() throws Exception {
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(failureResponse));
+
+        assertThatThrownBy(() -> contract.createTransaction("txn").endorse("arg1"))
+                .isInstanceOf(ContractException.class);
+    }
+
+    @Test
+    public void submit_endorsed_transaction_does_not_wait_for_commit() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        Commit commit = contract.createTransaction("txn").endorse("arg1").submit();
+
+        verify(commitHandler).startListening();
+        verify(channel).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+        verify(commitHandler, never()).waitForEvents(anyLong(), any());
+        assertThat(commit.isDone()).isFalse();
+    }
+
+    @Test
+    public void wait_for_commit_returns_endorsed_result() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        Commit commit = contract.createTransaction("txn").endorse("arg1").submit();
+        byte[] result = commit.waitForCommit();
+
+        assertThat(new String(result)).isEqualTo("result");
+        assertThat(commit.isDone()).isTrue();
+    }
+
+    @Test
+    public void wait_for_commit_retains_commit_failure() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        ContractException failure = new ContractException("Commit failed");
+        doThrow(failure).when(commitHandler).waitForEvents(anyLong(), any());
+
+        Commit commit = contract.createTransaction("txn").endorse("arg1").submit();
+
+        assertThatThrownBy(commit::waitForCommit).isSameAs(failure);
+        assertThatThrownBy(commit::waitForCommit).isSameAs(failure);
+        verify(commitHandler, times(1)).waitForEvents(anyLong(), any());
+        assertThat(failure.getProposalResponses()).containsExactly(response);
+    }
+
+    @Test
+    public void when_committed_completes_with_endorsed_result() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+
+        Commit commit = contract.createTransaction("txn").endorse("arg1").submit();
+        byte[] result = commit.whenCommitted().get(timeout.getTime(), timeout.getTimeUnit());
+
+        assertThat(new String(result)).isEqualTo("result");
+        assertThat(commit.waitForCommit()).isEqualTo(result);
+        verify(commitHandler, times(1)).waitForEvents(anyLong(), any());
+    }
+
+    @Test
+    public void wait_for_commit_timeout_does_not_end_commit_handler_wait() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CountDownLatch committed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            committed.await();
+            return null;
+        }).when(commitHandler).waitForEvents(anyLong(), any());
+
+        Commit commit = contract.createTransaction("txn").endorse("arg1").submit();
+
+        assertThatThrownBy(() -> commit.waitForCommit(1, TimeUnit.MILLISECONDS)).isInstanceOf(TimeoutException.class);
+        assertThat(commit.isDone()).isFalse();
+        committed.countDown();
+        assertThat(new String(commit.waitForCommit())).isEqualTo("result");
+        verify(commitHandler, times(1)).waitForEvents(timeout.getTime(), timeout.getTimeUnit());
+    }
+
+    @Test
+    public void interrupted_wait_for_commit_does_not_end_commit_handler_wait() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CountDownLatch committed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            committed.await();
+            return null;
+        }).when(commitHandler).waitForEvents(anyLong(), any());
+
+        Commit commit = contract.createTransaction("txn").endorse("arg1").submit();
+
+        Thread.currentThread().interrupt();
+        assertThatThrownBy(commit::waitForCommit).isInstanceOf(InterruptedException.class);
+        committed.countDown();
+        assertThat(new String(commit.waitForCommit())).isEqualTo("result");
+        verify(commitHandler, times(1)).waitForEvents(anyLong(), any());
+    }
+
+    @Test
+    public void submit_endorsed_transaction_throws_if_orderer_fails() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CompletableFuture<BlockEvent.TransactionEvent> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(new RuntimeException("Orderer failure"));
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class))).thenReturn(failedFuture);
+
+        EndorsedTransaction endorsed = contract.createTransaction("txn").endorse("arg1");
+
+        assertThatThrownBy(endorsed::submit).isInstanceOf(ContractException.class);
+        verify(commitHandler).cancelListening();
+    }
+
+    @Test
+    public void submit_with_store_and_forward_waits_for_commit_if_orderer_fails() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CompletableFuture<BlockEvent.TransactionEvent> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(new RuntimeException("Orderer failure"));
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class))).thenReturn(failedFuture);
+
+        try (Gateway forwardingGateway = gatewayBuilder.storeAndForward(testUtils.createTempDirectory()).connect()) {
+            NetworkImpl network = (NetworkImpl) forwardingGateway.getNetwork("network");
+            byte[] result = network.getContract("contract").submitTransaction("txn", "arg1");
+
+            assertThat(new String(result)).isEqualTo("result");
+            verify(commitHandler).waitForEvents(anyLong(), any());
+            verify(commitHandler, never()).cancelListening();
+            assertThat(network.getMetrics()).containsEntry(StoreAndForwardQueue.STORED_COUNT, 1L);
+        }
+    }
+
+    @Test
+    public void submit_with_store_and_forward_stores_transaction_for_any_orderer_failure() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CompletableFuture<BlockEvent.TransactionEvent> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(new Exception("Failed to place transaction on Orderer. Cause: UNSUCCESSFUL. BAD_REQUEST-400"));
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class))).thenReturn(failedFuture);
+
+        try (Gateway forwardingGateway = gatewayBuilder.storeAndForward(testUtils.createTempDirectory()).connect()) {
+            NetworkImpl network = (NetworkImpl) forwardingGateway.getNetwork("network");
+            byte[] result = network.getContract("contract").submitTransaction("txn", "arg1");
+
+            assertThat(new String(result)).isEqualTo("result");
+            assertThat(network.getMetrics()).containsEntry(StoreAndForwardQueue.STORED_COUNT, 1L);
+        }
+    }
+
+    @Test
+    public void submit_with_store_and_forward_keeps_transaction_queued_after_commit_timeout() throws Exception {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse("result");
+        when(channel.sendTransactionProposal(any())).thenReturn(Collections.singletonList(response));
+        CompletableFuture<BlockEvent.TransactionEvent> failedFuture = new CompletableFuture<>();
+        failedFuture.completeExceptionally(new RuntimeException("Orderer failure"));
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class))).thenReturn(failedFuture);
+        doThrow(new TimeoutException("Commit timeout")).when(commitHandler).waitForEvents(anyLong(), any());
+
+        try (Gateway forwardingGateway = gatewayBuilder.storeAndForward(testUtils.createTempDirectory()).connect()) {
+            NetworkImpl network = (NetworkImpl) forwardingGateway.getNetwork("network");
+            Transaction transaction = network.getContract("contract").createTransaction("txn");
+
+            assertThatThrownBy(() -> transaction.submit("arg1")).isInstanceOf(TimeoutException.class);
+            assertThat(network.getStoreAndForwardQueue().getStatus(transaction.getTransactionId()))
+                    .hasValue(StoreAndForwardQueue.Status.STORED);
+            assertThat(network.getStoreAndForwardQueue().isBacklogged()).isTrue();
+        }
+    }
 }
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.impl.TimePeriod;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdaptiveCommitTimeoutTest {
+    private final TimePeriod configuredTimeout = new TimePeriod(5, TimeUnit.MINUTES);
+    private final AdaptiveCommitTimeout adaptiveTimeout = new AdaptiveCommitTimeout();
+
+    private static long toNanos(final TimePeriod period) {
+        return period.getTimeUnit().toNanos(period.getTime());
+    }
+
+    private void recordCommits(final int count, final long elapsed, final TimeUnit timeUnit) {
+        for (int i = 0; i < count; i++) {
+            adaptiveTimeout.recordCommit(timeUnit.toNanos(elapsed));
+        }
+    }
+
+    @Test
+    public void uses_configured_timeout_without_enough_samples() {
+        recordCommits(5, 2, TimeUnit.SECONDS);
+
+        assertThat(adaptiveTimeout.getTimeout(configuredTimeout)).isSameAs(configuredTimeout);
+    }
+
+    @Test
+    public void uses_multiple_of_observed_commit_latency() {
+        recordCommits(100, 4, TimeUnit.SECONDS);
+
+        assertThat(toNanos(adaptiveTimeout.getTimeout(configuredTimeout))).isEqualTo(TimeUnit.SECONDS.toNanos(12));
+    }
+
+    @Test
+    public void does_not_go_below_minimum() {
+        recordCommits(100, 10, TimeUnit.MILLISECONDS);
+
+        assertThat(toNanos(adaptiveTimeout.getTimeout(configuredTimeout))).isEqualTo(TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    public void does_not_exceed_configured_timeout() {
+        recordCommits(100, 3, TimeUnit.MINUTES);
+
+        assertThat(adaptiveTimeout.getTimeout(configuredTimeout)).isSameAs(configuredTimeout);
+    }
+
+    @Test
+    public void tracks_high_percentile_of_commit_latency() {
+        recordCommits(95, 1, TimeUnit.SECONDS);
+        recordCommits(5, 10, TimeUnit.SECONDS);
+
+        assertThat(toNanos(adaptiveTimeout.getTimeout(configuredTimeout))).isEqualTo(TimeUnit.SECONDS.toNanos(30));
+    }
+
+    @Test
+    public void timed_out_waits_raise_timeout_when_commit_latency_increases() {
+        recordCommits(100, 2, TimeUnit.SECONDS);
+        TimePeriod initialTimeout = adaptiveTimeout.getTimeout(configuredTimeout);
+
+        for (int i = 0; i < 5; i++) {
+            adaptiveTimeout.recordTimeout(toNanos(adaptiveTimeout.getTimeout(configuredTimeout)));
+        }
+
+        assertThat(toNanos(adaptiveTimeout.getTimeout(configuredTimeout))).isGreaterThan(toNanos(initialTimeout));
+    }
+
+    @Test
+    public void repeated_timed_out_waits_fall_back_to_configured_timeout() {
+        recordCommits(100, 2, TimeUnit.SECONDS);
+
+        for (int i = 0; i < 20; i++) {
+            adaptiveTimeout.recordTimeout(toNanos(adaptiveTimeout.getTimeout(configuredTimeout)));
+        }
+
+        assertThat(adaptiveTimeout.getTimeout(configuredTimeout)).isSameAs(configuredTimeout);
+    }
+}
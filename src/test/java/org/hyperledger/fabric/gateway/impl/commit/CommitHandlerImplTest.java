@@ -10,24 +10,33 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 
 import org.hyperledger.fabric.gateway.*;
 import org.hyperledger.fabric.gateway.impl.event.StubBlockEventSource;
 import org.hyperledger.fabric.gateway.impl.event.StubPeerDisconnectEventSource;
+import org.hyperledger.fabric.gateway.impl.stats.Counters;
 import org.hyperledger.fabric.gateway.spi.CommitHandler;
 import org.hyperledger.fabric.gateway.spi.PeerDisconnectEvent;
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
 import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Channel;
 import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.TransactionInfo;
+import org.hyperledger.fabric.sdk.exception.ProposalException;
 import org.hyperledger.fabric.sdk.exception.TransactionEventException;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyCollection;
+import static org.mockito.Mockito.eq;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -219,6 +228,29 @@ public class CommitHandlerImplTest {
                 .isInstanceOf(TimeoutException.class);
     }
 
+    @Test
+    public void await_commit_completes_when_peer_commit_causes_strategy_success() throws Exception {
+        when(strategy.onEvent(any())).thenReturn(CommitStrategy.Result.SUCCESS);
+        CommitHandlerImpl handler = new CommitHandlerImpl(transactionId, network, strategy);
+
+        handler.startListening();
+        CompletableFuture<Void> outcome = handler.awaitCommit(timeout, timeUnit);
+        assertThat(outcome).isNotDone();
+
+        sendValidTransactionEvent();
+        assertThatCode(() -> outcome.get(timeout, timeUnit)).doesNotThrowAnyException();
+    }
+
+    @Test
+    public void await_commit_completes_exceptionally_on_timeout() {
+        CommitHandlerImpl handler = new CommitHandlerImpl(transactionId, network, strategy);
+
+        handler.startListening();
+        CompletableFuture<Void> outcome = handler.awaitCommit(1, TimeUnit.NANOSECONDS);
+
+        assertThatThrownBy(outcome::get).hasCauseInstanceOf(TimeoutException.class);
+    }
+
     @Test
     public void wait_returns_if_no_peers() {
         strategy = mock(CommitStrategy.class);
@@ -229,4 +261,64 @@ public class CommitHandlerImplTest {
         assertThatCode(() -> commitHandler.waitForEvents(timeout, timeUnit))
                 .doesNotThrowAnyException();
     }
+
+    private CommitHandler newRecoveringCommitHandler(final Channel ledgerChannel) {
+        CommitStatusResolver resolver = new CommitStatusResolver(ledgerChannel, Runnable::run, 1, new Counters());
+        return new CommitHandlerImpl(transactionId, network, strategy, null, resolver);
+    }
+
+    private Channel newLedgerChannel(final TransactionPackage.TxValidationCode validationCode) throws Exception {
+        Channel ledgerChannel = mock(Channel.class);
+        TransactionInfo info = mock(TransactionInfo.class);
+        when(info.getValidationCode()).thenReturn(validationCode);
+        when(ledgerChannel.queryTransactionByID(anyCollection(), eq(transactionId))).thenReturn(info);
+        return ledgerChannel;
+    }
+
+    @Test
+    public void wait_returns_if_disconnect_fails_strategy_but_ledger_reports_valid() throws Exception {
+        when(strategy.onError(any())).thenReturn(CommitStrategy.Result.FAIL);
+        commitHandler = newRecoveringCommitHandler(newLedgerChannel(TransactionPackage.TxValidationCode.VALID));
+
+        commitHandler.startListening();
+        sendPeerDisconnectEvent();
+        commitHandler.waitForEvents(timeout, timeUnit);
+    }
+
+    @Test
+    public void wait_throws_with_ledger_validation_code_if_ledger_reports_invalid() throws Exception {
+        when(strategy.onError(any())).thenReturn(CommitStrategy.Result.CONTINUE);
+        commitHandler = newRecoveringCommitHandler(newLedgerChannel(TransactionPackage.TxValidationCode.MVCC_READ_CONFLICT));
+
+        commitHandler.startListening();
+        sendPeerDisconnectEvent();
+
+        assertThatThrownBy(() -> commitHandler.waitForEvents(timeout, timeUnit))
+                .isInstanceOfSatisfying(ContractException.class,
+                        e -> assertThat(ValidationCodes.isConflict(e)).isTrue());
+    }
+
+    @Test
+    public void wait_throws_if_disconnect_fails_strategy_and_transaction_not_on_ledger() throws Exception {
+        when(strategy.onError(any())).thenReturn(CommitStrategy.Result.FAIL);
+        Channel ledgerChannel = mock(Channel.class);
+        when(ledgerChannel.queryTransactionByID(anyCollection(), eq(transactionId))).thenThrow(new ProposalException("not found"));
+        commitHandler = newRecoveringCommitHandler(ledgerChannel);
+
+        commitHandler.startListening();
+        sendPeerDisconnectEvent();
+
+        assertThatThrownBy(() -> commitHandler.waitForEvents(timeout, timeUnit))
+                .isInstanceOf(ContractException.class)
+                .hasMessage("Commit strategy failed");
+    }
+
+    @Test
+    public void wait_returns_if_ledger_reports_valid_after_missed_commit_event() throws Exception {
+        commitHandler = newRecoveringCommitHandler(newLedgerChannel(TransactionPackage.TxValidationCode.VALID));
+
+        commitHandler.startListening();
+        assertThatCode(() -> commitHandler.waitForEvents(3, TimeUnit.SECONDS))
+                .doesNotThrowAnyException();
+    }
 }
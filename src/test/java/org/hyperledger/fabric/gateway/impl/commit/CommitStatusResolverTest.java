@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.hyperledger.fabric.gateway.impl.stats.Counters;
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.TransactionInfo;
+import org.hyperledger.fabric.sdk.exception.ProposalException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CommitStatusResolverTest {
+    private Channel channel;
+    private List<Runnable> tasks;
+    private Counters counters;
+    private CommitStatusResolver resolver;
+
+    @BeforeEach
+    public void beforeEach() {
+        channel = mock(Channel.class);
+        tasks = new ArrayList<>();
+        counters = new Counters();
+        resolver = new CommitStatusResolver(channel, tasks::add, 1, counters);
+    }
+
+    private void runTasks() {
+        while (!tasks.isEmpty()) {
+            tasks.remove(0).run();
+        }
+    }
+
+    private void stubValidationCode(final String transactionId, final TransactionPackage.TxValidationCode code)
+            throws Exception {
+        TransactionInfo info = mock(TransactionInfo.class);
+        when(info.getValidationCode()).thenReturn(code);
+        when(channel.queryTransactionByID(anyCollection(), eq(transactionId))).thenReturn(info);
+    }
+
+    @Test
+    public void returns_validation_code_recorded_on_ledger() throws Exception {
+        stubValidationCode("txId", TransactionPackage.TxValidationCode.MVCC_READ_CONFLICT);
+
+        CompletableFuture<Optional<TransactionPackage.TxValidationCode>> result = resolver.resolve("txId");
+        runTasks();
+
+        assertThat(result.get()).hasValue(TransactionPackage.TxValidationCode.MVCC_READ_CONFLICT);
+        assertThat(counters.get(CommitStatusResolver.FOUND_COUNT)).isEqualTo(1);
+    }
+
+    @Test
+    public void returns_empty_if_transaction_not_found() throws Exception {
+        when(channel.queryTransactionByID(anyCollection(), eq("txId"))).thenThrow(new ProposalException("not found"));
+
+        CompletableFuture<Optional<TransactionPackage.TxValidationCode>> result = resolver.resolve("txId");
+        runTasks();
+
+        assertThat(result.get()).isEmpty();
+    }
+
+    @Test
+    public void coalesces_pending_lookups_for_same_transaction() throws Exception {
+        stubValidationCode("txId", TransactionPackage.TxValidationCode.VALID);
+
+        CompletableFuture<Optional<TransactionPackage.TxValidationCode>> first = resolver.resolve("txId");
+        CompletableFuture<Optional<TransactionPackage.TxValidationCode>> second = resolver.resolve("txId");
+        runTasks();
+
+        assertThat(second).isSameAs(first);
+        verify(channel, times(1)).queryTransactionByID(anyCollection(), eq("txId"));
+    }
+
+    @Test
+    public void drains_pending_lookups_with_limited_workers() throws Exception {
+        stubValidationCode("tx1", TransactionPackage.TxValidationCode.VALID);
+        stubValidationCode("tx2", TransactionPackage.TxValidationCode.VALID);
+
+        CompletableFuture<Optional<TransactionPackage.TxValidationCode>> first = resolver.resolve("tx1");
+        CompletableFuture<Optional<TransactionPackage.TxValidationCode>> second = resolver.resolve("tx2");
+
+        assertThat(tasks).hasSize(1);
+        runTasks();
+        assertThat(first).isCompleted();
+        assertThat(second).isCompleted();
+    }
+
+    @Test
+    public void looks_up_again_after_previous_lookup_completes() throws Exception {
+        when(channel.queryTransactionByID(anyCollection(), eq("txId"))).thenThrow(new ProposalException("not found"));
+
+        resolver.resolve("txId");
+        runTasks();
+        resolver.resolve("txId");
+        runTasks();
+
+        verify(channel, times(2)).queryTransactionByID(anyCollection(), eq("txId"));
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.Network;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.stats.Counters;
+import org.hyperledger.fabric.gateway.spi.CommitListener;
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Peer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ConfirmingCommitHandlerTest {
+    private final TestUtils testUtils = TestUtils.getInstance();
+    private final String transactionId = "txId";
+    private Peer peer1;
+    private Peer peer2;
+    private Network network;
+    private Counters counters;
+    private AtomicReference<Map<Peer, TransactionPackage.TxValidationCode>> invalidResult;
+    private AtomicReference<Collection<Peer>> missingResult;
+    private ConfirmingCommitHandler commitHandler;
+    private CommitListener listener;
+
+    @BeforeEach
+    public void beforeEach() {
+        peer1 = testUtils.newMockPeer("peer1");
+        peer2 = testUtils.newMockPeer("peer2");
+        network = mock(Network.class);
+        counters = new Counters();
+        invalidResult = new AtomicReference<>();
+        missingResult = new AtomicReference<>();
+
+        commitHandler = new ConfirmingCommitHandler(transactionId, network, Arrays.asList(peer1, peer2),
+                (txId, invalidPeers, missingPeers) -> {
+                    invalidResult.set(invalidPeers);
+                    missingResult.set(missingPeers);
+                },
+                counters, null);
+        commitHandler.startListening();
+
+        ArgumentCaptor<CommitListener> captor = ArgumentCaptor.forClass(CommitListener.class);
+        verify(network).addCommitListener(captor.capture(), anyCollection(), anyString());
+        listener = captor.getValue();
+    }
+
+    @AfterEach
+    public void afterEach() {
+        commitHandler.cancelListening();
+    }
+
+    private BlockEvent.TransactionEvent newInvalidEvent(Peer peer) {
+        BlockEvent.TransactionEvent event = testUtils.newInvalidMockTransactionEvent(peer, transactionId);
+        when(event.getValidationCode()).thenReturn((byte) TransactionPackage.TxValidationCode.MVCC_READ_CONFLICT.getNumber());
+        return event;
+    }
+
+    @Test
+    public void completes_on_first_valid_event() throws Exception {
+        listener.acceptCommit(testUtils.newValidMockTransactionEvent(peer1, transactionId));
+
+        commitHandler.waitForEvents(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void continues_listening_after_first_valid_event() throws Exception {
+        listener.acceptCommit(testUtils.newValidMockTransactionEvent(peer1, transactionId));
+        commitHandler.waitForEvents(1, TimeUnit.SECONDS);
+
+        verify(network, never()).removeCommitListener(any());
+    }
+
+    @Test
+    public void stops_listening_when_all_peers_confirm() throws Exception {
+        listener.acceptCommit(testUtils.newValidMockTransactionEvent(peer1, transactionId));
+        commitHandler.waitForEvents(1, TimeUnit.SECONDS);
+        listener.acceptCommit(testUtils.newValidMockTransactionEvent(peer2, transactionId));
+
+        verify(network).removeCommitListener(listener);
+        assertThat(invalidResult.get()).isNull();
+        assertThat(counters.snapshot()).isEmpty();
+    }
+
+    @Test
+    public void reports_peer_rejecting_transaction_after_valid_commit() throws Exception {
+        listener.acceptCommit(testUtils.newValidMockTransactionEvent(peer1, transactionId));
+        commitHandler.waitForEvents(1, TimeUnit.SECONDS);
+        listener.acceptCommit(newInvalidEvent(peer2));
+
+        assertThat(invalidResult.get()).containsOnlyKeys(peer2)
+                .containsValue(TransactionPackage.TxValidationCode.MVCC_READ_CONFLICT);
+        assertThat(missingResult.get()).isEmpty();
+        assertThat(counters.get(ConfirmingCommitHandler.DIVERGED_COUNT)).isEqualTo(1);
+    }
+
+    @Test
+    public void reports_peer_disconnecting_after_valid_commit() throws Exception {
+        listener.acceptCommit(testUtils.newValidMockTransactionEvent(peer1, transactionId));
+        commitHandler.waitForEvents(1, TimeUnit.SECONDS);
+        listener.acceptDisconnect(testUtils.newPeerDisconnectedEvent(peer2));
+
+        assertThat(missingResult.get()).containsExactly(peer2);
+        assertThat(counters.get(ConfirmingCommitHandler.UNCONFIRMED_COUNT)).isEqualTo(1);
+    }
+
+    @Test
+    public void reports_peer_not_confirming_before_timeout() throws Exception {
+        listener.acceptCommit(testUtils.newValidMockTransactionEvent(peer1, transactionId));
+        commitHandler.waitForEvents(100, TimeUnit.MILLISECONDS);
+
+        verify(network, timeout(5000)).removeCommitListener(listener);
+        assertThat(missingResult.get()).containsExactly(peer2);
+        assertThat(counters.get(ConfirmingCommitHandler.UNCONFIRMED_COUNT)).isEqualTo(1);
+    }
+
+    @Test
+    public void fails_if_first_event_is_invalid() {
+        listener.acceptCommit(newInvalidEvent(peer1));
+
+        assertThatThrownBy(() -> commitHandler.waitForEvents(1, TimeUnit.SECONDS))
+                .isInstanceOf(ContractException.class);
+        verify(network).removeCommitListener(listener);
+    }
+
+    @Test
+    public void fails_if_all_peers_disconnect_before_valid_commit() {
+        listener.acceptDisconnect(testUtils.newPeerDisconnectedEvent(peer1));
+        listener.acceptDisconnect(testUtils.newPeerDisconnectedEvent(peer2));
+
+        assertThatThrownBy(() -> commitHandler.waitForEvents(1, TimeUnit.SECONDS))
+                .isInstanceOf(ContractException.class);
+    }
+
+    @Test
+    public void throws_timeout_if_no_valid_commit() {
+        assertThatThrownBy(() -> commitHandler.waitForEvents(1, TimeUnit.MILLISECONDS))
+                .isInstanceOf(TimeoutException.class);
+        verify(network).removeCommitListener(listener);
+    }
+}
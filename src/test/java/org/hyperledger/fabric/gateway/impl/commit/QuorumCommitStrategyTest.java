@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.sdk.Peer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class QuorumCommitStrategyTest {
+    private final TestUtils testUtils = TestUtils.getInstance();
+    private Collection<Peer> peers;
+    private Peer peer1;
+    private Peer peer2;
+    private Peer peer3;
+    private Peer peer4;
+
+    @BeforeEach
+    public void beforeEach() {
+        peer1 = testUtils.newMockPeer("peer1");
+        peer2 = testUtils.newMockPeer("peer2");
+        peer3 = testUtils.newMockPeer("peer3");
+        peer4 = testUtils.newMockPeer("peer4");
+        peers = Arrays.asList(peer1, peer2, peer3, peer4);
+    }
+
+    @Test
+    public void returns_configured_peers() {
+        CommitStrategy strategy = new QuorumCommitStrategy(peers, 2);
+
+        assertThat(strategy.getPeers()).isEqualTo(peers);
+    }
+
+    @Test
+    public void continue_until_required_events_received() {
+        CommitStrategy strategy = new QuorumCommitStrategy(peers, 2);
+
+        CommitStrategy.Result result = strategy.onEvent(testUtils.newValidMockTransactionEvent(peer1, "txId"));
+
+        assertThat(result).isEqualTo(CommitStrategy.Result.CONTINUE);
+    }
+
+    @Test
+    public void success_if_required_events_received() {
+        CommitStrategy strategy = new QuorumCommitStrategy(peers, 2);
+
+        strategy.onEvent(testUtils.newValidMockTransactionEvent(peer1, "txId"));
+        CommitStrategy.Result result = strategy.onEvent(testUtils.newValidMockTransactionEvent(peer2, "txId"));
+
+        assertThat(result).isEqualTo(CommitStrategy.Result.SUCCESS);
+    }
+
+    @Test
+    public void continue_while_required_events_still_possible() {
+        CommitStrategy strategy = new QuorumCommitStrategy(peers, 2);
+
+        strategy.onError(testUtils.newPeerDisconnectedEvent(peer1));
+        CommitStrategy.Result result = strategy.onError(testUtils.newPeerDisconnectedEvent(peer2));
+
+        assertThat(result).isEqualTo(CommitStrategy.Result.CONTINUE);
+    }
+
+    @Test
+    public void fail_if_required_events_no_longer_possible() {
+        CommitStrategy strategy = new QuorumCommitStrategy(peers, 2);
+
+        strategy.onEvent(testUtils.newValidMockTransactionEvent(peer1, "txId"));
+        strategy.onError(testUtils.newPeerDisconnectedEvent(peer2));
+        strategy.onError(testUtils.newPeerDisconnectedEvent(peer3));
+        CommitStrategy.Result result = strategy.onError(testUtils.newPeerDisconnectedEvent(peer4));
+
+        assertThat(result).isEqualTo(CommitStrategy.Result.FAIL);
+    }
+
+    @Test
+    public void majority_requires_more_than_half_of_peers() {
+        CommitStrategy strategy = QuorumCommitStrategy.majority(peers);
+
+        strategy.onEvent(testUtils.newValidMockTransactionEvent(peer1, "txId"));
+        CommitStrategy.Result twoResult = strategy.onEvent(testUtils.newValidMockTransactionEvent(peer2, "txId"));
+        CommitStrategy.Result threeResult = strategy.onEvent(testUtils.newValidMockTransactionEvent(peer3, "txId"));
+
+        assertThat(twoResult).isEqualTo(CommitStrategy.Result.CONTINUE);
+        assertThat(threeResult).isEqualTo(CommitStrategy.Result.SUCCESS);
+    }
+
+    @Test
+    public void requires_all_peers_if_fewer_than_required() {
+        CommitStrategy strategy = new QuorumCommitStrategy(Arrays.asList(peer1, peer2), 3);
+
+        strategy.onEvent(testUtils.newValidMockTransactionEvent(peer1, "txId"));
+        CommitStrategy.Result result = strategy.onEvent(testUtils.newValidMockTransactionEvent(peer2, "txId"));
+
+        assertThat(result).isEqualTo(CommitStrategy.Result.SUCCESS);
+    }
+
+    @Test
+    public void throws_if_required_count_less_than_one() {
+        assertThatThrownBy(() -> new QuorumCommitStrategy(peers, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void fastest_selects_lowest_commit_lag_peers_plus_one_spare() {
+        StatisticsRegistry statistics = new StatisticsRegistry();
+        statistics.get(peer1).recordSuccess(TimeUnit.MILLISECONDS.toNanos(400));
+        statistics.get(peer2).recordSuccess(TimeUnit.MILLISECONDS.toNanos(100));
+        statistics.get(peer3).recordSuccess(TimeUnit.MILLISECONDS.toNanos(200));
+        statistics.get(peer4).recordSuccess(TimeUnit.MILLISECONDS.toNanos(300));
+
+        List<Peer> selected = FastestPeers.select(peers, 2, statistics);
+
+        assertThat(selected).hasSize(3);
+        assertThat(selected.subList(0, 2)).containsExactly(peer2, peer3);
+        assertThat(selected.get(2)).isIn(peer1, peer4);
+    }
+
+    @Test
+    public void fastest_ranks_disconnected_peers_last() {
+        StatisticsRegistry statistics = new StatisticsRegistry();
+        statistics.get(peer1).recordSuccess(TimeUnit.MILLISECONDS.toNanos(100));
+        statistics.get(peer1).recordFailure();
+        statistics.get(peer2).recordSuccess(TimeUnit.MILLISECONDS.toNanos(200));
+        statistics.get(peer3).recordSuccess(TimeUnit.MILLISECONDS.toNanos(300));
+        statistics.get(peer4).recordSuccess(TimeUnit.MILLISECONDS.toNanos(400));
+
+        List<Peer> selected = FastestPeers.select(peers, 2, statistics);
+
+        assertThat(selected.subList(0, 2)).containsExactly(peer2, peer3);
+    }
+
+    @Test
+    public void fastest_strategy_requires_configured_count() {
+        CommitStrategy strategy = QuorumCommitStrategy.fastest(peers, 1, new StatisticsRegistry());
+
+        assertThat(strategy.getPeers()).hasSize(2);
+        CommitStrategy.Result result = strategy.onEvent(testUtils.newValidMockTransactionEvent(peer1, "txId"));
+        assertThat(result).isEqualTo(CommitStrategy.Result.SUCCESS);
+    }
+}
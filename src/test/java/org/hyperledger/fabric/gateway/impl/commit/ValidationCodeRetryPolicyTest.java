@@ -0,0 +1,96 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.commit;
+
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class ValidationCodeRetryPolicyTest {
+    private static final long INITIAL_BACKOFF = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long MAX_BACKOFF = TimeUnit.MILLISECONDS.toNanos(35);
+
+    private final TestUtils testUtils = TestUtils.getInstance();
+    private final ValidationCodeRetryPolicy policy = new ValidationCodeRetryPolicy(ValidationCodes.CONFLICTS, 3,
+            INITIAL_BACKOFF, MAX_BACKOFF);
+
+    @Test
+    public void retries_MVCC_read_conflict() {
+        ContractException cause = testUtils.newCommitFailure(TransactionPackage.TxValidationCode.MVCC_READ_CONFLICT);
+
+        long delay = policy.getRetryDelayNanos(1, cause);
+
+        assertThat(delay).isBetween(0L, INITIAL_BACKOFF);
+    }
+
+    @Test
+    public void retries_phantom_read_conflict() {
+        ContractException cause = testUtils.newCommitFailure(TransactionPackage.TxValidationCode.PHANTOM_READ_CONFLICT);
+
+        long delay = policy.getRetryDelayNanos(1, cause);
+
+        assertThat(delay).isBetween(0L, INITIAL_BACKOFF);
+    }
+
+    @Test
+    public void does_not_retry_other_validation_codes() {
+        ContractException cause = testUtils.newCommitFailure(TransactionPackage.TxValidationCode.ENDORSEMENT_POLICY_FAILURE);
+
+        long delay = policy.getRetryDelayNanos(1, cause);
+
+        assertThat(delay).isNegative();
+    }
+
+    @Test
+    public void does_not_retry_failures_without_validation_code() {
+        long delay = policy.getRetryDelayNanos(1, new ContractException("endorsement failed"));
+
+        assertThat(delay).isNegative();
+    }
+
+    @Test
+    public void does_not_retry_after_max_attempts() {
+        ContractException cause = testUtils.newCommitFailure(TransactionPackage.TxValidationCode.MVCC_READ_CONFLICT);
+
+        long delay = policy.getRetryDelayNanos(3, cause);
+
+        assertThat(delay).isNegative();
+    }
+
+    @Test
+    public void backoff_limit_doubles_with_each_attempt_up_to_maximum() {
+        assertThat(policy.getBackoffLimitNanos(1)).isEqualTo(INITIAL_BACKOFF);
+        assertThat(policy.getBackoffLimitNanos(2)).isEqualTo(2 * INITIAL_BACKOFF);
+        assertThat(policy.getBackoffLimitNanos(3)).isEqualTo(MAX_BACKOFF);
+    }
+
+    @Test
+    public void backoff_limit_does_not_overflow() {
+        ValidationCodeRetryPolicy unbounded = new ValidationCodeRetryPolicy(ValidationCodes.CONFLICTS, Integer.MAX_VALUE,
+                TimeUnit.SECONDS.toNanos(1), Long.MAX_VALUE);
+
+        assertThat(unbounded.getBackoffLimitNanos(Integer.MAX_VALUE)).isEqualTo(Long.MAX_VALUE);
+    }
+
+    @Test
+    public void throws_on_invalid_max_attempts() {
+        assertThatThrownBy(() -> new ValidationCodeRetryPolicy(ValidationCodes.CONFLICTS, 0, INITIAL_BACKOFF, MAX_BACKOFF))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    public void throws_if_max_backoff_less_than_initial_backoff() {
+        assertThatThrownBy(() -> new ValidationCodeRetryPolicy(ValidationCodes.CONFLICTS, 3, MAX_BACKOFF, INITIAL_BACKOFF))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
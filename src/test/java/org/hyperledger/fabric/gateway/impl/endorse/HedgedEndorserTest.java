@@ -0,0 +1,266 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.endorse;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.HedgeBudget;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.ServiceDiscovery;
+import org.hyperledger.fabric.sdk.TransactionProposalRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class HedgedEndorserTest {
+    private final TestUtils testUtils = TestUtils.getInstance();
+    private final CountDownLatch slowPeerLatch = new CountDownLatch(1);
+    private final StatisticsRegistry statistics = new StatisticsRegistry();
+    private ExecutorService executor;
+    private Channel channel;
+    private Peer org1Peer1;
+    private Peer org1Peer2;
+    private Peer org2Peer1;
+
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        org1Peer1 = testUtils.newMockPeer("org1Peer1");
+        org1Peer2 = testUtils.newMockPeer("org1Peer2");
+        org2Peer1 = testUtils.newMockPeer("org2Peer1");
+
+        channel = testUtils.newMockChannel("channel");
+        when(channel.getPeersOrganizationMSPIDs()).thenReturn(Arrays.asList("Org1MSP", "Org2MSP"));
+        when(channel.getPeersForOrganization("Org1MSP")).thenReturn(Arrays.asList(org1Peer1, org1Peer2));
+        when(channel.getPeersForOrganization("Org2MSP")).thenReturn(Collections.singletonList(org2Peer1));
+        when(channel.getPeers(any())).thenReturn(Arrays.asList(org1Peer1, org1Peer2, org2Peer1));
+
+        // Establish a short hedge delay
+        for (int i = 0; i < 20; i++) {
+            statistics.get("org1Peer1").recordSuccess(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+    }
+
+    @AfterEach
+    public void afterEach() {
+        slowPeerLatch.countDown();
+        executor.shutdownNow();
+    }
+
+    private ProposalResponse newSuccessfulResponse(final Peer peer) {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse();
+        when(response.getPeer()).thenReturn(peer);
+        return response;
+    }
+
+    private void stubResponse(final Peer peer, final ProposalResponse response) throws Exception {
+        when(channel.sendTransactionProposal(any(), eq(Collections.singleton(peer))))
+                .thenReturn(Collections.singletonList(response));
+    }
+
+    private void stubSlowResponse(final Peer peer) throws Exception {
+        when(channel.sendTransactionProposal(any(), eq(Collections.singleton(peer))))
+                .thenAnswer(invocation -> {
+                    slowPeerLatch.await();
+                    return Collections.singletonList(newSuccessfulResponse(peer));
+                });
+    }
+
+    private Collection<ProposalResponse> endorse(final HedgeBudget budget) throws Exception {
+        HedgedEndorser endorser = new HedgedEndorser(channel, executor, statistics, budget);
+        return endorser.sendTransactionProposal(() -> mock(TransactionProposalRequest.class), Arrays.asList(org1Peer1, org2Peer1));
+    }
+
+    @Test
+    public void uses_alternate_peer_in_same_organization_when_peer_is_slow() throws Exception {
+        ProposalResponse alternateResponse = newSuccessfulResponse(org1Peer2);
+        ProposalResponse org2Response = newSuccessfulResponse(org2Peer1);
+        stubSlowResponse(org1Peer1);
+        stubResponse(org1Peer2, alternateResponse);
+        stubResponse(org2Peer1, org2Response);
+
+        Collection<ProposalResponse> results = endorse(new HedgeBudget(0.1, 10));
+
+        assertThat(results).containsExactlyInAnyOrder(alternateResponse, org2Response);
+    }
+
+    @Test
+    public void explicit_peers_keep_endorsement_count_for_each_organization_when_hedged() throws Exception {
+        Peer org1Peer3 = testUtils.newMockPeer("org1Peer3");
+        when(channel.getPeersForOrganization("Org1MSP")).thenReturn(Arrays.asList(org1Peer1, org1Peer2, org1Peer3));
+        when(channel.getPeers(any())).thenReturn(Arrays.asList(org1Peer1, org1Peer2, org1Peer3, org2Peer1));
+        ProposalResponse org1Peer2Response = newSuccessfulResponse(org1Peer2);
+        ProposalResponse alternateResponse = newSuccessfulResponse(org1Peer3);
+        ProposalResponse org2Response = newSuccessfulResponse(org2Peer1);
+        stubSlowResponse(org1Peer1);
+        stubResponse(org1Peer2, org1Peer2Response);
+        stubResponse(org1Peer3, alternateResponse);
+        stubResponse(org2Peer1, org2Response);
+
+        HedgedEndorser endorser = new HedgedEndorser(channel, executor, statistics, new HedgeBudget(0.1, 10));
+        Collection<ProposalResponse> results = endorser.sendTransactionProposalToPeers(
+                () -> mock(TransactionProposalRequest.class), Arrays.asList(org1Peer1, org1Peer2, org2Peer1));
+
+        verify(channel).sendTransactionProposal(any(), eq(Collections.singleton(org1Peer3)));
+        assertThat(results).containsExactlyInAnyOrder(org1Peer2Response, alternateResponse, org2Response);
+    }
+
+    @Test
+    public void explicit_peers_are_not_hedged_by_other_requested_peers() throws Exception {
+        ProposalResponse org1Peer2Response = newSuccessfulResponse(org1Peer2);
+        ProposalResponse failureResponse = testUtils.newUnavailableProposalResponse("Unavailable");
+        stubResponse(org1Peer1, failureResponse);
+        stubResponse(org1Peer2, org1Peer2Response);
+
+        HedgedEndorser endorser = new HedgedEndorser(channel, executor, statistics, new HedgeBudget(0.1, 10));
+        Collection<ProposalResponse> results = endorser.sendTransactionProposalToPeers(
+                () -> mock(TransactionProposalRequest.class), Arrays.asList(org1Peer1, org1Peer2));
+
+        verify(channel, times(1)).sendTransactionProposal(any(), eq(Collections.singleton(org1Peer2)));
+        assertThat(results).containsExactlyInAnyOrder(failureResponse, org1Peer2Response);
+    }
+
+    @Test
+    public void does_not_hedge_responsive_peers() throws Exception {
+        stubResponse(org1Peer1, newSuccessfulResponse(org1Peer1));
+        stubResponse(org2Peer1, newSuccessfulResponse(org2Peer1));
+
+        endorse(new HedgeBudget(0.1, 10));
+
+        verify(channel, never()).sendTransactionProposal(any(), eq(Collections.singleton(org1Peer2)));
+    }
+
+    @Test
+    public void fails_over_to_alternate_peer_on_failure_response() throws Exception {
+        ProposalResponse alternateResponse = newSuccessfulResponse(org1Peer2);
+        stubResponse(org1Peer1, testUtils.newUnavailableProposalResponse("Unavailable"));
+        stubResponse(org1Peer2, alternateResponse);
+        stubResponse(org2Peer1, newSuccessfulResponse(org2Peer1));
+
+        Collection<ProposalResponse> results = endorse(new HedgeBudget(0.1, 10));
+
+        assertThat(results).contains(alternateResponse);
+    }
+
+    @Test
+    public void does_not_hedge_when_budget_exhausted() throws Exception {
+        ProposalResponse failureResponse = testUtils.newUnavailableProposalResponse("Unavailable");
+        stubResponse(org1Peer1, failureResponse);
+        stubResponse(org2Peer1, newSuccessfulResponse(org2Peer1));
+
+        Collection<ProposalResponse> results = endorse(new HedgeBudget(0, 0));
+
+        verify(channel, never()).sendTransactionProposal(any(), eq(Collections.singleton(org1Peer2)));
+        assertThat(results).contains(failureResponse);
+    }
+
+    @Test
+    public void hedges_discovery_endorsement_when_slow() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            statistics.get("discovery").recordSuccess(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        ProposalResponse fastResponse = newSuccessfulResponse(org1Peer2);
+        AtomicInteger callCount = new AtomicInteger();
+        when(channel.sendTransactionProposalToEndorsers(any(), any()))
+                .thenAnswer(invocation -> {
+                    if (callCount.getAndIncrement() == 0) {
+                        slowPeerLatch.await();
+                        return Collections.singletonList(newSuccessfulResponse(org1Peer1));
+                    }
+                    return Collections.singletonList(fastResponse);
+                });
+
+        HedgedEndorser endorser = new HedgedEndorser(channel, executor, statistics, new HedgeBudget(0.1, 10));
+        Collection<ProposalResponse> results = endorser.sendTransactionProposalToEndorsers(
+                () -> mock(TransactionProposalRequest.class), new LatencyAwareEndorsementSelector(statistics),
+                selector -> mock(Channel.DiscoveryOptions.class));
+
+        assertThat(results).containsExactly(fastResponse);
+    }
+
+    @Test
+    public void discovery_endorsement_records_peer_statistics() throws Exception {
+        when(channel.sendTransactionProposalToEndorsers(any(), any()))
+                .thenReturn(Arrays.asList(newSuccessfulResponse(org1Peer2), newSuccessfulResponse(org2Peer1)));
+
+        HedgedEndorser endorser = new HedgedEndorser(channel, executor, statistics, new HedgeBudget(0.1, 10));
+        endorser.sendTransactionProposalToEndorsers(() -> mock(TransactionProposalRequest.class),
+                new LatencyAwareEndorsementSelector(statistics), selector -> mock(Channel.DiscoveryOptions.class));
+
+        assertThat(statistics.get(org1Peer2).getSuccessCount()).isEqualTo(1);
+        assertThat(statistics.get(org2Peer1).getSuccessCount()).isEqualTo(1);
+    }
+
+    @Test
+    public void hedged_discovery_endorsement_avoids_endorsers_chosen_for_first_proposal() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            statistics.get("discovery").recordSuccess(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        ServiceDiscovery.SDEndorser fastEndorser = newEndorser("fast.org1:7051", 1);
+        ServiceDiscovery.SDEndorser slowEndorser = newEndorser("slow.org1:7051", 100);
+        ServiceDiscovery.SDLayout layout = mock(ServiceDiscovery.SDLayout.class);
+        ServiceDiscovery.SDLayout.SDLGroup group = mock(ServiceDiscovery.SDLayout.SDLGroup.class);
+        when(group.getStillRequired()).thenReturn(1);
+        when(group.getEndorsers()).thenReturn(Arrays.asList(fastEndorser, slowEndorser));
+        when(layout.getSDLGroups()).thenReturn(Collections.singleton(group));
+        ServiceDiscovery.SDChaindcode chaincode = mock(ServiceDiscovery.SDChaindcode.class);
+        when(chaincode.getLayouts()).thenReturn(Collections.singletonList(layout));
+
+        List<ServiceDiscovery.EndorsementSelector> selectors = new CopyOnWriteArrayList<>();
+        AtomicInteger callCount = new AtomicInteger();
+        when(channel.sendTransactionProposalToEndorsers(any(), any()))
+                .thenAnswer(invocation -> {
+                    ServiceDiscovery.EndorsementSelector selector = selectors.get(callCount.getAndIncrement());
+                    selector.endorserSelector(chaincode);
+                    if (selector == selectors.get(0)) {
+                        slowPeerLatch.await();
+                    }
+                    return Collections.singletonList(newSuccessfulResponse(org1Peer1));
+                });
+
+        HedgedEndorser endorser = new HedgedEndorser(channel, executor, statistics, new HedgeBudget(0.1, 10));
+        endorser.sendTransactionProposalToEndorsers(() -> mock(TransactionProposalRequest.class),
+                new LatencyAwareEndorsementSelector(statistics),
+                selector -> {
+                    selectors.add(selector);
+                    return mock(Channel.DiscoveryOptions.class);
+                });
+
+        assertThat(selectors).hasSize(2);
+        LatencyAwareEndorsementSelector hedgeSelector = (LatencyAwareEndorsementSelector) selectors.get(1);
+        assertThat(hedgeSelector.select(Collections.singletonList(layout)).getEndorsers()).containsExactly(slowEndorser);
+    }
+
+    private ServiceDiscovery.SDEndorser newEndorser(final String endpoint, final long latencyMillis) {
+        ServiceDiscovery.SDEndorser endorser = mock(ServiceDiscovery.SDEndorser.class);
+        when(endorser.getEndpoint()).thenReturn(endpoint);
+        statistics.get(endpoint).recordSuccess(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        return endorser;
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.endorse;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.sdk.ServiceDiscovery;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LatencyAwareEndorsementSelectorTest {
+    private final StatisticsRegistry statistics = new StatisticsRegistry();
+    private LatencyAwareEndorsementSelector selector;
+    private ServiceDiscovery.SDEndorser localOrg1;
+    private ServiceDiscovery.SDEndorser remoteOrg1;
+    private ServiceDiscovery.SDEndorser localOrg2;
+    private ServiceDiscovery.SDEndorser remoteOrg3;
+
+    @BeforeEach
+    public void beforeEach() {
+        selector = new LatencyAwareEndorsementSelector(statistics);
+        localOrg1 = newEndorser("local.org1:7051", 5);
+        remoteOrg1 = newEndorser("remote.org1:7051", 200);
+        localOrg2 = newEndorser("local.org2:7051", 10);
+        remoteOrg3 = newEndorser("remote.org3:7051", 300);
+    }
+
+    private ServiceDiscovery.SDEndorser newEndorser(final String endpoint, final long latencyMillis) {
+        ServiceDiscovery.SDEndorser endorser = mock(ServiceDiscovery.SDEndorser.class);
+        when(endorser.getEndpoint()).thenReturn(endpoint);
+        statistics.get(endpoint).recordSuccess(TimeUnit.MILLISECONDS.toNanos(latencyMillis));
+        return endorser;
+    }
+
+    private ServiceDiscovery.SDLayout newLayout(final ServiceDiscovery.SDLayout.SDLGroup... groups) {
+        ServiceDiscovery.SDLayout layout = mock(ServiceDiscovery.SDLayout.class);
+        when(layout.getSDLGroups()).thenReturn(new HashSet<>(Arrays.asList(groups)));
+        return layout;
+    }
+
+    private ServiceDiscovery.SDLayout.SDLGroup newGroup(final int required, final ServiceDiscovery.SDEndorser... endorsers) {
+        ServiceDiscovery.SDLayout.SDLGroup group = mock(ServiceDiscovery.SDLayout.SDLGroup.class);
+        when(group.getStillRequired()).thenReturn(required);
+        when(group.getEndorsers()).thenReturn(Arrays.asList(endorsers));
+        return group;
+    }
+
+    @Test
+    public void selects_fastest_endorser_within_group() {
+        ServiceDiscovery.SDLayout layout = newLayout(newGroup(1, remoteOrg1, localOrg1));
+
+        LatencyAwareEndorsementSelector.Selection selection = selector.select(Collections.singletonList(layout));
+
+        assertThat(selection.getEndorsers()).containsExactly(localOrg1);
+    }
+
+    @Test
+    public void selects_layout_with_fastest_slowest_endorser() {
+        ServiceDiscovery.SDLayout remoteLayout = newLayout(newGroup(1, localOrg1), newGroup(1, remoteOrg3));
+        ServiceDiscovery.SDLayout localLayout = newLayout(newGroup(1, localOrg1), newGroup(1, localOrg2));
+
+        LatencyAwareEndorsementSelector.Selection selection = selector.select(Arrays.asList(remoteLayout, localLayout));
+
+        assertThat(selection.getLayout()).isSameAs(localLayout);
+        assertThat(selection.getEndorsers()).containsExactlyInAnyOrder(localOrg1, localOrg2);
+    }
+
+    @Test
+    public void avoids_failing_endorsers() {
+        statistics.get("local.org1:7051").recordFailure();
+        ServiceDiscovery.SDLayout layout = newLayout(newGroup(1, remoteOrg1, localOrg1));
+
+        LatencyAwareEndorsementSelector.Selection selection = selector.select(Collections.singletonList(layout));
+
+        assertThat(selection.getEndorsers()).containsExactly(remoteOrg1);
+    }
+
+    @Test
+    public void penalizes_busy_endorsers() {
+        for (int i = 0; i < 100; i++) {
+            statistics.get("local.org1:7051").requestStarted();
+        }
+        ServiceDiscovery.SDLayout layout = newLayout(newGroup(1, remoteOrg1, localOrg1));
+
+        LatencyAwareEndorsementSelector.Selection selection = selector.select(Collections.singletonList(layout));
+
+        assertThat(selection.getEndorsers()).containsExactly(remoteOrg1);
+    }
+
+    @Test
+    public void selects_required_number_of_endorsers() {
+        ServiceDiscovery.SDLayout layout = newLayout(newGroup(2, remoteOrg1, localOrg1, localOrg2));
+
+        LatencyAwareEndorsementSelector.Selection selection = selector.select(Collections.singletonList(layout));
+
+        assertThat(selection.getEndorsers()).containsExactlyInAnyOrder(localOrg1, localOrg2);
+    }
+
+    @Test
+    public void no_selection_without_layouts() {
+        assertThat(selector.select(Collections.emptyList())).isNull();
+    }
+
+    @Test
+    public void avoids_excluded_endorsers() {
+        ServiceDiscovery.SDLayout layout = newLayout(newGroup(1, remoteOrg1, localOrg1));
+        LatencyAwareEndorsementSelector excludingSelector = selector.excluding(Collections.singleton("local.org1:7051"));
+
+        LatencyAwareEndorsementSelector.Selection selection = excludingSelector.select(Collections.singletonList(layout));
+
+        assertThat(selection.getEndorsers()).containsExactly(remoteOrg1);
+    }
+
+    @Test
+    public void uses_excluded_endorsers_if_required_by_layout() {
+        ServiceDiscovery.SDLayout layout = newLayout(newGroup(2, remoteOrg1, localOrg1));
+        LatencyAwareEndorsementSelector excludingSelector = selector.excluding(Collections.singleton("local.org1:7051"));
+
+        LatencyAwareEndorsementSelector.Selection selection = excludingSelector.select(Collections.singletonList(layout));
+
+        assertThat(selection.getEndorsers()).containsExactlyInAnyOrder(remoteOrg1, localOrg1);
+    }
+
+    @Test
+    public void records_chosen_endorsers() {
+        ServiceDiscovery.SDChaindcode chaincode = mock(ServiceDiscovery.SDChaindcode.class);
+        when(chaincode.getLayouts()).thenReturn(Collections.singletonList(newLayout(newGroup(1, remoteOrg1, localOrg1))));
+        Set<String> picked = new HashSet<>();
+
+        selector.recordingTo(picked).endorserSelector(chaincode);
+
+        assertThat(picked).containsExactly("local.org1:7051");
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.endorse;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.hyperledger.fabric.gateway.EndorsementPolicies;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.spi.EndorsementPolicy;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.TransactionProposalRequest;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MinimalEndorserTest {
+    private final TestUtils testUtils = TestUtils.getInstance();
+    private final EndorsementPolicy policy = EndorsementPolicies.majorityOf("Org1MSP", "Org2MSP", "Org3MSP");
+    private Channel channel;
+    private Peer org1Peer1;
+    private Peer org1Peer2;
+    private Peer org2Peer1;
+    private Peer org3Peer1;
+    private Peer otherPeer;
+    private MinimalEndorser endorser;
+
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        org1Peer1 = testUtils.newMockPeer("org1Peer1");
+        org1Peer2 = testUtils.newMockPeer("org1Peer2");
+        org2Peer1 = testUtils.newMockPeer("org2Peer1");
+        org3Peer1 = testUtils.newMockPeer("org3Peer1");
+        otherPeer = testUtils.newMockPeer("otherPeer");
+
+        channel = testUtils.newMockChannel("channel");
+        when(channel.getPeersOrganizationMSPIDs()).thenReturn(Arrays.asList("Org1MSP", "Org2MSP", "Org3MSP", "OtherMSP"));
+        when(channel.getPeersForOrganization("Org1MSP")).thenReturn(Arrays.asList(org1Peer1, org1Peer2));
+        when(channel.getPeersForOrganization("Org2MSP")).thenReturn(Collections.singletonList(org2Peer1));
+        when(channel.getPeersForOrganization("Org3MSP")).thenReturn(Collections.singletonList(org3Peer1));
+        when(channel.getPeersForOrganization("OtherMSP")).thenReturn(Collections.singletonList(otherPeer));
+        when(channel.getPeers(any())).thenReturn(Arrays.asList(org1Peer1, org1Peer2, org2Peer1, org3Peer1, otherPeer));
+        when(channel.sendTransactionProposal(any(), anyCollection()))
+                .thenAnswer(invocation -> newSuccessfulResponses(invocation.getArgument(1)));
+
+        endorser = new MinimalEndorser(channel, policy);
+    }
+
+    private List<ProposalResponse> newSuccessfulResponses(final Collection<Peer> peers) {
+        return peers.stream()
+                .map(peer -> {
+                    ProposalResponse response = testUtils.newSuccessfulProposalResponse();
+                    when(response.getPeer()).thenReturn(peer);
+                    return response;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void selects_one_peer_from_each_of_minimal_set_of_organizations() {
+        List<Peer> peers = endorser.selectPeers();
+
+        assertThat(peers).hasSize(2);
+        assertThat(peers).doesNotContain(otherPeer);
+        assertThat(peers).filteredOn(peer -> peer == org1Peer1 || peer == org1Peer2).hasSizeLessThan(2);
+    }
+
+    @Test
+    public void rotates_between_all_policy_peers() {
+        Set<Peer> selectedPeers = new HashSet<>();
+        for (int i = 0; i < 12; i++) {
+            selectedPeers.addAll(endorser.selectPeers());
+        }
+
+        assertThat(selectedPeers).containsExactlyInAnyOrder(org1Peer1, org1Peer2, org2Peer1, org3Peer1);
+    }
+
+    @Test
+    public void sends_proposal_only_to_selected_peers() throws Exception {
+        Collection<ProposalResponse> responses = endorser.sendTransactionProposal(mock(TransactionProposalRequest.class));
+
+        assertThat(responses).hasSize(2);
+    }
+
+    @Test
+    public void falls_back_to_remaining_peers_if_policy_not_satisfied() throws Exception {
+        ProposalResponse failureResponse = testUtils.newFailureProposalResponse("Epic fail");
+        when(channel.sendTransactionProposal(any(), anyCollection()))
+                .thenReturn(Arrays.asList(failureResponse, failureResponse))
+                .thenAnswer(invocation -> newSuccessfulResponses(invocation.getArgument(1)));
+
+        Collection<ProposalResponse> responses = endorser.sendTransactionProposal(mock(TransactionProposalRequest.class));
+
+        assertThat(responses).hasSize(5);
+    }
+
+    @Test
+    public void sends_to_all_endorsing_peers_if_policy_cannot_be_satisfied() throws Exception {
+        MinimalEndorser unsatisfiable = new MinimalEndorser(channel, EndorsementPolicies.member("MissingMSP"));
+        TransactionProposalRequest request = mock(TransactionProposalRequest.class);
+
+        unsatisfiable.sendTransactionProposal(request);
+
+        verify(channel).sendTransactionProposal(request);
+    }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.endorse;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.EndorsementPolicies;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.spi.EndorsementPolicy;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Peer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.TransactionProposalRequest;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PolicyEndorserTest {
+    private final TestUtils testUtils = TestUtils.getInstance();
+    private final EndorsementPolicy policy = EndorsementPolicies.outOf(2,
+            EndorsementPolicies.member("Org1MSP"),
+            EndorsementPolicies.member("Org2MSP"),
+            EndorsementPolicies.member("Org3MSP"));
+    private final CountDownLatch slowPeerLatch = new CountDownLatch(1);
+    private ExecutorService executor;
+    private Channel channel;
+    private Peer peer1;
+    private Peer peer2;
+    private Peer peer3;
+    private PolicyEndorser endorser;
+
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        executor = Executors.newCachedThreadPool();
+        peer1 = testUtils.newMockPeer("peer1");
+        peer2 = testUtils.newMockPeer("peer2");
+        peer3 = testUtils.newMockPeer("peer3");
+
+        channel = testUtils.newMockChannel("channel");
+        when(channel.getPeersOrganizationMSPIDs()).thenReturn(Arrays.asList("Org1MSP", "Org2MSP", "Org3MSP"));
+        when(channel.getPeersForOrganization("Org1MSP")).thenReturn(Collections.singletonList(peer1));
+        when(channel.getPeersForOrganization("Org2MSP")).thenReturn(Collections.singletonList(peer2));
+        when(channel.getPeersForOrganization("Org3MSP")).thenReturn(Collections.singletonList(peer3));
+
+        endorser = new PolicyEndorser(channel, policy, executor);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        slowPeerLatch.countDown();
+        executor.shutdownNow();
+    }
+
+    private ProposalResponse newSuccessfulResponse(final Peer peer) {
+        ProposalResponse response = testUtils.newSuccessfulProposalResponse();
+        when(response.getPeer()).thenReturn(peer);
+        return response;
+    }
+
+    private ProposalResponse newFailureResponse(final Peer peer) {
+        ProposalResponse response = testUtils.newFailureProposalResponse("Epic fail");
+        when(response.getPeer()).thenReturn(peer);
+        return response;
+    }
+
+    private void stubResponse(final Peer peer, final ProposalResponse response) throws Exception {
+        when(channel.sendTransactionProposal(any(), eq(Collections.singleton(peer))))
+                .thenReturn(Collections.singletonList(response));
+    }
+
+    private void stubSlowResponse(final Peer peer) throws Exception {
+        when(channel.sendTransactionProposal(any(), eq(Collections.singleton(peer))))
+                .thenAnswer(invocation -> {
+                    slowPeerLatch.await();
+                    return Collections.singletonList(newSuccessfulResponse(peer));
+                });
+    }
+
+    private Collection<ProposalResponse> endorse() throws Exception {
+        return endorser.sendTransactionProposal(() -> mock(TransactionProposalRequest.class), Arrays.asList(peer1, peer2, peer3));
+    }
+
+    @Test
+    public void returns_without_waiting_for_slow_peer_once_policy_satisfied() throws Exception {
+        ProposalResponse response1 = newSuccessfulResponse(peer1);
+        ProposalResponse response2 = newSuccessfulResponse(peer2);
+        stubResponse(peer1, response1);
+        stubResponse(peer2, response2);
+        stubSlowResponse(peer3);
+
+        Collection<ProposalResponse> results = endorse();
+
+        assertThat(results).containsExactlyInAnyOrder(response1, response2);
+    }
+
+    @Test
+    public void excludes_failed_responses() throws Exception {
+        ProposalResponse response1 = newSuccessfulResponse(peer1);
+        ProposalResponse response3 = newSuccessfulResponse(peer3);
+        stubResponse(peer1, response1);
+        stubResponse(peer2, newFailureResponse(peer2));
+        stubResponse(peer3, response3);
+
+        Collection<ProposalResponse> results = endorse();
+
+        assertThat(results).containsExactlyInAnyOrder(response1, response3);
+    }
+
+    @Test
+    public void throws_if_policy_not_satisfied() throws Exception {
+        stubResponse(peer1, newSuccessfulResponse(peer1));
+        stubResponse(peer2, newFailureResponse(peer2));
+        stubResponse(peer3, newFailureResponse(peer3));
+
+        assertThatThrownBy(this::endorse)
+                .isInstanceOf(ContractException.class)
+                .hasMessageContaining("Epic fail");
+    }
+
+    @Test
+    public void throws_if_no_peers() {
+        assertThatThrownBy(() -> endorser.sendTransactionProposal(() -> mock(TransactionProposalRequest.class), Collections.emptyList()))
+                .isInstanceOf(ContractException.class);
+    }
+
+    @Test
+    public void failure_sending_to_peer_treated_as_no_response() throws Exception {
+        stubResponse(peer1, newSuccessfulResponse(peer1));
+        stubResponse(peer2, newSuccessfulResponse(peer2));
+        when(channel.sendTransactionProposal(any(), eq(Collections.singleton(peer3))))
+                .thenThrow(new IllegalStateException("Peer 3 failure"));
+
+        Collection<ProposalResponse> results = endorse();
+
+        assertThat(results).hasSize(2);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.event;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BufferedEventIteratorTest {
+    private final AtomicReference<Consumer<String>> listenerRef = new AtomicReference<>();
+    private ListenerSession session;
+    private BufferedEventIterator<String> iterator;
+
+    @BeforeEach
+    public void beforeEach() {
+        session = Mockito.mock(ListenerSession.class);
+        iterator = new BufferedEventIterator<>(2, listener -> {
+            listenerRef.set(listener);
+            return session;
+        });
+    }
+
+    @AfterEach
+    public void afterEach() {
+        iterator.close();
+    }
+
+    private void send(final String event) {
+        listenerRef.get().accept(event);
+    }
+
+    @Test
+    public void returns_events_in_order() {
+        send("one");
+        send("two");
+
+        assertThat(iterator.next()).isEqualTo("one");
+        assertThat(iterator.next()).isEqualTo("two");
+    }
+
+    @Test
+    public void has_next_false_after_close() {
+        send("one");
+        iterator.close();
+
+        assertThat(iterator.hasNext()).isFalse();
+    }
+
+    @Test
+    public void next_throws_after_close() {
+        iterator.close();
+
+        assertThatThrownBy(() -> iterator.next())
+                .isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    public void close_closes_session() {
+        iterator.close();
+
+        Mockito.verify(session).close();
+    }
+
+    @Test
+    public void close_runs_close_handler_once() {
+        Runnable handler = Mockito.mock(Runnable.class);
+        iterator.onClose(handler);
+
+        iterator.close();
+        iterator.close();
+
+        Mockito.verify(handler).run();
+    }
+
+    @Test
+    public void delivery_blocks_while_buffer_is_full() throws Exception {
+        send("one");
+        send("two");
+
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> send("three"));
+
+        assertThatThrownBy(() -> blocked.get(300, TimeUnit.MILLISECONDS))
+                .isInstanceOf(TimeoutException.class);
+
+        assertThat(iterator.next()).isEqualTo("one");
+        blocked.get(5, TimeUnit.SECONDS);
+        assertThat(iterator.next()).isEqualTo("two");
+        assertThat(iterator.next()).isEqualTo("three");
+    }
+
+    @Test
+    public void close_releases_blocked_delivery() throws Exception {
+        send("one");
+        send("two");
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> send("three"));
+
+        iterator.close();
+
+        blocked.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void stream_returns_events() {
+        send("one");
+        send("two");
+
+        assertThat(iterator.stream().limit(2)).containsExactly("one", "two");
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.identity;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.InvalidKeyException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.security.interfaces.ECPrivateKey;
+import java.security.spec.ECGenParameterSpec;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EcdsaSignerTest {
+    private static final byte[] MESSAGE = "message".getBytes(StandardCharsets.UTF_8);
+
+    private final EcdsaSigner signer = new EcdsaSigner();
+    private KeyPair keyPair;
+    private BigInteger curveOrder;
+
+    @BeforeEach
+    public void beforeEach() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        keyPair = generator.generateKeyPair();
+        curveOrder = ((ECPrivateKey) keyPair.getPrivate()).getParams().getOrder();
+    }
+
+    private boolean verify(final byte[] signature) throws Exception {
+        Signature verifier = Signature.getInstance("SHA256withECDSA");
+        verifier.initVerify(keyPair.getPublic());
+        verifier.update(MESSAGE);
+        return verifier.verify(signature);
+    }
+
+    private static BigInteger getS(final byte[] signature) {
+        int rLength = signature[3];
+        int sOffset = 4 + rLength;
+        int sLength = signature[sOffset + 1];
+        byte[] s = new byte[sLength];
+        System.arraycopy(signature, sOffset + 2, s, 0, sLength);
+        return new BigInteger(s);
+    }
+
+    @Test
+    public void signatures_are_valid() throws Exception {
+        byte[] signature = signer.sign(keyPair.getPrivate(), MESSAGE);
+
+        assertThat(verify(signature)).isTrue();
+    }
+
+    @Test
+    public void repeated_signatures_are_valid() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            byte[] signature = signer.sign(keyPair.getPrivate(), MESSAGE);
+            assertThat(verify(signature)).isTrue();
+        }
+    }
+
+    @Test
+    public void signatures_have_low_S() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            byte[] signature = signer.sign(keyPair.getPrivate(), MESSAGE);
+            assertThat(getS(signature)).isLessThanOrEqualTo(curveOrder.shiftRight(1));
+        }
+    }
+
+    @Test
+    public void high_S_signature_is_normalized() throws Exception {
+        byte[] signature = signer.sign(keyPair.getPrivate(), MESSAGE);
+        BigInteger r = new BigInteger(1, new byte[] {1});
+        BigInteger highS = curveOrder.subtract(getS(signature));
+        byte[] rBytes = r.toByteArray();
+        byte[] sBytes = highS.toByteArray();
+        byte[] highSignature = new byte[6 + rBytes.length + sBytes.length];
+        highSignature[0] = 0x30;
+        highSignature[1] = (byte) (4 + rBytes.length + sBytes.length);
+        highSignature[2] = 0x02;
+        highSignature[3] = (byte) rBytes.length;
+        System.arraycopy(rBytes, 0, highSignature, 4, rBytes.length);
+        highSignature[4 + rBytes.length] = 0x02;
+        highSignature[5 + rBytes.length] = (byte) sBytes.length;
+        System.arraycopy(sBytes, 0, highSignature, 6 + rBytes.length, sBytes.length);
+
+        byte[] result = EcdsaSigner.toLowS(highSignature, curveOrder);
+
+        assertThat(getS(result)).isEqualTo(getS(signature));
+    }
+
+    @Test
+    public void throws_for_non_EC_key() throws Exception {
+        KeyPair rsaKeyPair = KeyPairGenerator.getInstance("RSA").generateKeyPair();
+
+        assertThatThrownBy(() -> signer.sign(rsaKeyPair.getPrivate(), MESSAGE))
+                .isInstanceOf(InvalidKeyException.class);
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.identity;
+
+import java.nio.charset.StandardCharsets;
+import java.security.PrivateKey;
+import java.security.SignatureException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.hyperledger.fabric.gateway.spi.Signer;
+import org.hyperledger.fabric.sdk.exception.CryptoException;
+import org.hyperledger.fabric.sdk.security.CryptoSuite;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class SigningCryptoSuiteTest {
+    private static final byte[] MESSAGE = "message".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] SIGNATURE = "signature".getBytes(StandardCharsets.UTF_8);
+
+    private final CryptoSuite delegate = mock(CryptoSuite.class);
+    private final PrivateKey privateKey = mock(PrivateKey.class);
+    private final AtomicReference<Thread> signingThread = new AtomicReference<>();
+    private final Signer signer = (key, message) -> {
+        signingThread.set(Thread.currentThread());
+        return SIGNATURE;
+    };
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    public void afterEach() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void signs_on_calling_thread_without_executor() throws Exception {
+        SigningCryptoSuite cryptoSuite = new SigningCryptoSuite(delegate, signer, null);
+
+        byte[] result = cryptoSuite.sign(privateKey, MESSAGE);
+
+        assertThat(result).isEqualTo(SIGNATURE);
+        assertThat(signingThread.get()).isSameAs(Thread.currentThread());
+    }
+
+    @Test
+    public void signs_on_executor_thread() throws Exception {
+        SigningCryptoSuite cryptoSuite = new SigningCryptoSuite(delegate, signer, executor);
+
+        byte[] result = cryptoSuite.sign(privateKey, MESSAGE);
+
+        assertThat(result).isEqualTo(SIGNATURE);
+        assertThat(signingThread.get()).isNotSameAs(Thread.currentThread());
+    }
+
+    @Test
+    public void signs_inline_when_called_from_signing_thread() throws Exception {
+        SigningCryptoSuite cryptoSuite = new SigningCryptoSuite(delegate, signer, executor);
+        cryptoSuite.sign(privateKey, MESSAGE);
+
+        Future<byte[]> future = executor.submit(() -> cryptoSuite.sign(privateKey, MESSAGE));
+
+        assertThat(future.get(10, TimeUnit.SECONDS)).isEqualTo(SIGNATURE);
+    }
+
+    @Test
+    public void throws_CryptoException_if_signing_fails() {
+        Signer failingSigner = (key, message) -> {
+            throw new SignatureException("SIGNING_FAILED");
+        };
+        SigningCryptoSuite cryptoSuite = new SigningCryptoSuite(delegate, failingSigner, executor);
+
+        assertThatThrownBy(() -> cryptoSuite.sign(privateKey, MESSAGE))
+                .isInstanceOf(CryptoException.class)
+                .hasRootCauseInstanceOf(SignatureException.class);
+    }
+
+    @Test
+    public void throws_CryptoException_if_executor_rejects_signing() {
+        SigningCryptoSuite cryptoSuite = new SigningCryptoSuite(delegate, signer, command -> {
+            throw new RejectedExecutionException("REJECTED");
+        });
+
+        assertThatThrownBy(() -> cryptoSuite.sign(privateKey, MESSAGE))
+                .isInstanceOf(CryptoException.class)
+                .hasCauseInstanceOf(RejectedExecutionException.class);
+    }
+
+    @Test
+    public void delegates_other_operations() {
+        byte[] hash = "hash".getBytes(StandardCharsets.UTF_8);
+        when(delegate.hash(MESSAGE)).thenReturn(hash);
+        SigningCryptoSuite cryptoSuite = new SigningCryptoSuite(delegate, signer, executor);
+
+        assertThat(cryptoSuite.hash(MESSAGE)).isEqualTo(hash);
+        verify(delegate).hash(MESSAGE);
+    }
+}
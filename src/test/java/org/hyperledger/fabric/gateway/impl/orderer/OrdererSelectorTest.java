@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.orderer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Orderer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+public class OrdererSelectorTest {
+    private final TestUtils testUtils = TestUtils.getInstance();
+    private final StatisticsRegistry statistics = new StatisticsRegistry();
+    private Channel channel;
+    private Orderer orderer1;
+    private Orderer orderer2;
+    private OrdererSelector selector;
+
+    @BeforeEach
+    public void beforeEach() {
+        orderer1 = testUtils.newMockOrderer("orderer1");
+        orderer2 = testUtils.newMockOrderer("orderer2");
+        channel = testUtils.newMockChannel("channel");
+        when(channel.getOrderers()).thenReturn(Arrays.asList(orderer1, orderer2));
+        selector = new OrdererSelector(channel, statistics);
+    }
+
+    @Test
+    public void returns_empty_list_if_channel_has_no_orderers() {
+        when(channel.getOrderers()).thenReturn(Collections.emptyList());
+
+        assertThat(selector.getOrderers()).isEmpty();
+    }
+
+    @Test
+    public void prefers_orderer_with_lower_latency() {
+        statistics.get(orderer1).recordSuccess(TimeUnit.MILLISECONDS.toNanos(500));
+        statistics.get(orderer2).recordSuccess(TimeUnit.MILLISECONDS.toNanos(5));
+
+        assertThat(selector.getOrderers()).containsExactly(orderer2, orderer1);
+    }
+
+    @Test
+    public void prefers_orderer_with_fewer_requests_in_progress() {
+        statistics.get(orderer1).recordSuccess(TimeUnit.MILLISECONDS.toNanos(10));
+        statistics.get(orderer2).recordSuccess(TimeUnit.MILLISECONDS.toNanos(10));
+        statistics.get(orderer1).requestStarted();
+
+        assertThat(selector.getOrderers()).containsExactly(orderer2, orderer1);
+    }
+
+    @Test
+    public void places_recently_failed_orderer_last() {
+        statistics.get(orderer1).recordSuccess(TimeUnit.MILLISECONDS.toNanos(5));
+        statistics.get(orderer1).recordFailure();
+        statistics.get(orderer2).recordSuccess(TimeUnit.MILLISECONDS.toNanos(500));
+
+        assertThat(selector.getOrderers()).containsExactly(orderer2, orderer1);
+    }
+}
@@ -0,0 +1,262 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.orderer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.HedgeBudget;
+import org.hyperledger.fabric.gateway.impl.TimePeriod;
+import org.hyperledger.fabric.gateway.impl.stats.Counters;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.Orderer;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OrdererSubmitterTest {
+    private static final TimePeriod TIMEOUT = new TimePeriod(10, TimeUnit.SECONDS);
+
+    private final TestUtils testUtils = TestUtils.getInstance();
+    private final StatisticsRegistry statistics = new StatisticsRegistry();
+    private final Counters counters = new Counters();
+    private final CountDownLatch slowOrdererLatch = new CountDownLatch(1);
+    private final Collection<ProposalResponse> responses = Collections.singletonList(testUtils.newSuccessfulProposalResponse());
+    private ExecutorService executor;
+    private Channel channel;
+    private Orderer fastOrderer;
+    private Orderer slowOrderer;
+    private OrdererSubmitter submitter;
+
+    @BeforeEach
+    public void beforeEach() {
+        executor = Executors.newCachedThreadPool();
+        fastOrderer = testUtils.newMockOrderer("fastOrderer");
+        slowOrderer = testUtils.newMockOrderer("slowOrderer");
+        channel = testUtils.newMockChannel("channel");
+        when(channel.getOrderers()).thenReturn(Arrays.asList(slowOrderer, fastOrderer));
+
+        // Ensure the fast orderer is tried first
+        for (int i = 0; i < 20; i++) {
+            statistics.get(fastOrderer).recordSuccess(TimeUnit.MILLISECONDS.toNanos(1));
+            statistics.get(slowOrderer).recordSuccess(TimeUnit.SECONDS.toNanos(1));
+        }
+
+        submitter = new OrdererSubmitter(channel, statistics, executor, new HedgeBudget(0.1, 10), counters);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        slowOrdererLatch.countDown();
+        executor.shutdownNow();
+    }
+
+    private static CompletableFuture<BlockEvent.TransactionEvent> failedFuture() {
+        CompletableFuture<BlockEvent.TransactionEvent> future = new CompletableFuture<>();
+        future.completeExceptionally(new Exception("Orderer unavailable"));
+        return future;
+    }
+
+    @Test
+    public void sends_only_to_first_orderer_on_success() throws Exception {
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        submitter.sendTransaction(responses, TIMEOUT, false);
+
+        verify(channel, times(1)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+        assertThat(statistics.get(fastOrderer).getSuccessCount()).isEqualTo(21);
+    }
+
+    @Test
+    public void fails_over_to_next_orderer_on_error() throws Exception {
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(failedFuture())
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        submitter.sendTransaction(responses, TIMEOUT, false);
+
+        assertThat(statistics.get(fastOrderer).getConsecutiveFailureCount()).isEqualTo(1);
+        assertThat(statistics.get(slowOrderer).getSuccessCount()).isEqualTo(21);
+    }
+
+    @Test
+    public void fails_over_to_next_orderer_if_no_response() throws Exception {
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(new CompletableFuture<>())
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        submitter.sendTransaction(responses, TIMEOUT, false);
+
+        assertThat(statistics.get(fastOrderer).getConsecutiveFailureCount()).isEqualTo(1);
+        assertThat(statistics.get(slowOrderer).getSuccessCount()).isEqualTo(21);
+    }
+
+    @Test
+    public void timed_out_broadcast_is_not_cancelled() throws Exception {
+        CompletableFuture<BlockEvent.TransactionEvent> lateFuture = new CompletableFuture<>();
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(lateFuture)
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        submitter.sendTransaction(responses, TIMEOUT, false);
+        lateFuture.complete(null);
+
+        assertThat(lateFuture).isNotCancelled();
+        assertThat(statistics.get(fastOrderer).getSuccessCount()).isEqualTo(21);
+        assertThat(statistics.get(fastOrderer).getInFlightCount()).isZero();
+    }
+
+    @Test
+    public void throws_ContractException_if_all_orderers_fail() throws Exception {
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(failedFuture());
+
+        assertThatThrownBy(() -> submitter.sendTransaction(responses, TIMEOUT, false))
+                .isInstanceOf(ContractException.class);
+        verify(channel, times(2)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void throws_TimeoutException_if_timeout_expires() throws Exception {
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(new CompletableFuture<>());
+
+        assertThatThrownBy(() -> submitter.sendTransaction(responses, new TimePeriod(100, TimeUnit.MILLISECONDS), false))
+                .isInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    public void concurrent_submits_to_same_orderer_are_not_limited() throws Exception {
+        int submitCount = 32;
+        CountDownLatch sendLatch = new CountDownLatch(submitCount);
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class))).thenAnswer(invocation -> {
+            sendLatch.countDown();
+            sendLatch.await();
+            return CompletableFuture.completedFuture(null);
+        });
+
+        List<Future<?>> submits = new ArrayList<>();
+        for (int i = 0; i < submitCount; i++) {
+            submits.add(executor.submit(() -> {
+                submitter.sendTransaction(responses, TIMEOUT, false);
+                return null;
+            }));
+        }
+        for (Future<?> submit : submits) {
+            submit.get(TIMEOUT.getTime(), TIMEOUT.getTimeUnit());
+        }
+
+        assertThat(statistics.get(fastOrderer).getSuccessCount()).isEqualTo(20 + submitCount);
+    }
+
+    @Test
+    public void local_send_failure_does_not_count_as_orderer_failure() {
+        executor.shutdownNow();
+
+        assertThatThrownBy(() -> submitter.sendTransaction(responses, TIMEOUT, false))
+                .isInstanceOf(ContractException.class);
+        assertThat(statistics.get(fastOrderer).getFailureCount()).isZero();
+        assertThat(statistics.get(slowOrderer).getFailureCount()).isZero();
+    }
+
+    private CompletableFuture<BlockEvent.TransactionEvent> slowFuture() throws InterruptedException {
+        slowOrdererLatch.await();
+        return CompletableFuture.completedFuture(null);
+    }
+
+    @Test
+    public void hedged_submit_does_not_hedge_if_first_orderer_responds_promptly() throws Exception {
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        submitter.sendTransaction(responses, TIMEOUT, true);
+
+        verify(channel, times(1)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+        assertThat(counters.get(OrdererSubmitter.HEDGE_ELIGIBLE_COUNT)).isEqualTo(1);
+        assertThat(counters.get(OrdererSubmitter.HEDGE_SENT_COUNT)).isZero();
+    }
+
+    @Test
+    public void hedged_submit_sends_to_second_orderer_if_first_is_slow() throws Exception {
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenAnswer(invocation -> slowFuture())
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        submitter.sendTransaction(responses, TIMEOUT, true);
+
+        verify(channel, times(2)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+        assertThat(counters.get(OrdererSubmitter.HEDGE_SENT_COUNT)).isEqualTo(1);
+        assertThat(counters.get(OrdererSubmitter.HEDGE_WON_COUNT)).isEqualTo(1);
+    }
+
+    @Test
+    public void hedged_submit_lets_losing_broadcast_complete() throws Exception {
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenAnswer(invocation -> slowFuture())
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        submitter.sendTransaction(responses, TIMEOUT, true);
+        slowOrdererLatch.countDown();
+
+        long endTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        while (statistics.get(fastOrderer).getInFlightCount() > 0 && System.currentTimeMillis() < endTime) {
+            Thread.sleep(10);
+        }
+        assertThat(statistics.get(fastOrderer).getInFlightCount()).isZero();
+        assertThat(statistics.get(fastOrderer).getSuccessCount()).isEqualTo(21);
+    }
+
+    @Test
+    public void hedged_submit_waits_for_first_orderer_if_hedge_budget_exhausted() throws Exception {
+        submitter = new OrdererSubmitter(channel, statistics, executor, new HedgeBudget(0, 0), counters);
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenAnswer(invocation -> {
+                    Thread.sleep(100);
+                    return CompletableFuture.completedFuture(null);
+                });
+
+        submitter.sendTransaction(responses, TIMEOUT, true);
+
+        verify(channel, times(1)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+        assertThat(counters.get(OrdererSubmitter.HEDGE_BUDGET_EXHAUSTED_COUNT)).isEqualTo(1);
+    }
+
+    @Test
+    public void uses_channel_orderers_if_none_selected() throws Exception {
+        when(channel.getOrderers()).thenReturn(Collections.emptyList());
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        submitter.sendTransaction(responses, TIMEOUT, false);
+
+        verify(channel).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+}
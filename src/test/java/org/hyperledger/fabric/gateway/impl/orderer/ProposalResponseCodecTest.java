@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.orderer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import com.google.protobuf.ByteString;
+import org.hyperledger.fabric.protos.peer.ProposalPackage;
+import org.hyperledger.fabric.protos.peer.ProposalResponsePackage;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.transaction.TransactionContext;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProposalResponseCodecTest {
+    private final ProposalPackage.Proposal proposal = ProposalPackage.Proposal.newBuilder()
+            .setPayload(ByteString.copyFromUtf8("proposal"))
+            .build();
+    private final ProposalResponsePackage.ProposalResponse proposalResponse = ProposalResponsePackage.ProposalResponse.newBuilder()
+            .setResponse(ProposalResponsePackage.Response.newBuilder().setStatus(200).setMessage("OK"))
+            .setPayload(ByteString.copyFromUtf8("response"))
+            .build();
+
+    private ProposalResponse newProposalResponse() {
+        ProposalResponse response = mock(ProposalResponse.class);
+        when(response.getProposal()).thenReturn(proposal);
+        when(response.getProposalResponse()).thenReturn(proposalResponse);
+        return response;
+    }
+
+    @Test
+    public void decoded_responses_match_encoded_responses() throws Exception {
+        Channel channel = mock(Channel.class);
+        when(channel.newTransactionContext()).thenReturn(mock(TransactionContext.class));
+        ProposalResponseCodec codec = new ProposalResponseCodec(channel);
+        Collection<ProposalResponse> responses = Collections.singletonList(newProposalResponse());
+
+        Collection<ProposalResponse> decoded = codec.decode(ProposalResponseCodec.encodeProposal(responses),
+                ProposalResponseCodec.encodeResponses(responses));
+
+        assertThat(decoded).hasSize(1);
+        ProposalResponse result = decoded.iterator().next();
+        assertThat(result.getProposal()).isEqualTo(proposal);
+        assertThat(result.getProposalResponse()).isEqualTo(proposalResponse);
+    }
+
+    @Test
+    public void responses_without_proposal_are_not_encoded() {
+        Collection<ProposalResponse> responses = Collections.singletonList(mock(ProposalResponse.class));
+
+        assertThat(ProposalResponseCodec.encodeProposal(responses)).isNull();
+    }
+
+    @Test
+    public void responses_without_peer_response_are_not_encoded() {
+        List<ProposalResponse> responses = Collections.singletonList(mock(ProposalResponse.class));
+
+        assertThat(ProposalResponseCodec.encodeResponses(responses)).isNull();
+    }
+}
@@ -0,0 +1,346 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.orderer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.hyperledger.fabric.gateway.ContractException;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.gateway.impl.HedgeBudget;
+import org.hyperledger.fabric.gateway.impl.TimePeriod;
+import org.hyperledger.fabric.gateway.impl.commit.CommitStatusResolver;
+import org.hyperledger.fabric.gateway.impl.stats.Counters;
+import org.hyperledger.fabric.gateway.impl.stats.StatisticsRegistry;
+import org.hyperledger.fabric.protos.peer.TransactionPackage;
+import org.hyperledger.fabric.sdk.BlockEvent;
+import org.hyperledger.fabric.sdk.Channel;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.hyperledger.fabric.sdk.TransactionInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class StoreAndForwardQueueTest {
+    private static final TimePeriod MAX_AGE = new TimePeriod(1, TimeUnit.MINUTES);
+    private static final long WAIT_MILLIS = 5000;
+
+    private final TestUtils testUtils = TestUtils.getInstance();
+    private final Counters counters = new Counters();
+    private final Collection<ProposalResponse> responses = Collections.singletonList(testUtils.newSuccessfulProposalResponse());
+    private ExecutorService executor;
+    private Channel channel;
+    private OrdererSubmitter submitter;
+    private CommitStatusResolver resolver;
+    private StoreAndForwardQueue queue;
+
+    @BeforeEach
+    public void beforeEach() {
+        executor = Executors.newCachedThreadPool();
+        channel = testUtils.newMockChannel("channel");
+        submitter = new OrdererSubmitter(channel, new StatisticsRegistry(), executor, new HedgeBudget(0.1, 10), counters);
+        resolver = new CommitStatusResolver(channel, executor, 1, counters);
+    }
+
+    private StoreAndForwardQueue newQueue(final Path journalFile, final TimePeriod maxAge) throws IOException {
+        return new StoreAndForwardQueue(submitter, resolver, new ProposalResponseCodec(channel), executor, journalFile, maxAge,
+                counters);
+    }
+
+    private StoreAndForwardQueue newQueue() throws IOException {
+        return newQueue(null, MAX_AGE);
+    }
+
+    @AfterEach
+    public void afterEach() {
+        if (queue != null) {
+            queue.close();
+        }
+        executor.shutdownNow();
+    }
+
+    private static CompletableFuture<BlockEvent.TransactionEvent> failedFuture() {
+        CompletableFuture<BlockEvent.TransactionEvent> future = new CompletableFuture<>();
+        future.completeExceptionally(new Exception("Orderer unavailable"));
+        return future;
+    }
+
+    private void ordererAvailable() {
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    private void ordererUnavailable() {
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenAnswer(invocation -> failedFuture());
+    }
+
+    private void awaitStatus(final String transactionId, final StoreAndForwardQueue.Status status) throws InterruptedException {
+        long endTime = System.currentTimeMillis() + WAIT_MILLIS;
+        while (!queue.getStatus(transactionId).equals(Optional.of(status)) && System.currentTimeMillis() < endTime) {
+            Thread.sleep(10);
+        }
+        assertThat(queue.getStatus(transactionId)).hasValue(status);
+    }
+
+    @Test
+    public void forwards_stored_transaction() throws Exception {
+        ordererAvailable();
+        queue = newQueue();
+
+        queue.store("txId", responses);
+
+        awaitStatus("txId", StoreAndForwardQueue.Status.FORWARDED);
+        verify(channel).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+        assertThat(queue.isBacklogged()).isFalse();
+        assertThat(counters.snapshot())
+                .containsEntry(StoreAndForwardQueue.STORED_COUNT, 1L)
+                .containsEntry(StoreAndForwardQueue.FORWARDED_COUNT, 1L);
+    }
+
+    @Test
+    public void retries_until_orderer_accepts_transaction() throws Exception {
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(failedFuture(), failedFuture(), CompletableFuture.completedFuture(null));
+        queue = newQueue();
+
+        queue.store("txId", responses);
+
+        awaitStatus("txId", StoreAndForwardQueue.Status.FORWARDED);
+        verify(channel, times(3)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void is_backlogged_while_orderer_unavailable() throws Exception {
+        ordererUnavailable();
+        queue = newQueue();
+
+        queue.store("txId", responses);
+
+        verify(channel, timeout(WAIT_MILLIS)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+        assertThat(queue.isBacklogged()).isTrue();
+        assertThat(queue.getStatus("txId")).hasValue(StoreAndForwardQueue.Status.STORED);
+    }
+
+    @Test
+    public void forwards_all_stored_transactions_when_orderer_recovers() throws Exception {
+        ordererUnavailable();
+        queue = newQueue();
+        queue.store("tx1", responses);
+        queue.store("tx2", responses);
+        queue.store("tx3", responses);
+        verify(channel, timeout(WAIT_MILLIS)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+
+        ordererAvailable();
+
+        awaitStatus("tx1", StoreAndForwardQueue.Status.FORWARDED);
+        awaitStatus("tx2", StoreAndForwardQueue.Status.FORWARDED);
+        awaitStatus("tx3", StoreAndForwardQueue.Status.FORWARDED);
+        assertThat(counters.snapshot()).containsEntry(StoreAndForwardQueue.FORWARDED_COUNT, 3L);
+    }
+
+    @Test
+    public void retries_transaction_that_orderer_fails_to_accept_for_any_reason() throws Exception {
+        CompletableFuture<BlockEvent.TransactionEvent> failure = new CompletableFuture<>();
+        failure.completeExceptionally(new Exception("Failed to place transaction on Orderer. Cause: UNSUCCESSFUL. BAD_REQUEST-400"));
+        when(channel.sendTransaction(anyCollection(), any(Channel.TransactionOptions.class)))
+                .thenReturn(failure, CompletableFuture.completedFuture(null));
+        queue = newQueue();
+
+        CompletableFuture<Void> forwarded = queue.store("txId", responses);
+
+        forwarded.get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+        verify(channel, times(2)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+        assertThat(queue.getStatus("txId")).hasValue(StoreAndForwardQueue.Status.FORWARDED);
+    }
+
+    @Test
+    public void failing_transaction_does_not_block_later_transactions() throws Exception {
+        Collection<ProposalResponse> failingResponses = Collections.singletonList(testUtils.newSuccessfulProposalResponse());
+        when(channel.sendTransaction(eq(failingResponses), any(Channel.TransactionOptions.class)))
+                .thenAnswer(invocation -> failedFuture());
+        when(channel.sendTransaction(eq(responses), any(Channel.TransactionOptions.class)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        queue = newQueue();
+
+        queue.store("failing", failingResponses);
+        queue.store("txId", responses);
+
+        awaitStatus("txId", StoreAndForwardQueue.Status.FORWARDED);
+        assertThat(queue.getStatus("failing")).hasValue(StoreAndForwardQueue.Status.STORED);
+    }
+
+    @Test
+    public void expired_transaction_completes_exceptionally() throws Exception {
+        ordererUnavailable();
+        queue = newQueue();
+        CompletableFuture<Void> forwarded = queue.store("txId", responses);
+
+        queue.complete("txId", StoreAndForwardQueue.Status.EXPIRED);
+
+        assertThatThrownBy(forwarded::join).hasCauseInstanceOf(TimeoutException.class);
+    }
+
+    @Test
+    public void completed_transaction_is_not_forwarded() throws Exception {
+        ordererUnavailable();
+        queue = newQueue();
+        queue.store("txId", responses);
+
+        queue.complete("txId", StoreAndForwardQueue.Status.EXPIRED);
+
+        assertThat(queue.getStatus("txId")).isEmpty();
+        assertThat(queue.isBacklogged()).isFalse();
+        assertThat(counters.snapshot()).containsEntry(StoreAndForwardQueue.EXPIRED_COUNT, 1L);
+    }
+
+    @Test
+    public void discards_transaction_not_forwarded_within_max_age() throws Exception {
+        ordererAvailable();
+        queue = newQueue(null, new TimePeriod(0, TimeUnit.NANOSECONDS));
+
+        CompletableFuture<Void> forwarded = queue.store("txId", responses);
+
+        assertThatThrownBy(() -> forwarded.get(WAIT_MILLIS, TimeUnit.MILLISECONDS))
+                .hasCauseInstanceOf(TimeoutException.class);
+        assertThat(queue.getStatus("txId")).isEmpty();
+        assertThat(queue.isBacklogged()).isFalse();
+        assertThat(counters.snapshot()).containsEntry(StoreAndForwardQueue.EXPIRED_COUNT, 1L);
+        verify(channel, never()).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+    }
+
+    @Test
+    public void abandoned_transaction_is_still_forwarded() throws Exception {
+        ordererUnavailable();
+        queue = newQueue();
+        queue.store("txId", responses);
+        verify(channel, timeout(WAIT_MILLIS)).sendTransaction(anyCollection(), any(Channel.TransactionOptions.class));
+
+        queue.abandon("txId");
+        ordererAvailable();
+
+        awaitStatus("txId", StoreAndForwardQueue.Status.FORWARDED);
+    }
+
+    @Test
+    public void abandoned_forwarded_transaction_is_resolved_from_ledger() throws Exception {
+        ordererAvailable();
+        TransactionInfo info = mock(TransactionInfo.class);
+        when(info.getValidationCode()).thenReturn(TransactionPackage.TxValidationCode.VALID);
+        when(channel.queryTransactionByID(anyCollection(), eq("txId"))).thenReturn(info);
+        queue = newQueue();
+        queue.store("txId", responses).get(WAIT_MILLIS, TimeUnit.MILLISECONDS);
+
+        queue.abandon("txId");
+
+        long endTime = System.currentTimeMillis() + WAIT_MILLIS;
+        while (queue.getStatus("txId").isPresent() && System.currentTimeMillis() < endTime) {
+            Thread.sleep(10);
+        }
+        assertThat(queue.getStatus("txId")).isEmpty();
+        assertThat(counters.snapshot()).containsEntry(StoreAndForwardQueue.RESOLVED_COUNT, 1L);
+    }
+
+    @Test
+    public void does_not_store_transactions_after_close() throws Exception {
+        queue = newQueue();
+        queue.close();
+
+        CompletableFuture<Void> forwarded = queue.store("txId", responses);
+
+        assertThatThrownBy(forwarded::join).hasCauseInstanceOf(ContractException.class);
+        assertThat(queue.isBacklogged()).isFalse();
+    }
+
+    @Test
+    public void recovers_unresolved_transactions_from_journal() throws Exception {
+        ordererUnavailable();
+        Path journalFile = testUtils.getUnusedFilePath();
+        try (StoreAndForwardQueue previous = newQueue(journalFile, MAX_AGE)) {
+            previous.store("tx1", responses);
+            previous.store("tx2", responses);
+            previous.complete("tx2", StoreAndForwardQueue.Status.FAILED);
+        }
+
+        queue = newQueue(journalFile, MAX_AGE);
+
+        assertThat(queue.getRecoveredTransactions())
+                .extracting(StoreAndForwardQueue.RecoveredTransaction::getTransactionId)
+                .containsExactly("tx1");
+        assertThat(queue.getStatus("tx1")).hasValue(StoreAndForwardQueue.Status.STORED);
+    }
+
+    @Test
+    public void recovered_transaction_completes_when_found_on_ledger() throws Exception {
+        ordererAvailable();
+        Path journalFile = testUtils.getUnusedFilePath();
+        try (StoreAndForwardQueue previous = newQueue(journalFile, MAX_AGE)) {
+            queue = previous;
+            previous.store("txId", responses);
+            awaitStatus("txId", StoreAndForwardQueue.Status.FORWARDED);
+        }
+        TransactionInfo info = mock(TransactionInfo.class);
+        when(info.getValidationCode()).thenReturn(TransactionPackage.TxValidationCode.MVCC_READ_CONFLICT);
+        when(channel.queryTransactionByID(anyCollection(), eq("txId"))).thenReturn(info);
+
+        queue = newQueue(journalFile, MAX_AGE);
+
+        StoreAndForwardQueue.RecoveredTransaction recovered = queue.getRecoveredTransactions().get(0);
+        assertThat(recovered.getOutcome().get(WAIT_MILLIS, TimeUnit.MILLISECONDS)).isEqualTo(StoreAndForwardQueue.Status.FAILED);
+    }
+
+    @Test
+    public void recovered_transaction_expires_at_max_age() throws Exception {
+        Path journalFile = testUtils.getUnusedFilePath();
+        Files.write(journalFile, Collections.singletonList(
+                "{\"transactionId\":\"txId\",\"status\":\"FORWARDED\",\"timestamp\":1,\"expiry\":1}"
+        ), StandardCharsets.UTF_8);
+
+        queue = newQueue(journalFile, MAX_AGE);
+
+        StoreAndForwardQueue.RecoveredTransaction recovered = queue.getRecoveredTransactions().get(0);
+        assertThat(recovered.getOutcome().get(WAIT_MILLIS, TimeUnit.MILLISECONDS)).isEqualTo(StoreAndForwardQueue.Status.EXPIRED);
+    }
+
+    @Test
+    public void committed_transaction_is_not_recovered_from_journal() throws Exception {
+        ordererAvailable();
+        Path journalFile = testUtils.getUnusedFilePath();
+        try (StoreAndForwardQueue previous = newQueue(journalFile, MAX_AGE)) {
+            queue = previous;
+            previous.store("txId", responses);
+            awaitStatus("txId", StoreAndForwardQueue.Status.FORWARDED);
+            previous.complete("txId", StoreAndForwardQueue.Status.COMMITTED);
+        }
+
+        queue = newQueue(journalFile, MAX_AGE);
+
+        assertThat(queue.getRecoveredTransactions()).isEmpty();
+    }
+}
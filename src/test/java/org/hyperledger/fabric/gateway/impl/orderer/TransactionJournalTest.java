@@ -0,0 +1,182 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.orderer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import com.google.protobuf.ByteString;
+import org.hyperledger.fabric.gateway.TestUtils;
+import org.hyperledger.fabric.protos.peer.ProposalPackage;
+import org.hyperledger.fabric.protos.peer.ProposalResponsePackage;
+import org.hyperledger.fabric.sdk.ProposalResponse;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TransactionJournalTest {
+    private static final TestUtils testUtils = TestUtils.getInstance();
+
+    @Test
+    public void new_journal_has_no_recovered_transactions() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            assertThat(journal.getRecoveredTransactions()).isEmpty();
+        }
+    }
+
+    @Test
+    public void recovers_unresolved_transactions_in_order_of_last_status_change() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.record("tx1", StoreAndForwardQueue.Status.STORED);
+            journal.record("tx2", StoreAndForwardQueue.Status.STORED);
+            journal.record("tx3", StoreAndForwardQueue.Status.STORED);
+            journal.record("tx1", StoreAndForwardQueue.Status.FORWARDED);
+            journal.record("tx3", StoreAndForwardQueue.Status.FORWARDED);
+            journal.record("tx3", StoreAndForwardQueue.Status.COMMITTED);
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            assertThat(journal.getRecoveredTransactions()).containsOnlyKeys("tx2", "tx1");
+            assertThat(journal.getRecoveredTransactions().values())
+                    .extracting(TransactionJournal.Record::getTransactionId, TransactionJournal.Record::getStatus)
+                    .containsExactly(
+                            tuple("tx2", StoreAndForwardQueue.Status.STORED),
+                            tuple("tx1", StoreAndForwardQueue.Status.FORWARDED));
+        }
+    }
+
+    @Test
+    public void unresolved_transactions_remain_in_journal_until_resolved() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.record("tx1", StoreAndForwardQueue.Status.STORED);
+        }
+        new TransactionJournal(file).close();
+
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            assertThat(journal.getRecoveredTransactions()).containsOnlyKeys("tx1");
+            journal.record("tx1", StoreAndForwardQueue.Status.COMMITTED);
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            assertThat(journal.getRecoveredTransactions()).isEmpty();
+        }
+    }
+
+    @Test
+    public void resolved_transactions_are_removed_from_journal_when_opened() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.record("tx1", StoreAndForwardQueue.Status.STORED);
+            journal.record("tx2", StoreAndForwardQueue.Status.STORED);
+            journal.record("tx2", StoreAndForwardQueue.Status.COMMITTED);
+        }
+
+        new TransactionJournal(file).close();
+
+        assertThat(Files.readAllLines(file, StandardCharsets.UTF_8))
+                .hasSize(1)
+                .allMatch(line -> line.contains("\"tx1\""));
+    }
+
+    @Test
+    public void recovers_expiry_and_proposal_responses_of_stored_transaction() throws Exception {
+        ProposalPackage.Proposal proposal = ProposalPackage.Proposal.newBuilder()
+                .setPayload(ByteString.copyFromUtf8("proposal"))
+                .build();
+        ProposalResponsePackage.ProposalResponse proposalResponse = ProposalResponsePackage.ProposalResponse.newBuilder()
+                .setPayload(ByteString.copyFromUtf8("response"))
+                .build();
+        ProposalResponse response = mock(ProposalResponse.class);
+        when(response.getProposal()).thenReturn(proposal);
+        when(response.getProposalResponse()).thenReturn(proposalResponse);
+
+        Path file = testUtils.getUnusedFilePath();
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.recordStored("tx1", 1000L, Collections.singletonList(response)).get(5, TimeUnit.SECONDS);
+            journal.record("tx1", StoreAndForwardQueue.Status.FORWARDED);
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            TransactionJournal.Record record = journal.getRecoveredTransactions().get("tx1");
+            assertThat(record.getStatus()).isEqualTo(StoreAndForwardQueue.Status.FORWARDED);
+            assertThat(record.getExpiryMillis()).isEqualTo(1000L);
+            assertThat(record.getProposal()).isEqualTo(proposal.toByteArray());
+            assertThat(record.getResponses()).containsExactly(proposalResponse.toByteArray());
+        }
+    }
+
+    @Test
+    public void records_transaction_without_proposal_responses_that_cannot_be_serialized() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.recordStored("tx1", 1000L, Collections.singletonList(mock(ProposalResponse.class)));
+        }
+
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            TransactionJournal.Record record = journal.getRecoveredTransactions().get("tx1");
+            assertThat(record.getStatus()).isEqualTo(StoreAndForwardQueue.Status.STORED);
+            assertThat(record.getProposal()).isNull();
+        }
+    }
+
+    @Test
+    public void record_completes_once_written() throws Exception {
+        Path file = testUtils.getUnusedFilePath();
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            journal.record("tx1", StoreAndForwardQueue.Status.STORED).get(5, TimeUnit.SECONDS);
+
+            assertThat(Files.readAllLines(file, StandardCharsets.UTF_8))
+                    .hasSize(1)
+                    .allMatch(line -> line.contains("\"tx1\""));
+        }
+    }
+
+    @Test
+    public void record_fails_after_close() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        TransactionJournal journal = new TransactionJournal(file);
+        journal.close();
+
+        assertThatThrownBy(() -> journal.record("tx1", StoreAndForwardQueue.Status.STORED).join())
+                .hasCauseInstanceOf(IOException.class);
+    }
+
+    @Test
+    public void ignores_bad_records() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        Files.write(file, Arrays.asList(
+                "{\"transactionId\":\"tx1\",\"status\":\"STORED\",\"timestamp\":1}",
+                "{\"transactionId\":\"tx2\",\"status\":\"UNKNOWN\",\"timestamp\":1}",
+                "{\"transactionId\":\"tx3\",\"sta"
+        ), StandardCharsets.UTF_8);
+
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            assertThat(journal.getRecoveredTransactions()).containsOnlyKeys("tx1");
+        }
+    }
+
+    @Test
+    public void throws_if_journal_already_open() throws IOException {
+        Path file = testUtils.getUnusedFilePath();
+        try (TransactionJournal journal = new TransactionJournal(file)) {
+            assertThatThrownBy(() -> new TransactionJournal(file))
+                    .isInstanceOf(IOException.class);
+        }
+    }
+}
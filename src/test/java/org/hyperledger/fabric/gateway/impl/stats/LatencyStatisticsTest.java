@@ -0,0 +1,44 @@
+/*
+ * Copyright 2019 IBM All Rights Reserved.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.hyperledger.fabric.gateway.impl.stats;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyStatisticsTest {
+    @Test
+    public void no_percentile_without_samples() {
+        LatencyStatistics stats = new LatencyStatistics(10);
+
+        assertThat(stats.getPercentile(0.5)).isEmpty();
+    }
+
+    @Test
+    public void calculates_percentiles() {
+        LatencyStatistics stats = new LatencyStatistics(100);
+        for (long i = 100; i > 0; i--) {
+            stats.record(i);
+        }
+
+        assertThat(stats.getPercentile(0.5)).hasValue(50);
+        assertThat(stats.getPercentile(0.95)).hasValue(95);
+        assertThat(stats.getPercentile(1)).hasValue(100);
+        assertThat(stats.getPercentile(0)).hasValue(1);
+    }
+
+    @Test
+    public void retains_only_most_recent_samples() {
+        LatencyStatistics stats = new LatencyStatistics(2);
+        stats.record(1000);
+        stats.record(1);
+        stats.record(2);
+
+        assertThat(stats.getCount()).isEqualTo(2);
+        assertThat(stats.getPercentile(1)).hasValue(2);
+    }
+}